@@ -0,0 +1,88 @@
+/**
+ * Copyright (c) 2017 Ariel Favio Carrizo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'esferixis' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.esferixis.geometry.plane.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+import com.esferixis.geometry.plane.finite.FiniteProportionalHolomorphicShape;
+import com.esferixis.geometry.plane.finite.FiniteProportionalHolomorphicShape.NearestPointBetweenShapes;
+import com.esferixis.math.Vector2f;
+
+/**
+ * @author ariel
+ *
+ * Operaciones binarias de FiniteProportionalHolomorphicShape medidas
+ * por los benchmarks de pares de figuras.
+ * Las subclases declaran los parámetros y crean las figuras con setup
+ */
+public abstract class AbstractShapePairBenchmark {
+	protected static final float SIZE = 1.0f;
+	
+	private FiniteProportionalHolomorphicShape<?> shape;
+	private FiniteProportionalHolomorphicShape<?> overlappingShape;
+	private FiniteProportionalHolomorphicShape<?> separatedShape;
+	
+	/**
+	 * @post Crea las figuras de los tipos especificados, con la cantidad de vértices
+	 * 		 y el tamaño de grupo especificados
+	 */
+	protected final void setup(ShapeKind shape1, ShapeKind shape2, int vertices, int groupSize) {
+		this.shape = shape1.make(Vector2f.ZERO, SIZE, vertices, groupSize);
+		this.overlappingShape = shape2.make(new Vector2f(SIZE * 0.5f, SIZE * 0.25f), SIZE, vertices, groupSize);
+		this.separatedShape = shape2.make(new Vector2f(SIZE * 4.0f, SIZE * 1.5f), SIZE, vertices, groupSize);
+	}
+	
+	@Benchmark
+	public boolean hasIntersectionOverlapping() {
+		return this.shape.hasIntersection(this.overlappingShape);
+	}
+	
+	@Benchmark
+	public boolean hasIntersectionSeparated() {
+		return this.shape.hasIntersection(this.separatedShape);
+	}
+	
+	@Benchmark
+	public FiniteProportionalHolomorphicShape<?> perimetralDilate() {
+		return this.shape.perimetralDilate(this.overlappingShape);
+	}
+	
+	@Benchmark
+	public float perimetralDistance() {
+		return this.shape.perimetralDistance(this.separatedShape);
+	}
+	
+	@Benchmark
+	public NearestPointBetweenShapes nearestPointBetweenShapePerimeters() {
+		return this.shape.nearestPointBetweenShapePerimeters(this.separatedShape);
+	}
+}
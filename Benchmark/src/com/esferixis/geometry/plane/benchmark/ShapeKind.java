@@ -0,0 +1,141 @@
+/**
+ * Copyright (c) 2017 Ariel Favio Carrizo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'esferixis' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.esferixis.geometry.plane.benchmark;
+
+import com.esferixis.geometry.plane.finite.Circle;
+import com.esferixis.geometry.plane.finite.Circumference;
+import com.esferixis.geometry.plane.finite.CircumferenceSegment;
+import com.esferixis.geometry.plane.finite.ConvexPolygon;
+import com.esferixis.geometry.plane.finite.FiniteProportionalHolomorphicShape;
+import com.esferixis.geometry.plane.finite.FiniteProportionalHolomorphicShapeGroup;
+import com.esferixis.geometry.plane.finite.LineSegment;
+import com.esferixis.geometry.plane.finite.Point;
+import com.esferixis.geometry.plane.finite.SolidCapsule;
+import com.esferixis.math.Vector2f;
+import com.esferixis.math.intervalarithmetic.FloatClosedInterval;
+
+/**
+ * @author ariel
+ *
+ * Tipos concretos de figura, en el mismo orden que
+ * FiniteProportionalHolomorphicShape.CONCRETEINSTANCECLASSINDEXER
+ */
+public enum ShapeKind {
+	POINT {
+		@Override
+		public FiniteProportionalHolomorphicShape<?> make(Vector2f center, float size, int vertices, int groupSize) {
+			return new Point(center);
+		}
+	},
+	LINESEGMENT {
+		@Override
+		public FiniteProportionalHolomorphicShape<?> make(Vector2f center, float size, int vertices, int groupSize) {
+			final Vector2f halfVector = new Vector2f(size, size * 0.3f);
+			return new LineSegment(center.sub(halfVector), center.add(halfVector));
+		}
+	},
+	CIRCUMFERENCE {
+		@Override
+		public FiniteProportionalHolomorphicShape<?> make(Vector2f center, float size, int vertices, int groupSize) {
+			return new Circumference(center, size);
+		}
+	},
+	CIRCLE {
+		@Override
+		public FiniteProportionalHolomorphicShape<?> make(Vector2f center, float size, int vertices, int groupSize) {
+			return new Circle(new Circumference(center, size));
+		}
+	},
+	SOLIDCAPSULE {
+		@Override
+		public FiniteProportionalHolomorphicShape<?> make(Vector2f center, float size, int vertices, int groupSize) {
+			final Vector2f halfVector = new Vector2f(size * 0.5f, size * 0.2f);
+			return new SolidCapsule(new LineSegment(center.sub(halfVector), center.add(halfVector)), size * 0.5f);
+		}
+	},
+	CIRCUMFERENCESEGMENT {
+		@Override
+		public FiniteProportionalHolomorphicShape<?> make(Vector2f center, float size, int vertices, int groupSize) {
+			return new CircumferenceSegment(new Circumference(center, size), new FloatClosedInterval(0.25f, 2.5f));
+		}
+	},
+	CONVEXPOLYGON {
+		@Override
+		public FiniteProportionalHolomorphicShape<?> make(Vector2f center, float size, int vertices, int groupSize) {
+			return regularPolygon(center, size, vertices);
+		}
+	},
+	GROUP {
+		@Override
+		public FiniteProportionalHolomorphicShape<?> make(Vector2f center, float size, int vertices, int groupSize) {
+			final ConvexPolygon outline = regularPolygon(center, size, Math.max(3, groupSize));
+			final LineSegment[] segments = new LineSegment[groupSize];
+			
+			for ( int i = 0 ; i<groupSize ; i++ ) {
+				segments[i] = new LineSegment(outline.getVertices().get(i % outline.getVertices().size()), outline.getVertices().get( (i+1) % outline.getVertices().size() ));
+			}
+			
+			return new FiniteProportionalHolomorphicShapeGroup<LineSegment>(segments);
+		}
+	},
+	AFFINE {
+		@Override
+		public FiniteProportionalHolomorphicShape<?> make(Vector2f center, float size, int vertices, int groupSize) {
+			return regularPolygon(center, size, vertices).castToAffine();
+		}
+	};
+	
+	/**
+	 * @pre El número de vértices tiene que ser por lo menos 3
+	 * @post Crea un polígono regular en sentido antihorario con el centro, el radio
+	 * 		 y la cantidad de vértices especificados
+	 */
+	private static ConvexPolygon regularPolygon(Vector2f center, float radius, int vertices) {
+		final Vector2f[] resultVertices = new Vector2f[vertices];
+		
+		for ( int i = 0 ; i<vertices ; i++ ) {
+			resultVertices[i] = center.add(Vector2f.getUnitVectorWithAngle( (float) (Math.PI * 2.0 * i / vertices) ).scale(radius));
+		}
+		
+		return new ConvexPolygon(resultVertices);
+	}
+	
+	/**
+	 * @pre El centro no puede ser nulo, el tamaño tiene que ser positivo,
+	 * 		tiene que haber por lo menos 3 vértices y el grupo tiene que tener
+	 * 		por lo menos una figura
+	 * @post Crea una figura de éste tipo con el centro y el tamaño especificados.
+	 * 		 La cantidad de vértices sólo se usa en los polígonos, y el tamaño de
+	 * 		 grupo sólo en los grupos
+	 */
+	public abstract FiniteProportionalHolomorphicShape<?> make(Vector2f center, float size, int vertices, int groupSize);
+}
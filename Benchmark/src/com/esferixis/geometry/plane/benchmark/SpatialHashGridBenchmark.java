@@ -0,0 +1,136 @@
+/**
+ * Copyright (c) 2017 Ariel Favio Carrizo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'esferixis' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.esferixis.geometry.plane.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.esferixis.geometry.plane.SpatialHashGrid;
+import com.esferixis.geometry.plane.finite.Circle;
+import com.esferixis.geometry.plane.finite.Circumference;
+import com.esferixis.math.Vector2f;
+
+/**
+ * @author ariel
+ *
+ * Mide un paso de simulación con SpatialHashGrid: se mueven todas las figuras
+ * y se enumeran los pares candidatos, para comparar los modos de actualización.
+ * 
+ * Las figuras alternan entre dos posiciones precalculadas, así el paso
+ * no incluye la creación de figuras.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpatialHashGridBenchmark {
+	private static final float RADIUS = 0.5f;
+	
+	@Param
+	public SpatialHashGrid.UpdateMode updateMode;
+	
+	/**
+	 * Cantidad de figuras
+	 */
+	@Param({"10000", "100000"})
+	public int objects;
+	
+	private Circle[][] positions;
+	private int[] ids;
+	private int step;
+	
+	private SpatialHashGrid<Circle> grid;
+	
+	private int pairs;
+	
+	private final SpatialHashGrid.PairCallback<Circle> pairCounter = new SpatialHashGrid.PairCallback<Circle>() {
+
+		@Override
+		public boolean process(int id1, Circle shape1, int id2, Circle shape2) {
+			pairs++;
+			return true;
+		}
+		
+	};
+	
+	@Setup
+	public void setup() {
+		final Random random = new Random(0);
+		final float side = (float) Math.sqrt(this.objects) * RADIUS * 4.0f;
+		
+		this.positions = new Circle[2][this.objects];
+		this.ids = new int[this.objects];
+		this.grid = new SpatialHashGrid<Circle>(RADIUS * 2.0f, this.updateMode);
+		
+		for ( int i = 0 ; i < this.objects ; i++ ) {
+			final Vector2f center = new Vector2f(random.nextFloat() * side, random.nextFloat() * side);
+			final Vector2f displacement = new Vector2f(random.nextFloat() - 0.5f, random.nextFloat() - 0.5f).scale(RADIUS * 0.2f);
+			
+			this.positions[0][i] = new Circle(new Circumference(center, RADIUS));
+			this.positions[1][i] = new Circle(new Circumference(center.add(displacement), RADIUS));
+			
+			this.ids[i] = this.grid.insert(this.positions[0][i]);
+		}
+		
+		this.step = 0;
+	}
+	
+	@Benchmark
+	public int moveAndQueryPairs() {
+		this.step ^= 1;
+		
+		final Circle[] stepPositions = this.positions[this.step];
+		
+		for ( int i = 0 ; i < this.objects ; i++ ) {
+			this.grid.move(this.ids[i], stepPositions[i]);
+		}
+		
+		this.pairs = 0;
+		this.grid.queryPairs(this.pairCounter);
+		
+		return this.pairs;
+	}
+}
@@ -83,19 +83,7 @@ public class Geometry {
 	 */
 	public static Float minAngle(float min, Float angle1, Float angle2) {
 		if ( ( angle1 != null ) && ( angle2 != null ) ) {
-			min = normalise(min);
-			angle1 = normalise(angle1);
-			angle2 = normalise(angle2);
-			
-			if ( angle1 < min ) {
-				angle1 += doublePI;
-			}
-			
-			if ( angle2 < min ) {
-				angle2 += doublePI;
-			}
-			
-			return Math.min(angle1, angle2);
+			return minAngle(min, angle1.floatValue(), angle2.floatValue());
 		}
 		else if ( angle1 != null ) {
 			return angle1;
@@ -108,6 +96,26 @@ public class Geometry {
 		}
 	}
 	
+	/**
+	 * @post Devuelve el ángulo mínimo tomando como referencia el ángulo mínimo
+	 * 		 especificado, sin crear objetos
+	 */
+	public static float minAngle(float min, float angle1, float angle2) {
+		min = normalise(min);
+		angle1 = normalise(angle1);
+		angle2 = normalise(angle2);
+		
+		if ( angle1 < min ) {
+			angle1 += doublePI;
+		}
+		
+		if ( angle2 < min ) {
+			angle2 += doublePI;
+		}
+		
+		return Math.min(angle1, angle2);
+	}
+	
 	/**
 	 * @pre El iterable no puede ser nulo
 	 * @post Devuelve el ángulo mínimo con la base especificada del iterable especificado
@@ -148,19 +156,7 @@ public class Geometry {
 	 */
 	public static Float maxAngle(float min, Float angle1, Float angle2) {
 		if ( ( angle1 != null ) && ( angle2 != null ) ) {
-			min = normalise(min);
-			angle1 = normalise(angle1);
-			angle2 = normalise(angle2);
-			
-			if ( angle1 < min ) {
-				angle1 += doublePI;
-			}
-			
-			if ( angle2 < min ) {
-				angle2 += doublePI;
-			}
-			
-			return Math.max(angle1, angle2);
+			return maxAngle(min, angle1.floatValue(), angle2.floatValue());
 		}
 		else if ( angle1 != null ) {
 			return angle1;
@@ -173,6 +169,26 @@ public class Geometry {
 		}
 	}
 	
+	/**
+	 * @post Devuelve el ángulo máximo tomando como referencia el ángulo mínimo
+	 * 		 especificado, sin crear objetos
+	 */
+	public static float maxAngle(float min, float angle1, float angle2) {
+		min = normalise(min);
+		angle1 = normalise(angle1);
+		angle2 = normalise(angle2);
+		
+		if ( angle1 < min ) {
+			angle1 += doublePI;
+		}
+		
+		if ( angle2 < min ) {
+			angle2 += doublePI;
+		}
+		
+		return Math.max(angle1, angle2);
+	}
+	
 	/**
 	 * @pre El iterable no puede ser nulo
 	 * @post Devuelve el ángulo máximo con la base especificada del iterable especificado
@@ -227,31 +243,66 @@ public class Geometry {
 	 * 	 	 <ARREGLAR IMPLEMENTACIÓN>
 	 */
 	public static List<FloatClosedInterval> angleIntervalIntersection(FloatClosedInterval angleInterval1, FloatClosedInterval angleInterval2) {
-		final List<FloatClosedInterval> result = new ArrayList<FloatClosedInterval>(2);
-		
-		if ( containsAngle(angleInterval1, angleInterval2.getMin()) ) {
-			final float minBase = angleInterval2.getMin();
+		if ( ( angleInterval1 != null ) && ( angleInterval2 != null ) ) {
+			final float[] intervals = new float[4];
+			final int count = angleIntervalIntersection(angleInterval1.getMin(), angleInterval1.getMax(), angleInterval2.getMin(), angleInterval2.getMax(), intervals, 0);
 			
-			final float maxMin = Geometry.minAngle(minBase, angleInterval1.getMin(), minBase);
-			final float minMax = Geometry.minAngle(minBase, angleInterval1.getMax(), angleInterval2.getMax());
+			final List<FloatClosedInterval> result = new ArrayList<FloatClosedInterval>(count);
 			
-			if ( minMax >= maxMin ) {
-				result.add(new FloatClosedInterval(maxMin, minMax));
+			for ( int i = 0 ; i < count ; i++ ) {
+				result.add(new FloatClosedInterval(intervals[i*2], intervals[i*2+1]));
 			}
+			
+			return Collections.unmodifiableList(result);
 		}
-		
-		if ( containsAngle(angleInterval2, angleInterval1.getMin()) ) {
-			final float minBase = angleInterval1.getMin();
+		else {
+			throw new NullPointerException();
+		}
+	}
+	
+	/**
+	 * @pre El array tiene que tener al menos cuatro posiciones desde el offset especificado
+	 * @post Calcula la intersección entre los dos intervalos de ángulos especificados
+	 * 		 por sus extremos, sin crear objetos.
+	 * 		 Escribe los extremos de los intervalos resultantes (mínimo y máximo de cada uno)
+	 * 		 en el array especificado, desde el offset especificado, y devuelve la cantidad de
+	 * 		 intervalos (Hasta dos)
+	 */
+	public static int angleIntervalIntersection(float min1, float max1, float min2, float max2, float[] result, int offset) {
+		if ( result != null ) {
+			int count = 0;
 			
-			final float maxMin = Geometry.minAngle(minBase, angleInterval2.getMin(), minBase);
-			final float minMax = Geometry.minAngle(minBase, angleInterval1.getMax(), angleInterval2.getMax());
+			if ( containsAngle(min1, max1, min2) ) {
+				final float minBase = min2;
+				
+				final float maxMin = minAngle(minBase, min1, minBase);
+				final float minMax = minAngle(minBase, max1, max2);
+				
+				if ( minMax >= maxMin ) {
+					result[offset + count * 2] = maxMin;
+					result[offset + count * 2 + 1] = minMax;
+					count++;
+				}
+			}
 			
-			if ( minMax >= maxMin ) {
-				result.add(new FloatClosedInterval(maxMin, minMax));
+			if ( containsAngle(min2, max2, min1) ) {
+				final float minBase = min1;
+				
+				final float maxMin = minAngle(minBase, min2, minBase);
+				final float minMax = minAngle(minBase, max1, max2);
+				
+				if ( minMax >= maxMin ) {
+					result[offset + count * 2] = maxMin;
+					result[offset + count * 2 + 1] = minMax;
+					count++;
+				}
 			}
+			
+			return count;
+		}
+		else {
+			throw new NullPointerException();
 		}
-		
-		return Collections.unmodifiableList(result);
 	}
 	
 	/**
@@ -261,21 +312,31 @@ public class Geometry {
 	 */
 	public static boolean containsAngle(FloatClosedInterval angleInterval, float angle) {
 		if ( angleInterval != null ) {
-			angle = angle - angleBase(angle);
-			
-			angleInterval = angleInterval.sub( angleBase(angleInterval) );
-			
-			if ( angle < angleInterval.getMin() ) {
-				angle += doublePI;
-			}
-			
-			return angleInterval.contains(angle);
+			return containsAngle(angleInterval.getMin(), angleInterval.getMax(), angle);
 		}
 		else {
 			throw new NullPointerException();
 		}
 	}
 	
+	/**
+	 * @post Devuelve si el ángulo está contenido en el intervalo de ángulos
+	 * 		 con los extremos especificados, sin crear objetos
+	 */
+	public static boolean containsAngle(float min, float max, float angle) {
+		angle = angle - angleBase(angle);
+		
+		final float base = angleBase(min);
+		min -= base;
+		max -= base;
+		
+		if ( angle < min ) {
+			angle += doublePI;
+		}
+		
+		return ( angle >= min ) && ( angle <= max );
+	}
+	
 	/**
 	 * @pre El intervalo de ángulos no puede ser nulo
 	 * @post Devuelve si el ángulo está contenido en el intervalo de ángulos
@@ -283,21 +344,31 @@ public class Geometry {
 	 */
 	public static boolean containsAngleExcludingExtremes(FloatClosedInterval angleInterval, float angle) {
 		if ( angleInterval != null ) {
-			angle = angle - angleBase(angle);
-			
-			angleInterval = angleInterval.sub( angleBase(angleInterval) );
-			
-			if ( angle < angleInterval.getMin() ) {
-				angle += doublePI;
-			}
-			
-			return angleInterval.containsExcludingExtremes(angle);
+			return containsAngleExcludingExtremes(angleInterval.getMin(), angleInterval.getMax(), angle);
 		}
 		else {
 			throw new NullPointerException();
 		}
 	}
 	
+	/**
+	 * @post Devuelve si el ángulo está contenido en el intervalo de ángulos
+	 * 		 con los extremos especificados, excluyendo los extremos, sin crear objetos
+	 */
+	public static boolean containsAngleExcludingExtremes(float min, float max, float angle) {
+		angle = angle - angleBase(angle);
+		
+		final float base = angleBase(min);
+		min -= base;
+		max -= base;
+		
+		if ( angle < min ) {
+			angle += doublePI;
+		}
+		
+		return ( angle > min ) && ( angle < max );
+	}
+	
 	/**
 	 * @post Devuelve ángulos repartidos, conteniendo los límites, con una distancia entre ellos
 	 * 		 no superior a 90°
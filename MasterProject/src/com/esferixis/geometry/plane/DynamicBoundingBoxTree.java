@@ -0,0 +1,861 @@
+/**
+ * Copyright (c) 2017 Ariel Favio Carrizo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'esferixis' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.esferixis.geometry.plane;
+
+import java.util.Arrays;
+
+import com.esferixis.geometry.plane.finite.BoundingBox;
+import com.esferixis.geometry.plane.finite.FiniteProportionalHolomorphicShape;
+import com.esferixis.math.Vector2f;
+
+/**
+ * @author ariel
+ *
+ * Árbol dinámico de bounding boxes.
+ * 
+ * Cada figura se guarda en una hoja con un bounding box agrandado por un margen,
+ * así las figuras que se mueven poco no requieren reinsertarse.
+ * La inserción elige el hermano que minimiza el perímetro del árbol resultante,
+ * y se efectúan rotaciones para mantener el árbol balanceado.
+ * Las consultas recorren únicamente las ramas cuyos bounding boxes tienen
+ * posibilidad de intersección, y efectúan el test exacto sólo con las hojas
+ * candidatas.
+ * 
+ * Los nodos se guardan en arrays paralelos, y el identificador de cada figura
+ * es el índice de su hoja.
+ * No es thread-safe.
+ */
+public final class DynamicBoundingBoxTree<S extends FiniteProportionalHolomorphicShape<?>> {
+	/**
+	 * Nodo nulo
+	 */
+	public static final int NULL_NODE = -1;
+	
+	/**
+	 * Margen por defecto
+	 */
+	public static final float DEFAULT_MARGIN = 0.1f;
+	
+	/**
+	 * Multiplicador del desplazamiento para predecir el movimiento
+	 */
+	private static final float DISPLACEMENT_MULTIPLIER = 2.0f;
+	
+	private static final int INITIAL_CAPACITY = 16;
+	
+	public interface QueryCallback<S extends FiniteProportionalHolomorphicShape<?>> {
+		/**
+		 * @post Procesa la figura con el identificador especificado.
+		 * 		 Devuelve si la consulta tiene que continuar
+		 */
+		public boolean process(int proxyId, S shape);
+	}
+	
+	public interface RayCastCallback<S extends FiniteProportionalHolomorphicShape<?>> {
+		/**
+		 * @post Procesa la intersección del rayo con la figura con el identificador especificado,
+		 * 		 en el escalar especificado.
+		 * 		 Devuelve el escalar máximo con el que tiene que continuar la consulta,
+		 * 		 devolviendo cero la consulta termina
+		 */
+		public float process(int proxyId, S shape, float t);
+	}
+	
+	private final float margin;
+	
+	private float[] minX, minY, maxX, maxY;
+	private int[] parent, child1, child2, height;
+	private Object[] shapes;
+	
+	private int root;
+	private int nodeCount;
+	private int freeList;
+	private int proxyCount;
+	
+	private int[] stack;
+	
+	/**
+	 * @post Crea el árbol con el margen por defecto
+	 */
+	public DynamicBoundingBoxTree() {
+		this(DEFAULT_MARGIN);
+	}
+	
+	/**
+	 * @pre El margen no puede ser negativo
+	 * @post Crea el árbol con el margen especificado
+	 */
+	public DynamicBoundingBoxTree(float margin) {
+		if ( margin >= 0.0f ) {
+			this.margin = margin;
+			
+			this.minX = new float[INITIAL_CAPACITY];
+			this.minY = new float[INITIAL_CAPACITY];
+			this.maxX = new float[INITIAL_CAPACITY];
+			this.maxY = new float[INITIAL_CAPACITY];
+			this.parent = new int[INITIAL_CAPACITY];
+			this.child1 = new int[INITIAL_CAPACITY];
+			this.child2 = new int[INITIAL_CAPACITY];
+			this.height = new int[INITIAL_CAPACITY];
+			this.shapes = new Object[INITIAL_CAPACITY];
+			
+			this.root = NULL_NODE;
+			this.nodeCount = 0;
+			this.freeList = NULL_NODE;
+			this.linkFreeNodes(0);
+			
+			this.stack = new int[INITIAL_CAPACITY];
+		}
+		else {
+			throw new IllegalArgumentException("Invalid margin");
+		}
+	}
+	
+	/**
+	 * @post Enlaza los nodos libres desde el índice especificado hasta la capacidad
+	 */
+	private void linkFreeNodes(int startIndex) {
+		for ( int i = this.parent.length-1 ; i >= startIndex ; i-- ) {
+			this.parent[i] = this.freeList;
+			this.height[i] = -1;
+			this.freeList = i;
+		}
+	}
+	
+	/**
+	 * @post Reserva un nodo y devuelve su índice
+	 */
+	private int allocateNode() {
+		if ( this.freeList == NULL_NODE ) {
+			final int oldCapacity = this.parent.length;
+			final int newCapacity = oldCapacity * 2;
+			
+			this.minX = Arrays.copyOf(this.minX, newCapacity);
+			this.minY = Arrays.copyOf(this.minY, newCapacity);
+			this.maxX = Arrays.copyOf(this.maxX, newCapacity);
+			this.maxY = Arrays.copyOf(this.maxY, newCapacity);
+			this.parent = Arrays.copyOf(this.parent, newCapacity);
+			this.child1 = Arrays.copyOf(this.child1, newCapacity);
+			this.child2 = Arrays.copyOf(this.child2, newCapacity);
+			this.height = Arrays.copyOf(this.height, newCapacity);
+			this.shapes = Arrays.copyOf(this.shapes, newCapacity);
+			
+			this.linkFreeNodes(oldCapacity);
+		}
+		
+		final int node = this.freeList;
+		this.freeList = this.parent[node];
+		
+		this.parent[node] = NULL_NODE;
+		this.child1[node] = NULL_NODE;
+		this.child2[node] = NULL_NODE;
+		this.height[node] = 0;
+		this.shapes[node] = null;
+		
+		this.nodeCount++;
+		
+		return node;
+	}
+	
+	/**
+	 * @post Libera el nodo especificado
+	 */
+	private void freeNode(int node) {
+		this.parent[node] = this.freeList;
+		this.height[node] = -1;
+		this.shapes[node] = null;
+		this.freeList = node;
+		
+		this.nodeCount--;
+	}
+	
+	/**
+	 * @post Devuelve si el identificador especificado corresponde a una hoja
+	 */
+	private boolean isValidProxy(int proxyId) {
+		return ( proxyId >= 0 ) && ( proxyId < this.parent.length ) && ( this.height[proxyId] == 0 );
+	}
+	
+	/**
+	 * @post Asigna al nodo especificado el bounding box de la figura especificada,
+	 * 		 agrandado con el margen y el desplazamiento especificados
+	 */
+	private void setFatBoundingBox(int node, FiniteProportionalHolomorphicShape<?> shape, float displacementX, float displacementY) {
+		final BoundingBox boundingBox = shape.boundingBox();
+		
+		if ( boundingBox != null ) {
+			float nodeMinX = boundingBox.getVertex11().getX() - this.margin;
+			float nodeMinY = boundingBox.getVertex11().getY() - this.margin;
+			float nodeMaxX = boundingBox.getVertex22().getX() + this.margin;
+			float nodeMaxY = boundingBox.getVertex22().getY() + this.margin;
+			
+			displacementX *= DISPLACEMENT_MULTIPLIER;
+			displacementY *= DISPLACEMENT_MULTIPLIER;
+			
+			if ( displacementX < 0.0f ) {
+				nodeMinX += displacementX;
+			}
+			else {
+				nodeMaxX += displacementX;
+			}
+			
+			if ( displacementY < 0.0f ) {
+				nodeMinY += displacementY;
+			}
+			else {
+				nodeMaxY += displacementY;
+			}
+			
+			this.minX[node] = nodeMinX;
+			this.minY[node] = nodeMinY;
+			this.maxX[node] = nodeMaxX;
+			this.maxY[node] = nodeMaxY;
+		}
+		else {
+			throw new IllegalArgumentException("Empty shape");
+		}
+	}
+	
+	/**
+	 * @pre La figura no puede ser nula ni vacía
+	 * @post Inserta la figura especificada, y devuelve su identificador
+	 */
+	public int insert(S shape) {
+		if ( shape != null ) {
+			final int leaf = this.allocateNode();
+			
+			this.setFatBoundingBox(leaf, shape, 0.0f, 0.0f);
+			this.shapes[leaf] = shape;
+			this.insertLeaf(leaf);
+			
+			this.proxyCount++;
+			
+			return leaf;
+		}
+		else {
+			throw new NullPointerException();
+		}
+	}
+	
+	/**
+	 * @pre El identificador tiene que ser válido
+	 * @post Quita la figura con el identificador especificado
+	 */
+	public void remove(int proxyId) {
+		if ( this.isValidProxy(proxyId) ) {
+			this.removeLeaf(proxyId);
+			this.freeNode(proxyId);
+			
+			this.proxyCount--;
+		}
+		else {
+			throw new IllegalArgumentException("Invalid proxy id");
+		}
+	}
+	
+	/**
+	 * @pre El identificador tiene que ser válido, y la figura no puede ser nula ni vacía
+	 * @post Reemplaza la figura con el identificador especificado por la figura especificada.
+	 * 		 Si la figura sale del bounding box agrandado, se reinserta.
+	 * 		 Devuelve si se reinsertó
+	 */
+	public boolean move(int proxyId, S shape) {
+		return this.move(proxyId, shape, Vector2f.ZERO);
+	}
+	
+	/**
+	 * @pre El identificador tiene que ser válido, la figura no puede ser nula ni vacía
+	 * 		y el desplazamiento no puede ser nulo
+	 * @post Reemplaza la figura con el identificador especificado por la figura especificada,
+	 * 		 que tiene el desplazamiento especificado respecto de la anterior.
+	 * 		 Si la figura sale del bounding box agrandado, se reinserta agrandándolo
+	 * 		 en la dirección del desplazamiento.
+	 * 		 Devuelve si se reinsertó
+	 */
+	public boolean move(int proxyId, S shape, Vector2f displacement) {
+		if ( ( shape != null ) && ( displacement != null ) ) {
+			if ( this.isValidProxy(proxyId) ) {
+				final BoundingBox boundingBox = shape.boundingBox();
+				
+				if ( boundingBox == null ) {
+					throw new IllegalArgumentException("Empty shape");
+				}
+				
+				this.shapes[proxyId] = shape;
+				
+				if ( ( this.minX[proxyId] <= boundingBox.getVertex11().getX() ) && ( this.minY[proxyId] <= boundingBox.getVertex11().getY() ) &&
+						( boundingBox.getVertex22().getX() <= this.maxX[proxyId] ) && ( boundingBox.getVertex22().getY() <= this.maxY[proxyId] ) ) {
+					return false;
+				}
+				else {
+					this.removeLeaf(proxyId);
+					this.setFatBoundingBox(proxyId, shape, displacement.getX(), displacement.getY());
+					this.insertLeaf(proxyId);
+					
+					return true;
+				}
+			}
+			else {
+				throw new IllegalArgumentException("Invalid proxy id");
+			}
+		}
+		else {
+			throw new NullPointerException();
+		}
+	}
+	
+	/**
+	 * @pre El identificador tiene que ser válido
+	 * @post Devuelve la figura con el identificador especificado
+	 */
+	@SuppressWarnings("unchecked")
+	public S getShape(int proxyId) {
+		if ( this.isValidProxy(proxyId) ) {
+			return (S) this.shapes[proxyId];
+		}
+		else {
+			throw new IllegalArgumentException("Invalid proxy id");
+		}
+	}
+	
+	/**
+	 * @pre El identificador tiene que ser válido
+	 * @post Devuelve el bounding box agrandado de la figura con el identificador especificado
+	 */
+	public BoundingBox getFatBoundingBox(int proxyId) {
+		if ( this.isValidProxy(proxyId) ) {
+			return new BoundingBox(new Vector2f(this.minX[proxyId], this.minY[proxyId]), new Vector2f(this.maxX[proxyId], this.maxY[proxyId]));
+		}
+		else {
+			throw new IllegalArgumentException("Invalid proxy id");
+		}
+	}
+	
+	/**
+	 * @post Devuelve la cantidad de figuras
+	 */
+	public int size() {
+		return this.proxyCount;
+	}
+	
+	/**
+	 * @post Devuelve la altura del árbol
+	 */
+	public int getHeight() {
+		if ( this.root != NULL_NODE ) {
+			return this.height[this.root];
+		}
+		else {
+			return 0;
+		}
+	}
+	
+	/**
+	 * @post Devuelve el perímetro del bounding box del nodo especificado
+	 */
+	private float perimeter(int node) {
+		return 2.0f * ( ( this.maxX[node] - this.minX[node] ) + ( this.maxY[node] - this.minY[node] ) );
+	}
+	
+	/**
+	 * @post Devuelve el perímetro de la unión de los bounding boxes de los nodos especificados
+	 */
+	private float unionPerimeter(int node1, int node2) {
+		return 2.0f * (
+			( Math.max(this.maxX[node1], this.maxX[node2]) - Math.min(this.minX[node1], this.minX[node2]) ) +
+			( Math.max(this.maxY[node1], this.maxY[node2]) - Math.min(this.minY[node1], this.minY[node2]) )
+		);
+	}
+	
+	/**
+	 * @post Asigna al nodo especificado la unión de los bounding boxes de los nodos especificados
+	 */
+	private void setUnion(int node, int node1, int node2) {
+		this.minX[node] = Math.min(this.minX[node1], this.minX[node2]);
+		this.minY[node] = Math.min(this.minY[node1], this.minY[node2]);
+		this.maxX[node] = Math.max(this.maxX[node1], this.maxX[node2]);
+		this.maxY[node] = Math.max(this.maxY[node1], this.maxY[node2]);
+	}
+	
+	/**
+	 * @post Recalcula el bounding box y la altura del nodo interno especificado
+	 */
+	private void refit(int node) {
+		this.setUnion(node, this.child1[node], this.child2[node]);
+		this.height[node] = 1 + Math.max(this.height[this.child1[node]], this.height[this.child2[node]]);
+	}
+	
+	/**
+	 * @post Devuelve el costo de descender por el hijo especificado para insertar la hoja especificada
+	 */
+	private float descentCost(int child, int leaf, float inheritanceCost) {
+		if ( this.child1[child] == NULL_NODE ) {
+			return this.unionPerimeter(leaf, child) + inheritanceCost;
+		}
+		else {
+			return this.unionPerimeter(leaf, child) - this.perimeter(child) + inheritanceCost;
+		}
+	}
+	
+	/**
+	 * @post Inserta la hoja especificada
+	 */
+	private void insertLeaf(int leaf) {
+		if ( this.root == NULL_NODE ) {
+			this.root = leaf;
+			this.parent[leaf] = NULL_NODE;
+		}
+		else {
+			int index = this.root;
+			
+			while ( this.child1[index] != NULL_NODE ) {
+				final float area = this.perimeter(index);
+				final float combinedArea = this.unionPerimeter(index, leaf);
+				
+				final float cost = 2.0f * combinedArea;
+				final float inheritanceCost = 2.0f * ( combinedArea - area );
+				
+				final float cost1 = this.descentCost(this.child1[index], leaf, inheritanceCost);
+				final float cost2 = this.descentCost(this.child2[index], leaf, inheritanceCost);
+				
+				if ( ( cost < cost1 ) && ( cost < cost2 ) ) {
+					break;
+				}
+				
+				if ( cost1 < cost2 ) {
+					index = this.child1[index];
+				}
+				else {
+					index = this.child2[index];
+				}
+			}
+			
+			final int sibling = index;
+			final int oldParent = this.parent[sibling];
+			final int newParent = this.allocateNode();
+			
+			this.parent[newParent] = oldParent;
+			this.setUnion(newParent, leaf, sibling);
+			this.height[newParent] = this.height[sibling] + 1;
+			this.child1[newParent] = sibling;
+			this.child2[newParent] = leaf;
+			this.parent[sibling] = newParent;
+			this.parent[leaf] = newParent;
+			
+			if ( oldParent != NULL_NODE ) {
+				if ( this.child1[oldParent] == sibling ) {
+					this.child1[oldParent] = newParent;
+				}
+				else {
+					this.child2[oldParent] = newParent;
+				}
+			}
+			else {
+				this.root = newParent;
+			}
+			
+			this.refitAncestors(this.parent[leaf]);
+		}
+	}
+	
+	/**
+	 * @post Quita la hoja especificada
+	 */
+	private void removeLeaf(int leaf) {
+		if ( leaf == this.root ) {
+			this.root = NULL_NODE;
+		}
+		else {
+			final int parent = this.parent[leaf];
+			final int grandParent = this.parent[parent];
+			final int sibling;
+			
+			if ( this.child1[parent] == leaf ) {
+				sibling = this.child2[parent];
+			}
+			else {
+				sibling = this.child1[parent];
+			}
+			
+			if ( grandParent != NULL_NODE ) {
+				if ( this.child1[grandParent] == parent ) {
+					this.child1[grandParent] = sibling;
+				}
+				else {
+					this.child2[grandParent] = sibling;
+				}
+				
+				this.parent[sibling] = grandParent;
+				this.freeNode(parent);
+				
+				this.refitAncestors(grandParent);
+			}
+			else {
+				this.root = sibling;
+				this.parent[sibling] = NULL_NODE;
+				this.freeNode(parent);
+			}
+		}
+	}
+	
+	/**
+	 * @post Balancea y recalcula los nodos desde el nodo especificado hasta la raíz
+	 */
+	private void refitAncestors(int index) {
+		while ( index != NULL_NODE ) {
+			index = this.balance(index);
+			this.refit(index);
+			
+			index = this.parent[index];
+		}
+	}
+	
+	/**
+	 * @post Si el nodo especificado está desbalanceado, efectúa una rotación.
+	 * 		 Devuelve el índice del nodo que queda en su lugar
+	 */
+	private int balance(int iA) {
+		if ( ( this.child1[iA] == NULL_NODE ) || ( this.height[iA] < 2 ) ) {
+			return iA;
+		}
+		
+		final int iB = this.child1[iA];
+		final int iC = this.child2[iA];
+		
+		final int balance = this.height[iC] - this.height[iB];
+		
+		if ( balance > 1 ) {
+			this.rotate(iA, iC, iB);
+			return iC;
+		}
+		else if ( balance < -1 ) {
+			this.rotate(iA, iB, iC);
+			return iB;
+		}
+		else {
+			return iA;
+		}
+	}
+	
+	/**
+	 * @post Sube el hijo especificado del nodo especificado, que es más alto que su hermano,
+	 * 		 y baja el nodo especificado
+	 */
+	private void rotate(int iA, int iUp, int iOther) {
+		final int iF = this.child1[iUp];
+		final int iG = this.child2[iUp];
+		
+		// Sube el hijo
+		this.child1[iUp] = iA;
+		this.parent[iUp] = this.parent[iA];
+		this.parent[iA] = iUp;
+		
+		if ( this.parent[iUp] != NULL_NODE ) {
+			if ( this.child1[this.parent[iUp]] == iA ) {
+				this.child1[this.parent[iUp]] = iUp;
+			}
+			else {
+				this.child2[this.parent[iUp]] = iUp;
+			}
+		}
+		else {
+			this.root = iUp;
+		}
+		
+		// Deja el nieto más alto en el hijo que subió, y el otro en el nodo que bajó
+		final int iHigher, iLower;
+		
+		if ( this.height[iF] > this.height[iG] ) {
+			iHigher = iF;
+			iLower = iG;
+		}
+		else {
+			iHigher = iG;
+			iLower = iF;
+		}
+		
+		this.child2[iUp] = iHigher;
+		
+		if ( this.child1[iA] == iUp ) {
+			this.child1[iA] = iLower;
+		}
+		else {
+			this.child2[iA] = iLower;
+		}
+		this.parent[iLower] = iA;
+		
+		this.setUnion(iA, iOther, iLower);
+		this.height[iA] = 1 + Math.max(this.height[iOther], this.height[iLower]);
+		
+		this.setUnion(iUp, iA, iHigher);
+		this.height[iUp] = 1 + Math.max(this.height[iA], this.height[iHigher]);
+	}
+	
+	/**
+	 * @post Apila el nodo especificado, y devuelve el nuevo tamaño de la pila
+	 */
+	private int push(int stackSize, int node) {
+		if ( stackSize == this.stack.length ) {
+			this.stack = Arrays.copyOf(this.stack, this.stack.length * 2);
+		}
+		
+		this.stack[stackSize] = node;
+		
+		return stackSize + 1;
+	}
+	
+	/**
+	 * @post Recorre las figuras cuyos bounding boxes agrandados intersecan el rectángulo especificado,
+	 * 		 y las procesa con el callback especificado, si contienen el punto especificado
+	 * 		 o si no hay punto
+	 */
+	@SuppressWarnings("unchecked")
+	private void query(float queryMinX, float queryMinY, float queryMaxX, float queryMaxY, Vector2f point, FiniteProportionalHolomorphicShape<?> shape, QueryCallback<S> callback) {
+		if ( this.root != NULL_NODE ) {
+			int stackSize = this.push(0, this.root);
+			
+			while ( stackSize != 0 ) {
+				final int node = this.stack[--stackSize];
+				
+				if ( ( this.minX[node] <= queryMaxX ) && ( queryMinX <= this.maxX[node] ) &&
+						( this.minY[node] <= queryMaxY ) && ( queryMinY <= this.maxY[node] ) ) {
+					if ( this.child1[node] == NULL_NODE ) {
+						final S eachShape = (S) this.shapes[node];
+						
+						if ( ( ( point == null ) || eachShape.contains(point) ) && ( ( shape == null ) || eachShape.hasIntersection(shape) ) ) {
+							if ( !callback.process(node, eachShape) ) {
+								return;
+							}
+						}
+					}
+					else {
+						stackSize = this.push(stackSize, this.child1[node]);
+						stackSize = this.push(stackSize, this.child2[node]);
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * @pre El bounding box y el callback no pueden ser nulos
+	 * @post Procesa con el callback especificado las figuras cuyos bounding boxes agrandados
+	 * 		 intersecan el bounding box especificado
+	 */
+	public void queryBoundingBox(BoundingBox boundingBox, QueryCallback<S> callback) {
+		if ( ( boundingBox != null ) && ( callback != null ) ) {
+			this.query(boundingBox.getVertex11().getX(), boundingBox.getVertex11().getY(), boundingBox.getVertex22().getX(), boundingBox.getVertex22().getY(), null, null, callback);
+		}
+		else {
+			throw new NullPointerException();
+		}
+	}
+	
+	/**
+	 * @pre El punto y el callback no pueden ser nulos
+	 * @post Procesa con el callback especificado las figuras que contienen el punto especificado
+	 */
+	public void queryPoint(Vector2f point, QueryCallback<S> callback) {
+		if ( ( point != null ) && ( callback != null ) ) {
+			this.query(point.getX(), point.getY(), point.getX(), point.getY(), point, null, callback);
+		}
+		else {
+			throw new NullPointerException();
+		}
+	}
+	
+	/**
+	 * @pre La figura y el callback no pueden ser nulos
+	 * @post Procesa con el callback especificado las figuras que tienen intersección con
+	 * 		 la figura especificada
+	 */
+	public void queryShape(FiniteProportionalHolomorphicShape<?> shape, QueryCallback<S> callback) {
+		if ( ( shape != null ) && ( callback != null ) ) {
+			final BoundingBox boundingBox = shape.boundingBox();
+			
+			if ( boundingBox != null ) {
+				this.query(boundingBox.getVertex11().getX(), boundingBox.getVertex11().getY(), boundingBox.getVertex22().getX(), boundingBox.getVertex22().getY(), null, shape, callback);
+			}
+		}
+		else {
+			throw new NullPointerException();
+		}
+	}
+	
+	/**
+	 * @pre El rayo y el callback no pueden ser nulos
+	 * @post Procesa con el callback especificado las intersecciones del rayo especificado
+	 * 		 con las figuras, hasta el escalar que devuelve el callback
+	 */
+	@SuppressWarnings("unchecked")
+	public void queryRay(Line ray, RayCastCallback<S> callback) {
+		if ( ( ray != null ) && ( callback != null ) ) {
+			if ( this.root != NULL_NODE ) {
+				final float originX = ray.getReferencePoint().getX();
+				final float originY = ray.getReferencePoint().getY();
+				final float directionX = ray.getDirection().getX();
+				final float directionY = ray.getDirection().getY();
+				
+				float maxT = Float.POSITIVE_INFINITY;
+				
+				int stackSize = this.push(0, this.root);
+				
+				while ( stackSize != 0 ) {
+					final int node = this.stack[--stackSize];
+					
+					if ( this.rayIntersectsNode(node, originX, originY, directionX, directionY, maxT) ) {
+						if ( this.child1[node] == NULL_NODE ) {
+							final S eachShape = (S) this.shapes[node];
+							final float t = eachShape.getRayIntersectionParameter(ray);
+							
+							if ( t <= maxT ) {
+								maxT = Math.min(maxT, callback.process(node, eachShape, t));
+								
+								if ( maxT <= 0.0f ) {
+									return;
+								}
+							}
+						}
+						else {
+							stackSize = this.push(stackSize, this.child1[node]);
+							stackSize = this.push(stackSize, this.child2[node]);
+						}
+					}
+				}
+			}
+		}
+		else {
+			throw new NullPointerException();
+		}
+	}
+	
+	/**
+	 * @post Devuelve si el rayo especificado interseca el bounding box del nodo especificado
+	 * 		 antes del escalar máximo especificado
+	 */
+	private boolean rayIntersectsNode(int node, float originX, float originY, float directionX, float directionY, float maxT) {
+		float tMin = 0.0f;
+		float tMax = maxT;
+		
+		if ( directionX != 0.0f ) {
+			final float inverseDirection = 1.0f / directionX;
+			final float t1 = ( this.minX[node] - originX ) * inverseDirection;
+			final float t2 = ( this.maxX[node] - originX ) * inverseDirection;
+			
+			tMin = Math.max(tMin, Math.min(t1, t2));
+			tMax = Math.min(tMax, Math.max(t1, t2));
+		}
+		else if ( ( originX < this.minX[node] ) || ( originX > this.maxX[node] ) ) {
+			return false;
+		}
+		
+		if ( directionY != 0.0f ) {
+			final float inverseDirection = 1.0f / directionY;
+			final float t1 = ( this.minY[node] - originY ) * inverseDirection;
+			final float t2 = ( this.maxY[node] - originY ) * inverseDirection;
+			
+			tMin = Math.max(tMin, Math.min(t1, t2));
+			tMax = Math.min(tMax, Math.max(t1, t2));
+		}
+		else if ( ( originY < this.minY[node] ) || ( originY > this.maxY[node] ) ) {
+			return false;
+		}
+		
+		return tMin <= tMax;
+	}
+	
+	/**
+	 * @pre El punto no puede ser nulo
+	 * @post Devuelve si alguna figura contiene el punto especificado
+	 */
+	public boolean contains(Vector2f point) {
+		final boolean[] result = new boolean[]{ false };
+		
+		this.queryPoint(point, new QueryCallback<S>() {
+
+			@Override
+			public boolean process(int proxyId, S shape) {
+				result[0] = true;
+				return false;
+			}
+			
+		});
+		
+		return result[0];
+	}
+	
+	/**
+	 * @pre La figura no puede ser nula
+	 * @post Devuelve si alguna figura tiene intersección con la figura especificada
+	 */
+	public boolean hasIntersection(FiniteProportionalHolomorphicShape<?> shape) {
+		final boolean[] result = new boolean[]{ false };
+		
+		this.queryShape(shape, new QueryCallback<S>() {
+
+			@Override
+			public boolean process(int proxyId, S shape) {
+				result[0] = true;
+				return false;
+			}
+			
+		});
+		
+		return result[0];
+	}
+	
+	/**
+	 * @pre El rayo no puede ser nulo
+	 * @post Devuelve la intersección más cercana con el rayo especificado.
+	 * 		 Si no hay intersección devuelve null
+	 */
+	public Float getRayIntersection(Line ray) {
+		final float[] result = new float[]{ Float.POSITIVE_INFINITY };
+		
+		this.queryRay(ray, new RayCastCallback<S>() {
+
+			@Override
+			public float process(int proxyId, S shape, float t) {
+				result[0] = Math.min(result[0], t);
+				return result[0];
+			}
+			
+		});
+		
+		if ( result[0] != Float.POSITIVE_INFINITY ) {
+			return result[0];
+		}
+		else {
+			return null;
+		}
+	}
+}
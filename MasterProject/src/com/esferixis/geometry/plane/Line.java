@@ -213,6 +213,65 @@ public final class Line extends Shape<Line> implements Serializable {
 		}
 	}
 	
+	/* (non-Javadoc)
+	 * @see com.esferixis.geometry.plane.Shape#getRectIntersection(com.esferixis.geometry.plane.Line, float[], int)
+	 */
+	@Override
+	public int getRectIntersection(Line other, float[] result, int offset) {
+		if ( ( other != null ) && ( result != null ) ) {
+			final float t = this.getRectIntersectionParameter(other);
+			
+			if ( !Float.isNaN(t) ) {
+				putRectIntersection(result, offset, 0, t);
+				return 1;
+			}
+			else {
+				return 0;
+			}
+		}
+		else {
+			throw new NullPointerException();
+		}
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.esferixis.geometry.plane.Shape#getRayIntersectionParameter(com.esferixis.geometry.plane.Line)
+	 */
+	@Override
+	public float getRayIntersectionParameter(Line other) {
+		final float t = this.getRectIntersectionParameter(other);
+		
+		return ( t >= 0.0f ) ? t : Float.NaN;
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.esferixis.geometry.plane.Shape#getRayIntersection(com.esferixis.geometry.plane.Line)
+	 */
+	@Override
+	public Float getRayIntersection(Line other) {
+		return toRayIntersection(this.getRayIntersectionParameter(other));
+	}
+	
+	/**
+	 * @pre La recta no puede ser nula
+	 * @post Devuelve el escalar proporcional de la intersección sobre la recta especificada,
+	 * 		 si no hay intersección devuelve NaN
+	 */
+	public float getRectIntersectionParameter(Line other) {
+		// Normal de ésta recta
+		final float normalX = -this.direction.getY();
+		final float normalY = this.direction.getX();
+		
+		final float divisor = normalX * other.direction.getX() + normalY * other.direction.getY();
+		
+		if ( divisor != 0.0f ) {
+			return ( normalX * ( this.referencePoint.getX() - other.referencePoint.getX() ) + normalY * ( this.referencePoint.getY() - other.referencePoint.getY() ) ) / divisor;
+		}
+		else {
+			return Float.NaN;
+		}
+	}
+	
 	/**
 	 * @post Devuelve el hash
 	 */
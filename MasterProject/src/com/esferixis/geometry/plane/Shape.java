@@ -277,6 +277,58 @@ public abstract class Shape<S extends Shape<S>> {
 		return getRayIntersection(this.getRectIntersection(rect));
 	}
 	
+	/**
+	 * @pre La recta y el array no pueden ser nulos
+	 * @post Escribe en el array especificado, desde el offset especificado, las intersecciones
+	 * 		 con la recta especificada que entren en el array, y devuelve la cantidad total de
+	 * 		 intersecciones, que puede ser mayor que el espacio disponible.
+	 * 		 No crea objetos si la figura lo sobreescribe
+	 */
+	public int getRectIntersection(Line rect, float[] result, int offset) {
+		if ( result != null ) {
+			final List<Float> intersections = this.getRectIntersection(rect);
+			
+			for ( int i = 0 ; i < intersections.size() ; i++ ) {
+				putRectIntersection(result, offset, i, intersections.get(i));
+			}
+			
+			return intersections.size();
+		}
+		else {
+			throw new NullPointerException();
+		}
+	}
+	
+	/**
+	 * @pre La recta no puede ser nula
+	 * @post Devuelve la intersección más cercana contando desde el punto de referencia
+	 * 		 de la recta, como si fuese un rayo.
+	 * 		 Si no hay intersección devuelve NaN.
+	 * 		 No crea objetos si la figura lo sobreescribe
+	 */
+	public float getRayIntersectionParameter(Line rect) {
+		final Float t = this.getRayIntersection(rect);
+		
+		return ( t != null ) ? t : Float.NaN;
+	}
+	
+	/**
+	 * @post Escribe la intersección especificada en la posición especificada del array,
+	 * 		 a partir del offset, si hay espacio
+	 */
+	protected static void putRectIntersection(float[] result, int offset, int index, float intersection) {
+		if ( offset + index < result.length ) {
+			result[offset + index] = intersection;
+		}
+	}
+	
+	/**
+	 * @post Convierte el parámetro de intersección de rayo especificado, si es NaN devuelve null
+	 */
+	protected static Float toRayIntersection(float t) {
+		return Float.isNaN(t) ? null : t;
+	}
+	
 	/**
 	 * @post Devuelve el opuesto aritmético
 	 */
@@ -0,0 +1,705 @@
+/**
+ * Copyright (c) 2017 Ariel Favio Carrizo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'esferixis' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.esferixis.geometry.plane;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.esferixis.geometry.plane.exception.ProportionalHolomorphicShapeParseException;
+import com.esferixis.geometry.plane.finite.Circle;
+import com.esferixis.geometry.plane.finite.Circumference;
+import com.esferixis.geometry.plane.finite.CircumferenceSegment;
+import com.esferixis.geometry.plane.finite.ConvexPolygon;
+import com.esferixis.geometry.plane.finite.FiniteProportionalHolomorphicShape;
+import com.esferixis.geometry.plane.finite.FiniteProportionalHolomorphicShapeGroup;
+import com.esferixis.geometry.plane.finite.LineSegment;
+import com.esferixis.geometry.plane.finite.Point;
+import com.esferixis.geometry.plane.finite.SolidCapsule;
+import com.esferixis.math.Vector2f;
+import com.esferixis.math.intervalarithmetic.FloatClosedInterval;
+
+/**
+ * @author ariel
+ *
+ * Parser secuencial de figuras en el formato de texto de Shape.parse.
+ * 
+ * Lee una secuencia de figuras, separadas por espacios o saltos de línea,
+ * recorriendo los carácteres una única vez con un parser descendente recursivo,
+ * sin separar los parámetros en cadenas.
+ * Los carácteres se leen de a bloques a un buffer propio, salvo en los CharBuffer
+ * con array, que se recorren directamente.
+ * Los números se convierten desde los carácteres, y sólo se crea una cadena en los
+ * casos en los que la conversión directa puede no estar correctamente redondeada.
+ * 
+ * Las figuras se entregan a medida que se leen al handler especificado.
+ * No es thread-safe, pero se puede reusar.
+ */
+public final class ShapeStreamParser {
+	public interface Handler<S extends Shape<?>> {
+		/**
+		 * @post Procesa la figura especificada.
+		 * 		 Devuelve si la lectura tiene que continuar
+		 */
+		public boolean process(S shape);
+	}
+	
+	private interface Source {
+		/**
+		 * @post Copia los siguientes carácteres al buffer especificado, y devuelve la cantidad,
+		 * 		 o -1 si no quedan
+		 */
+		public int read(char[] buffer) throws IOException;
+	}
+	
+	/**
+	 * Lectura de un archivo en formato ASCII, mapeado en memoria de a regiones
+	 */
+	private static final class MappedFileSource implements Source {
+		private final FileChannel channel;
+		private final long size;
+		private long mappedEnd;
+		private MappedByteBuffer mapping;
+		
+		/**
+		 * @post Crea la lectura con el canal especificado
+		 */
+		public MappedFileSource(FileChannel channel) throws IOException {
+			this.channel = channel;
+			this.size = channel.size();
+			this.mappedEnd = 0;
+			this.mapping = null;
+		}
+		
+		/* (non-Javadoc)
+		 * @see com.esferixis.geometry.plane.ShapeStreamParser.Source#read(char[])
+		 */
+		@Override
+		public int read(char[] buffer) throws IOException {
+			if ( ( this.mapping == null ) || ( !this.mapping.hasRemaining() ) ) {
+				if ( this.mappedEnd == this.size ) {
+					return -1;
+				}
+				
+				final long regionSize = Math.min(MAPPING_SIZE, this.size - this.mappedEnd);
+				this.mapping = this.channel.map(FileChannel.MapMode.READ_ONLY, this.mappedEnd, regionSize);
+				this.mappedEnd += regionSize;
+			}
+			
+			final MappedByteBuffer mapping = this.mapping;
+			final int start = mapping.position();
+			final int count = Math.min(buffer.length, mapping.remaining());
+			
+			for ( int i = 0 ; i < count ; i++ ) {
+				buffer[i] = (char) ( mapping.get(start + i) & 0xFF );
+			}
+			
+			mapping.position(start + count);
+			
+			return count;
+		}
+	}
+	
+	private static final int BUFFER_SIZE = 64 * 1024;
+	
+	/**
+	 * Tamaño de las regiones mapeadas de los archivos
+	 */
+	private static final int MAPPING_SIZE = 64 * 1024 * 1024;
+	
+	private static final int END = -1;
+	
+	/**
+	 * Potencias de diez representables exactamente como double
+	 */
+	private static final double[] EXACT_POWERS_OF_TEN = {
+		1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+		1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20,
+		1e21, 1e22
+	};
+	
+	/**
+	 * Máxima mantisa representable exactamente como double
+	 */
+	private static final long MAX_EXACT_MANTISSA = 1L << 53;
+	
+	private final char[] ownBuffer;
+	
+	// Ventana de carácteres en curso
+	private char[] buffer;
+	private int position, limit;
+	private long bufferOffset;
+	private Source source;
+	
+	private char[] token;
+	private int tokenLength;
+	private long tokenOffset;
+	
+	private Vector2f[] vertices;
+	
+	/**
+	 * @post Crea el parser
+	 */
+	public ShapeStreamParser() {
+		this.ownBuffer = new char[BUFFER_SIZE];
+		this.token = new char[64];
+		this.vertices = new Vector2f[16];
+	}
+	
+	/**
+	 * @pre Ninguno de los parámetros puede ser nulo
+	 * @post Lee las figuras del reader especificado hasta el final, o hasta que
+	 * 		 el handler especificado indique que no hay que continuar.
+	 * 		 Las figuras tienen que ser de la clase especificada.
+	 * 		 No cierra el reader
+	 */
+	public <S extends Shape<?>> void parse(final Reader reader, Class<S> shapeClass, Handler<? super S> handler) throws IOException {
+		if ( ( reader != null ) && ( shapeClass != null ) && ( handler != null ) ) {
+			this.start(this.ownBuffer, 0, 0, new Source() {
+
+				@Override
+				public int read(char[] buffer) throws IOException {
+					return reader.read(buffer);
+				}
+				
+			});
+			
+			this.parseShapes(shapeClass, handler);
+		}
+		else {
+			throw new NullPointerException();
+		}
+	}
+	
+	/**
+	 * @pre Ninguno de los parámetros puede ser nulo
+	 * @post Lee las figuras de los carácteres restantes del buffer especificado hasta
+	 * 		 el final, o hasta que el handler especificado indique que no hay que continuar.
+	 * 		 Las figuras tienen que ser de la clase especificada.
+	 * 		 No modifica la posición del buffer
+	 */
+	public <S extends Shape<?>> void parse(CharBuffer charBuffer, Class<S> shapeClass, Handler<? super S> handler) {
+		if ( ( charBuffer != null ) && ( shapeClass != null ) && ( handler != null ) ) {
+			if ( charBuffer.hasArray() ) {
+				// Recorre directamente el array del buffer
+				final int start = charBuffer.arrayOffset() + charBuffer.position();
+				this.start(charBuffer.array(), start, charBuffer.arrayOffset() + charBuffer.limit(), null);
+				this.bufferOffset = -start;
+			}
+			else {
+				final CharBuffer input = charBuffer.duplicate();
+				
+				this.start(this.ownBuffer, 0, 0, new Source() {
+
+					@Override
+					public int read(char[] buffer) {
+						if ( input.hasRemaining() ) {
+							final int count = Math.min(buffer.length, input.remaining());
+							input.get(buffer, 0, count);
+							return count;
+						}
+						else {
+							return -1;
+						}
+					}
+					
+				});
+			}
+			
+			try {
+				this.parseShapes(shapeClass, handler);
+			}
+			catch (IOException e) {
+				// Los buffers no producen errores de entrada/salida
+				throw new IllegalStateException(e);
+			}
+		}
+		else {
+			throw new NullPointerException();
+		}
+	}
+	
+	/**
+	 * @pre Ninguno de los parámetros puede ser nulo, y el archivo tiene
+	 * 		que estar en ASCII
+	 * @post Lee las figuras del archivo especificado, mapeándolo en memoria, hasta
+	 * 		 el final, o hasta que el handler especificado indique que no hay que continuar.
+	 * 		 Las figuras tienen que ser de la clase especificada
+	 */
+	public <S extends Shape<?>> void parse(File file, Class<S> shapeClass, Handler<? super S> handler) throws IOException {
+		if ( ( file != null ) && ( shapeClass != null ) && ( handler != null ) ) {
+			final FileInputStream inputStream = new FileInputStream(file);
+			
+			try {
+				this.start(this.ownBuffer, 0, 0, new MappedFileSource(inputStream.getChannel()));
+				this.parseShapes(shapeClass, handler);
+			}
+			finally {
+				this.source = null;
+				inputStream.close();
+			}
+		}
+		else {
+			throw new NullPointerException();
+		}
+	}
+	
+	/**
+	 * @post Comienza la lectura con la ventana y el origen especificados
+	 */
+	private void start(char[] buffer, int position, int limit, Source source) {
+		this.buffer = buffer;
+		this.position = position;
+		this.limit = limit;
+		this.bufferOffset = 0;
+		this.source = source;
+	}
+	
+	/**
+	 * @post Lee las figuras hasta el final, o hasta que el handler indique que no hay que continuar
+	 */
+	private <S extends Shape<?>> void parseShapes(Class<S> shapeClass, Handler<? super S> handler) throws IOException {
+		try {
+			boolean proceed = true;
+			
+			while ( proceed && ( this.peekNonWhitespace() != END ) ) {
+				proceed = handler.process(this.parseShape(shapeClass));
+			}
+		}
+		finally {
+			this.buffer = null;
+			this.source = null;
+		}
+	}
+	
+	/**
+	 * @post Lee los siguientes carácteres a la ventana, y devuelve si hay
+	 */
+	private boolean fill() throws IOException {
+		if ( this.source != null ) {
+			this.bufferOffset += this.limit;
+			this.position = 0;
+			this.limit = 0;
+			
+			int count;
+			do {
+				count = this.source.read(this.buffer);
+			} while ( count == 0 );
+			
+			if ( count > 0 ) {
+				this.limit = count;
+				return true;
+			}
+			else {
+				this.source = null;
+				return false;
+			}
+		}
+		else {
+			return false;
+		}
+	}
+	
+	/**
+	 * @post Devuelve el siguiente carácter sin consumirlo, o END si no hay
+	 */
+	private int peek() throws IOException {
+		if ( ( this.position < this.limit ) || this.fill() ) {
+			return this.buffer[this.position];
+		}
+		else {
+			return END;
+		}
+	}
+	
+	/**
+	 * @post Saltea los espacios y devuelve el siguiente carácter sin consumirlo, o END si no hay
+	 */
+	private int peekNonWhitespace() throws IOException {
+		int c = this.peek();
+		
+		while ( ( c == ' ' ) || ( c == '\t' ) || ( c == '\n' ) || ( c == '\r' ) ) {
+			this.position++;
+			c = this.peek();
+		}
+		
+		return c;
+	}
+	
+	/**
+	 * @post Crea una excepción con la descripción especificada y la posición en curso
+	 */
+	private ProportionalHolomorphicShapeParseException error(String description) {
+		return new ProportionalHolomorphicShapeParseException(description + " at offset " + ( this.bufferOffset + this.position ));
+	}
+	
+	/**
+	 * @post Crea una excepción con la descripción especificada y la posición del token
+	 */
+	private ProportionalHolomorphicShapeParseException tokenError(String description) {
+		return new ProportionalHolomorphicShapeParseException(description + " at offset " + this.tokenOffset);
+	}
+	
+	/**
+	 * @post Consume el carácter especificado, saltando los espacios anteriores
+	 */
+	private void expect(char expected) throws IOException {
+		if ( this.peekNonWhitespace() == expected ) {
+			this.position++;
+		}
+		else {
+			throw this.error("Expected '" + expected + "'");
+		}
+	}
+	
+	/**
+	 * @post Consume una coma, si es el siguiente carácter sin contar los espacios,
+	 * 		 y devuelve si la consumió
+	 */
+	private boolean acceptComma() throws IOException {
+		if ( this.peekNonWhitespace() == ',' ) {
+			this.position++;
+			return true;
+		}
+		else {
+			return false;
+		}
+	}
+	
+	/**
+	 * @post Agrega el carácter especificado al token
+	 */
+	private void appendToToken(char c) {
+		if ( this.tokenLength == this.token.length ) {
+			this.token = Arrays.copyOf(this.token, this.tokenLength * 2);
+		}
+		
+		this.token[this.tokenLength++] = c;
+	}
+	
+	/**
+	 * @post Lee al token los siguientes carácteres, hasta un espacio,
+	 * 		 un separador o el final, y guarda su posición
+	 */
+	private void readToken() throws IOException {
+		this.tokenLength = 0;
+		int c = this.peekNonWhitespace();
+		this.tokenOffset = this.bufferOffset + this.position;
+		
+		while ( ( c != END ) && ( c != ' ' ) && ( c != '\t' ) && ( c != '\n' ) && ( c != '\r' ) &&
+				( c != ',' ) && ( c != '(' ) && ( c != ')' ) && ( c != '[' ) && ( c != ']' ) ) {
+			this.appendToToken((char) c);
+			this.position++;
+			c = this.peek();
+		}
+	}
+	
+	/**
+	 * @post Devuelve si el token es igual a la cadena especificada
+	 */
+	private boolean tokenEquals(String string) {
+		if ( this.tokenLength == string.length() ) {
+			for ( int i = 0 ; i < this.tokenLength ; i++ ) {
+				if ( this.token[i] != string.charAt(i) ) {
+					return false;
+				}
+			}
+			
+			return true;
+		}
+		else {
+			return false;
+		}
+	}
+	
+	/**
+	 * @post Devuelve si el carácter especificado es un dígito
+	 */
+	private static boolean isDigit(char c) {
+		return ( c >= '0' ) && ( c <= '9' );
+	}
+	
+	/**
+	 * @post Lee un número.
+	 * 		 Si la mantisa y la potencia de diez son exactas como double, el cociente o el producto
+	 * 		 está correctamente redondeado, y al convertirlo a float sólo puede haber doble redondeo
+	 * 		 si queda justo en el punto medio entre dos float. En ese caso, y en los demás,
+	 * 		 usa Float.parseFloat
+	 */
+	private float parseFloat() throws IOException {
+		this.readToken();
+		
+		final char[] token = this.token;
+		final int length = this.tokenLength;
+		int i = 0;
+		
+		final boolean negative = ( length > 0 ) && ( token[0] == '-' );
+		if ( ( length > 0 ) && ( ( token[0] == '-' ) || ( token[0] == '+' ) ) ) {
+			i++;
+		}
+		
+		long mantissa = 0;
+		int exponent = 0;
+		boolean hasDigits = false;
+		boolean isExact = true;
+		
+		while ( ( i < length ) && isDigit(token[i]) ) {
+			hasDigits = true;
+			
+			if ( mantissa < MAX_EXACT_MANTISSA ) {
+				mantissa = mantissa * 10 + ( token[i] - '0' );
+			}
+			else {
+				isExact = false;
+			}
+			i++;
+		}
+		
+		if ( ( i < length ) && ( token[i] == '.' ) ) {
+			i++;
+			
+			while ( ( i < length ) && isDigit(token[i]) ) {
+				hasDigits = true;
+				
+				if ( mantissa < MAX_EXACT_MANTISSA ) {
+					mantissa = mantissa * 10 + ( token[i] - '0' );
+					exponent--;
+				}
+				else {
+					isExact = false;
+				}
+				i++;
+			}
+		}
+		
+		if ( hasDigits && ( i < length ) && ( ( token[i] == 'e' ) || ( token[i] == 'E' ) ) ) {
+			i++;
+			
+			final boolean negativeExponent = ( i < length ) && ( token[i] == '-' );
+			if ( ( i < length ) && ( ( token[i] == '-' ) || ( token[i] == '+' ) ) ) {
+				i++;
+			}
+			
+			int explicitExponent = 0;
+			boolean hasExponentDigits = false;
+			
+			while ( ( i < length ) && isDigit(token[i]) ) {
+				hasExponentDigits = true;
+				explicitExponent = Math.min(explicitExponent * 10 + ( token[i] - '0' ), 1000);
+				i++;
+			}
+			
+			if ( !hasExponentDigits ) {
+				isExact = false;
+			}
+			
+			exponent += negativeExponent ? -explicitExponent : explicitExponent;
+		}
+		
+		if ( hasDigits && isExact && ( i == length ) && ( mantissa <= MAX_EXACT_MANTISSA ) ) {
+			if ( mantissa == 0 ) {
+				return negative ? -0.0f : 0.0f;
+			}
+			else if ( ( exponent >= -22 ) && ( exponent <= 22 ) ) {
+				final double value = ( exponent >= 0 ) ? mantissa * EXACT_POWERS_OF_TEN[exponent] : mantissa / EXACT_POWERS_OF_TEN[-exponent];
+				
+				if ( ( value >= Float.MIN_NORMAL ) && ( value <= Float.MAX_VALUE ) && ( ( Double.doubleToRawLongBits(value) & 0x1FFFFFFFL ) != 0x10000000L ) ) {
+					return (float) ( negative ? -value : value );
+				}
+			}
+		}
+		
+		if ( length != 0 ) {
+			try {
+				return Float.parseFloat(new String(token, 0, length));
+			}
+			catch (NumberFormatException e) {
+				throw this.tokenError("Invalid number");
+			}
+		}
+		else {
+			throw this.tokenError("Expected number");
+		}
+	}
+	
+	/**
+	 * @post Lee un vector, con el formato "(x, y)"
+	 */
+	private Vector2f parseVector() throws IOException {
+		this.expect('(');
+		final float x = this.parseFloat();
+		this.expect(',');
+		final float y = this.parseFloat();
+		this.expect(')');
+		
+		return new Vector2f(x, y);
+	}
+	
+	/**
+	 * @post Lee un intervalo, con el formato "[min, max]"
+	 */
+	private FloatClosedInterval parseInterval() throws IOException {
+		this.expect('[');
+		final float min = this.parseFloat();
+		this.expect(',');
+		final float max = this.parseFloat();
+		this.expect(']');
+		
+		return new FloatClosedInterval(min, max);
+	}
+	
+	/**
+	 * @post Lee un polígono convexo, a partir de sus vértices
+	 */
+	private ConvexPolygon parseConvexPolygonVertices() throws IOException {
+		int count = 0;
+		
+		if ( this.peekNonWhitespace() != ')' ) {
+			do {
+				if ( count == this.vertices.length ) {
+					this.vertices = Arrays.copyOf(this.vertices, count * 2);
+				}
+				
+				this.vertices[count++] = this.parseVector();
+			} while ( this.acceptComma() );
+		}
+		
+		final Vector2f[] polygonVertices = Arrays.copyOf(this.vertices, count);
+		Arrays.fill(this.vertices, 0, count, null);
+		
+		return new ConvexPolygon(polygonVertices);
+	}
+	
+	/**
+	 * @post Lee un grupo, a partir de sus figuras
+	 */
+	private FiniteProportionalHolomorphicShapeGroup<?> parseGroupShapes() throws IOException {
+		final List<FiniteProportionalHolomorphicShape<?>> shapes = new ArrayList<FiniteProportionalHolomorphicShape<?>>();
+		
+		if ( this.peekNonWhitespace() != ')' ) {
+			do {
+				shapes.add( this.parseShape(FiniteProportionalHolomorphicShape.class) );
+			} while ( this.acceptComma() );
+		}
+		
+		return new FiniteProportionalHolomorphicShapeGroup<FiniteProportionalHolomorphicShape<?>>(shapes);
+	}
+	
+	/**
+	 * @post Lee una figura, que tiene que ser de la clase especificada
+	 */
+	private <S extends Shape<?>> S parseShape(Class<S> shapeClass) throws IOException {
+		this.peekNonWhitespace();
+		final long shapeOffset = this.bufferOffset + this.position;
+		final Shape<?> shape = this.parseShape();
+		
+		if ( shapeClass.isInstance(shape) ) {
+			return shapeClass.cast(shape);
+		}
+		else {
+			throw new ProportionalHolomorphicShapeParseException("Expected " + shapeClass.getSimpleName() + " at offset " + shapeOffset);
+		}
+	}
+	
+	/**
+	 * @post Lee una figura
+	 */
+	private Shape<?> parseShape() throws IOException {
+		this.readToken();
+		
+		final Shape<?> shape;
+		
+		if ( this.tokenEquals("ConvexPolygon") ) {
+			this.expect('(');
+			shape = this.parseConvexPolygonVertices();
+		}
+		else if ( this.tokenEquals("LineSegment") ) {
+			this.expect('(');
+			final Vector2f point1 = this.parseVector();
+			this.expect(',');
+			shape = new LineSegment(point1, this.parseVector());
+		}
+		else if ( this.tokenEquals("Point") ) {
+			this.expect('(');
+			shape = new Point(this.parseVector());
+		}
+		else if ( this.tokenEquals("Circumference") ) {
+			this.expect('(');
+			final Vector2f center = this.parseVector();
+			this.expect(',');
+			shape = new Circumference(center, this.parseFloat());
+		}
+		else if ( this.tokenEquals("Circle") ) {
+			this.expect('(');
+			shape = new Circle(this.parseShape(Circumference.class));
+		}
+		else if ( this.tokenEquals("CircumferenceSegment") ) {
+			this.expect('(');
+			final Circumference circumference = this.parseShape(Circumference.class);
+			this.expect(',');
+			shape = new CircumferenceSegment(circumference, this.parseInterval());
+		}
+		else if ( this.tokenEquals("SolidCapsule") ) {
+			this.expect('(');
+			final LineSegment centerLine = this.parseShape(LineSegment.class);
+			this.expect(',');
+			shape = new SolidCapsule(centerLine, this.parseFloat());
+		}
+		else if ( this.tokenEquals("Line") ) {
+			this.expect('(');
+			final Vector2f referencePoint = this.parseVector();
+			this.expect(',');
+			shape = new Line(referencePoint, this.parseVector());
+		}
+		else if ( this.tokenEquals("ProportionalHolomorphicShapeGroup") ) {
+			this.expect('(');
+			shape = this.parseGroupShapes();
+		}
+		else if ( this.tokenLength == 0 ) {
+			throw this.tokenError("Expected shape");
+		}
+		else {
+			throw this.tokenError("Unknown shape '" + new String(this.token, 0, this.tokenLength) + "'");
+		}
+		
+		this.expect(')');
+		
+		return shape;
+	}
+}
@@ -0,0 +1,780 @@
+/**
+ * Copyright (c) 2017 Ariel Favio Carrizo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'esferixis' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.esferixis.geometry.plane;
+
+import java.util.Arrays;
+
+import com.esferixis.geometry.plane.finite.BoundingBox;
+import com.esferixis.geometry.plane.finite.FiniteProportionalHolomorphicShape;
+import com.esferixis.math.Vector2f;
+
+/**
+ * @author ariel
+ *
+ * Grilla uniforme con hashing espacial.
+ * 
+ * Cada figura se registra en todas las celdas que cubre su bounding box.
+ * Las celdas se identifican con claves long que se guardan en una tabla de hash
+ * con direccionamiento abierto, y cada celda tiene una lista enlazada de
+ * índices de figuras guardada en arrays de enteros.
+ * 
+ * Es adecuada para muchas figuras de tamaño similar al de la celda.
+ * Admite dos modos de actualización: incremental, en el que cada movimiento
+ * actualiza las celdas inmediatamente, y reconstrucción, en el que los movimientos
+ * sólo reemplazan la figura y la grilla se reconstruye completa antes de la
+ * siguiente consulta.
+ * No es thread-safe.
+ */
+public final class SpatialHashGrid<S extends FiniteProportionalHolomorphicShape<?>> {
+	/**
+	 * Identificador nulo
+	 */
+	public static final int NULL_ID = -1;
+	
+	public enum UpdateMode {
+		/**
+		 * Cada movimiento actualiza las celdas inmediatamente
+		 */
+		INCREMENTAL,
+		
+		/**
+		 * La grilla se reconstruye antes de la siguiente consulta
+		 */
+		REBUILD
+	}
+	
+	public interface QueryCallback<S extends FiniteProportionalHolomorphicShape<?>> {
+		/**
+		 * @post Procesa la figura con el identificador especificado.
+		 * 		 Devuelve si la consulta tiene que continuar
+		 */
+		public boolean process(int id, S shape);
+	}
+	
+	public interface PairCallback<S extends FiniteProportionalHolomorphicShape<?>> {
+		/**
+		 * @post Procesa el par de figuras con los identificadores especificados.
+		 * 		 Devuelve si la consulta tiene que continuar
+		 */
+		public boolean process(int id1, S shape1, int id2, S shape2);
+	}
+	
+	private static final int INITIAL_CAPACITY = 16;
+	
+	/**
+	 * Marca de posición libre en la tabla de celdas
+	 */
+	private static final int FREE_SLOT = -2;
+	
+	private final float cellSize;
+	private final float inverseCellSize;
+	private final UpdateMode updateMode;
+	
+	// Figuras
+	private Object[] shapes;
+	private float[] boxMinX, boxMinY, boxMaxX, boxMaxY;
+	private int[] cellMinX, cellMinY, cellMaxX, cellMaxY;
+	private int[] stamps;
+	private int[] nextFreeId;
+	private int freeIdList;
+	private int idsEnd;
+	private int shapesCount;
+	
+	// Entradas de celda
+	private int[] entryId;
+	private int[] entryNext;
+	private int freeEntryList;
+	private int entriesEnd;
+	
+	// Tabla de celdas
+	private long[] cellKeys;
+	private int[] cellHeads;
+	private int usedSlots;
+	
+	private int currentStamp;
+	private boolean dirty;
+	
+	/**
+	 * @pre El tamaño de celda tiene que ser positivo, y el modo de actualización no puede ser nulo
+	 * @post Crea la grilla con el tamaño de celda y el modo de actualización especificados
+	 */
+	public SpatialHashGrid(float cellSize, UpdateMode updateMode) {
+		if ( updateMode != null ) {
+			if ( cellSize > 0.0f ) {
+				this.cellSize = cellSize;
+				this.inverseCellSize = 1.0f / cellSize;
+				this.updateMode = updateMode;
+				
+				this.shapes = new Object[INITIAL_CAPACITY];
+				this.boxMinX = new float[INITIAL_CAPACITY];
+				this.boxMinY = new float[INITIAL_CAPACITY];
+				this.boxMaxX = new float[INITIAL_CAPACITY];
+				this.boxMaxY = new float[INITIAL_CAPACITY];
+				this.cellMinX = new int[INITIAL_CAPACITY];
+				this.cellMinY = new int[INITIAL_CAPACITY];
+				this.cellMaxX = new int[INITIAL_CAPACITY];
+				this.cellMaxY = new int[INITIAL_CAPACITY];
+				this.stamps = new int[INITIAL_CAPACITY];
+				this.nextFreeId = new int[INITIAL_CAPACITY];
+				this.freeIdList = NULL_ID;
+				this.idsEnd = 0;
+				this.shapesCount = 0;
+				
+				this.entryId = new int[INITIAL_CAPACITY];
+				this.entryNext = new int[INITIAL_CAPACITY];
+				this.freeEntryList = NULL_ID;
+				this.entriesEnd = 0;
+				
+				this.cellKeys = new long[INITIAL_CAPACITY];
+				this.cellHeads = new int[INITIAL_CAPACITY];
+				Arrays.fill(this.cellHeads, FREE_SLOT);
+				this.usedSlots = 0;
+				
+				this.currentStamp = 0;
+				this.dirty = false;
+			}
+			else {
+				throw new IllegalArgumentException("Invalid cell size");
+			}
+		}
+		else {
+			throw new NullPointerException();
+		}
+	}
+	
+	/**
+	 * @post Devuelve el tamaño de celda
+	 */
+	public float getCellSize() {
+		return this.cellSize;
+	}
+	
+	/**
+	 * @post Devuelve el modo de actualización
+	 */
+	public UpdateMode getUpdateMode() {
+		return this.updateMode;
+	}
+	
+	/**
+	 * @post Devuelve la cantidad de figuras
+	 */
+	public int size() {
+		return this.shapesCount;
+	}
+	
+	/**
+	 * @post Devuelve la coordenada de celda correspondiente a la coordenada especificada
+	 */
+	private int cellCoordinate(float coordinate) {
+		return (int) Math.floor(coordinate * this.inverseCellSize);
+	}
+	
+	/**
+	 * @post Devuelve la clave de la celda especificada
+	 */
+	private static long cellKey(int cellX, int cellY) {
+		return ( ( (long) cellX ) << 32 ) | ( cellY & 0xFFFFFFFFL );
+	}
+	
+	/**
+	 * @post Devuelve el hash de la clave especificada
+	 */
+	private static int hash(long key) {
+		key ^= key >>> 33;
+		key *= 0xFF51AFD7ED558CCDL;
+		key ^= key >>> 33;
+		key *= 0xC4CEB9FE1A85EC53L;
+		key ^= key >>> 33;
+		
+		return (int) key;
+	}
+	
+	/**
+	 * @post Devuelve la posición de la celda especificada en la tabla, si no existe devuelve NULL_ID
+	 */
+	private int findSlot(int cellX, int cellY) {
+		final long key = cellKey(cellX, cellY);
+		final int mask = this.cellKeys.length - 1;
+		
+		int slot = hash(key) & mask;
+		
+		while ( this.cellHeads[slot] != FREE_SLOT ) {
+			if ( this.cellKeys[slot] == key ) {
+				return slot;
+			}
+			
+			slot = ( slot + 1 ) & mask;
+		}
+		
+		return NULL_ID;
+	}
+	
+	/**
+	 * @post Devuelve la posición de la celda especificada en la tabla, creándola si no existe
+	 */
+	private int findOrCreateSlot(int cellX, int cellY) {
+		if ( ( this.usedSlots + 1 ) * 2 > this.cellKeys.length ) {
+			this.rehash();
+		}
+		
+		final long key = cellKey(cellX, cellY);
+		final int mask = this.cellKeys.length - 1;
+		
+		int slot = hash(key) & mask;
+		
+		while ( this.cellHeads[slot] != FREE_SLOT ) {
+			if ( this.cellKeys[slot] == key ) {
+				return slot;
+			}
+			
+			slot = ( slot + 1 ) & mask;
+		}
+		
+		this.cellKeys[slot] = key;
+		this.cellHeads[slot] = NULL_ID;
+		this.usedSlots++;
+		
+		return slot;
+	}
+	
+	/**
+	 * @post Reconstruye la tabla de celdas descartando las celdas vacías,
+	 * 		 y la agranda si es necesario
+	 */
+	private void rehash() {
+		final long[] oldKeys = this.cellKeys;
+		final int[] oldHeads = this.cellHeads;
+		
+		int nonEmptyCells = 0;
+		for ( int i = 0 ; i < oldHeads.length ; i++ ) {
+			if ( oldHeads[i] >= 0 ) {
+				nonEmptyCells++;
+			}
+		}
+		
+		int newCapacity = INITIAL_CAPACITY;
+		while ( newCapacity < ( nonEmptyCells + 1 ) * 4 ) {
+			newCapacity *= 2;
+		}
+		
+		this.cellKeys = new long[newCapacity];
+		this.cellHeads = new int[newCapacity];
+		Arrays.fill(this.cellHeads, FREE_SLOT);
+		this.usedSlots = nonEmptyCells;
+		
+		final int mask = newCapacity - 1;
+		
+		for ( int i = 0 ; i < oldHeads.length ; i++ ) {
+			if ( oldHeads[i] >= 0 ) {
+				int slot = hash(oldKeys[i]) & mask;
+				
+				while ( this.cellHeads[slot] != FREE_SLOT ) {
+					slot = ( slot + 1 ) & mask;
+				}
+				
+				this.cellKeys[slot] = oldKeys[i];
+				this.cellHeads[slot] = oldHeads[i];
+			}
+		}
+	}
+	
+	/**
+	 * @post Agrega la figura con el identificador especificado a la celda especificada
+	 */
+	private void addToCell(int cellX, int cellY, int id) {
+		final int slot = this.findOrCreateSlot(cellX, cellY);
+		
+		final int entry;
+		if ( this.freeEntryList != NULL_ID ) {
+			entry = this.freeEntryList;
+			this.freeEntryList = this.entryNext[entry];
+		}
+		else {
+			if ( this.entriesEnd == this.entryId.length ) {
+				this.entryId = Arrays.copyOf(this.entryId, this.entriesEnd * 2);
+				this.entryNext = Arrays.copyOf(this.entryNext, this.entriesEnd * 2);
+			}
+			
+			entry = this.entriesEnd++;
+		}
+		
+		this.entryId[entry] = id;
+		this.entryNext[entry] = this.cellHeads[slot];
+		this.cellHeads[slot] = entry;
+	}
+	
+	/**
+	 * @post Quita la figura con el identificador especificado de la celda especificada
+	 */
+	private void removeFromCell(int cellX, int cellY, int id) {
+		final int slot = this.findSlot(cellX, cellY);
+		
+		if ( slot != NULL_ID ) {
+			int previousEntry = NULL_ID;
+			int entry = this.cellHeads[slot];
+			
+			while ( ( entry != NULL_ID ) && ( this.entryId[entry] != id ) ) {
+				previousEntry = entry;
+				entry = this.entryNext[entry];
+			}
+			
+			if ( entry != NULL_ID ) {
+				if ( previousEntry != NULL_ID ) {
+					this.entryNext[previousEntry] = this.entryNext[entry];
+				}
+				else {
+					this.cellHeads[slot] = this.entryNext[entry];
+				}
+				
+				this.entryNext[entry] = this.freeEntryList;
+				this.freeEntryList = entry;
+			}
+		}
+	}
+	
+	/**
+	 * @post Registra la figura con el identificador especificado en las celdas que cubre
+	 */
+	private void registerInCells(int id) {
+		for ( int cellX = this.cellMinX[id] ; cellX <= this.cellMaxX[id] ; cellX++ ) {
+			for ( int cellY = this.cellMinY[id] ; cellY <= this.cellMaxY[id] ; cellY++ ) {
+				this.addToCell(cellX, cellY, id);
+			}
+		}
+	}
+	
+	/**
+	 * @post Quita la figura con el identificador especificado de las celdas que cubre
+	 */
+	private void unregisterFromCells(int id) {
+		for ( int cellX = this.cellMinX[id] ; cellX <= this.cellMaxX[id] ; cellX++ ) {
+			for ( int cellY = this.cellMinY[id] ; cellY <= this.cellMaxY[id] ; cellY++ ) {
+				this.removeFromCell(cellX, cellY, id);
+			}
+		}
+	}
+	
+	/**
+	 * @post Asigna la figura especificada al identificador especificado, con su bounding box
+	 * 		 y su rango de celdas
+	 */
+	private void setShape(int id, S shape) {
+		final BoundingBox boundingBox = shape.boundingBox();
+		
+		if ( boundingBox != null ) {
+			this.shapes[id] = shape;
+			
+			this.boxMinX[id] = boundingBox.getVertex11().getX();
+			this.boxMinY[id] = boundingBox.getVertex11().getY();
+			this.boxMaxX[id] = boundingBox.getVertex22().getX();
+			this.boxMaxY[id] = boundingBox.getVertex22().getY();
+			
+			this.cellMinX[id] = this.cellCoordinate(this.boxMinX[id]);
+			this.cellMinY[id] = this.cellCoordinate(this.boxMinY[id]);
+			this.cellMaxX[id] = this.cellCoordinate(this.boxMaxX[id]);
+			this.cellMaxY[id] = this.cellCoordinate(this.boxMaxY[id]);
+		}
+		else {
+			throw new IllegalArgumentException("Empty shape");
+		}
+	}
+	
+	/**
+	 * @post Devuelve si el identificador especificado es válido
+	 */
+	private boolean isValidId(int id) {
+		return ( id >= 0 ) && ( id < this.idsEnd ) && ( this.shapes[id] != null );
+	}
+	
+	/**
+	 * @pre La figura no puede ser nula ni vacía
+	 * @post Inserta la figura especificada y devuelve su identificador
+	 */
+	public int insert(S shape) {
+		if ( shape != null ) {
+			final int id;
+			
+			if ( this.freeIdList != NULL_ID ) {
+				id = this.freeIdList;
+				this.freeIdList = this.nextFreeId[id];
+			}
+			else {
+				if ( this.idsEnd == this.shapes.length ) {
+					final int newCapacity = this.idsEnd * 2;
+					
+					this.shapes = Arrays.copyOf(this.shapes, newCapacity);
+					this.boxMinX = Arrays.copyOf(this.boxMinX, newCapacity);
+					this.boxMinY = Arrays.copyOf(this.boxMinY, newCapacity);
+					this.boxMaxX = Arrays.copyOf(this.boxMaxX, newCapacity);
+					this.boxMaxY = Arrays.copyOf(this.boxMaxY, newCapacity);
+					this.cellMinX = Arrays.copyOf(this.cellMinX, newCapacity);
+					this.cellMinY = Arrays.copyOf(this.cellMinY, newCapacity);
+					this.cellMaxX = Arrays.copyOf(this.cellMaxX, newCapacity);
+					this.cellMaxY = Arrays.copyOf(this.cellMaxY, newCapacity);
+					this.stamps = Arrays.copyOf(this.stamps, newCapacity);
+					this.nextFreeId = Arrays.copyOf(this.nextFreeId, newCapacity);
+				}
+				
+				id = this.idsEnd++;
+			}
+			
+			this.setShape(id, shape);
+			this.stamps[id] = this.currentStamp;
+			this.shapesCount++;
+			
+			if ( this.updateMode == UpdateMode.INCREMENTAL ) {
+				this.registerInCells(id);
+			}
+			else {
+				this.dirty = true;
+			}
+			
+			return id;
+		}
+		else {
+			throw new NullPointerException();
+		}
+	}
+	
+	/**
+	 * @pre El identificador tiene que ser válido
+	 * @post Quita la figura con el identificador especificado
+	 */
+	public void remove(int id) {
+		if ( this.isValidId(id) ) {
+			if ( this.updateMode == UpdateMode.INCREMENTAL ) {
+				this.unregisterFromCells(id);
+			}
+			else {
+				this.dirty = true;
+			}
+			
+			this.shapes[id] = null;
+			this.nextFreeId[id] = this.freeIdList;
+			this.freeIdList = id;
+			this.shapesCount--;
+		}
+		else {
+			throw new IllegalArgumentException("Invalid id");
+		}
+	}
+	
+	/**
+	 * @pre El identificador tiene que ser válido, y la figura no puede ser nula ni vacía
+	 * @post Reemplaza la figura con el identificador especificado por la figura especificada
+	 */
+	public void move(int id, S shape) {
+		if ( shape != null ) {
+			if ( this.isValidId(id) ) {
+				if ( this.updateMode == UpdateMode.INCREMENTAL ) {
+					final int oldCellMinX = this.cellMinX[id];
+					final int oldCellMinY = this.cellMinY[id];
+					final int oldCellMaxX = this.cellMaxX[id];
+					final int oldCellMaxY = this.cellMaxY[id];
+					
+					this.setShape(id, shape);
+					
+					if ( ( oldCellMinX != this.cellMinX[id] ) || ( oldCellMinY != this.cellMinY[id] ) ||
+							( oldCellMaxX != this.cellMaxX[id] ) || ( oldCellMaxY != this.cellMaxY[id] ) ) {
+						for ( int cellX = oldCellMinX ; cellX <= oldCellMaxX ; cellX++ ) {
+							for ( int cellY = oldCellMinY ; cellY <= oldCellMaxY ; cellY++ ) {
+								this.removeFromCell(cellX, cellY, id);
+							}
+						}
+						
+						this.registerInCells(id);
+					}
+				}
+				else {
+					this.setShape(id, shape);
+					this.dirty = true;
+				}
+			}
+			else {
+				throw new IllegalArgumentException("Invalid id");
+			}
+		}
+		else {
+			throw new NullPointerException();
+		}
+	}
+	
+	/**
+	 * @pre El identificador tiene que ser válido
+	 * @post Devuelve la figura con el identificador especificado
+	 */
+	@SuppressWarnings("unchecked")
+	public S getShape(int id) {
+		if ( this.isValidId(id) ) {
+			return (S) this.shapes[id];
+		}
+		else {
+			throw new IllegalArgumentException("Invalid id");
+		}
+	}
+	
+	/**
+	 * @post Quita todas las figuras
+	 */
+	public void clear() {
+		Arrays.fill(this.shapes, 0, this.idsEnd, null);
+		this.freeIdList = NULL_ID;
+		this.idsEnd = 0;
+		this.shapesCount = 0;
+		
+		this.clearCells();
+		this.dirty = false;
+	}
+	
+	/**
+	 * @post Vacía la tabla de celdas
+	 */
+	private void clearCells() {
+		Arrays.fill(this.cellHeads, FREE_SLOT);
+		this.usedSlots = 0;
+		
+		this.freeEntryList = NULL_ID;
+		this.entriesEnd = 0;
+	}
+	
+	/**
+	 * @post Reconstruye las celdas con todas las figuras
+	 */
+	public void rebuild() {
+		this.clearCells();
+		
+		for ( int id = 0 ; id < this.idsEnd ; id++ ) {
+			if ( this.shapes[id] != null ) {
+				this.registerInCells(id);
+			}
+		}
+		
+		this.dirty = false;
+	}
+	
+	/**
+	 * @post Si hay cambios pendientes, reconstruye las celdas
+	 */
+	private void update() {
+		if ( this.dirty ) {
+			this.rebuild();
+		}
+	}
+	
+	/**
+	 * @post Comienza una consulta, y devuelve la marca para descartar
+	 * 		 figuras repetidas
+	 */
+	private int nextStamp() {
+		if ( this.currentStamp == Integer.MAX_VALUE ) {
+			Arrays.fill(this.stamps, 0);
+			this.currentStamp = 0;
+		}
+		
+		return ++this.currentStamp;
+	}
+	
+	/**
+	 * @post Recorre las figuras cuyos bounding boxes intersecan el rectángulo especificado, sin repetir
+	 * 		 y exceptuando la figura con el identificador especificado,
+	 * 		 y las procesa con el callback especificado si contienen el punto especificado
+	 * 		 o no hay punto, y si tienen intersección con la figura especificada o no hay figura
+	 */
+	@SuppressWarnings("unchecked")
+	private void query(float queryMinX, float queryMinY, float queryMaxX, float queryMaxY, int excludedId, Vector2f point, FiniteProportionalHolomorphicShape<?> shape, QueryCallback<S> callback) {
+		this.update();
+		
+		final int stamp = this.nextStamp();
+		
+		final int queryCellMinX = this.cellCoordinate(queryMinX);
+		final int queryCellMinY = this.cellCoordinate(queryMinY);
+		final int queryCellMaxX = this.cellCoordinate(queryMaxX);
+		final int queryCellMaxY = this.cellCoordinate(queryMaxY);
+		
+		for ( int cellX = queryCellMinX ; cellX <= queryCellMaxX ; cellX++ ) {
+			for ( int cellY = queryCellMinY ; cellY <= queryCellMaxY ; cellY++ ) {
+				final int slot = this.findSlot(cellX, cellY);
+				
+				if ( slot != NULL_ID ) {
+					for ( int entry = this.cellHeads[slot] ; entry != NULL_ID ; entry = this.entryNext[entry] ) {
+						final int id = this.entryId[entry];
+						
+						if ( ( this.stamps[id] != stamp ) && ( id != excludedId ) ) {
+							this.stamps[id] = stamp;
+							
+							if ( ( this.boxMinX[id] <= queryMaxX ) && ( queryMinX <= this.boxMaxX[id] ) &&
+									( this.boxMinY[id] <= queryMaxY ) && ( queryMinY <= this.boxMaxY[id] ) ) {
+								final S eachShape = (S) this.shapes[id];
+								
+								if ( ( ( point == null ) || eachShape.contains(point) ) && ( ( shape == null ) || eachShape.hasIntersection(shape) ) ) {
+									if ( !callback.process(id, eachShape) ) {
+										return;
+									}
+								}
+							}
+						}
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * @pre El bounding box y el callback no pueden ser nulos
+	 * @post Procesa con el callback especificado las figuras cuyos bounding boxes
+	 * 		 intersecan el bounding box especificado
+	 */
+	public void queryRegion(BoundingBox boundingBox, QueryCallback<S> callback) {
+		if ( ( boundingBox != null ) && ( callback != null ) ) {
+			this.query(boundingBox.getVertex11().getX(), boundingBox.getVertex11().getY(), boundingBox.getVertex22().getX(), boundingBox.getVertex22().getY(), NULL_ID, null, null, callback);
+		}
+		else {
+			throw new NullPointerException();
+		}
+	}
+	
+	/**
+	 * @pre El punto y el callback no pueden ser nulos
+	 * @post Procesa con el callback especificado las figuras que contienen el punto especificado
+	 */
+	public void queryPoint(Vector2f point, QueryCallback<S> callback) {
+		if ( ( point != null ) && ( callback != null ) ) {
+			this.query(point.getX(), point.getY(), point.getX(), point.getY(), NULL_ID, point, null, callback);
+		}
+		else {
+			throw new NullPointerException();
+		}
+	}
+	
+	/**
+	 * @pre La figura y el callback no pueden ser nulos
+	 * @post Procesa con el callback especificado las figuras que tienen intersección con
+	 * 		 la figura especificada
+	 */
+	public void queryShape(FiniteProportionalHolomorphicShape<?> shape, QueryCallback<S> callback) {
+		if ( ( shape != null ) && ( callback != null ) ) {
+			final BoundingBox boundingBox = shape.boundingBox();
+			
+			if ( boundingBox != null ) {
+				this.query(boundingBox.getVertex11().getX(), boundingBox.getVertex11().getY(), boundingBox.getVertex22().getX(), boundingBox.getVertex22().getY(), NULL_ID, null, shape, callback);
+			}
+		}
+		else {
+			throw new NullPointerException();
+		}
+	}
+	
+	/**
+	 * @pre El identificador tiene que ser válido, y el callback no puede ser nulo
+	 * @post Procesa con el callback especificado las demás figuras cuyos bounding boxes
+	 * 		 intersecan el bounding box de la figura con el identificador especificado
+	 */
+	public void queryNeighbours(int id, QueryCallback<S> callback) {
+		if ( callback != null ) {
+			if ( this.isValidId(id) ) {
+				this.query(this.boxMinX[id], this.boxMinY[id], this.boxMaxX[id], this.boxMaxY[id], id, null, null, callback);
+			}
+			else {
+				throw new IllegalArgumentException("Invalid id");
+			}
+		}
+		else {
+			throw new NullPointerException();
+		}
+	}
+	
+	/**
+	 * @pre El callback no puede ser nulo
+	 * @post Procesa con el callback especificado, una única vez, cada par de figuras
+	 * 		 cuyos bounding boxes se intersecan
+	 */
+	@SuppressWarnings("unchecked")
+	public void queryPairs(PairCallback<S> callback) {
+		if ( callback != null ) {
+			this.update();
+			
+			for ( int slot = 0 ; slot < this.cellHeads.length ; slot++ ) {
+				if ( this.cellHeads[slot] >= 0 ) {
+					final int cellX = (int) ( this.cellKeys[slot] >> 32 );
+					final int cellY = (int) this.cellKeys[slot];
+					
+					for ( int entry1 = this.cellHeads[slot] ; entry1 != NULL_ID ; entry1 = this.entryNext[entry1] ) {
+						final int id1 = this.entryId[entry1];
+						
+						for ( int entry2 = this.entryNext[entry1] ; entry2 != NULL_ID ; entry2 = this.entryNext[entry2] ) {
+							final int id2 = this.entryId[entry2];
+							
+							// Se informa el par sólo en la primera celda que comparten
+							if ( ( Math.max(this.cellMinX[id1], this.cellMinX[id2]) == cellX ) && ( Math.max(this.cellMinY[id1], this.cellMinY[id2]) == cellY ) &&
+									( this.boxMinX[id1] <= this.boxMaxX[id2] ) && ( this.boxMinX[id2] <= this.boxMaxX[id1] ) &&
+									( this.boxMinY[id1] <= this.boxMaxY[id2] ) && ( this.boxMinY[id2] <= this.boxMaxY[id1] ) ) {
+								if ( !callback.process(id1, (S) this.shapes[id1], id2, (S) this.shapes[id2]) ) {
+									return;
+								}
+							}
+						}
+					}
+				}
+			}
+		}
+		else {
+			throw new NullPointerException();
+		}
+	}
+	
+	/**
+	 * @pre El callback no puede ser nulo
+	 * @post Procesa con el callback especificado, una única vez, cada par de figuras
+	 * 		 que tienen intersección
+	 */
+	public void queryIntersectingPairs(final PairCallback<S> callback) {
+		if ( callback != null ) {
+			this.queryPairs(new PairCallback<S>() {
+
+				@Override
+				public boolean process(int id1, S shape1, int id2, S shape2) {
+					if ( shape1.hasIntersection(shape2) ) {
+						return callback.process(id1, shape1, id2, shape2);
+					}
+					else {
+						return true;
+					}
+				}
+				
+			});
+		}
+		else {
+			throw new NullPointerException();
+		}
+	}
+}
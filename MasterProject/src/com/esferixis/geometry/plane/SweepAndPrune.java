@@ -0,0 +1,811 @@
+/**
+ * Copyright (c) 2017 Ariel Favio Carrizo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'esferixis' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.esferixis.geometry.plane;
+
+import java.util.Arrays;
+
+import com.esferixis.geometry.plane.finite.BoundingBox;
+import com.esferixis.geometry.plane.finite.FiniteProportionalHolomorphicShape;
+
+/**
+ * @author ariel
+ *
+ * Fase amplia por ordenamiento y barrido (sweep and prune) con coherencia temporal.
+ * 
+ * Se mantienen, entre actualizaciones, los extremos de los intervalos en X y en Y
+ * de los bounding boxes de las figuras ordenados en arrays.
+ * En cada actualización se reordenan con inserción, que es casi lineal si las figuras
+ * se movieron poco, y cada intercambio entre un extremo mínimo y un extremo máximo
+ * indica un par que comienza o deja de solaparse.
+ * Si hay muchas inserciones pendientes, como en la carga inicial, se ordenan los
+ * extremos con Arrays.sort y se reconstruyen los pares con un único barrido.
+ * Los pares solapados se guardan en un conjunto de claves long.
+ * 
+ * Los cambios (inserción, movimiento y quita de figuras) se aplican en la siguiente
+ * actualización, que informa los pares agregados y quitados.
+ * No es thread-safe.
+ */
+public final class SweepAndPrune<S extends FiniteProportionalHolomorphicShape<?>> {
+	/**
+	 * Identificador nulo
+	 */
+	public static final int NULL_ID = -1;
+	
+	public interface PairListener<S extends FiniteProportionalHolomorphicShape<?>> {
+		/**
+		 * @post Procesa el par de figuras especificado, cuyos bounding boxes
+		 * 		 comenzaron a solaparse
+		 */
+		public void pairAdded(int id1, S shape1, int id2, S shape2);
+		
+		/**
+		 * @post Procesa el par de figuras especificado, cuyos bounding boxes
+		 * 		 dejaron de solaparse, o alguna de las figuras se quitó
+		 */
+		public void pairRemoved(int id1, S shape1, int id2, S shape2);
+	}
+	
+	public interface PairCallback<S extends FiniteProportionalHolomorphicShape<?>> {
+		/**
+		 * @post Procesa el par de figuras con los identificadores especificados.
+		 * 		 Devuelve si la consulta tiene que continuar
+		 */
+		public boolean process(int id1, S shape1, int id2, S shape2);
+	}
+	
+	/**
+	 * Conjunto de claves long, con direccionamiento abierto y sondeo lineal.
+	 * La clave cero está reservada para las posiciones libres
+	 */
+	private static final class LongHashSet {
+		private long[] keys;
+		private int size;
+		
+		/**
+		 * @post Crea el conjunto vacío
+		 */
+		public LongHashSet() {
+			this.keys = new long[INITIAL_CAPACITY];
+			this.size = 0;
+		}
+		
+		/**
+		 * @post Devuelve el hash de la clave especificada
+		 */
+		private static int hash(long key) {
+			key ^= key >>> 33;
+			key *= 0xFF51AFD7ED558CCDL;
+			key ^= key >>> 33;
+			
+			return (int) key;
+		}
+		
+		/**
+		 * @post Devuelve la posición de la clave especificada, o de la posición libre
+		 * 		 donde tendría que estar
+		 */
+		private int slot(long key) {
+			final int mask = this.keys.length - 1;
+			int slot = hash(key) & mask;
+			
+			while ( ( this.keys[slot] != 0L ) && ( this.keys[slot] != key ) ) {
+				slot = ( slot + 1 ) & mask;
+			}
+			
+			return slot;
+		}
+		
+		/**
+		 * @post Devuelve si contiene la clave especificada
+		 */
+		public boolean contains(long key) {
+			return this.keys[this.slot(key)] == key;
+		}
+		
+		/**
+		 * @post Agrega la clave especificada, y devuelve si no estaba
+		 */
+		public boolean add(long key) {
+			if ( ( this.size + 1 ) * 2 > this.keys.length ) {
+				final long[] oldKeys = this.keys;
+				this.keys = new long[oldKeys.length * 2];
+				
+				for ( long eachKey : oldKeys ) {
+					if ( eachKey != 0L ) {
+						this.keys[this.slot(eachKey)] = eachKey;
+					}
+				}
+			}
+			
+			final int slot = this.slot(key);
+			
+			if ( this.keys[slot] != key ) {
+				this.keys[slot] = key;
+				this.size++;
+				return true;
+			}
+			else {
+				return false;
+			}
+		}
+		
+		/**
+		 * @post Quita la clave especificada, y devuelve si estaba
+		 */
+		public boolean remove(long key) {
+			int slot = this.slot(key);
+			
+			if ( this.keys[slot] == key ) {
+				final int mask = this.keys.length - 1;
+				
+				// Corre hacia atrás las claves siguientes del mismo grupo
+				int next = ( slot + 1 ) & mask;
+				while ( this.keys[next] != 0L ) {
+					final int ideal = hash(this.keys[next]) & mask;
+					
+					if ( ( ( next - ideal ) & mask ) >= ( ( next - slot ) & mask ) ) {
+						this.keys[slot] = this.keys[next];
+						slot = next;
+					}
+					
+					next = ( next + 1 ) & mask;
+				}
+				
+				this.keys[slot] = 0L;
+				this.size--;
+				
+				return true;
+			}
+			else {
+				return false;
+			}
+		}
+		
+		/**
+		 * @post Vacía el conjunto
+		 */
+		public void clear() {
+			Arrays.fill(this.keys, 0L);
+			this.size = 0;
+		}
+	}
+	
+	private static final int INITIAL_CAPACITY = 16;
+	private static final int AXES = 2;
+	
+	/**
+	 * Cantidad mínima de inserciones pendientes para reordenar con Arrays.sort
+	 */
+	private static final int BATCH_MIN_INSERTS = 16;
+	
+	// Figuras
+	private Object[] shapes;
+	private float[][] boxMin, boxMax;
+	private int[][] minEndpointIndex, maxEndpointIndex;
+	private boolean[] removed;
+	private int[] nextFreeId;
+	private int freeIdList;
+	private int idsEnd;
+	private int shapesCount;
+	
+	// Extremos por eje, cada uno codificado como ( id << 1 ) | ( es máximo ? 1 : 0 )
+	private float[][] endpointValues;
+	private int[][] endpoints;
+	private int endpointsCount;
+	
+	private LongHashSet pairs;
+	
+	// Inserciones desde la última actualización
+	private int pendingInsertsCount;
+	
+	// Buffers de la reconstrucción
+	private long[] batchKeys;
+	private int[] activeIds, activePosition;
+	
+	// Pares cambiados en la actualización en curso
+	private final LongHashSet touchedPairs;
+	private long[] touchedPairsList;
+	private boolean[] touchedPairsWerePresent;
+	private int touchedPairsCount;
+	
+	private int[] removedIds;
+	private int removedIdsCount;
+	
+	/**
+	 * @post Crea la fase amplia vacía
+	 */
+	public SweepAndPrune() {
+		this.shapes = new Object[INITIAL_CAPACITY];
+		this.boxMin = new float[AXES][INITIAL_CAPACITY];
+		this.boxMax = new float[AXES][INITIAL_CAPACITY];
+		this.minEndpointIndex = new int[AXES][INITIAL_CAPACITY];
+		this.maxEndpointIndex = new int[AXES][INITIAL_CAPACITY];
+		this.removed = new boolean[INITIAL_CAPACITY];
+		this.nextFreeId = new int[INITIAL_CAPACITY];
+		this.freeIdList = NULL_ID;
+		this.idsEnd = 0;
+		this.shapesCount = 0;
+		
+		this.endpointValues = new float[AXES][INITIAL_CAPACITY * 2];
+		this.endpoints = new int[AXES][INITIAL_CAPACITY * 2];
+		this.endpointsCount = 0;
+		
+		this.pairs = new LongHashSet();
+		
+		this.pendingInsertsCount = 0;
+		this.batchKeys = new long[INITIAL_CAPACITY * 2];
+		this.activeIds = new int[INITIAL_CAPACITY];
+		this.activePosition = new int[INITIAL_CAPACITY];
+		
+		this.touchedPairs = new LongHashSet();
+		this.touchedPairsList = new long[INITIAL_CAPACITY];
+		this.touchedPairsWerePresent = new boolean[INITIAL_CAPACITY];
+		this.touchedPairsCount = 0;
+		
+		this.removedIds = new int[INITIAL_CAPACITY];
+		this.removedIdsCount = 0;
+	}
+	
+	/**
+	 * @post Devuelve la cantidad de figuras
+	 */
+	public int size() {
+		return this.shapesCount;
+	}
+	
+	/**
+	 * @post Devuelve la clave del par especificado
+	 */
+	private static long pairKey(int id1, int id2) {
+		if ( id1 < id2 ) {
+			return ( ( (long) id1 ) << 32 ) | id2;
+		}
+		else {
+			return ( ( (long) id2 ) << 32 ) | id1;
+		}
+	}
+	
+	/**
+	 * @post Devuelve si el identificador especificado es válido
+	 */
+	private boolean isValidId(int id) {
+		return ( id >= 0 ) && ( id < this.idsEnd ) && ( this.shapes[id] != null ) && ( !this.removed[id] );
+	}
+	
+	/**
+	 * @post Asigna la figura especificada al identificador especificado, con su bounding box
+	 */
+	private void setShape(int id, S shape) {
+		final BoundingBox boundingBox = shape.boundingBox();
+		
+		if ( boundingBox != null ) {
+			this.shapes[id] = shape;
+			
+			this.boxMin[0][id] = boundingBox.getVertex11().getX();
+			this.boxMin[1][id] = boundingBox.getVertex11().getY();
+			this.boxMax[0][id] = boundingBox.getVertex22().getX();
+			this.boxMax[1][id] = boundingBox.getVertex22().getY();
+		}
+		else {
+			throw new IllegalArgumentException("Empty shape");
+		}
+	}
+	
+	/**
+	 * @post Copia el bounding box del identificador especificado a sus extremos
+	 */
+	private void updateEndpointValues(int id) {
+		for ( int axis = 0 ; axis < AXES ; axis++ ) {
+			this.endpointValues[axis][this.minEndpointIndex[axis][id]] = this.boxMin[axis][id];
+			this.endpointValues[axis][this.maxEndpointIndex[axis][id]] = this.boxMax[axis][id];
+		}
+	}
+	
+	/**
+	 * @pre La figura no puede ser nula ni vacía
+	 * @post Inserta la figura especificada y devuelve su identificador.
+	 * 		 Los pares se informan en la siguiente actualización
+	 */
+	public int insert(S shape) {
+		if ( shape != null ) {
+			final int id;
+			
+			if ( this.freeIdList != NULL_ID ) {
+				id = this.freeIdList;
+				this.freeIdList = this.nextFreeId[id];
+			}
+			else {
+				if ( this.idsEnd == this.shapes.length ) {
+					final int newCapacity = this.idsEnd * 2;
+					
+					this.shapes = Arrays.copyOf(this.shapes, newCapacity);
+					for ( int axis = 0 ; axis < AXES ; axis++ ) {
+						this.boxMin[axis] = Arrays.copyOf(this.boxMin[axis], newCapacity);
+						this.boxMax[axis] = Arrays.copyOf(this.boxMax[axis], newCapacity);
+						this.minEndpointIndex[axis] = Arrays.copyOf(this.minEndpointIndex[axis], newCapacity);
+						this.maxEndpointIndex[axis] = Arrays.copyOf(this.maxEndpointIndex[axis], newCapacity);
+						this.endpointValues[axis] = Arrays.copyOf(this.endpointValues[axis], newCapacity * 2);
+						this.endpoints[axis] = Arrays.copyOf(this.endpoints[axis], newCapacity * 2);
+					}
+					this.removed = Arrays.copyOf(this.removed, newCapacity);
+					this.nextFreeId = Arrays.copyOf(this.nextFreeId, newCapacity);
+				}
+				
+				id = this.idsEnd++;
+			}
+			
+			this.setShape(id, shape);
+			this.removed[id] = false;
+			
+			// Agrega los extremos al final, se ordenan en la siguiente actualización
+			for ( int axis = 0 ; axis < AXES ; axis++ ) {
+				this.minEndpointIndex[axis][id] = this.endpointsCount;
+				this.endpoints[axis][this.endpointsCount] = id << 1;
+				
+				this.maxEndpointIndex[axis][id] = this.endpointsCount + 1;
+				this.endpoints[axis][this.endpointsCount + 1] = ( id << 1 ) | 1;
+			}
+			this.endpointsCount += 2;
+			this.updateEndpointValues(id);
+			
+			this.shapesCount++;
+			this.pendingInsertsCount++;
+			
+			return id;
+		}
+		else {
+			throw new NullPointerException();
+		}
+	}
+	
+	/**
+	 * @pre El identificador tiene que ser válido, y la figura no puede ser nula ni vacía
+	 * @post Reemplaza la figura con el identificador especificado por la figura especificada.
+	 * 		 Los pares se informan en la siguiente actualización
+	 */
+	public void move(int id, S shape) {
+		if ( shape != null ) {
+			if ( this.isValidId(id) ) {
+				this.setShape(id, shape);
+				this.updateEndpointValues(id);
+			}
+			else {
+				throw new IllegalArgumentException("Invalid id");
+			}
+		}
+		else {
+			throw new NullPointerException();
+		}
+	}
+	
+	/**
+	 * @pre El identificador tiene que ser válido
+	 * @post Quita la figura con el identificador especificado.
+	 * 		 La quita de sus pares se informa en la siguiente actualización
+	 */
+	public void remove(int id) {
+		if ( this.isValidId(id) ) {
+			this.removed[id] = true;
+			
+			// Lleva los extremos al final, se quitan en la siguiente actualización
+			for ( int axis = 0 ; axis < AXES ; axis++ ) {
+				this.boxMin[axis][id] = Float.POSITIVE_INFINITY;
+				this.boxMax[axis][id] = Float.POSITIVE_INFINITY;
+			}
+			this.updateEndpointValues(id);
+			
+			if ( this.removedIdsCount == this.removedIds.length ) {
+				this.removedIds = Arrays.copyOf(this.removedIds, this.removedIdsCount * 2);
+			}
+			this.removedIds[this.removedIdsCount++] = id;
+			
+			this.shapesCount--;
+		}
+		else {
+			throw new IllegalArgumentException("Invalid id");
+		}
+	}
+	
+	/**
+	 * @pre El identificador tiene que ser válido
+	 * @post Devuelve la figura con el identificador especificado
+	 */
+	@SuppressWarnings("unchecked")
+	public S getShape(int id) {
+		if ( this.isValidId(id) ) {
+			return (S) this.shapes[id];
+		}
+		else {
+			throw new IllegalArgumentException("Invalid id");
+		}
+	}
+	
+	/**
+	 * @post Devuelve si los bounding boxes de las figuras especificadas se solapan,
+	 * 		 y ninguna de ellas se quitó
+	 */
+	private boolean boxesOverlap(int id1, int id2) {
+		if ( this.removed[id1] || this.removed[id2] ) {
+			return false;
+		}
+		
+		for ( int axis = 0 ; axis < AXES ; axis++ ) {
+			if ( ( this.boxMin[axis][id1] > this.boxMax[axis][id2] ) || ( this.boxMin[axis][id2] > this.boxMax[axis][id1] ) ) {
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * @post Registra que el par especificado va a cambiar
+	 */
+	private void touchPair(long key) {
+		if ( this.touchedPairs.add(key) ) {
+			if ( this.touchedPairsCount == this.touchedPairsList.length ) {
+				this.touchedPairsList = Arrays.copyOf(this.touchedPairsList, this.touchedPairsCount * 2);
+				this.touchedPairsWerePresent = Arrays.copyOf(this.touchedPairsWerePresent, this.touchedPairsCount * 2);
+			}
+			
+			this.touchedPairsList[this.touchedPairsCount] = key;
+			this.touchedPairsWerePresent[this.touchedPairsCount] = this.pairs.contains(key);
+			this.touchedPairsCount++;
+		}
+	}
+	
+	/**
+	 * @post Devuelve si el extremo especificado va antes que el otro extremo especificado.
+	 * 		 Con el mismo valor, los mínimos van antes que los máximos, así el contacto
+	 * 		 cuenta como solapamiento.
+	 * 		 En infinito, que es donde quedan los extremos de las figuras quitadas,
+	 * 		 los máximos van antes que los mínimos, así se separan entre sí
+	 */
+	private static boolean precedes(float value, int endpoint, float otherValue, int otherEndpoint) {
+		if ( value != otherValue ) {
+			return value < otherValue;
+		}
+		else if ( value != Float.POSITIVE_INFINITY ) {
+			return ( endpoint & 1 ) < ( otherEndpoint & 1 );
+		}
+		else {
+			return ( endpoint & 1 ) > ( otherEndpoint & 1 );
+		}
+	}
+	
+	/**
+	 * @post Reordena con inserción los extremos del eje especificado,
+	 * 		 actualizando los pares solapados
+	 */
+	private void sortAxis(int axis) {
+		final float[] values = this.endpointValues[axis];
+		final int[] axisEndpoints = this.endpoints[axis];
+		final int[] minIndex = this.minEndpointIndex[axis];
+		final int[] maxIndex = this.maxEndpointIndex[axis];
+		
+		for ( int i = 1 ; i < this.endpointsCount ; i++ ) {
+			final float value = values[i];
+			final int endpoint = axisEndpoints[i];
+			final int id = endpoint >>> 1;
+			final boolean isMax = ( endpoint & 1 ) != 0;
+			
+			int j = i;
+			while ( ( j > 0 ) && precedes(value, endpoint, values[j-1], axisEndpoints[j-1]) ) {
+				final int otherEndpoint = axisEndpoints[j-1];
+				final int otherId = otherEndpoint >>> 1;
+				final boolean otherIsMax = ( otherEndpoint & 1 ) != 0;
+				
+				if ( id == otherId ) {
+					// Extremos de la misma figura quitada
+				}
+				else if ( !isMax && otherIsMax ) {
+					// El mínimo pasa antes que el máximo de la otra figura
+					if ( this.boxesOverlap(id, otherId) ) {
+						final long key = pairKey(id, otherId);
+						this.touchPair(key);
+						this.pairs.add(key);
+					}
+				}
+				else if ( isMax && !otherIsMax ) {
+					// El máximo pasa antes que el mínimo de la otra figura
+					final long key = pairKey(id, otherId);
+					if ( this.pairs.contains(key) ) {
+						this.touchPair(key);
+						this.pairs.remove(key);
+					}
+				}
+				
+				values[j] = values[j-1];
+				axisEndpoints[j] = otherEndpoint;
+				if ( otherIsMax ) {
+					maxIndex[otherId] = j;
+				}
+				else {
+					minIndex[otherId] = j;
+				}
+				
+				j--;
+			}
+			
+			if ( j != i ) {
+				values[j] = value;
+				axisEndpoints[j] = endpoint;
+				if ( isMax ) {
+					maxIndex[id] = j;
+				}
+				else {
+					minIndex[id] = j;
+				}
+			}
+		}
+	}
+	
+	/**
+	 * @post Devuelve la clave de ordenamiento del valor especificado, con el mismo
+	 * 		 orden que los floats y cero sin signo
+	 */
+	private static int sortableBits(float value) {
+		final int bits = Float.floatToIntBits(value + 0.0f);
+		
+		return ( bits < 0 ) ? ( bits ^ 0x7FFFFFFF ) : bits;
+	}
+	
+	private static final int POSITIVE_INFINITY_SORTABLE_BITS = sortableBits(Float.POSITIVE_INFINITY);
+	
+	/**
+	 * @post Ordena con Arrays.sort los extremos del eje especificado, con el mismo
+	 * 		 orden que precedes, sin actualizar los pares solapados
+	 */
+	private void sortAxisBatch(int axis) {
+		final float[] values = this.endpointValues[axis];
+		final int[] axisEndpoints = this.endpoints[axis];
+		final int[] minIndex = this.minEndpointIndex[axis];
+		final int[] maxIndex = this.maxEndpointIndex[axis];
+		
+		if ( this.batchKeys.length < this.endpointsCount ) {
+			this.batchKeys = new long[this.endpoints[axis].length];
+		}
+		final long[] keys = this.batchKeys;
+		
+		// Cada clave lleva el valor en los 32 bits altos, el bit de desempate en el bit 31 y el identificador en los bits bajos
+		for ( int i = 0 ; i < this.endpointsCount ; i++ ) {
+			final int sortableValue = sortableBits(values[i]);
+			final int endpoint = axisEndpoints[i];
+			final int isMax = endpoint & 1;
+			final int tieBreak = ( sortableValue != POSITIVE_INFINITY_SORTABLE_BITS ) ? isMax : ( 1 - isMax );
+			
+			keys[i] = ( ( (long) sortableValue ) << 32 ) | ( ( (long) tieBreak ) << 31 ) | ( endpoint >>> 1 );
+		}
+		
+		Arrays.sort(keys, 0, this.endpointsCount);
+		
+		for ( int i = 0 ; i < this.endpointsCount ; i++ ) {
+			final long key = keys[i];
+			final int id = (int) ( key & 0x7FFFFFFFL );
+			final int tieBreak = (int) ( key >>> 31 ) & 1;
+			final boolean isMax = ( ( (int) ( key >>> 32 ) ) != POSITIVE_INFINITY_SORTABLE_BITS ) ? ( tieBreak == 1 ) : ( tieBreak == 0 );
+			
+			if ( isMax ) {
+				values[i] = this.boxMax[axis][id];
+				axisEndpoints[i] = ( id << 1 ) | 1;
+				maxIndex[id] = i;
+			}
+			else {
+				values[i] = this.boxMin[axis][id];
+				axisEndpoints[i] = id << 1;
+				minIndex[id] = i;
+			}
+		}
+	}
+	
+	/**
+	 * @pre Los extremos del eje X tienen que estar ordenados
+	 * @post Reconstruye los pares solapados con un barrido del eje X, registrando
+	 * 		 los pares que cambian
+	 */
+	private void rebuildPairs() {
+		final LongHashSet newPairs = new LongHashSet();
+		final int[] axisEndpoints = this.endpoints[0];
+		
+		if ( this.activeIds.length < this.idsEnd ) {
+			this.activeIds = new int[this.shapes.length];
+			this.activePosition = new int[this.shapes.length];
+		}
+		int activeCount = 0;
+		
+		for ( int i = 0 ; i < this.endpointsCount ; i++ ) {
+			final int endpoint = axisEndpoints[i];
+			final int id = endpoint >>> 1;
+			
+			if ( !this.removed[id] ) {
+				if ( ( endpoint & 1 ) == 0 ) {
+					for ( int j = 0 ; j < activeCount ; j++ ) {
+						if ( this.boxesOverlap(id, this.activeIds[j]) ) {
+							newPairs.add(pairKey(id, this.activeIds[j]));
+						}
+					}
+					
+					this.activePosition[id] = activeCount;
+					this.activeIds[activeCount++] = id;
+				}
+				else {
+					// Reemplaza por el último
+					final int position = this.activePosition[id];
+					final int lastId = this.activeIds[--activeCount];
+					
+					this.activeIds[position] = lastId;
+					this.activePosition[lastId] = position;
+				}
+			}
+		}
+		
+		for ( long eachKey : this.pairs.keys ) {
+			if ( ( eachKey != 0L ) && !newPairs.contains(eachKey) ) {
+				this.touchPair(eachKey);
+			}
+		}
+		
+		for ( long eachKey : newPairs.keys ) {
+			if ( ( eachKey != 0L ) && !this.pairs.contains(eachKey) ) {
+				this.touchPair(eachKey);
+			}
+		}
+		
+		this.pairs = newPairs;
+	}
+	
+	/**
+	 * @post Devuelve si conviene reordenar con Arrays.sort, porque la inserción
+	 * 		 de cada extremo nuevo recorre en promedio la mitad de los extremos
+	 */
+	private boolean useBatchSort() {
+		return ( this.pendingInsertsCount >= BATCH_MIN_INSERTS ) && ( this.pendingInsertsCount >= 32 - Integer.numberOfLeadingZeros(this.endpointsCount) );
+	}
+	
+	/**
+	 * @post Aplica los cambios pendientes
+	 */
+	public void update() {
+		this.update(null);
+	}
+	
+	/**
+	 * @post Aplica los cambios pendientes, e informa al listener especificado los pares
+	 * 		 que comenzaron y dejaron de solaparse, si no es nulo
+	 */
+	@SuppressWarnings("unchecked")
+	public void update(PairListener<S> listener) {
+		if ( this.useBatchSort() ) {
+			for ( int axis = 0 ; axis < AXES ; axis++ ) {
+				this.sortAxisBatch(axis);
+			}
+			
+			this.rebuildPairs();
+		}
+		else {
+			for ( int axis = 0 ; axis < AXES ; axis++ ) {
+				this.sortAxis(axis);
+			}
+		}
+		this.pendingInsertsCount = 0;
+		
+		if ( listener != null ) {
+			for ( int i = 0 ; i < this.touchedPairsCount ; i++ ) {
+				final long key = this.touchedPairsList[i];
+				final boolean isPresent = this.pairs.contains(key);
+				
+				if ( isPresent != this.touchedPairsWerePresent[i] ) {
+					final int id1 = (int) ( key >>> 32 );
+					final int id2 = (int) key;
+					
+					if ( isPresent ) {
+						listener.pairAdded(id1, (S) this.shapes[id1], id2, (S) this.shapes[id2]);
+					}
+					else {
+						listener.pairRemoved(id1, (S) this.shapes[id1], id2, (S) this.shapes[id2]);
+					}
+				}
+			}
+		}
+		
+		this.touchedPairs.clear();
+		this.touchedPairsCount = 0;
+		
+		// Los extremos de las figuras quitadas quedaron al final
+		if ( this.removedIdsCount != 0 ) {
+			this.endpointsCount -= this.removedIdsCount * 2;
+			
+			for ( int i = 0 ; i < this.removedIdsCount ; i++ ) {
+				final int id = this.removedIds[i];
+				
+				this.shapes[id] = null;
+				this.removed[id] = false;
+				this.nextFreeId[id] = this.freeIdList;
+				this.freeIdList = id;
+			}
+			
+			this.removedIdsCount = 0;
+		}
+	}
+	
+	/**
+	 * @pre El callback no puede ser nulo
+	 * @post Procesa con el callback especificado los pares cuyos bounding boxes se solapaban
+	 * 		 en la última actualización
+	 */
+	@SuppressWarnings("unchecked")
+	public void queryPairs(PairCallback<S> callback) {
+		if ( callback != null ) {
+			final long[] keys = this.pairs.keys;
+			
+			for ( int i = 0 ; i < keys.length ; i++ ) {
+				if ( keys[i] != 0L ) {
+					final int id1 = (int) ( keys[i] >>> 32 );
+					final int id2 = (int) keys[i];
+					
+					if ( !callback.process(id1, (S) this.shapes[id1], id2, (S) this.shapes[id2]) ) {
+						return;
+					}
+				}
+			}
+		}
+		else {
+			throw new NullPointerException();
+		}
+	}
+	
+	/**
+	 * @pre El callback no puede ser nulo
+	 * @post Procesa con el callback especificado los pares de figuras que tienen intersección,
+	 * 		 en la última actualización
+	 */
+	public void queryIntersectingPairs(final PairCallback<S> callback) {
+		if ( callback != null ) {
+			this.queryPairs(new PairCallback<S>() {
+
+				@Override
+				public boolean process(int id1, S shape1, int id2, S shape2) {
+					if ( shape1.hasIntersection(shape2) ) {
+						return callback.process(id1, shape1, id2, shape2);
+					}
+					else {
+						return true;
+					}
+				}
+				
+			});
+		}
+		else {
+			throw new NullPointerException();
+		}
+	}
+}
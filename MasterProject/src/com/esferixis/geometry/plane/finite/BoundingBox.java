@@ -51,7 +51,7 @@ public final class BoundingBox implements Serializable {
 	 * @pre Ninguno de los dos vértices pueden ser nulos
 	 * @post Crea el bounding box con los vértices especificados
 	 */
-	BoundingBox(Vector2f p11, Vector2f p22) {
+	public BoundingBox(Vector2f p11, Vector2f p22) {
 		if ( ( p11 != null ) && ( p22 != null ) ) {
 			this.vertex11 = p11;
 			this.vertex22 = p22;
@@ -89,6 +89,28 @@ public final class BoundingBox implements Serializable {
 		return new Vector2f(this.vertex11.getX(), this.vertex22.getY());
 	}
 	
+	/**
+	 * @post Devuelve el centro
+	 */
+	public Vector2f getCenter() {
+		return new Vector2f( ( this.vertex11.getX() + this.vertex22.getX() ) * 0.5f, ( this.vertex11.getY() + this.vertex22.getY() ) * 0.5f );
+	}
+	
+	/**
+	 * @pre El bounding box especificado no puede ser nulo
+	 * @post Devuelve si hay intersección con el bounding box especificado,
+	 * 		 incluyendo el contacto en los bordes
+	 */
+	public boolean intersects(BoundingBox other) {
+		if ( other != null ) {
+			return ( this.vertex11.getX() <= other.vertex22.getX() ) && ( other.vertex11.getX() <= this.vertex22.getX() ) &&
+					( this.vertex11.getY() <= other.vertex22.getY() ) && ( other.vertex11.getY() <= this.vertex22.getY() );
+		}
+		else {
+			throw new NullPointerException();
+		}
+	}
+	
 	/**
 	 * @pre El bounding box especificado no puede ser nulo
 	 * @post Calcula el bounding box con el bounding box especificado
@@ -96,8 +118,8 @@ public final class BoundingBox implements Serializable {
 	public BoundingBox unionBoundingBox(BoundingBox other) {
 		if ( other != null ) {
 			return new BoundingBox(
-					new Vector2f(this.vertex11.getX() + other.vertex11.getX(), this.vertex11.getY() + other.vertex11.getY()),
-					new Vector2f(this.vertex22.getX() + other.vertex22.getX(), this.vertex22.getY() + other.vertex22.getY())
+					new Vector2f(Math.min(this.vertex11.getX(), other.vertex11.getX()), Math.min(this.vertex11.getY(), other.vertex11.getY())),
+					new Vector2f(Math.max(this.vertex22.getX(), other.vertex22.getX()), Math.max(this.vertex22.getY(), other.vertex22.getY()))
 			);
 		}
 		else {
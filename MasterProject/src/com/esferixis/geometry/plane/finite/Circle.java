@@ -42,7 +42,7 @@ import com.esferixis.math.Vector2f;
  * @author ariel
  *
  */
-public final class Circle extends ClosedSurface<Circle> {
+public final class Circle extends ClosedSurface<Circle> implements SupportMapping {
 	private static final long serialVersionUID = -2267851878495621657L;
 	
 	private final Circumference circumference;
@@ -52,6 +52,8 @@ public final class Circle extends ClosedSurface<Circle> {
 	 * @post Crea el círculo con la circunferencia especificada
 	 */
 	public Circle(Circumference circumference) {
+		super(CIRCLE_TYPETAG);
+		
 		if ( circumference != null ) {
 			this.circumference = circumference;
 		}
@@ -92,6 +94,30 @@ public final class Circle extends ClosedSurface<Circle> {
 		return this.circumference.getRectIntersection(rect);
 	}
 	
+	/* (non-Javadoc)
+	 * @see com.esferixis.geometry.plane.Shape#getRectIntersection(com.esferixis.geometry.plane.Line, float[], int)
+	 */
+	@Override
+	public int getRectIntersection(Line rect, float[] result, int offset) {
+		return this.circumference.getRectIntersection(rect, result, offset);
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.esferixis.geometry.plane.Shape#getRayIntersectionParameter(com.esferixis.geometry.plane.Line)
+	 */
+	@Override
+	public float getRayIntersectionParameter(Line rect) {
+		return this.circumference.getRayIntersectionParameter(rect);
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.esferixis.geometry.plane.Shape#getRayIntersection(com.esferixis.geometry.plane.Line)
+	 */
+	@Override
+	public Float getRayIntersection(Line rect) {
+		return toRayIntersection(this.getRayIntersectionParameter(rect));
+	}
+	
 	/**
 	 * @post Devuelve el hash
 	 */
@@ -105,7 +131,7 @@ public final class Circle extends ClosedSurface<Circle> {
 	 */
 	@Override
 	public boolean equals(Object other) {
-		if ( other != null ) {
+		if ( ( other != null ) && ( other instanceof Circle ) ) {
 			Circle otherCircle = (Circle) other;
 			return otherCircle.getPerimeter().equals(this.getPerimeter());
 		}
@@ -175,4 +201,21 @@ public final class Circle extends ClosedSurface<Circle> {
 	public Circle opposite() {
 		return new Circle(this.circumference.opposite());
 	}
+	
+	/* (non-Javadoc)
+	 * @see com.esferixis.geometry.plane.finite.SupportMapping#support(float, float, float[], int)
+	 */
+	@Override
+	public void support(float directionX, float directionY, float[] result, int offset) {
+		result[offset] = this.circumference.getCenter().getX();
+		result[offset+1] = this.circumference.getCenter().getY();
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.esferixis.geometry.plane.finite.SupportMapping#getSupportRadius()
+	 */
+	@Override
+	public float getSupportRadius() {
+		return this.circumference.getRadius();
+	}
 }
@@ -58,6 +58,8 @@ public final class Circumference extends Curve<Circumference> {
 	 * @post Crea la circunsferencia con el centro y el radio especificados
 	 */
 	public Circumference(Vector2f center, float radius) {
+		super(CIRCUMFERENCE_TYPETAG);
+		
 		if ( center != null ) {
 			if ( radius > 0 ) {
 				this.center = center;
@@ -120,6 +122,130 @@ public final class Circumference extends Curve<Circumference> {
 		return QuadraticEquation.resolve(direction.lengthSquared(), 2.0f * origin_circumferenceCenter.dot(direction), origin_circumferenceCenter.lengthSquared() - this.getRadius() * this.getRadius());
 	}
 	
+	/* (non-Javadoc)
+	 * @see com.esferixis.geometry.plane.Shape#getRectIntersection(com.esferixis.geometry.plane.Line, float[], int)
+	 */
+	@Override
+	public int getRectIntersection(Line rect, float[] result, int offset) {
+		if ( ( rect != null ) && ( result != null ) ) {
+			final float a = this.getRectIntersectionA(rect);
+			final float b = this.getRectIntersectionB(rect);
+			final float c = this.getRectIntersectionC(rect);
+			
+			final int count = quadraticRootCount(a, b, c);
+			
+			for ( int i = 0 ; i < count ; i++ ) {
+				putRectIntersection(result, offset, i, quadraticRoot(a, b, c, i));
+			}
+			
+			return count;
+		}
+		else {
+			throw new NullPointerException();
+		}
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.esferixis.geometry.plane.Shape#getRayIntersectionParameter(com.esferixis.geometry.plane.Line)
+	 */
+	@Override
+	public float getRayIntersectionParameter(Line rect) {
+		if ( rect != null ) {
+			final float a = this.getRectIntersectionA(rect);
+			final float b = this.getRectIntersectionB(rect);
+			final float c = this.getRectIntersectionC(rect);
+			
+			final int count = quadraticRootCount(a, b, c);
+			
+			for ( int i = 0 ; i < count ; i++ ) {
+				final float eachRoot = quadraticRoot(a, b, c, i);
+				
+				// Las raíces están en orden creciente
+				if ( eachRoot >= 0.0f ) {
+					return eachRoot;
+				}
+			}
+			
+			return Float.NaN;
+		}
+		else {
+			throw new NullPointerException();
+		}
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.esferixis.geometry.plane.Shape#getRayIntersection(com.esferixis.geometry.plane.Line)
+	 */
+	@Override
+	public Float getRayIntersection(Line rect) {
+		return toRayIntersection(this.getRayIntersectionParameter(rect));
+	}
+	
+	/**
+	 * @post Devuelve el coeficiente cuadrático de la ecuación de intersección con la recta especificada
+	 */
+	float getRectIntersectionA(Line rect) {
+		final float directionX = rect.getDirection().getX();
+		final float directionY = rect.getDirection().getY();
+		
+		return directionX * directionX + directionY * directionY;
+	}
+	
+	/**
+	 * @post Devuelve el coeficiente lineal de la ecuación de intersección con la recta especificada
+	 */
+	float getRectIntersectionB(Line rect) {
+		final float deltaX = rect.getReferencePoint().getX() - this.center.getX();
+		final float deltaY = rect.getReferencePoint().getY() - this.center.getY();
+		
+		return 2.0f * ( deltaX * rect.getDirection().getX() + deltaY * rect.getDirection().getY() );
+	}
+	
+	/**
+	 * @post Devuelve el término independiente de la ecuación de intersección con la recta especificada
+	 */
+	float getRectIntersectionC(Line rect) {
+		final float deltaX = rect.getReferencePoint().getX() - this.center.getX();
+		final float deltaY = rect.getReferencePoint().getY() - this.center.getY();
+		
+		return deltaX * deltaX + deltaY * deltaY - this.radius * this.radius;
+	}
+	
+	/**
+	 * @pre El coeficiente cuadrático tiene que ser positivo
+	 * @post Devuelve la cantidad de raíces reales de la ecuación cuadrática especificada
+	 */
+	static int quadraticRootCount(float a, float b, float c) {
+		final float discriminant = b * b - 4.0f * a * c;
+		
+		if ( discriminant > 0.0f ) {
+			return 2;
+		}
+		else if ( discriminant == 0.0f ) {
+			return 1;
+		}
+		else {
+			return 0;
+		}
+	}
+	
+	/**
+	 * @pre El coeficiente cuadrático tiene que ser positivo, y el índice tiene que ser
+	 * 		menor que la cantidad de raíces
+	 * @post Devuelve la raíz especificada de la ecuación cuadrática especificada,
+	 * 		 en orden creciente
+	 */
+	static float quadraticRoot(float a, float b, float c, int index) {
+		final float squareRootDiscriminant = (float) Math.sqrt(b * b - 4.0f * a * c);
+		
+		if ( index == 0 ) {
+			return ( -b - squareRootDiscriminant ) / ( 2.0f * a );
+		}
+		else {
+			return ( -b + squareRootDiscriminant ) / ( 2.0f * a );
+		}
+	}
+	
 	/**
 	 * @pre La otra circunferencia no puede ser nula
 	 * @post Devuelve los puntos de intersección de la circunferencia especificada
@@ -289,10 +415,10 @@ public final class Circumference extends Curve<Circumference> {
 	}
 
 	/* (non-Javadoc)
-	 * @see com.arielcarrizo.geometry.plane.finite.FiniteProportionalHolomorphicShape#getBoundingBox()
+	 * @see com.arielcarrizo.geometry.plane.finite.FiniteProportionalHolomorphicShape#computeBoundingBox()
 	 */
 	@Override
-	public BoundingBox boundingBox() {
+	protected BoundingBox computeBoundingBox() {
 		return new BoundingBox(
 			new Vector2f(this.center.getX()-this.radius, this.center.getY()-this.radius),
 			new Vector2f(this.center.getX()+this.radius, this.center.getY()+this.radius)
@@ -306,6 +432,14 @@ public final class Circumference extends Curve<Circumference> {
 	public float maxDistanceToOrigin() {
 		return this.center.length() + this.radius;
 	}
+	
+	/* (non-Javadoc)
+	 * @see com.arielcarrizo.geometry.plane.finite.FiniteProportionalHolomorphicShape#maxDistanceToPoint(float, float)
+	 */
+	@Override
+	float maxDistanceToPoint(float x, float y) {
+		return distance(this.center.getX(), this.center.getY(), x, y) + this.radius;
+	}
 
 	/* (non-Javadoc)
 	 * @see com.arielcarrizo.geometry.plane.Shape#opposite()
@@ -52,11 +52,48 @@ public final class CircumferenceSegment extends Curve<CircumferenceSegment> {
 	private Circumference circumference;
 	private final FloatClosedInterval angleInterval;
 	
+	/**
+	 * Direcciones unitarias de los extremos del arco, para decidir si una dirección
+	 * está en el arco con productos vectoriales, sin funciones trigonométricas
+	 */
+	private static final class ArcDirections {
+		final float startX, startY;
+		final float endX, endY;
+		
+		// Dirección del ángulo medio
+		final float middleX, middleY;
+		
+		// Si el arco es la circunferencia completa
+		final boolean full;
+		
+		// Si el arco es mayor que media circunferencia
+		final boolean major;
+		
+		/**
+		 * @post Crea las direcciones del intervalo de ángulos especificado
+		 */
+		ArcDirections(FloatClosedInterval angleInterval) {
+			this.startX = (float) Math.cos(angleInterval.getMin());
+			this.startY = (float) Math.sin(angleInterval.getMin());
+			this.endX = (float) Math.cos(angleInterval.getMax());
+			this.endY = (float) Math.sin(angleInterval.getMax());
+			this.middleX = (float) Math.cos(angleInterval.midPoint());
+			this.middleY = (float) Math.sin(angleInterval.midPoint());
+			
+			this.full = ( angleInterval.length() >= ExtraMath.doublePI );
+			this.major = ( angleInterval.length() > (float) Math.PI );
+		}
+	}
+	
+	private transient volatile ArcDirections arcDirections;
+	
 	/**
 	 * @post Crea el segmento de circunferencia con la circunferencia y el intervalo de ángulos
 	 * 		 especificado
 	 */
 	public CircumferenceSegment(Circumference circumference, FloatClosedInterval angleInterval) {
+		super(CIRCUMFERENCESEGMENT_TYPETAG);
+		
 		if ( ( circumference != null ) && ( angleInterval != null ) ) {
 			if ( angleInterval.length() > ExtraMath.doublePI) {
 				angleInterval = new FloatClosedInterval(angleInterval.getMin(), angleInterval.getMax() + ExtraMath.doublePI);
@@ -116,6 +153,53 @@ public final class CircumferenceSegment extends Curve<CircumferenceSegment> {
 		return new CircumferenceSegment(this.circumference.translate(displacement), this.angleInterval);
 	}
 
+	/**
+	 * @post Devuelve las direcciones de los extremos, las calcula una única vez
+	 */
+	private ArcDirections getArcDirections() {
+		ArcDirections result = this.arcDirections;
+		
+		if ( result == null ) {
+			result = new ArcDirections(this.angleInterval);
+			this.arcDirections = result;
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * @post Devuelve si la dirección especificada, relativa al centro, está dentro del arco.
+	 * 		 Sólo usa multiplicaciones y sumas
+	 */
+	boolean containsDirection(float directionX, float directionY) {
+		final ArcDirections arcDirections = this.getArcDirections();
+		
+		if ( arcDirections.full ) {
+			return true;
+		}
+		else if ( !arcDirections.major ) {
+			// Tiene que estar a la izquierda del inicio, a la derecha del final, y del lado del ángulo medio.
+			// Si el inicio y el final son la misma dirección (Arco de longitud nula o muy corto) los
+			// productos vectoriales sólo piden que sea paralela, y el ángulo medio descarta la opuesta
+			return ( arcDirections.startX * directionY - arcDirections.startY * directionX >= 0.0f ) &&
+					( directionX * arcDirections.endY - directionY * arcDirections.endX >= 0.0f ) &&
+					( arcDirections.middleX * directionX + arcDirections.middleY * directionY >= 0.0f );
+		}
+		else {
+			// No tiene que estar estrictamente dentro del arco complementario, que es menor que media circunferencia
+			return !( ( arcDirections.endX * directionY - arcDirections.endY * directionX > 0.0f ) &&
+					( directionX * arcDirections.startY - directionY * arcDirections.startX > 0.0f ) );
+		}
+	}
+	
+	/**
+	 * @post Devuelve si el punto especificado, que se supone que está en la circunferencia,
+	 * 		 está dentro del arco
+	 */
+	boolean containsCircumferencePoint(Vector2f point) {
+		return this.containsDirection(point.getX() - this.circumference.getCenter().getX(), point.getY() - this.circumference.getCenter().getY());
+	}
+	
 	/* (non-Javadoc)
 	 * @see com.arielcarrizo.geometry.plane.ProportionalHolomorphicShape#getRectIntersection(com.arielcarrizo.geometry.plane.Rect)
 	 */
@@ -128,7 +212,7 @@ public final class CircumferenceSegment extends Curve<CircumferenceSegment> {
 			for ( Float eachIntersection : intersections ) {
 				final Vector2f eachPoint = rect.getPointByProportionalScalar(eachIntersection);
 				
-				if ( Geometry.containsAngle(this.getAngleInterval(), eachPoint.sub(this.getCircumference().getCenter()).getAngle()) ) {
+				if ( this.containsCircumferencePoint(eachPoint) ) {
 					resultIntersections.add(eachIntersection);
 				}
 			}
@@ -140,12 +224,89 @@ public final class CircumferenceSegment extends Curve<CircumferenceSegment> {
 		}
 	}
 	
+	/* (non-Javadoc)
+	 * @see com.esferixis.geometry.plane.Shape#getRectIntersection(com.esferixis.geometry.plane.Line, float[], int)
+	 */
+	@Override
+	public int getRectIntersection(Line rect, float[] result, int offset) {
+		if ( ( rect != null ) && ( result != null ) ) {
+			final float a = this.circumference.getRectIntersectionA(rect);
+			final float b = this.circumference.getRectIntersectionB(rect);
+			final float c = this.circumference.getRectIntersectionC(rect);
+			
+			final int rootCount = Circumference.quadraticRootCount(a, b, c);
+			int count = 0;
+			
+			for ( int i = 0 ; i < rootCount ; i++ ) {
+				final float eachRoot = Circumference.quadraticRoot(a, b, c, i);
+				
+				if ( this.containsRectIntersection(rect, eachRoot) ) {
+					putRectIntersection(result, offset, count++, eachRoot);
+				}
+			}
+			
+			return count;
+		}
+		else {
+			throw new NullPointerException();
+		}
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.esferixis.geometry.plane.Shape#getRayIntersectionParameter(com.esferixis.geometry.plane.Line)
+	 */
+	@Override
+	public float getRayIntersectionParameter(Line rect) {
+		if ( rect != null ) {
+			final float a = this.circumference.getRectIntersectionA(rect);
+			final float b = this.circumference.getRectIntersectionB(rect);
+			final float c = this.circumference.getRectIntersectionC(rect);
+			
+			final int rootCount = Circumference.quadraticRootCount(a, b, c);
+			
+			for ( int i = 0 ; i < rootCount ; i++ ) {
+				final float eachRoot = Circumference.quadraticRoot(a, b, c, i);
+				
+				// Las raíces están en orden creciente
+				if ( ( eachRoot >= 0.0f ) && this.containsRectIntersection(rect, eachRoot) ) {
+					return eachRoot;
+				}
+			}
+			
+			return Float.NaN;
+		}
+		else {
+			throw new NullPointerException();
+		}
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.esferixis.geometry.plane.Shape#getRayIntersection(com.esferixis.geometry.plane.Line)
+	 */
+	@Override
+	public Float getRayIntersection(Line rect) {
+		return toRayIntersection(this.getRayIntersectionParameter(rect));
+	}
+	
 	/**
-	 * @post Devuelve el hash
+	 * @post Devuelve si el punto de la recta especificada con el escalar proporcional especificado,
+	 * 		 que está en la circunferencia, pertenece al segmento
+	 */
+	private boolean containsRectIntersection(Line rect, float t) {
+		final float deltaX = rect.getReferencePoint().getX() + rect.getDirection().getX() * t - this.circumference.getCenter().getX();
+		final float deltaY = rect.getReferencePoint().getY() + rect.getDirection().getY() * t - this.circumference.getCenter().getY();
+		
+		return this.containsDirection(deltaX, deltaY);
+	}
+	
+	/**
+	 * @post Devuelve el hash.
+	 * 		 Los extremos se suman a cero, así 0.0 y -0.0, que equals considera iguales,
+	 * 		 tienen el mismo hash
 	 */
 	@Override
 	public int hashCode() {
-		return this.getCircumference().hashCode() * 31 + this.angleInterval.hashCode();
+		return ( this.getCircumference().hashCode() * 31 + Float.valueOf(this.angleInterval.getMin() + 0.0f).hashCode() ) * 31 + Float.valueOf(this.angleInterval.getMax() + 0.0f).hashCode();
 	}
 	
 	/**
@@ -156,7 +317,7 @@ public final class CircumferenceSegment extends Curve<CircumferenceSegment> {
 		if ( ( other != null ) && ( other instanceof CircumferenceSegment ) ) {
 			final CircumferenceSegment otherCircumferenceSegment = (CircumferenceSegment) other;
 			
-			return otherCircumferenceSegment.getCircumference().equals(this.getCircumference()) && otherCircumferenceSegment.equals(this.angleInterval);
+			return otherCircumferenceSegment.getCircumference().equals(this.getCircumference()) && ( otherCircumferenceSegment.getAngleInterval().getMin() == this.angleInterval.getMin() ) && ( otherCircumferenceSegment.getAngleInterval().getMax() == this.angleInterval.getMax() );
 		}
 		else {
 			return false;
@@ -184,7 +345,7 @@ public final class CircumferenceSegment extends Curve<CircumferenceSegment> {
 	 */
 	@Override
 	public boolean contains(Vector2f point) {
-		return this.getCircumference().contains(point) && Geometry.containsAngle(this.getAngleInterval(), point.sub(this.getCircumference().getCenter()).getAngle());
+		return this.getCircumference().contains(point) && this.containsCircumferencePoint(point);
 	}
 
 	/* (non-Javadoc)
@@ -265,42 +426,42 @@ public final class CircumferenceSegment extends Curve<CircumferenceSegment> {
 	}
 
 	/* (non-Javadoc)
-	 * @see com.arielcarrizo.geometry.plane.finite.FiniteProportionalHolomorphicShape#getBoundingBox()
+	 * @see com.arielcarrizo.geometry.plane.finite.FiniteProportionalHolomorphicShape#computeBoundingBox()
 	 */
 	@Override
-	public BoundingBox boundingBox() {
+	protected BoundingBox computeBoundingBox() {
 		final float minX, maxX;
 		final float minY, maxY;
 		
 		final Vector2f limitPoint1 = this.getLimitPoint1();
 		final Vector2f limitPoint2 = this.getLimitPoint2();
 		
-		if ( Geometry.containsAngle(angleInterval, (float) Math.PI) ) {
+		if ( this.containsDirection(-1.0f, 0.0f) ) {
 			minX = this.circumference.getCenter().getX() - this.circumference.getRadius();
 		}
 		else {
 			minX = Math.min(limitPoint1.getX(), limitPoint2.getX());
 		}
 		
-		if ( Geometry.containsAngle(angleInterval, 0.0f) ) {
+		if ( this.containsDirection(1.0f, 0.0f) ) {
 			maxX = this.circumference.getCenter().getX() + this.circumference.getRadius();
 		}
 		else {
-			maxX = Math.min(limitPoint1.getX(), limitPoint2.getX());
+			maxX = Math.max(limitPoint1.getX(), limitPoint2.getX());
 		}
 		
-		if ( Geometry.containsAngle(angleInterval, -(float) Math.PI / 2.0f) ) {
+		if ( this.containsDirection(0.0f, -1.0f) ) {
 			minY = this.circumference.getCenter().getY() - this.circumference.getRadius();
 		}
 		else {
 			minY = Math.min(limitPoint1.getY(), limitPoint2.getY());
 		}
 		
-		if ( Geometry.containsAngle(angleInterval, (float) Math.PI / 2.0f) ) {
+		if ( this.containsDirection(0.0f, 1.0f) ) {
 			maxY = this.circumference.getCenter().getY() + this.circumference.getRadius();
 		}
 		else {
-			maxY = Math.min(limitPoint1.getY(), limitPoint2.getY());
+			maxY = Math.max(limitPoint1.getY(), limitPoint2.getY());
 		}
 		
 		return new BoundingBox(new Vector2f(minX, minY), new Vector2f(maxX, maxY));
@@ -311,10 +472,9 @@ public final class CircumferenceSegment extends Curve<CircumferenceSegment> {
 	 */
 	@Override
 	public float maxDistanceToOrigin() {
-		final float centerAngle = this.circumference.getCenter().getAngle();
 		final float result;
 		
-		if ( Geometry.containsAngle(this.angleInterval, centerAngle) ) {
+		if ( this.containsDirection(this.circumference.getCenter().getX(), this.circumference.getCenter().getY()) ) {
 			result = this.circumference.getCenter().length() + this.circumference.getRadius();
 		}
 		else {
@@ -324,6 +484,27 @@ public final class CircumferenceSegment extends Curve<CircumferenceSegment> {
 		return result;
 	}
 	
+	/* (non-Javadoc)
+	 * @see com.arielcarrizo.geometry.plane.finite.FiniteProportionalHolomorphicShape#maxDistanceToPoint(float, float)
+	 */
+	@Override
+	float maxDistanceToPoint(float x, float y) {
+		final Vector2f center = this.circumference.getCenter();
+		final float result;
+		
+		if ( this.containsDirection(center.getX() - x, center.getY() - y) ) {
+			result = distance(center.getX(), center.getY(), x, y) + this.circumference.getRadius();
+		}
+		else {
+			final Vector2f limitPoint1 = this.getLimitPoint1();
+			final Vector2f limitPoint2 = this.getLimitPoint2();
+			
+			result = Math.max(distance(limitPoint1.getX(), limitPoint1.getY(), x, y), distance(limitPoint2.getX(), limitPoint2.getY(), x, y));
+		}
+		
+		return result;
+	}
+	
 	/* (non-Javadoc)
 	 * @see com.arielcarrizo.geometry.plane.Shape#getNearestNormalToOrigin()
 	 */
@@ -332,7 +513,7 @@ public final class CircumferenceSegment extends Curve<CircumferenceSegment> {
 		final Vector2f originRelativePosition = this.circumference.getCenter().opposite();
 		final NearestNormal result;
 		
-		if ( Geometry.containsAngle( this.angleInterval, this.circumference.getCenter().opposite().getAngle()) ) {
+		if ( this.containsDirection(-this.circumference.getCenter().getX(), -this.circumference.getCenter().getY()) ) {
 			final float centerLength = this.circumference.getCenter().length();
 			
 			if ( centerLength > this.circumference.getRadius() ) {
@@ -391,7 +572,7 @@ public final class CircumferenceSegment extends Curve<CircumferenceSegment> {
 	public float minDistanceToOrigin() {
 		final float result;
 		
-		if ( Geometry.containsAngle( this.angleInterval, this.circumference.getCenter().opposite().getAngle()) ) {
+		if ( this.containsDirection(-this.circumference.getCenter().getX(), -this.circumference.getCenter().getY()) ) {
 			result = Math.abs(this.circumference.getCenter().length()-this.circumference.getRadius());
 		}
 		else {
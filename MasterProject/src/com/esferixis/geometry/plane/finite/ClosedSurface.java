@@ -43,6 +43,13 @@ import com.esferixis.math.Vector2f;
  */
 public abstract class ClosedSurface<S extends ClosedSurface<S>> extends Surface<S> {
 	private static final long serialVersionUID = 7526727195427417312L;
+	
+	/**
+	 * @post Crea la superficie cerrada con la etiqueta de tipo especificada
+	 */
+	ClosedSurface(int typeTag) {
+		super(typeTag);
+	}
 
 	/**
 	 * @post Devuelve el perímetro
@@ -50,10 +57,10 @@ public abstract class ClosedSurface<S extends ClosedSurface<S>> extends Surface<
 	public abstract FiniteProportionalHolomorphicShape<?> getPerimeter();
 
 	/* (non-Javadoc)
-	 * @see com.arielcarrizo.geometry.plane.finite.FiniteProportionalHolomorphicShape#boundingBox()
+	 * @see com.arielcarrizo.geometry.plane.finite.FiniteProportionalHolomorphicShape#computeBoundingBox()
 	 */
 	@Override
-	public BoundingBox boundingBox() {
+	protected BoundingBox computeBoundingBox() {
 		return this.getPerimeter().boundingBox();
 	}
 
@@ -64,6 +71,14 @@ public abstract class ClosedSurface<S extends ClosedSurface<S>> extends Surface<
 	public float maxDistanceToOrigin() {
 		return this.getPerimeter().maxDistanceToOrigin();
 	}
+	
+	/* (non-Javadoc)
+	 * @see com.arielcarrizo.geometry.plane.finite.FiniteProportionalHolomorphicShape#maxDistanceToPoint(float, float)
+	 */
+	@Override
+	float maxDistanceToPoint(float x, float y) {
+		return this.getPerimeter().maxDistanceToPoint(x, y);
+	}
 
 	/* (non-Javadoc)
 	 * @see com.arielcarrizo.geometry.plane.finite.FiniteProportionalHolomorphicShape#minDistanceToOrigin()
@@ -88,6 +103,14 @@ public abstract class ClosedSurface<S extends ClosedSurface<S>> extends Surface<
 	public List<Float> getRectIntersection(Line rect) {
 		return this.getPerimeter().getRectIntersection(rect);
 	}
+	
+	/* (non-Javadoc)
+	 * @see com.esferixis.geometry.plane.Shape#getRectIntersection(com.esferixis.geometry.plane.Line, float[], int)
+	 */
+	@Override
+	public int getRectIntersection(Line rect, float[] result, int offset) {
+		return this.getPerimeter().getRectIntersection(rect, result, offset);
+	}
 
 	/* (non-Javadoc)
 	 * @see com.arielcarrizo.geometry.plane.Shape#nearestNormalToOrigin()
@@ -49,11 +49,81 @@ import com.esferixis.misc.StringExtra;
  * @author ariel
  *
  */
-public final class ConvexPolygon extends ClosedSurface<ConvexPolygon> implements FiniteAffineHolomorphicShape.Casteable<ConvexPolygon> {
+public final class ConvexPolygon extends ClosedSurface<ConvexPolygon> implements FiniteAffineHolomorphicShape.Casteable<ConvexPolygon>, SupportMapping {
 	private static final long serialVersionUID = 1174366073363133878L;
 	
 	private final List<Vector2f> vertices;
 	
+	/**
+	 * Cantidad de vértices a partir de la cual el test de contención
+	 * hace búsqueda binaria sobre el abanico de triángulos
+	 */
+	private static final int LOGARITHMIC_CONTAINS_THRESHOLD = 32;
+	
+	/**
+	 * Vértices y normales de las aristas empaquetados en arrays,
+	 * para los tests que recorren el polígono sin crear objetos
+	 */
+	private static final class PackedGeometry {
+		// Coordenadas de los vértices (x, y)
+		final float[] vertices;
+		
+		// Normales exteriores normalizadas de las aristas (x, y), la arista i va del vértice i al i+1
+		final float[] edgeNormals;
+		
+		// Proyección de cada arista sobre su normal
+		final float[] edgeOffsets;
+		
+		// Uno si los vértices están en sentido antihorario, menos uno en caso contrario
+		final float orientation;
+		
+		/**
+		 * @post Crea la geometría empaquetada con los vértices, normales y orientación especificados,
+		 * 		 y calcula las proyecciones de las aristas
+		 */
+		PackedGeometry(float[] vertices, float[] edgeNormals, float orientation) {
+			this.vertices = vertices;
+			this.edgeNormals = edgeNormals;
+			this.orientation = orientation;
+			this.edgeOffsets = new float[vertices.length / 2];
+			
+			for ( int i = 0 ; i < this.edgeOffsets.length ; i++ ) {
+				this.edgeOffsets[i] = edgeNormals[i*2] * vertices[i*2] + edgeNormals[i*2+1] * vertices[i*2+1];
+			}
+		}
+	}
+	
+	/**
+	 * Caché de eje separador.
+	 * Recuerda el último eje que separó a un par de polígonos, para probarlo
+	 * primero en el siguiente test con el mismo par.
+	 * Mientras el par siga separado, el test sólo hace una proyección.
+	 */
+	public static final class SeparatingAxisCache {
+		private static final int NO_AXIS = -1;
+		
+		// Eje: Índice de arista por dos, más uno si es de la segunda figura
+		int axis;
+		
+		/**
+		 * @post Crea el caché vacío
+		 */
+		public SeparatingAxisCache() {
+			this.axis = NO_AXIS;
+		}
+		
+		/**
+		 * @post Vacía el caché
+		 */
+		public void reset() {
+			this.axis = NO_AXIS;
+		}
+	}
+	
+	private transient volatile PackedGeometry packedGeometry;
+	private transient volatile List<LineSegment> perimetralLines;
+	private transient volatile FiniteProportionalHolomorphicShape<?> perimeter;
+	
 	/**
 	 * @pre Los vértices tienen que formar un polígono convexo, y tienen
 	 * 		que estar en sentido antihorario (Sentido positivo).
@@ -73,6 +143,8 @@ public final class ConvexPolygon extends ClosedSurface<ConvexPolygon> implements
 	 * @post Crea el polígono convexo con los puntos especificados
 	 */
 	public ConvexPolygon(Vector2f... vertices) {
+		super(CONVEXPOLYGON_TYPETAG);
+		
 		if ( vertices != null ) {
 			vertices = vertices.clone();
 			
@@ -94,6 +166,437 @@ public final class ConvexPolygon extends ClosedSurface<ConvexPolygon> implements
 		}
 	}
 	
+	/**
+	 * @post Devuelve la geometría empaquetada, la calcula una única vez
+	 */
+	private PackedGeometry getPackedGeometry() {
+		PackedGeometry result = this.packedGeometry;
+		
+		if ( result == null ) {
+			final int vertexCount = this.vertices.size();
+			final float[] packedVertices = new float[vertexCount * 2];
+			final float[] edgeNormals = new float[vertexCount * 2];
+			
+			for ( int i = 0 ; i < vertexCount ; i++ ) {
+				final Vector2f eachVertex = this.vertices.get(i);
+				packedVertices[i*2] = eachVertex.getX();
+				packedVertices[i*2+1] = eachVertex.getY();
+			}
+			
+			// Orientación, para que las normales queden hacia afuera en cualquier sentido
+			float doubleArea = 0.0f;
+			for ( int i = 0 ; i < vertexCount ; i++ ) {
+				final int j = ( i + 1 ) % vertexCount;
+				doubleArea += packedVertices[i*2] * packedVertices[j*2+1] - packedVertices[j*2] * packedVertices[i*2+1];
+			}
+			final float orientation = ( doubleArea >= 0.0f ) ? 1.0f : -1.0f;
+			
+			for ( int i = 0 ; i < vertexCount ; i++ ) {
+				final int j = ( i + 1 ) % vertexCount;
+				final float edgeX = packedVertices[j*2] - packedVertices[i*2];
+				final float edgeY = packedVertices[j*2+1] - packedVertices[i*2+1];
+				final float edgeLength = (float) Math.sqrt(edgeX * edgeX + edgeY * edgeY);
+				
+				if ( edgeLength > 0.0f ) {
+					edgeNormals[i*2] = orientation * edgeY / edgeLength;
+					edgeNormals[i*2+1] = - orientation * edgeX / edgeLength;
+				}
+			}
+			
+			result = new PackedGeometry(packedVertices, edgeNormals, orientation);
+			this.packedGeometry = result;
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * @post Devuelve si la arista especificada del primer polígono separa a los polígonos
+	 */
+	private static boolean isSeparatingEdge(PackedGeometry owner, int edge, PackedGeometry other) {
+		final float normalX = owner.edgeNormals[edge*2];
+		final float normalY = owner.edgeNormals[edge*2+1];
+		final float offset = owner.edgeOffsets[edge];
+		
+		final float[] otherVertices = other.vertices;
+		boolean separates = true;
+		
+		for ( int i = 0 ; ( i < otherVertices.length ) && separates ; i += 2 ) {
+			separates = ( normalX * otherVertices[i] + normalY * otherVertices[i+1] > offset );
+		}
+		
+		return separates;
+	}
+	
+	/**
+	 * @post Devuelve si el eje especificado separa a los polígonos
+	 */
+	private static boolean isSeparatingAxis(PackedGeometry geometry1, PackedGeometry geometry2, int axis) {
+		if ( ( axis & 1 ) == 0 ) {
+			return isSeparatingEdge(geometry1, axis >> 1, geometry2);
+		}
+		else {
+			return isSeparatingEdge(geometry2, axis >> 1, geometry1);
+		}
+	}
+	
+	/**
+	 * @post Busca un eje separador entre los polígonos especificados, probando primero el eje
+	 * 		 especificado.
+	 * 		 Devuelve el eje, o NO_AXIS si no hay ninguno (O sea hay intersección)
+	 */
+	private static int findSeparatingAxis(ConvexPolygon polygon1, ConvexPolygon polygon2, int hintAxis) {
+		final PackedGeometry geometry1 = polygon1.getPackedGeometry();
+		final PackedGeometry geometry2 = polygon2.getPackedGeometry();
+		
+		final int axisCount1 = geometry1.vertices.length;
+		final int axisCount2 = geometry2.vertices.length;
+		
+		if ( ( hintAxis != SeparatingAxisCache.NO_AXIS ) && ( ( ( hintAxis & 1 ) == 0 ) ? hintAxis < axisCount1 : hintAxis < axisCount2 ) && isSeparatingAxis(geometry1, geometry2, hintAxis) ) {
+			return hintAxis;
+		}
+		
+		for ( int axis = 0 ; axis < axisCount1 ; axis += 2 ) {
+			if ( ( axis != hintAxis ) && isSeparatingEdge(geometry1, axis >> 1, geometry2) ) {
+				return axis;
+			}
+		}
+		
+		for ( int axis = 1 ; axis < axisCount2 ; axis += 2 ) {
+			if ( ( axis != hintAxis ) && isSeparatingEdge(geometry2, axis >> 1, geometry1) ) {
+				return axis;
+			}
+		}
+		
+		return SeparatingAxisCache.NO_AXIS;
+	}
+	
+	/**
+	 * @post Devuelve si hay intersección con el polígono especificado, con el test de ejes separadores.
+	 * 		 No guarda estado, así se puede usar desde varios threads con los mismos polígonos.
+	 * 		 Para recordar el eje separador de un par hay que usar un SeparatingAxisCache
+	 */
+	boolean hasIntersectionBySeparatingAxis(ConvexPolygon other) {
+		return findSeparatingAxis(this, other, SeparatingAxisCache.NO_AXIS) == SeparatingAxisCache.NO_AXIS;
+	}
+	
+	/**
+	 * @pre Ninguno de los parámetros puede ser nulo
+	 * @post Devuelve si hay intersección con el polígono especificado, con el test de ejes separadores.
+	 * 		 Prueba primero el eje guardado en el caché especificado, y guarda el nuevo
+	 * 		 si encuentra alguno
+	 */
+	public boolean hasIntersection(ConvexPolygon other, SeparatingAxisCache cache) {
+		if ( ( other != null ) && ( cache != null ) ) {
+			final int axis = findSeparatingAxis(this, other, cache.axis);
+			
+			if ( axis != SeparatingAxisCache.NO_AXIS ) {
+				cache.axis = axis;
+			}
+			
+			return axis == SeparatingAxisCache.NO_AXIS;
+		}
+		else {
+			throw new NullPointerException();
+		}
+	}
+	
+	/**
+	 * @post Devuelve el índice del vértice inferior (Y mínima, y luego X mínima)
+	 * 		 en el orden de recorrido antihorario de la geometría especificada,
+	 * 		 con los vértices multiplicados por la escala especificada (1 o -1)
+	 */
+	private static int lowestVertex(float[] vertices, boolean reversed, float scale) {
+		final int vertexCount = vertices.length / 2;
+		int result = 0;
+		
+		for ( int i = 1 ; i < vertexCount ; i++ ) {
+			final int vertex = reversed ? vertexCount - 1 - i : i;
+			final int lowestVertex = reversed ? vertexCount - 1 - result : result;
+			
+			final float vertexY = scale * vertices[vertex*2+1];
+			final float lowestVertexY = scale * vertices[lowestVertex*2+1];
+			
+			if ( ( vertexY < lowestVertexY ) || ( ( vertexY == lowestVertexY ) && ( scale * vertices[vertex*2] < scale * vertices[lowestVertex*2] ) ) ) {
+				result = i;
+			}
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * @post Devuelve si el ángulo de la arista especificada está en [0, PI), o sea si en el
+	 * 		 recorrido antihorario que empieza en el vértice inferior va antes que las aristas
+	 * 		 con ángulo en [PI, 2 PI)
+	 */
+	private static boolean isFirstHalfEdge(float edgeX, float edgeY) {
+		return ( edgeY > 0.0f ) || ( ( edgeY == 0.0f ) && ( edgeX > 0.0f ) );
+	}
+	
+	/**
+	 * @post Devuelve la suma de Minkowski de los polígonos especificados.
+	 * 		 Recorre las aristas de ambos en sentido antihorario a partir de sus vértices
+	 * 		 inferiores, y las mezcla comparando sus direcciones con productos vectoriales.
+	 * 		 Las aristas de longitud nula se saltean, y las aristas opuestas, que aparecen
+	 * 		 en los polígonos degenerados, se ordenan por semiplano.
+	 * 		 El resultado está en sentido antihorario y no tiene vértices colineales.
+	 * 		 Si la suma es un segmento o un punto devuelve el polígono degenerado con sus
+	 * 		 extremos, el superior repetido
+	 */
+	static ConvexPolygon minkowskiSum(ConvexPolygon polygon1, ConvexPolygon polygon2) {
+		final PackedGeometry geometry1 = polygon1.getPackedGeometry();
+		final PackedGeometry geometry2 = polygon2.getPackedGeometry();
+		
+		final float[] vertices1 = geometry1.vertices;
+		final float[] vertices2 = geometry2.vertices;
+		
+		final int vertexCount1 = vertices1.length / 2;
+		final int vertexCount2 = vertices2.length / 2;
+		
+		// Si están en sentido horario se recorren al revés
+		final boolean reversed1 = ( geometry1.orientation < 0.0f );
+		final boolean reversed2 = ( geometry2.orientation < 0.0f );
+		
+		final int start1 = lowestVertex(vertices1, reversed1, 1.0f);
+		final int start2 = lowestVertex(vertices2, reversed2, 1.0f);
+		
+		final float[] result = new float[(vertexCount1 + vertexCount2) * 2];
+		int resultCount = 0;
+		
+		int index1 = 0, index2 = 0;
+		
+		while ( ( index1 < vertexCount1 ) || ( index2 < vertexCount2 ) ) {
+			final int vertex1 = traversalVertex(start1 + index1, vertexCount1, reversed1);
+			final int vertex2 = traversalVertex(start2 + index2, vertexCount2, reversed2);
+			
+			final float x = vertices1[vertex1*2] + vertices2[vertex2*2];
+			final float y = vertices1[vertex1*2+1] + vertices2[vertex2*2+1];
+			
+			// Descarta el vértice anterior si queda colineal con el nuevo
+			if ( ( resultCount >= 2 ) && ( cross(result, resultCount-2, resultCount-1, x, y) <= 0.0f ) ) {
+				resultCount--;
+			}
+			
+			result[resultCount*2] = x;
+			result[resultCount*2+1] = y;
+			resultCount++;
+			
+			// Positivo si la arista del primero va antes, negativo si va la del segundo,
+			// cero si son paralelas
+			final float order;
+			
+			if ( index1 == vertexCount1 ) {
+				order = -1.0f;
+			}
+			else if ( index2 == vertexCount2 ) {
+				order = 1.0f;
+			}
+			else {
+				final int nextVertex1 = traversalVertex(start1 + index1 + 1, vertexCount1, reversed1);
+				final int nextVertex2 = traversalVertex(start2 + index2 + 1, vertexCount2, reversed2);
+				
+				final float edge1X = vertices1[nextVertex1*2] - vertices1[vertex1*2];
+				final float edge1Y = vertices1[nextVertex1*2+1] - vertices1[vertex1*2+1];
+				final float edge2X = vertices2[nextVertex2*2] - vertices2[vertex2*2];
+				final float edge2Y = vertices2[nextVertex2*2+1] - vertices2[vertex2*2+1];
+				
+				if ( ( edge1X == 0.0f ) && ( edge1Y == 0.0f ) ) {
+					order = 1.0f;
+				}
+				else if ( ( edge2X == 0.0f ) && ( edge2Y == 0.0f ) ) {
+					order = -1.0f;
+				}
+				else {
+					final boolean firstHalf1 = isFirstHalfEdge(edge1X, edge1Y);
+					
+					// El producto vectorial sólo ordena las aristas del mismo semiplano
+					if ( firstHalf1 != isFirstHalfEdge(edge2X, edge2Y) ) {
+						order = firstHalf1 ? 1.0f : -1.0f;
+					}
+					else {
+						order = edge1X * edge2Y - edge1Y * edge2X;
+					}
+				}
+			}
+			
+			if ( order >= 0.0f ) {
+				index1++;
+			}
+			
+			if ( order <= 0.0f ) {
+				index2++;
+			}
+		}
+		
+		// Descarta los vértices colineales del cierre
+		int first = 0;
+		boolean reduced;
+		
+		do {
+			reduced = false;
+			
+			if ( resultCount - first > 3 ) {
+				if ( cross(result, resultCount-2, resultCount-1, result[first*2], result[first*2+1]) <= 0.0f ) {
+					resultCount--;
+					reduced = true;
+				}
+				else if ( cross(result, resultCount-1, first, result[(first+1)*2], result[(first+1)*2+1]) <= 0.0f ) {
+					first++;
+					reduced = true;
+				}
+			}
+		} while ( reduced );
+		
+		// La suma es un segmento o un punto, va del vértice inferior al superior
+		if ( resultCount - first < 3 ) {
+			final int end1 = traversalVertex(lowestVertex(vertices1, reversed1, -1.0f), vertexCount1, reversed1);
+			final int end2 = traversalVertex(lowestVertex(vertices2, reversed2, -1.0f), vertexCount2, reversed2);
+			final int begin1 = traversalVertex(start1, vertexCount1, reversed1);
+			final int begin2 = traversalVertex(start2, vertexCount2, reversed2);
+			
+			final Vector2f begin = new Vector2f(vertices1[begin1*2] + vertices2[begin2*2], vertices1[begin1*2+1] + vertices2[begin2*2+1]);
+			final Vector2f end = new Vector2f(vertices1[end1*2] + vertices2[end2*2], vertices1[end1*2+1] + vertices2[end2*2+1]);
+			
+			return new ConvexPolygon(begin, end, end);
+		}
+		
+		final Vector2f[] resultVertices = new Vector2f[resultCount - first];
+		
+		for ( int i = 0 ; i < resultVertices.length ; i++ ) {
+			resultVertices[i] = new Vector2f(result[(first+i)*2], result[(first+i)*2+1]);
+		}
+		
+		return new ConvexPolygon(resultVertices);
+	}
+	
+	/**
+	 * @pre Los polígonos no pueden ser nulos y no tienen que intersecarse,
+	 * 		el array tiene que tener lugar para cuatro elementos a partir del offset
+	 * @post Calcula los puntos más cercanos entre los polígonos especificados.
+	 * 		 Escribe en el array, a partir del offset, las coordenadas (x, y) del punto
+	 * 		 del primer polígono y luego las del segundo, y devuelve la distancia.
+	 * 
+	 * 		 Recorre una única vez las aristas de la diferencia de Minkowski, mezclando las
+	 * 		 aristas del primer polígono con las del segundo invertido por su dirección, como
+	 * 		 un par de calibres rotantes. Cada arista de la diferencia es una arista de
+	 * 		 un polígono menos un vértice del otro, y la más cercana al origen da los
+	 * 		 puntos más cercanos. Es O(n+m)
+	 */
+	static float nearestPoints(ConvexPolygon polygon1, ConvexPolygon polygon2, float[] result, int offset) {
+		final PackedGeometry geometry1 = polygon1.getPackedGeometry();
+		final PackedGeometry geometry2 = polygon2.getPackedGeometry();
+		
+		final float[] vertices1 = geometry1.vertices;
+		final float[] vertices2 = geometry2.vertices;
+		
+		final int vertexCount1 = vertices1.length / 2;
+		final int vertexCount2 = vertices2.length / 2;
+		
+		final boolean reversed1 = ( geometry1.orientation < 0.0f );
+		final boolean reversed2 = ( geometry2.orientation < 0.0f );
+		
+		// El segundo polígono invertido empieza en su vértice superior
+		final int start1 = lowestVertex(vertices1, reversed1, 1.0f);
+		final int start2 = lowestVertex(vertices2, reversed2, -1.0f);
+		
+		float minDistanceSquared = Float.POSITIVE_INFINITY;
+		
+		int index1 = 0, index2 = 0;
+		
+		while ( ( index1 < vertexCount1 ) || ( index2 < vertexCount2 ) ) {
+			final int vertex1 = traversalVertex(start1 + index1, vertexCount1, reversed1);
+			final int vertex2 = traversalVertex(start2 + index2, vertexCount2, reversed2);
+			final int nextVertex1 = traversalVertex(start1 + index1 + 1, vertexCount1, reversed1);
+			final int nextVertex2 = traversalVertex(start2 + index2 + 1, vertexCount2, reversed2);
+			
+			final float edge1X = vertices1[nextVertex1*2] - vertices1[vertex1*2];
+			final float edge1Y = vertices1[nextVertex1*2+1] - vertices1[vertex1*2+1];
+			
+			// Arista del segundo polígono invertido
+			final float edge2X = vertices2[vertex2*2] - vertices2[nextVertex2*2];
+			final float edge2Y = vertices2[vertex2*2+1] - vertices2[nextVertex2*2+1];
+			
+			final boolean advance1;
+			
+			if ( index1 == vertexCount1 ) {
+				advance1 = false;
+			}
+			else if ( index2 == vertexCount2 ) {
+				advance1 = true;
+			}
+			else {
+				advance1 = ( edge1X * edge2Y - edge1Y * edge2X >= 0.0f );
+			}
+			
+			// Arista de la diferencia: Desde (originX, originY) en la dirección (edgeX, edgeY)
+			final float originX = vertices1[vertex1*2] - vertices2[vertex2*2];
+			final float originY = vertices1[vertex1*2+1] - vertices2[vertex2*2+1];
+			final float edgeX = advance1 ? edge1X : edge2X;
+			final float edgeY = advance1 ? edge1Y : edge2Y;
+			
+			final float edgeLengthSquared = edgeX * edgeX + edgeY * edgeY;
+			final float parameter;
+			
+			if ( edgeLengthSquared != 0.0f ) {
+				parameter = Math.min(Math.max( - ( originX * edgeX + originY * edgeY ) / edgeLengthSquared, 0.0f), 1.0f);
+			}
+			else {
+				parameter = 0.0f;
+			}
+			
+			final float nearestX = originX + edgeX * parameter;
+			final float nearestY = originY + edgeY * parameter;
+			final float distanceSquared = nearestX * nearestX + nearestY * nearestY;
+			
+			if ( distanceSquared < minDistanceSquared ) {
+				minDistanceSquared = distanceSquared;
+				
+				if ( advance1 ) {
+					result[offset] = vertices1[vertex1*2] + edge1X * parameter;
+					result[offset+1] = vertices1[vertex1*2+1] + edge1Y * parameter;
+					result[offset+2] = vertices2[vertex2*2];
+					result[offset+3] = vertices2[vertex2*2+1];
+				}
+				else {
+					result[offset] = vertices1[vertex1*2];
+					result[offset+1] = vertices1[vertex1*2+1];
+					result[offset+2] = vertices2[vertex2*2] - edge2X * parameter;
+					result[offset+3] = vertices2[vertex2*2+1] - edge2Y * parameter;
+				}
+			}
+			
+			if ( advance1 ) {
+				index1++;
+			}
+			else {
+				index2++;
+			}
+		}
+		
+		return (float) Math.sqrt(minDistanceSquared);
+	}
+	
+	/**
+	 * @post Devuelve el índice de vértice correspondiente a la posición de recorrido antihorario especificada
+	 */
+	private static int traversalVertex(int position, int vertexCount, boolean reversed) {
+		final int vertex = position % vertexCount;
+		
+		return reversed ? vertexCount - 1 - vertex : vertex;
+	}
+	
+	/**
+	 * @post Devuelve el producto vectorial entre la arista que va del vértice a al b,
+	 * 		 y la que va del vértice b al punto especificado
+	 */
+	private static float cross(float[] vertices, int a, int b, float x, float y) {
+		final float edge1X = vertices[b*2] - vertices[a*2];
+		final float edge1Y = vertices[b*2+1] - vertices[a*2+1];
+		
+		return edge1X * ( y - vertices[b*2+1] ) - edge1Y * ( x - vertices[b*2] );
+	}
+	
 	/**
 	 * @post Devuelve los vértices (Sólo lectura)
 	 */
@@ -149,74 +652,162 @@ public final class ConvexPolygon extends ClosedSurface<ConvexPolygon> implements
 	
 	/**
 	 * @post Devuelve las líneas perimetrales (Sólo lectura)
+	 * 		 Se calculan una única vez
 	 */
 	public List<LineSegment> getPerimetralLines() {
-		List< LineSegment > resultLines = new ArrayList<LineSegment>(this.getVertices().size());
+		List<LineSegment> result = this.perimetralLines;
 		
-		for ( int i = 0 ; i<this.getVertices().size() ; i++ ) {
-			final Vector2f point1 = this.getVertices().get(i);
-			final Vector2f point2 = this.getVertices().get( (i+1) % this.getVertices().size() );
+		if ( result == null ) {
+			List< LineSegment > resultLines = new ArrayList<LineSegment>(this.getVertices().size());
 			
-			resultLines.add( new LineSegment(point1, point2) );
+			for ( int i = 0 ; i<this.getVertices().size() ; i++ ) {
+				final Vector2f point1 = this.getVertices().get(i);
+				final Vector2f point2 = this.getVertices().get( (i+1) % this.getVertices().size() );
+				
+				resultLines.add( new LineSegment(point1, point2) );
+			}
+			
+			result = Collections.unmodifiableList(resultLines);
+			this.perimetralLines = result;
 		}
 		
-		return Collections.unmodifiableList(resultLines);
+		return result;
 	}
 	
 	/**
 	 * @post Devuelve el perímetro
+	 * 		 Se calcula una única vez
 	 */
 	public FiniteProportionalHolomorphicShape<?> getPerimeter() {
-		return new FiniteProportionalHolomorphicShapeGroup<LineSegment>(this.getPerimetralLines());
+		FiniteProportionalHolomorphicShape<?> result = this.perimeter;
+		
+		if ( result == null ) {
+			result = new FiniteProportionalHolomorphicShapeGroup<LineSegment>(this.getPerimetralLines());
+			this.perimeter = result;
+		}
+		
+		return result;
 	}
 	
 	/* (non-Javadoc)
 	 * @see com.arielcarrizo.geometry.plane.ClosedSurface#contains(com.arielcarrizo.math.Vector2f)
 	 */
 	public boolean contains(Vector2f point) {
-		final Iterator<LineSegment> perimetralLinesIterator = this.getPerimetralLinesIterator();
-				
+		final PackedGeometry packedGeometry = this.getPackedGeometry();
+		
+		if ( packedGeometry.edgeOffsets.length >= LOGARITHMIC_CONTAINS_THRESHOLD ) {
+			return fanContains(packedGeometry, point.getX(), point.getY());
+		}
+		
+		final float[] edgeNormals = packedGeometry.edgeNormals;
+		final float[] edgeOffsets = packedGeometry.edgeOffsets;
+		
+		final float pointX = point.getX();
+		final float pointY = point.getY();
+		
 		boolean intersects = true;
 		
-		while ( perimetralLinesIterator.hasNext() && intersects ) {
-			LineSegment eachLine = perimetralLinesIterator.next();
-			
-			intersects = ( eachLine.getRect().getScaledDistance(point) >= 0.0f );
+		for ( int i = 0 ; ( i < edgeOffsets.length ) && intersects ; i++ ) {
+			intersects = ( edgeNormals[i*2] * pointX + edgeNormals[i*2+1] * pointY <= edgeOffsets[i] );
 		}
 		
 		return intersects;
 	}
 	
+	/**
+	 * @post Devuelve si el punto especificado está contenido en el polígono,
+	 * 		 haciendo búsqueda binaria sobre el abanico de triángulos que parte
+	 * 		 del primer vértice.
+	 * 		 Es O(log n)
+	 */
+	private static boolean fanContains(PackedGeometry packedGeometry, float pointX, float pointY) {
+		final float[] vertices = packedGeometry.vertices;
+		final float orientation = packedGeometry.orientation;
+		final int vertexCount = vertices.length / 2;
+		
+		final float originX = vertices[0];
+		final float originY = vertices[1];
+		final float deltaX = pointX - originX;
+		final float deltaY = pointY - originY;
+		
+		// Fuera de la cuña que forman la primera y la última arista del abanico
+		if ( ( orientation * ( ( vertices[2] - originX ) * deltaY - ( vertices[3] - originY ) * deltaX ) < 0.0f ) ||
+			 ( orientation * ( ( vertices[(vertexCount-1)*2] - originX ) * deltaY - ( vertices[(vertexCount-1)*2+1] - originY ) * deltaX ) > 0.0f ) ) {
+			return false;
+		}
+		
+		// Busca el último vértice que deja al punto a su izquierda
+		int low = 1;
+		int high = vertexCount - 1;
+		
+		while ( high - low > 1 ) {
+			final int middle = ( low + high ) >>> 1;
+			
+			if ( orientation * ( ( vertices[middle*2] - originX ) * deltaY - ( vertices[middle*2+1] - originY ) * deltaX ) >= 0.0f ) {
+				low = middle;
+			}
+			else {
+				high = middle;
+			}
+		}
+		
+		// Lado del punto respecto de la arista exterior del triángulo
+		final float edgeX = vertices[high*2] - vertices[low*2];
+		final float edgeY = vertices[high*2+1] - vertices[low*2+1];
+		
+		return orientation * ( edgeX * ( pointY - vertices[low*2+1] ) - edgeY * ( pointX - vertices[low*2] ) ) >= 0.0f;
+	}
+	
 	/**
 	 * @post Devuelve la distancia con el punto especificado.
 	 * 		 Positivo si no lo contiene, cero en caso contrario
 	 */
 	public float getDistance(Vector2f point) {
-		float distance = Float.MAX_VALUE;
+		final PackedGeometry packedGeometry = this.getPackedGeometry();
+		final float[] vertices = packedGeometry.vertices;
+		final float[] edgeNormals = packedGeometry.edgeNormals;
+		final float[] edgeOffsets = packedGeometry.edgeOffsets;
 		
-		final Iterator<LineSegment> perimetralLinesIterator = this.getPerimetralLinesIterator();
+		final float pointX = point.getX();
+		final float pointY = point.getY();
 		
+		float squaredDistance = Float.MAX_VALUE;
 		boolean contains = true;
 		
-		while ( perimetralLinesIterator.hasNext() ) {
-			final Line eachRect = perimetralLinesIterator.next().getRect();
-			final float eachDistance = -eachRect.getDistance(point);
-			
-			if ( eachDistance >= 0.0f ) {
+		for ( int i = 0 ; i < edgeOffsets.length ; i++ ) {
+			if ( edgeNormals[i*2] * pointX + edgeNormals[i*2+1] * pointY > edgeOffsets[i] ) {
+				contains = false;
+			}
 			
-				if ( eachDistance < distance ) {
-					distance = eachDistance;
-				}
+			// Distancia con la arista
+			final int j = ( i + 1 ) % edgeOffsets.length;
+			final float edgeX = vertices[j*2] - vertices[i*2];
+			final float edgeY = vertices[j*2+1] - vertices[i*2+1];
+			final float deltaX = pointX - vertices[i*2];
+			final float deltaY = pointY - vertices[i*2+1];
+			final float edgeLengthSquared = edgeX * edgeX + edgeY * edgeY;
 			
-				contains = false;
+			float t;
+			if ( edgeLengthSquared > 0.0f ) {
+				t = ( deltaX * edgeX + deltaY * edgeY ) / edgeLengthSquared;
+				t = Math.max(0.0f, Math.min(1.0f, t));
 			}
+			else {
+				t = 0.0f;
+			}
+			
+			final float eachDeltaX = deltaX - edgeX * t;
+			final float eachDeltaY = deltaY - edgeY * t;
+			
+			squaredDistance = Math.min(squaredDistance, eachDeltaX * eachDeltaX + eachDeltaY * eachDeltaY);
 		}
 		
 		if ( contains ) {
-			distance = 0.0f;
+			return 0.0f;
+		}
+		else {
+			return (float) Math.sqrt(squaredDistance);
 		}
-		
-		return distance;
 	}
 	
 	/**
@@ -258,7 +849,22 @@ public final class ConvexPolygon extends ClosedSurface<ConvexPolygon> implements
 				resultVertices.add(eachVertex.add(displacement));
 			}
 			
-			return new ConvexPolygon(this.vertices);
+			final ConvexPolygon result = new ConvexPolygon(resultVertices);
+			
+			// Las normales no cambian con la traslación
+			final PackedGeometry packedGeometry = this.packedGeometry;
+			if ( packedGeometry != null ) {
+				final float[] resultPackedVertices = new float[packedGeometry.vertices.length];
+				
+				for ( int i = 0 ; i < resultPackedVertices.length ; i += 2 ) {
+					resultPackedVertices[i] = resultVertices.get(i >> 1).getX();
+					resultPackedVertices[i+1] = resultVertices.get(i >> 1).getY();
+				}
+				
+				result.packedGeometry = new PackedGeometry(resultPackedVertices, packedGeometry.edgeNormals, packedGeometry.orientation);
+			}
+			
+			return result;
 		}
 		else {
 			throw new NullPointerException();
@@ -289,10 +895,30 @@ public final class ConvexPolygon extends ClosedSurface<ConvexPolygon> implements
 	 */
 	@Override
 	public Float getRayIntersection(Line rect) {
+		return toRayIntersection(this.getRayIntersectionParameter(rect));
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.esferixis.geometry.plane.Shape#getRayIntersectionParameter(com.esferixis.geometry.plane.Line)
+	 */
+	@Override
+	public float getRayIntersectionParameter(Line rect) {
 		if ( rect != null ) {
-			Float t;
-			if ( !this.hasIntersection( new Point(rect.getReferencePoint() )  ) ) {
-				t = this.getPerimeter().getRayIntersection(rect);
+			float t;
+			
+			if ( !this.contains(rect.getReferencePoint()) ) {
+				final float[] vertices = this.getPackedGeometry().vertices;
+				
+				t = Float.NaN;
+				
+				for ( int i = 0 ; i < vertices.length ; i += 2 ) {
+					final int j = ( i + 2 ) % vertices.length;
+					final float eachT = LineSegment.getRectIntersectionParameter(vertices[i], vertices[i+1], vertices[j], vertices[j+1], rect);
+					
+					if ( ( eachT >= 0.0f ) && ( Float.isNaN(t) || ( eachT < t ) ) ) {
+						t = eachT;
+					}
+				}
 			}
 			else {
 				t = 0.0f;
@@ -313,6 +939,31 @@ public final class ConvexPolygon extends ClosedSurface<ConvexPolygon> implements
 		return this.getPerimeter().getRectIntersection(rect);
 	}
 	
+	/* (non-Javadoc)
+	 * @see com.esferixis.geometry.plane.Shape#getRectIntersection(com.esferixis.geometry.plane.Line, float[], int)
+	 */
+	@Override
+	public int getRectIntersection(Line rect, float[] result, int offset) {
+		if ( ( rect != null ) && ( result != null ) ) {
+			final float[] vertices = this.getPackedGeometry().vertices;
+			int count = 0;
+			
+			for ( int i = 0 ; i < vertices.length ; i += 2 ) {
+				final int j = ( i + 2 ) % vertices.length;
+				final float eachT = LineSegment.getRectIntersectionParameter(vertices[i], vertices[i+1], vertices[j], vertices[j+1], rect);
+				
+				if ( !Float.isNaN(eachT) ) {
+					putRectIntersection(result, offset, count++, eachT);
+				}
+			}
+			
+			return count;
+		}
+		else {
+			throw new NullPointerException();
+		}
+	}
+	
 	/**
 	 * @post Devuelve el hash
 	 */
@@ -415,22 +1066,22 @@ public final class ConvexPolygon extends ClosedSurface<ConvexPolygon> implements
 	}
 
 	/* (non-Javadoc)
-	 * @see com.arielcarrizo.geometry.plane.finite.FiniteProportionalHolomorphicShape#getBoundingBox()
+	 * @see com.arielcarrizo.geometry.plane.finite.FiniteProportionalHolomorphicShape#computeBoundingBox()
 	 */
 	@Override
-	public BoundingBox boundingBox() {
+	protected BoundingBox computeBoundingBox() {
 		float minX = Float.POSITIVE_INFINITY, maxX = Float.NEGATIVE_INFINITY;
 		float minY = Float.POSITIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY;
 		
 		for ( Vector2f eachVertex : this.vertices ) {
 			minX = Math.min(minX, eachVertex.getX());
-			maxX = Math.min(maxX, eachVertex.getX());
+			maxX = Math.max(maxX, eachVertex.getX());
 			
-			minY = Math.max(minY, eachVertex.getY());
-			maxY = Math.min(maxY, eachVertex.getY());
+			minY = Math.min(minY, eachVertex.getY());
+			maxY = Math.max(maxY, eachVertex.getY());
 		}
 			
-		return new BoundingBox(new Vector2f(minX, minY), new Vector2f(minY, maxY));
+		return new BoundingBox(new Vector2f(minX, minY), new Vector2f(maxX, maxY));
 	}
 
 	/* (non-Javadoc)
@@ -447,6 +1098,20 @@ public final class ConvexPolygon extends ClosedSurface<ConvexPolygon> implements
 		return result;
 	}
 	
+	/* (non-Javadoc)
+	 * @see com.arielcarrizo.geometry.plane.finite.FiniteProportionalHolomorphicShape#maxDistanceToPoint(float, float)
+	 */
+	@Override
+	float maxDistanceToPoint(float x, float y) {
+		float result = 0.0f;
+		
+		for ( Vector2f eachVertex : this.vertices ) {
+			result = Math.max(result, distance(eachVertex.getX(), eachVertex.getY(), x, y));
+		}
+		
+		return result;
+	}
+	
 	/* (non-Javadoc)
 	 * @see com.arielcarrizo.geometry.plane.Shape#opposite()
 	 */
@@ -462,4 +1127,33 @@ public final class ConvexPolygon extends ClosedSurface<ConvexPolygon> implements
 		return new ConvexPolygon(resultVertices);
 	}
 	
+	
+	/* (non-Javadoc)
+	 * @see com.esferixis.geometry.plane.finite.SupportMapping#support(float, float, float[], int)
+	 */
+	@Override
+	public void support(float directionX, float directionY, float[] result, int offset) {
+		Vector2f supportPoint = null;
+		float maxDot = Float.NEGATIVE_INFINITY;
+		
+		for ( Vector2f eachVertex : this.vertices ) {
+			final float eachDot = eachVertex.getX() * directionX + eachVertex.getY() * directionY;
+			
+			if ( eachDot > maxDot ) {
+				maxDot = eachDot;
+				supportPoint = eachVertex;
+			}
+		}
+		
+		result[offset] = supportPoint.getX();
+		result[offset+1] = supportPoint.getY();
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.esferixis.geometry.plane.finite.SupportMapping#getSupportRadius()
+	 */
+	@Override
+	public float getSupportRadius() {
+		return 0.0f;
+	}
 }
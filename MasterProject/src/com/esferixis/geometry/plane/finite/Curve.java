@@ -82,8 +82,8 @@ public abstract class Curve<C extends FiniteProportionalHolomorphicShape<C>> ext
 	/**
 	 * @post Crea la curva
 	 */
-	Curve() {
-		
+	Curve(int typeTag) {
+		super(typeTag);
 	}
 	
 	/**
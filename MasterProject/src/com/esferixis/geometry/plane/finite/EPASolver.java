@@ -0,0 +1,498 @@
+/**
+ * Copyright (c) 2017 Ariel Favio Carrizo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'esferixis' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.esferixis.geometry.plane.finite;
+
+import com.esferixis.math.Vector2f;
+
+/**
+ * @author ariel
+ *
+ * Algoritmo EPA (Expanding Polytope Algorithm) para calcular la profundidad
+ * de penetración, la normal de contacto y los puntos de contacto entre dos
+ * figuras convexas que se solapan, a partir de sus funciones de soporte.
+ * 
+ * Parte del simplex que deja GJK, y si los núcleos no se solapan resuelve
+ * el contacto sólo con los radios.
+ * La normal va de la primera figura hacia la segunda, así trasladando la
+ * primera figura por la normal opuesta multiplicada por la profundidad
+ * dejan de solaparse.
+ * No es thread-safe, cada thread tiene que usar su propio solver.
+ */
+public final class EPASolver {
+	/**
+	 * Cantidad máxima de iteraciones
+	 */
+	private static final int MAX_ITERATIONS = 64;
+	
+	/**
+	 * Cantidad máxima de vértices del polígono
+	 */
+	private static final int MAX_VERTICES = MAX_ITERATIONS + 3;
+	
+	/**
+	 * Tolerancia relativa de convergencia
+	 */
+	private static final float RELATIVE_TOLERANCE = 1e-5f;
+	
+	/**
+	 * Distancia al cuadrado por debajo de la cual se considera que dos vértices
+	 * son iguales
+	 */
+	private static final float EPSILON_SQUARED = 1e-12f;
+	
+	/**
+	 * Direcciones de búsqueda para completar un simplex de un solo vértice
+	 */
+	private static final float[] AXIS_DIRECTIONS = new float[]{ 1.0f, 0.0f, -1.0f, 0.0f, 0.0f, 1.0f, 0.0f, -1.0f };
+	
+	private final GJKSolver gjkSolver;
+	
+	// Polígono: Puntos de soporte de cada figura y su diferencia, en sentido antihorario
+	private final float[] polytopePoint1 = new float[MAX_VERTICES * 2];
+	private final float[] polytopePoint2 = new float[MAX_VERTICES * 2];
+	private final float[] polytopeW = new float[MAX_VERTICES * 2];
+	private int polytopeCount;
+	
+	private final float[] supportBuffer = new float[4];
+	
+	private boolean penetration;
+	private float penetrationDepth;
+	private float normalX, normalY;
+	private final float[] contactPoints = new float[4];
+	private int iterations;
+	
+	/**
+	 * @post Crea el solver
+	 */
+	public EPASolver() {
+		this.gjkSolver = new GJKSolver();
+		this.polytopeCount = 0;
+	}
+	
+	/**
+	 * @pre Ninguna de las figuras puede ser nula
+	 * @post Calcula la penetración entre las figuras especificadas.
+	 * 		 Devuelve si hay penetración
+	 */
+	public boolean compute(SupportMapping shape1, SupportMapping shape2) {
+		if ( ( shape1 != null ) && ( shape2 != null ) ) {
+			this.gjkSolver.compute(shape1, shape2);
+			
+			return this.resolve(shape1, shape2);
+		}
+		else {
+			throw new NullPointerException();
+		}
+	}
+	
+	/**
+	 * @pre Ninguno de los parámetros puede ser nulo
+	 * @post Calcula la penetración entre las figuras especificadas, partiendo
+	 * 		 del simplex guardado en el caché especificado, y guarda el nuevo.
+	 * 		 Devuelve si hay penetración
+	 */
+	public boolean compute(SupportMapping shape1, SupportMapping shape2, GJKSolver.SimplexCache cache) {
+		if ( ( shape1 != null ) && ( shape2 != null ) && ( cache != null ) ) {
+			this.gjkSolver.compute(shape1, shape2, cache);
+			
+			return this.resolve(shape1, shape2);
+		}
+		else {
+			throw new NullPointerException();
+		}
+	}
+	
+	/**
+	 * @post Calcula la penetración a partir del resultado de GJK
+	 */
+	private boolean resolve(SupportMapping shape1, SupportMapping shape2) {
+		final float radius1 = shape1.getSupportRadius();
+		final float radius2 = shape2.getSupportRadius();
+		
+		this.iterations = 0;
+		
+		if ( !this.gjkSolver.hasIntersection() ) {
+			this.penetration = false;
+			this.penetrationDepth = 0.0f;
+			this.normalX = 0.0f;
+			this.normalY = 0.0f;
+			this.gjkSolver.getWitnessPoints(this.contactPoints, 0);
+		}
+		else {
+			final float[] coreWitnessPoints = this.gjkSolver.coreWitnessPoints;
+			final float coreDistance = this.gjkSolver.coreDistance;
+			
+			final float coreDepth;
+			float point1X, point1Y, point2X, point2Y;
+			
+			if ( coreDistance > 0.0f ) {
+				// Sólo se solapan los radios
+				point1X = coreWitnessPoints[0];
+				point1Y = coreWitnessPoints[1];
+				point2X = coreWitnessPoints[2];
+				point2Y = coreWitnessPoints[3];
+				
+				this.normalX = ( point2X - point1X ) / coreDistance;
+				this.normalY = ( point2Y - point1Y ) / coreDistance;
+				
+				coreDepth = -coreDistance;
+			}
+			else if ( this.initPolytope(shape1, shape2) ) {
+				coreDepth = this.expandPolytope(shape1, shape2);
+				
+				point1X = this.contactPoints[0];
+				point1Y = this.contactPoints[1];
+				point2X = this.contactPoints[2];
+				point2Y = this.contactPoints[3];
+			}
+			else {
+				// Diferencia de Minkowski degenerada, la normal ya está calculada
+				point1X = coreWitnessPoints[0];
+				point1Y = coreWitnessPoints[1];
+				point2X = coreWitnessPoints[2];
+				point2Y = coreWitnessPoints[3];
+				
+				coreDepth = 0.0f;
+			}
+			
+			this.contactPoints[0] = point1X + this.normalX * radius1;
+			this.contactPoints[1] = point1Y + this.normalY * radius1;
+			this.contactPoints[2] = point2X - this.normalX * radius2;
+			this.contactPoints[3] = point2Y - this.normalY * radius2;
+			
+			this.penetrationDepth = coreDepth + radius1 + radius2;
+			this.penetration = true;
+		}
+		
+		return this.penetration;
+	}
+	
+	/**
+	 * @post Calcula los puntos de soporte de las figuras para el vértice de la diferencia de Minkowski
+	 * 		 en la dirección especificada
+	 */
+	private void computeSupport(SupportMapping shape1, SupportMapping shape2, float directionX, float directionY) {
+		shape1.support(directionX, directionY, this.supportBuffer, 0);
+		shape2.support(-directionX, -directionY, this.supportBuffer, 2);
+	}
+	
+	/**
+	 * @post Inserta en el polígono, en la posición especificada, el vértice calculado con los
+	 * 		 últimos puntos de soporte
+	 */
+	private void insertSupport(int index) {
+		final int length = ( this.polytopeCount - index ) * 2;
+		
+		System.arraycopy(this.polytopePoint1, index * 2, this.polytopePoint1, index * 2 + 2, length);
+		System.arraycopy(this.polytopePoint2, index * 2, this.polytopePoint2, index * 2 + 2, length);
+		System.arraycopy(this.polytopeW, index * 2, this.polytopeW, index * 2 + 2, length);
+		
+		this.polytopePoint1[index*2] = this.supportBuffer[0];
+		this.polytopePoint1[index*2+1] = this.supportBuffer[1];
+		this.polytopePoint2[index*2] = this.supportBuffer[2];
+		this.polytopePoint2[index*2+1] = this.supportBuffer[3];
+		this.polytopeW[index*2] = this.supportBuffer[0] - this.supportBuffer[2];
+		this.polytopeW[index*2+1] = this.supportBuffer[1] - this.supportBuffer[3];
+		
+		this.polytopeCount++;
+	}
+	
+	/**
+	 * @post Devuelve si el vértice calculado con los últimos puntos de soporte
+	 * 		 ya está en el polígono
+	 */
+	private boolean isSupportDuplicated() {
+		final float wx = this.supportBuffer[0] - this.supportBuffer[2];
+		final float wy = this.supportBuffer[1] - this.supportBuffer[3];
+		
+		for ( int i = 0 ; i < this.polytopeCount ; i++ ) {
+			final float deltaX = this.polytopeW[i*2] - wx;
+			final float deltaY = this.polytopeW[i*2+1] - wy;
+			
+			if ( deltaX * deltaX + deltaY * deltaY <= EPSILON_SQUARED ) {
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * @post Devuelve el producto vectorial entre las aristas que van desde el primer
+	 * 		 vértice del polígono hacia el segundo y hacia el último punto de soporte
+	 */
+	private float supportCross() {
+		final float e1x = this.polytopeW[2] - this.polytopeW[0];
+		final float e1y = this.polytopeW[3] - this.polytopeW[1];
+		final float e2x = ( this.supportBuffer[0] - this.supportBuffer[2] ) - this.polytopeW[0];
+		final float e2y = ( this.supportBuffer[1] - this.supportBuffer[3] ) - this.polytopeW[1];
+		
+		return e1x * e2y - e1y * e2x;
+	}
+	
+	/**
+	 * @post Construye el triángulo inicial en sentido antihorario, a partir del simplex de GJK.
+	 * 		 Si la diferencia de Minkowski de los núcleos es degenerada (un punto o un segmento)
+	 * 		 calcula la normal y devuelve false
+	 */
+	private boolean initPolytope(SupportMapping shape1, SupportMapping shape2) {
+		final GJKSolver gjk = this.gjkSolver;
+		
+		this.polytopeCount = gjk.simplexCount;
+		System.arraycopy(gjk.simplexPoint1, 0, this.polytopePoint1, 0, gjk.simplexCount * 2);
+		System.arraycopy(gjk.simplexPoint2, 0, this.polytopePoint2, 0, gjk.simplexCount * 2);
+		System.arraycopy(gjk.simplexW, 0, this.polytopeW, 0, gjk.simplexCount * 2);
+		
+		if ( this.polytopeCount == 1 ) {
+			for ( int i = 0 ; ( i < AXIS_DIRECTIONS.length ) && ( this.polytopeCount == 1 ) ; i += 2 ) {
+				this.computeSupport(shape1, shape2, AXIS_DIRECTIONS[i], AXIS_DIRECTIONS[i+1]);
+				
+				if ( !this.isSupportDuplicated() ) {
+					this.insertSupport(1);
+				}
+			}
+			
+			if ( this.polytopeCount == 1 ) {
+				this.normalX = 1.0f;
+				this.normalY = 0.0f;
+				return false;
+			}
+		}
+		
+		if ( this.polytopeCount == 2 ) {
+			final float edgeX = this.polytopeW[2] - this.polytopeW[0];
+			final float edgeY = this.polytopeW[3] - this.polytopeW[1];
+			final float edgeLength = (float) Math.sqrt(edgeX * edgeX + edgeY * edgeY);
+			
+			final float perpendicularX = -edgeY / edgeLength;
+			final float perpendicularY = edgeX / edgeLength;
+			
+			this.computeSupport(shape1, shape2, perpendicularX, perpendicularY);
+			float cross = this.supportCross();
+			
+			if ( cross * cross <= EPSILON_SQUARED ) {
+				this.computeSupport(shape1, shape2, -perpendicularX, -perpendicularY);
+				cross = this.supportCross();
+			}
+			
+			if ( cross * cross <= EPSILON_SQUARED ) {
+				this.normalX = perpendicularX;
+				this.normalY = perpendicularY;
+				return false;
+			}
+			
+			this.insertSupport(2);
+		}
+		
+		// Orienta el triángulo en sentido antihorario
+		final float e1x = this.polytopeW[2] - this.polytopeW[0];
+		final float e1y = this.polytopeW[3] - this.polytopeW[1];
+		final float e2x = this.polytopeW[4] - this.polytopeW[0];
+		final float e2y = this.polytopeW[5] - this.polytopeW[1];
+		
+		if ( e1x * e2y - e1y * e2x < 0.0f ) {
+			this.swapVertices(1, 2);
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * @post Intercambia los vértices especificados del polígono
+	 */
+	private void swapVertices(int i, int j) {
+		swap(this.polytopePoint1, i, j);
+		swap(this.polytopePoint2, i, j);
+		swap(this.polytopeW, i, j);
+	}
+	
+	/**
+	 * @post Intercambia los puntos especificados del array especificado
+	 */
+	private static void swap(float[] points, int i, int j) {
+		final float x = points[i*2], y = points[i*2+1];
+		points[i*2] = points[j*2];
+		points[i*2+1] = points[j*2+1];
+		points[j*2] = x;
+		points[j*2+1] = y;
+	}
+	
+	/**
+	 * @pre El polígono contiene al origen y está en sentido antihorario
+	 * @post Expande el polígono hasta encontrar la arista de la diferencia de Minkowski
+	 * 		 más cercana al origen, calcula la normal y los puntos de contacto de los núcleos,
+	 * 		 y devuelve la profundidad de penetración de los núcleos
+	 */
+	private float expandPolytope(SupportMapping shape1, SupportMapping shape2) {
+		int bestEdge = 0;
+		float bestDistance = 0.0f;
+		float bestNormalX = 0.0f, bestNormalY = 0.0f;
+		
+		while ( this.iterations < MAX_ITERATIONS ) {
+			this.iterations++;
+			
+			bestDistance = Float.POSITIVE_INFINITY;
+			
+			for ( int i = 0 ; i < this.polytopeCount ; i++ ) {
+				final int j = ( i + 1 ) % this.polytopeCount;
+				
+				final float edgeX = this.polytopeW[j*2] - this.polytopeW[i*2];
+				final float edgeY = this.polytopeW[j*2+1] - this.polytopeW[i*2+1];
+				final float edgeLength = (float) Math.sqrt(edgeX * edgeX + edgeY * edgeY);
+				
+				if ( edgeLength > 0.0f ) {
+					final float eachNormalX = edgeY / edgeLength;
+					final float eachNormalY = -edgeX / edgeLength;
+					final float eachDistance = eachNormalX * this.polytopeW[i*2] + eachNormalY * this.polytopeW[i*2+1];
+					
+					if ( eachDistance < bestDistance ) {
+						bestDistance = eachDistance;
+						bestEdge = i;
+						bestNormalX = eachNormalX;
+						bestNormalY = eachNormalY;
+					}
+				}
+			}
+			
+			if ( this.polytopeCount == MAX_VERTICES ) {
+				break;
+			}
+			
+			this.computeSupport(shape1, shape2, bestNormalX, bestNormalY);
+			
+			final float supportDistance = bestNormalX * ( this.supportBuffer[0] - this.supportBuffer[2] ) + bestNormalY * ( this.supportBuffer[1] - this.supportBuffer[3] );
+			
+			if ( ( supportDistance - bestDistance <= RELATIVE_TOLERANCE * Math.max(1.0f, bestDistance) ) || this.isSupportDuplicated() ) {
+				break;
+			}
+			
+			this.insertSupport(bestEdge + 1);
+		}
+		
+		// Puntos de contacto sobre la arista más cercana
+		final int i = bestEdge;
+		final int j = ( bestEdge + 1 ) % this.polytopeCount;
+		
+		final float edgeX = this.polytopeW[j*2] - this.polytopeW[i*2];
+		final float edgeY = this.polytopeW[j*2+1] - this.polytopeW[i*2+1];
+		final float edgeLengthSquared = edgeX * edgeX + edgeY * edgeY;
+		
+		float t;
+		if ( edgeLengthSquared > 0.0f ) {
+			t = -( this.polytopeW[i*2] * edgeX + this.polytopeW[i*2+1] * edgeY ) / edgeLengthSquared;
+			t = Math.max(0.0f, Math.min(1.0f, t));
+		}
+		else {
+			t = 0.0f;
+		}
+		
+		this.contactPoints[0] = this.polytopePoint1[i*2] + ( this.polytopePoint1[j*2] - this.polytopePoint1[i*2] ) * t;
+		this.contactPoints[1] = this.polytopePoint1[i*2+1] + ( this.polytopePoint1[j*2+1] - this.polytopePoint1[i*2+1] ) * t;
+		this.contactPoints[2] = this.polytopePoint2[i*2] + ( this.polytopePoint2[j*2] - this.polytopePoint2[i*2] ) * t;
+		this.contactPoints[3] = this.polytopePoint2[i*2+1] + ( this.polytopePoint2[j*2+1] - this.polytopePoint2[i*2+1] ) * t;
+		
+		this.normalX = bestNormalX;
+		this.normalY = bestNormalY;
+		
+		return bestDistance;
+	}
+	
+	/**
+	 * @post Devuelve si hubo penetración en el último cálculo
+	 */
+	public boolean hasPenetration() {
+		return this.penetration;
+	}
+	
+	/**
+	 * @post Devuelve la profundidad de penetración del último cálculo,
+	 * 		 si no hay penetración es cero
+	 */
+	public float getPenetrationDepth() {
+		return this.penetrationDepth;
+	}
+	
+	/**
+	 * @post Devuelve la normal de contacto del último cálculo, que va de la primera
+	 * 		 figura hacia la segunda.
+	 * 		 Si no hay penetración es el vector nulo
+	 */
+	public Vector2f getNormal() {
+		return new Vector2f(this.normalX, this.normalY);
+	}
+	
+	/**
+	 * @post Devuelve la componente x de la normal de contacto del último cálculo
+	 */
+	public float getNormalX() {
+		return this.normalX;
+	}
+	
+	/**
+	 * @post Devuelve la componente y de la normal de contacto del último cálculo
+	 */
+	public float getNormalY() {
+		return this.normalY;
+	}
+	
+	/**
+	 * @post Devuelve el punto de contacto de la primera figura del último cálculo,
+	 * 		 que es el punto más profundo dentro de la segunda
+	 */
+	public Vector2f getContactPoint1() {
+		return new Vector2f(this.contactPoints[0], this.contactPoints[1]);
+	}
+	
+	/**
+	 * @post Devuelve el punto de contacto de la segunda figura del último cálculo,
+	 * 		 que es el punto más profundo dentro de la primera
+	 */
+	public Vector2f getContactPoint2() {
+		return new Vector2f(this.contactPoints[2], this.contactPoints[3]);
+	}
+	
+	/**
+	 * @pre El array tiene que tener al menos cuatro posiciones desde el offset especificado
+	 * @post Escribe en el array especificado, desde el offset especificado, las coordenadas
+	 * 		 de los puntos de contacto de la primera y de la segunda figura del último cálculo
+	 */
+	public void getContactPoints(float[] result, int offset) {
+		System.arraycopy(this.contactPoints, 0, result, offset, 4);
+	}
+	
+	/**
+	 * @post Devuelve la cantidad de iteraciones de expansión del último cálculo
+	 */
+	public int getIterations() {
+		return this.iterations;
+	}
+}
@@ -38,14 +38,12 @@ import com.esferixis.geometry.plane.Line;
 import com.esferixis.math.Matrix3f;
 import com.esferixis.math.ProportionalMatrix3f;
 import com.esferixis.math.Vector2f;
-import com.esferixis.misc.multimethod.Bimethod;
-import com.esferixis.misc.multimethod.SymmetricBimethod;
 
 /**
  * @author ariel
  *
  */
-public abstract class FiniteAffineHolomorphicShape<S extends FiniteProportionalHolomorphicShape<S>> extends FiniteProportionalHolomorphicShape<FiniteAffineHolomorphicShape<S>> {
+public abstract class FiniteAffineHolomorphicShape<S extends FiniteProportionalHolomorphicShape<S>> extends FiniteProportionalHolomorphicShape<FiniteAffineHolomorphicShape<S>> implements SupportMapping {
 	/**
 	 * 
 	 */
@@ -141,44 +139,28 @@ public abstract class FiniteAffineHolomorphicShape<S extends FiniteProportionalH
 	}
 	
 	@SuppressWarnings("unchecked")
-	private static final SymmetricBimethod<Void, FiniteProportionalHolomorphicShape<?>, FiniteProportionalHolomorphicShape<?>> dilationBimethod = SymmetricBimethod.make( (Class<FiniteProportionalHolomorphicShape<?>>) (Class<?>) FiniteProportionalHolomorphicShape.class,
-		new Bimethod.Case<Void, Point, FiniteProportionalHolomorphicShape<?>, FiniteProportionalHolomorphicShape<?>>(Point.class, (Class< FiniteProportionalHolomorphicShape<?> >) (Class<?>) FiniteProportionalHolomorphicShape.class) {
+	private static final ShapePairDispatchTable.Function<FiniteProportionalHolomorphicShape<?>>[] dilationTable = ShapePairDispatchTable.makeFunctionTable(
+		new ShapePairDispatchTable.FunctionCase<Point, FiniteProportionalHolomorphicShape<?>, FiniteProportionalHolomorphicShape<?>>(Point.class, (Class< FiniteProportionalHolomorphicShape<?> >) (Class<?>) FiniteProportionalHolomorphicShape.class) {
 
 			@Override
-			public FiniteProportionalHolomorphicShape<?> process(Void parameters, Point point,
+			public FiniteProportionalHolomorphicShape<?> process(Point point,
 					FiniteProportionalHolomorphicShape<?> otherShape) {
 				return otherShape.translate(point.getPosition());
 			}
 			
 		},
-		new Bimethod.Case<Void, LineSegment, LineSegment, FiniteProportionalHolomorphicShape<?>>(LineSegment.class, LineSegment.class) {
+		new ShapePairDispatchTable.FunctionCase<LineSegment, LineSegment, FiniteProportionalHolomorphicShape<?>>(LineSegment.class, LineSegment.class) {
 
 			@Override
-			public FiniteProportionalHolomorphicShape<?> process(Void parameters, LineSegment line1, LineSegment line2) {
-				final Vector2f p11 = line1.getPoint1().add(line2.getPoint1());
-				final Vector2f p12 = line1.getPoint1().add(line2.getPoint2());
-				final Vector2f p21 = line1.getPoint2().add(line2.getPoint1());
-				final Vector2f p22 = line1.getPoint2().add(line2.getPoint2());
-				
-				final Vector2f center = p11.add(p21).add(p22).add(p12).scale(1.0f / 4.0f);
-				
-				final Vector2f[] points;
-				
-				if ( new Line(p11, p21.sub(p11)).getScaledDistance(center) >= 0.0f ) {
-					points = new Vector2f[]{p11, p21, p22, p12};
-				}
-				else {
-					points = new Vector2f[]{p12, p22, p21, p11};
-				}
-				
-				return new ConvexPolygon(points);
+			public FiniteProportionalHolomorphicShape<?> process(LineSegment line1, LineSegment line2) {
+				return line1.dilate(line2);
 			}
 			
 		},
-		new Bimethod.Case<Void, LineSegment, ConvexPolygon, FiniteProportionalHolomorphicShape<?>>(LineSegment.class, ConvexPolygon.class) {
+		new ShapePairDispatchTable.FunctionCase<LineSegment, ConvexPolygon, FiniteProportionalHolomorphicShape<?>>(LineSegment.class, ConvexPolygon.class) {
 
 			@Override
-			public FiniteProportionalHolomorphicShape<?> process(Void parameters, LineSegment lineSegment,
+			public FiniteProportionalHolomorphicShape<?> process(LineSegment lineSegment,
 					ConvexPolygon convexPolygon) {
 				final int[] extremeVertices = new int[2];
 				
@@ -240,103 +222,54 @@ public abstract class FiniteAffineHolomorphicShape<S extends FiniteProportionalH
 			}
 			
 		},
-		new Bimethod.Case<Void, ConvexPolygon, ConvexPolygon, FiniteProportionalHolomorphicShape<?>>(ConvexPolygon.class, ConvexPolygon.class) {
+		new ShapePairDispatchTable.FunctionCase<ConvexPolygon, ConvexPolygon, FiniteProportionalHolomorphicShape<?>>(ConvexPolygon.class, ConvexPolygon.class) {
 
 			@Override
-			public FiniteProportionalHolomorphicShape<?> process(Void parameters, ConvexPolygon convexPolygon1,
-					ConvexPolygon convexPolygon2) {				
-				final float baseAngle = convexPolygon1.getVertices().get(1).sub(convexPolygon1.getVertices().get(0)).getAngle();
-				float[] edgeAngles1 = new float[convexPolygon1.getVertices().size()];
-				float[] edgeAngles2 = new float[convexPolygon2.getVertices().size()];
-				
-				for ( int i = 0 ; i <convexPolygon1.getVertices().size() ; i++ ) {
-					float angle = convexPolygon1.getVertices().get( (i+1) % convexPolygon1.getVertices().size()).sub(convexPolygon1.getVertices().get(i)).getAngle();
-					
-					if ( angle < baseAngle ) {
-						angle += Math.PI * 2.0f;
-					}
-					
-					edgeAngles1[i] = angle;
-				}
-				
-				int indexOffset2 = 0;
-				
-				{
-					float minAngle = Float.POSITIVE_INFINITY;
-					
-					for ( int i = 0 ; i <convexPolygon2.getVertices().size() ; i++ ) {
-						float angle = convexPolygon2.getVertices().get( (i+1) % convexPolygon2.getVertices().size()).sub(convexPolygon2.getVertices().get(i)).getAngle();
-						
-						if ( angle < baseAngle ) {
-							angle += Math.PI * 2.0f;
-						}
-						
-						if ( angle < minAngle ) {
-							minAngle = angle;
-							indexOffset2 = i;
-						}
-						
-						edgeAngles2[i] = angle;
-					}
-				}
-				
-				int index1 = 0, index2 = 0;
-				
-				Vector2f[] resultVertices = new Vector2f[convexPolygon1.getVertices().size()+convexPolygon2.getVertices().size()];
-				int resultIndex = 0;
-				
-				boolean moreEdges1 = true, moreEdges2 = true;
-				
-				while ( moreEdges1 || moreEdges2 ) {
-					final int absoluteIndex2 = (index2+indexOffset2) % convexPolygon2.getVertices().size();
-					final int absoluteIndex1 = (index1) % convexPolygon1.getVertices().size();
-					
-					resultVertices[resultIndex++] = convexPolygon1.getVertices().get(absoluteIndex1).add(convexPolygon2.getVertices().get(absoluteIndex2));
-					
-					if ( moreEdges1 && ( !moreEdges2 || ( edgeAngles1[absoluteIndex1] < edgeAngles2[absoluteIndex2] ) ) ) {
-						index1++;
-					}
-					else if ( moreEdges2 ) {
-						index2++;
-					}
-					
-					moreEdges1 = (index1 < convexPolygon1.getVertices().size());
-					moreEdges2 = (index2 < convexPolygon2.getVertices().size());
-				}
-				
-				return new ConvexPolygon(resultVertices);
+			public FiniteProportionalHolomorphicShape<?> process(ConvexPolygon convexPolygon1,
+					ConvexPolygon convexPolygon2) {
+				return ConvexPolygon.minkowskiSum(convexPolygon1, convexPolygon2);
 			}
 			
 		},
-		new Bimethod.Case<Void, FiniteProportionalHolomorphicShapeGroup<?>, FiniteProportionalHolomorphicShape<?>, FiniteProportionalHolomorphicShape<?>>((Class<FiniteProportionalHolomorphicShapeGroup<?>>) (Class<?>) FiniteProportionalHolomorphicShapeGroup.class, (Class< FiniteProportionalHolomorphicShape<?> >) (Class<?>) FiniteProportionalHolomorphicShape.class) {
+		new ShapePairDispatchTable.FunctionCase<FiniteProportionalHolomorphicShapeGroup<?>, FiniteProportionalHolomorphicShape<?>, FiniteProportionalHolomorphicShape<?>>((Class<FiniteProportionalHolomorphicShapeGroup<?>>) (Class<?>) FiniteProportionalHolomorphicShapeGroup.class, (Class< FiniteProportionalHolomorphicShape<?> >) (Class<?>) FiniteProportionalHolomorphicShape.class) {
 
 			@Override
-			public FiniteProportionalHolomorphicShape<?> process(Void parameters, FiniteProportionalHolomorphicShapeGroup<?> proportionalHolomorphicShapeGroup,
+			public FiniteProportionalHolomorphicShape<?> process(FiniteProportionalHolomorphicShapeGroup<?> proportionalHolomorphicShapeGroup,
 					FiniteProportionalHolomorphicShape<?> otherShape) {
 				final List<FiniteProportionalHolomorphicShape<?>> shapes = new ArrayList<FiniteProportionalHolomorphicShape<?>>(proportionalHolomorphicShapeGroup.getShapes().size());
 				
 				for ( FiniteProportionalHolomorphicShape<?> eachShape : proportionalHolomorphicShapeGroup.getShapes() ) {
-					shapes.add( dilationBimethod.process(null, eachShape, otherShape) );
+					shapes.add( dilate(eachShape, otherShape) );
 				}
 				
 				return new FiniteProportionalHolomorphicShapeGroup<FiniteProportionalHolomorphicShape<?>>(shapes);
 			}
 			
 		},
-		new Bimethod.Case<Void, FiniteAffineHolomorphicShape<?>, FiniteProportionalHolomorphicShape<?>, FiniteProportionalHolomorphicShape<?>>((Class<FiniteAffineHolomorphicShape<?>>) (Class<?>) FiniteAffineHolomorphicShape.class, (Class<FiniteProportionalHolomorphicShape<?>>) (Class<?>) FiniteProportionalHolomorphicShape.class) {
+		new ShapePairDispatchTable.FunctionCase<FiniteAffineHolomorphicShape<?>, FiniteProportionalHolomorphicShape<?>, FiniteProportionalHolomorphicShape<?>>((Class<FiniteAffineHolomorphicShape<?>>) (Class<?>) FiniteAffineHolomorphicShape.class, (Class<FiniteProportionalHolomorphicShape<?>>) (Class<?>) FiniteProportionalHolomorphicShape.class) {
 
 			@Override
-			public FiniteProportionalHolomorphicShape<?> process(Void parameters, FiniteAffineHolomorphicShape<?> finiteAffineHolomorphicShape, FiniteProportionalHolomorphicShape<?> proportionalHolomorphicShape) {
-				return dilationBimethod.process(null, finiteAffineHolomorphicShape.getBackingShape(), proportionalHolomorphicShape);
+			public FiniteProportionalHolomorphicShape<?> process(FiniteAffineHolomorphicShape<?> finiteAffineHolomorphicShape, FiniteProportionalHolomorphicShape<?> proportionalHolomorphicShape) {
+				return dilate(finiteAffineHolomorphicShape.getBackingShape(), proportionalHolomorphicShape);
 			}
 			
 		}
 	);
 	
+	/**
+	 * @pre Ninguna de las dos figuras puede ser nula
+	 * @post Efectúa la dilatación entre las figuras especificadas
+	 */
+	private static FiniteProportionalHolomorphicShape<?> dilate(FiniteProportionalHolomorphicShape<?> shape1, FiniteProportionalHolomorphicShape<?> shape2) {
+		return dilationTable[ShapePairDispatchTable.index(shape1, shape2)].process(shape1, shape2);
+	}
+	
 	/**
 	 * @post Crea una cobertura de la figura especificada
 	 */
 	FiniteAffineHolomorphicShape(S backingShape) {
+		super(AFFINE_TYPETAG);
+		
 		if ( backingShape != null ) {
 			this.backingShape = backingShape;
 		}
@@ -420,6 +353,30 @@ public abstract class FiniteAffineHolomorphicShape<S extends FiniteProportionalH
 		return this.backingShape.getRectIntersection(rect);
 	}
 	
+	/* (non-Javadoc)
+	 * @see com.esferixis.geometry.plane.Shape#getRectIntersection(com.esferixis.geometry.plane.Line, float[], int)
+	 */
+	@Override
+	public int getRectIntersection(Line rect, float[] result, int offset) {
+		return this.backingShape.getRectIntersection(rect, result, offset);
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.esferixis.geometry.plane.Shape#getRayIntersection(com.esferixis.geometry.plane.Line)
+	 */
+	@Override
+	public Float getRayIntersection(Line rect) {
+		return this.backingShape.getRayIntersection(rect);
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.esferixis.geometry.plane.Shape#getRayIntersectionParameter(com.esferixis.geometry.plane.Line)
+	 */
+	@Override
+	public float getRayIntersectionParameter(Line rect) {
+		return this.backingShape.getRayIntersectionParameter(rect);
+	}
+	
 	/**
 	 * @pre La figura no puede ser nula
 	 * @post Devuelve el resultado perimetral de la dilatación con la figura especificada
@@ -484,7 +441,7 @@ public abstract class FiniteAffineHolomorphicShape<S extends FiniteProportionalH
 	 */
 	public FiniteAffineHolomorphicShape<?> dilate(FiniteAffineHolomorphicShape<?> otherShape) {
 		if ( otherShape != null ) {
-			return cast(dilationBimethod.process(null, this.getBackingShape(), otherShape.getBackingShape()));
+			return cast(dilate(this.getBackingShape(), otherShape.getBackingShape()));
 		}
 		else {
 			throw new NullPointerException();
@@ -532,10 +489,10 @@ public abstract class FiniteAffineHolomorphicShape<S extends FiniteProportionalH
 	}
 
 	/* (non-Javadoc)
-	 * @see com.arielcarrizo.geometry.plane.finite.FiniteProportionalHolomorphicShape#getBoundingBox()
+	 * @see com.arielcarrizo.geometry.plane.finite.FiniteProportionalHolomorphicShape#computeBoundingBox()
 	 */
 	@Override
-	public BoundingBox boundingBox() {
+	protected BoundingBox computeBoundingBox() {
 		return this.backingShape.boundingBox();
 	}
 
@@ -547,6 +504,14 @@ public abstract class FiniteAffineHolomorphicShape<S extends FiniteProportionalH
 		return this.backingShape.maxDistanceToOrigin();
 	}
 	
+	/* (non-Javadoc)
+	 * @see com.arielcarrizo.geometry.plane.finite.FiniteProportionalHolomorphicShape#maxDistanceToPoint(float, float)
+	 */
+	@Override
+	final float maxDistanceToPoint(float x, float y) {
+		return this.backingShape.maxDistanceToPoint(x, y);
+	}
+	
 	/* (non-Javadoc)
 	 * @see com.arielcarrizo.geometry.plane.finite.FiniteProportionalHolomorphicShape#minDistanceToOrigin()
 	 */
@@ -570,4 +535,33 @@ public abstract class FiniteAffineHolomorphicShape<S extends FiniteProportionalH
 	public com.esferixis.geometry.plane.Shape.NearestNormal nearestNormalToOrigin() {
 		return this.backingShape.nearestNormalToOrigin();
 	}
+	
+	/**
+	 * @post Devuelve la función de soporte de la figura de respaldo, si no es convexa
+	 * 		 lanza una excepción
+	 */
+	private SupportMapping getBackingSupportMapping() {
+		if ( this.backingShape instanceof SupportMapping ) {
+			return (SupportMapping) this.backingShape;
+		}
+		else {
+			throw new IllegalStateException("Non convex backing shape");
+		}
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.esferixis.geometry.plane.finite.SupportMapping#support(float, float, float[], int)
+	 */
+	@Override
+	public void support(float directionX, float directionY, float[] result, int offset) {
+		this.getBackingSupportMapping().support(directionX, directionY, result, offset);
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.esferixis.geometry.plane.finite.SupportMapping#getSupportRadius()
+	 */
+	@Override
+	public float getSupportRadius() {
+		return this.getBackingSupportMapping().getSupportRadius();
+	}
 }
@@ -46,8 +46,6 @@ import com.esferixis.math.ProportionalMatrix3f;
 import com.esferixis.math.Vector2f;
 import com.esferixis.math.intervalarithmetic.FloatClosedInterval;
 import com.esferixis.misc.classextra.ConcreteInstanceClassIndexer;
-import com.esferixis.misc.multimethod.Bimethod;
-import com.esferixis.misc.multimethod.SymmetricBimethod;
 
 /**
  * @author ariel
@@ -68,81 +66,53 @@ public abstract class FiniteProportionalHolomorphicShape<S extends FiniteProport
 		public <S extends FiniteProportionalHolomorphicShape<?>> V visit(FiniteProportionalHolomorphicShapeGroup<S> proportionalHolomorphicShapeGroup) throws T;
 	}
 	
+	/**
+	 * Etiquetas de tipo de las figuras concretas
+	 */
+	static final int POINT_TYPETAG = 0;
+	static final int LINESEGMENT_TYPETAG = 1;
+	static final int CIRCUMFERENCE_TYPETAG = 2;
+	static final int CIRCLE_TYPETAG = 3;
+	static final int SOLIDCAPSULE_TYPETAG = 4;
+	static final int CIRCUMFERENCESEGMENT_TYPETAG = 5;
+	static final int CONVEXPOLYGON_TYPETAG = 6;
+	static final int GROUP_TYPETAG = 7;
+	static final int AFFINE_TYPETAG = 8;
+	
+	/**
+	 * Cantidad de etiquetas de tipo
+	 */
+	static final int TYPETAGS = 9;
+	
 	@SuppressWarnings("unchecked")
-	public static final ConcreteInstanceClassIndexer<FiniteProportionalHolomorphicShape<?>> CONCRETEINSTANCECLASSINDEXER = new ConcreteInstanceClassIndexer<FiniteProportionalHolomorphicShape<?>>( (Class< FiniteProportionalHolomorphicShape<?> >) (Class<?>) FiniteProportionalHolomorphicShape.class, 9) {
+	public static final ConcreteInstanceClassIndexer<FiniteProportionalHolomorphicShape<?>> CONCRETEINSTANCECLASSINDEXER = new ConcreteInstanceClassIndexer<FiniteProportionalHolomorphicShape<?>>( (Class< FiniteProportionalHolomorphicShape<?> >) (Class<?>) FiniteProportionalHolomorphicShape.class, TYPETAGS) {
 
 		@Override
 		public int classIndex(FiniteProportionalHolomorphicShape<?> shape) {
-			return shape.accept(new Visitor<Integer, RuntimeException>() {
-
-				@Override
-				public Integer visit(Point point) {
-					return 0;
-				}
-
-				@Override
-				public Integer visit(LineSegment line) {
-					return 1;
-				}
-
-				@Override
-				public Integer visit(Circumference circumference) {
-					return 2;
-				}
-
-				@Override
-				public Integer visit(Circle circle) {
-					return 3;
-				}
-
-				@Override
-				public Integer visit(SolidCapsule capsule) {
-					return 4;
-				}
-
-				@Override
-				public Integer visit(CircumferenceSegment circumferenceSegment) {
-					return 5;
-				}
-
-				@Override
-				public Integer visit(ConvexPolygon convexPolygon) {
-					return 6;
-				}
-
-				@Override
-				public <S extends FiniteProportionalHolomorphicShape<?>> Integer visit(
-						FiniteProportionalHolomorphicShapeGroup<S> proportionalHolomorphicShapeGroup)
-						throws RuntimeException {
-					return 7;
-				}
-
-				@Override
-				public <S extends FiniteProportionalHolomorphicShape<S>> Integer visit(
-						FiniteAffineHolomorphicShape<S> finiteAffineHolomorphicShape) throws RuntimeException {
-					return 8;
-				}
-				
-			});
+			return shape.typeTag;
 		}
 		
 	};
 	
 	@SuppressWarnings("unchecked")
-	private static final SymmetricBimethod<Void, FiniteProportionalHolomorphicShape<?>, FiniteProportionalHolomorphicShape<?>> perimetralDilationBimethod = SymmetricBimethod.make( (Class<FiniteProportionalHolomorphicShape<?>>) (Class<?>) FiniteProportionalHolomorphicShape.class,
-		new Bimethod.Case<Void, Point, FiniteProportionalHolomorphicShape<?>, FiniteProportionalHolomorphicShape<?>>(Point.class, (Class< FiniteProportionalHolomorphicShape<?> >) (Class<?>) FiniteProportionalHolomorphicShape.class) {
+	private static final ShapePairDispatchTable.Function<FiniteProportionalHolomorphicShape<?>>[] perimetralDilationTable = ShapePairDispatchTable.makeFunctionTable(
+		new ShapePairDispatchTable.FunctionCase<Point, FiniteProportionalHolomorphicShape<?>, FiniteProportionalHolomorphicShape<?>>(Point.class, (Class< FiniteProportionalHolomorphicShape<?> >) (Class<?>) FiniteProportionalHolomorphicShape.class) {
 
 			@Override
-			public FiniteProportionalHolomorphicShape<?> process(Void parameters, Point point,
+			public FiniteProportionalHolomorphicShape<?> process(Point point,
 					FiniteProportionalHolomorphicShape<?> otherShape) {
 				return otherShape.transform(Matrix3f.IDENTITY.translate(point.getPosition()));
 			}
 			
 		},
-		new Bimethod.Case<Void, LineSegment, LineSegment, FiniteProportionalHolomorphicShape<?>>(LineSegment.class, LineSegment.class) {
+		new ShapePairDispatchTable.FunctionCase<LineSegment, LineSegment, FiniteProportionalHolomorphicShape<?>>(LineSegment.class, LineSegment.class) {
 
 			@Override
-			public FiniteProportionalHolomorphicShape<?> process(Void parameters, LineSegment line1, LineSegment line2) {
+			public FiniteProportionalHolomorphicShape<?> process(LineSegment line1, LineSegment line2) {
+				if ( solidSegmentDilationEnabled ) {
+					return line1.dilate(line2);
+				}
+				
 				final Vector2f p11 = line1.getPoint1().add(line2.getPoint1());
 				final Vector2f p12 = line1.getPoint1().add(line2.getPoint2());
 				final Vector2f p21 = line1.getPoint2().add(line2.getPoint1());
@@ -151,10 +121,10 @@ public abstract class FiniteProportionalHolomorphicShape<S extends FiniteProport
 			}
 			
 		},
-		new Bimethod.Case<Void, LineSegment, Circumference, FiniteProportionalHolomorphicShape<?>>(LineSegment.class, Circumference.class) {
+		new ShapePairDispatchTable.FunctionCase<LineSegment, Circumference, FiniteProportionalHolomorphicShape<?>>(LineSegment.class, Circumference.class) {
 
 			@Override
-			public FiniteProportionalHolomorphicShape<?> process(Void parameters, LineSegment lineSegment, Circumference circumference) {
+			public FiniteProportionalHolomorphicShape<?> process(LineSegment lineSegment, Circumference circumference) {
 				final float lineSegmentAngle = lineSegment.getVector12().getAngle();
 				final float angle1 = (float) (lineSegmentAngle+Math.PI*0.5f);
 				final float angle2 = (float) (lineSegmentAngle+Math.PI*1.5f);
@@ -170,9 +140,9 @@ public abstract class FiniteProportionalHolomorphicShape<S extends FiniteProport
 			}
 			
 		},
-		new Bimethod.Case<Void, LineSegment, CircumferenceSegment, FiniteProportionalHolomorphicShape<?>>(LineSegment.class, CircumferenceSegment.class) {
+		new ShapePairDispatchTable.FunctionCase<LineSegment, CircumferenceSegment, FiniteProportionalHolomorphicShape<?>>(LineSegment.class, CircumferenceSegment.class) {
 			@Override
-			public FiniteProportionalHolomorphicShape<?> process(Void parameters, LineSegment lineSegment, CircumferenceSegment circumferenceSegment) {
+			public FiniteProportionalHolomorphicShape<?> process(LineSegment lineSegment, CircumferenceSegment circumferenceSegment) {
 				final FiniteProportionalHolomorphicShape<?>[] shapesTranslatedByExtremes = new FiniteProportionalHolomorphicShape[]{
 						circumferenceSegment.translate(lineSegment.getPoint1()), circumferenceSegment.translate(lineSegment.getPoint2()),
 						lineSegment.translate(circumferenceSegment.getLimitPoint1()), lineSegment.translate(circumferenceSegment.getLimitPoint2())
@@ -199,10 +169,10 @@ public abstract class FiniteProportionalHolomorphicShape<S extends FiniteProport
 			}
 			
 		},
-		new Bimethod.Case<Void, Circumference, Circumference, FiniteProportionalHolomorphicShape<?>>(Circumference.class, Circumference.class) {
+		new ShapePairDispatchTable.FunctionCase<Circumference, Circumference, FiniteProportionalHolomorphicShape<?>>(Circumference.class, Circumference.class) {
 
 			@Override
-			public FiniteProportionalHolomorphicShape<?> process(Void parameters, final Circumference circumference1,
+			public FiniteProportionalHolomorphicShape<?> process(final Circumference circumference1,
 					final Circumference circumference2) {
 				final Circumference maxCircumference = new Circumference(circumference1.getCenter().add(circumference2.getCenter()), circumference1.getRadius() + circumference2.getRadius());
 				
@@ -218,7 +188,7 @@ public abstract class FiniteProportionalHolomorphicShape<S extends FiniteProport
 			}
 			
 		},
-		new Bimethod.Case<Void, CircumferenceSegment, CircumferenceSegment, FiniteProportionalHolomorphicShape<?>>(CircumferenceSegment.class, CircumferenceSegment.class) {
+		new ShapePairDispatchTable.FunctionCase<CircumferenceSegment, CircumferenceSegment, FiniteProportionalHolomorphicShape<?>>(CircumferenceSegment.class, CircumferenceSegment.class) {
 
 			private float getAngleContact(float beta, boolean outsideCircumference) {
 				final float resultAngle;
@@ -236,17 +206,23 @@ public abstract class FiniteProportionalHolomorphicShape<S extends FiniteProport
 			private void makeJoints(List< FiniteProportionalHolomorphicShape<?> > shapes, Circumference dilationCircumference, boolean side, CircumferenceSegment circumferenceSegment1, CircumferenceSegment circumferenceSegment2) {
 				float angleOffset2 = ( side ? 0.0f : (float) Math.PI );
 				
-				for ( FloatClosedInterval eachAngleInterval : Geometry.angleIntervalIntersection( circumferenceSegment1.getAngleInterval(), circumferenceSegment2.getAngleInterval().add(angleOffset2) ) ) {
+				final FloatClosedInterval angleInterval1 = circumferenceSegment1.getAngleInterval();
+				final FloatClosedInterval angleInterval2 = circumferenceSegment2.getAngleInterval();
+				
+				final float[] intersectionIntervals = new float[4];
+				final int intersectionIntervalsCount = Geometry.angleIntervalIntersection(angleInterval1.getMin(), angleInterval1.getMax(), angleInterval2.getMin() + angleOffset2, angleInterval2.getMax() + angleOffset2, intersectionIntervals, 0);
+				
+				for ( int i = 0 ; i < intersectionIntervalsCount ; i++ ) {
 					if ( !side && ( circumferenceSegment1.getCircumference().getRadius() > circumferenceSegment2.getCircumference().getRadius() ) ) {
 						angleOffset2 = 0.0f;
 					}
 					
-					shapes.add(new CircumferenceSegment( dilationCircumference, eachAngleInterval.sub(angleOffset2)) );
+					shapes.add(new CircumferenceSegment( dilationCircumference, new FloatClosedInterval(intersectionIntervals[i*2] - angleOffset2, intersectionIntervals[i*2+1] - angleOffset2)) );
 				}
 			}
 			
 			@Override
-			public FiniteProportionalHolomorphicShape<?> process(Void parameters, CircumferenceSegment circumferenceSegment1,
+			public FiniteProportionalHolomorphicShape<?> process(CircumferenceSegment circumferenceSegment1,
 					CircumferenceSegment circumferenceSegment2) {
 				final List< FiniteProportionalHolomorphicShape<?> > shapes = new ArrayList< FiniteProportionalHolomorphicShape<?> >(5);
 				
@@ -280,10 +256,10 @@ public abstract class FiniteProportionalHolomorphicShape<S extends FiniteProport
 			}
 
 		},
-		new Bimethod.Case<Void, Circumference, CircumferenceSegment, FiniteProportionalHolomorphicShape<?>>(Circumference.class, CircumferenceSegment.class) {
+		new ShapePairDispatchTable.FunctionCase<Circumference, CircumferenceSegment, FiniteProportionalHolomorphicShape<?>>(Circumference.class, CircumferenceSegment.class) {
 
 			@Override
-			public FiniteProportionalHolomorphicShape<?> process(Void parameters, final Circumference circumference,
+			public FiniteProportionalHolomorphicShape<?> process(final Circumference circumference,
 					final CircumferenceSegment circumferenceSegment) {
 				final List< FiniteProportionalHolomorphicShape<?> > shapes = new ArrayList< FiniteProportionalHolomorphicShape<?> >(4);
 				
@@ -305,19 +281,19 @@ public abstract class FiniteProportionalHolomorphicShape<S extends FiniteProport
 			}
 			
 		},
-		new Bimethod.Case<Void, ClosedSurface<?>, FiniteProportionalHolomorphicShape<?>, FiniteProportionalHolomorphicShape<?>>( (Class<ClosedSurface<?>>) (Class<?>) ClosedSurface.class, (Class< FiniteProportionalHolomorphicShape<?> >) (Class<?>) FiniteProportionalHolomorphicShape.class) {
+		new ShapePairDispatchTable.FunctionCase<ClosedSurface<?>, FiniteProportionalHolomorphicShape<?>, FiniteProportionalHolomorphicShape<?>>( (Class<ClosedSurface<?>>) (Class<?>) ClosedSurface.class, (Class< FiniteProportionalHolomorphicShape<?> >) (Class<?>) FiniteProportionalHolomorphicShape.class) {
 
 			@Override
-			public FiniteProportionalHolomorphicShape<?> process(Void parameters, ClosedSurface<?> closedSurface,
+			public FiniteProportionalHolomorphicShape<?> process(ClosedSurface<?> closedSurface,
 					FiniteProportionalHolomorphicShape<?> otherShape) {
 				return closedSurface.getPerimeter().perimetralDilate(otherShape);
 			}
 			
 		},
-		new Bimethod.Case<Void, FiniteProportionalHolomorphicShapeGroup<?>, FiniteProportionalHolomorphicShape<?>, FiniteProportionalHolomorphicShape<?>>((Class<FiniteProportionalHolomorphicShapeGroup<?>>) (Class<?>) FiniteProportionalHolomorphicShapeGroup.class, (Class< FiniteProportionalHolomorphicShape<?> >) (Class<?>) FiniteProportionalHolomorphicShape.class) {
+		new ShapePairDispatchTable.FunctionCase<FiniteProportionalHolomorphicShapeGroup<?>, FiniteProportionalHolomorphicShape<?>, FiniteProportionalHolomorphicShape<?>>((Class<FiniteProportionalHolomorphicShapeGroup<?>>) (Class<?>) FiniteProportionalHolomorphicShapeGroup.class, (Class< FiniteProportionalHolomorphicShape<?> >) (Class<?>) FiniteProportionalHolomorphicShape.class) {
 
 			@Override
-			public FiniteProportionalHolomorphicShape<?> process(Void parameters, FiniteProportionalHolomorphicShapeGroup<?> proportionalHolomorphicShapeGroup,
+			public FiniteProportionalHolomorphicShape<?> process(FiniteProportionalHolomorphicShapeGroup<?> proportionalHolomorphicShapeGroup,
 					FiniteProportionalHolomorphicShape<?> otherShape) {
 				final List<FiniteProportionalHolomorphicShape<?>> shapes = new ArrayList<FiniteProportionalHolomorphicShape<?>>(proportionalHolomorphicShapeGroup.getShapes().size());
 				
@@ -329,10 +305,10 @@ public abstract class FiniteProportionalHolomorphicShape<S extends FiniteProport
 			}
 			
 		},
-		new Bimethod.Case<Void, FiniteAffineHolomorphicShape<?>, FiniteProportionalHolomorphicShape<?>, FiniteProportionalHolomorphicShape<?>>((Class<FiniteAffineHolomorphicShape<?>>) (Class<?>) FiniteAffineHolomorphicShape.class, (Class<FiniteProportionalHolomorphicShape<?>>) (Class<?>) FiniteProportionalHolomorphicShape.class) {
+		new ShapePairDispatchTable.FunctionCase<FiniteAffineHolomorphicShape<?>, FiniteProportionalHolomorphicShape<?>, FiniteProportionalHolomorphicShape<?>>((Class<FiniteAffineHolomorphicShape<?>>) (Class<?>) FiniteAffineHolomorphicShape.class, (Class<FiniteProportionalHolomorphicShape<?>>) (Class<?>) FiniteProportionalHolomorphicShape.class) {
 
 			@Override
-			public FiniteProportionalHolomorphicShape<?> process(Void parameters, FiniteAffineHolomorphicShape<?> finiteAffineHolomorphicShape, FiniteProportionalHolomorphicShape<?> proportionalHolomorphicShape) {
+			public FiniteProportionalHolomorphicShape<?> process(FiniteAffineHolomorphicShape<?> finiteAffineHolomorphicShape, FiniteProportionalHolomorphicShape<?> proportionalHolomorphicShape) {
 				return finiteAffineHolomorphicShape.getBackingShape().perimetralDilate(proportionalHolomorphicShape);
 			}
 			
@@ -340,20 +316,20 @@ public abstract class FiniteProportionalHolomorphicShape<S extends FiniteProport
 	);
 	
 	@SuppressWarnings("unchecked")
-	private static final SymmetricBimethod<Void, FiniteProportionalHolomorphicShape<?>, Boolean> intersectionTestBimethod = SymmetricBimethod.make( (Class<FiniteProportionalHolomorphicShape<?>>) (Class<?>) FiniteProportionalHolomorphicShape.class,
-		new Bimethod.Case<Void, Point, FiniteProportionalHolomorphicShape<?>, Boolean>(Point.class, (Class< FiniteProportionalHolomorphicShape<?> >) (Class<?>) FiniteProportionalHolomorphicShape.class) {
+	private static final ShapePairDispatchTable.Predicate[] intersectionTestTable = ShapePairDispatchTable.makePredicateTable(
+		new ShapePairDispatchTable.PredicateCase<Point, FiniteProportionalHolomorphicShape<?>>(Point.class, (Class< FiniteProportionalHolomorphicShape<?> >) (Class<?>) FiniteProportionalHolomorphicShape.class) {
 
 			@Override
-			public Boolean process(Void parameters, Point point,
+			public boolean process(Point point,
 					FiniteProportionalHolomorphicShape<?> otherShape) {
 				return otherShape.contains(point.getPosition());
 			}
 			
 		},
-		new Bimethod.Case<Void, LineSegment, Curve<?>, Boolean>(LineSegment.class, (Class<Curve<?>>) (Class<?>) Curve.class) {
+		new ShapePairDispatchTable.PredicateCase<LineSegment, Curve<?>>(LineSegment.class, (Class<Curve<?>>) (Class<?>) Curve.class) {
 
 			@Override
-			public Boolean process(Void parameters, LineSegment lineSegment, Curve<?> curve) {
+			public boolean process(LineSegment lineSegment, Curve<?> curve) {
 				boolean hasIntersection = false;
 				
 				final Iterator<Float> intersectionIterator = curve.getRectIntersection(lineSegment.getRect()).iterator();
@@ -366,10 +342,10 @@ public abstract class FiniteProportionalHolomorphicShape<S extends FiniteProport
 			}
 			
 		},
-		new Bimethod.Case<Void, Circumference, Circumference, Boolean>(Circumference.class, Circumference.class) {
+		new ShapePairDispatchTable.PredicateCase<Circumference, Circumference>(Circumference.class, Circumference.class) {
 
 			@Override
-			public Boolean process(Void parameters, Circumference circumference1, Circumference circumference2) {
+			public boolean process(Circumference circumference1, Circumference circumference2) {
 				final Circumference minCircumference, maxCircumference;
 				
 				if ( circumference1.getRadius() > circumference2.getRadius() ) {
@@ -385,33 +361,33 @@ public abstract class FiniteProportionalHolomorphicShape<S extends FiniteProport
 			}
 			
 		},
-		new Bimethod.Case<Void, CircumferenceSegment, Circumference, Boolean>(CircumferenceSegment.class, Circumference.class) {
+		new ShapePairDispatchTable.PredicateCase<CircumferenceSegment, Circumference>(CircumferenceSegment.class, Circumference.class) {
 
 			@Override
-			public Boolean process(Void parameters, CircumferenceSegment circumferenceSegment, Circumference circumference) {
+			public boolean process(CircumferenceSegment circumferenceSegment, Circumference circumference) {
 				final Iterator<Vector2f> circumferenceAnglesIterator = circumference.getIntersections(circumferenceSegment.getCircumference()).iterator();
 				boolean hasIntersection = false;
 				
 				while ( circumferenceAnglesIterator.hasNext() && (!hasIntersection) ) {
-					hasIntersection = Geometry.containsAngle(circumferenceSegment.getAngleInterval(), circumferenceAnglesIterator.next().sub(circumferenceSegment.getCircumference().getCenter()).getAngle());
+					hasIntersection = circumferenceSegment.containsCircumferencePoint(circumferenceAnglesIterator.next());
 				}
 				
 				return hasIntersection;
 			}
 			
 		},
-		new Bimethod.Case<Void, CircumferenceSegment, CircumferenceSegment, Boolean>(CircumferenceSegment.class, CircumferenceSegment.class) {
+		new ShapePairDispatchTable.PredicateCase<CircumferenceSegment, CircumferenceSegment>(CircumferenceSegment.class, CircumferenceSegment.class) {
 
 			@Override
-			public Boolean process(Void parameters, CircumferenceSegment circumferenceSegment1, CircumferenceSegment circumferenceSegment2) {
+			public boolean process(CircumferenceSegment circumferenceSegment1, CircumferenceSegment circumferenceSegment2) {
 				final Iterator<Vector2f> circumferenceAnglesIterator = circumferenceSegment1.getCircumference().getIntersections(circumferenceSegment2.getCircumference()).iterator();
 				boolean hasIntersection = false;
 				
 				while ( circumferenceAnglesIterator.hasNext() && (!hasIntersection) ) {
 					final Vector2f eachPoint = circumferenceAnglesIterator.next();
 					hasIntersection = 
-							Geometry.containsAngle(circumferenceSegment1.getAngleInterval(), eachPoint.sub(circumferenceSegment1.getCircumference().getCenter()).getAngle()) &&
-							Geometry.containsAngle(circumferenceSegment2.getAngleInterval(), eachPoint.sub(circumferenceSegment2.getCircumference().getCenter()).getAngle())
+							circumferenceSegment1.containsCircumferencePoint(eachPoint) &&
+							circumferenceSegment2.containsCircumferencePoint(eachPoint)
 					;
 				}
 				
@@ -419,18 +395,26 @@ public abstract class FiniteProportionalHolomorphicShape<S extends FiniteProport
 			}
 			
 		},
-		new Bimethod.Case<Void, FiniteAffineHolomorphicShape<?>, FiniteProportionalHolomorphicShape<?>, Boolean>((Class<FiniteAffineHolomorphicShape<?>>) (Class<?>) FiniteAffineHolomorphicShape.class, (Class<FiniteProportionalHolomorphicShape<?>>) (Class<?>) FiniteProportionalHolomorphicShape.class) {
+		new ShapePairDispatchTable.PredicateCase<FiniteAffineHolomorphicShape<?>, FiniteProportionalHolomorphicShape<?>>((Class<FiniteAffineHolomorphicShape<?>>) (Class<?>) FiniteAffineHolomorphicShape.class, (Class<FiniteProportionalHolomorphicShape<?>>) (Class<?>) FiniteProportionalHolomorphicShape.class) {
 
 			@Override
-			public Boolean process(Void parameters, FiniteAffineHolomorphicShape<?> finiteAffineHolomorphicShape, FiniteProportionalHolomorphicShape<?> proportionalHolomorphicShape) {
+			public boolean process(FiniteAffineHolomorphicShape<?> finiteAffineHolomorphicShape, FiniteProportionalHolomorphicShape<?> proportionalHolomorphicShape) {
 				return finiteAffineHolomorphicShape.getBackingShape().hasIntersection(proportionalHolomorphicShape);
 			}
 			
 		},
-		new Bimethod.Case<Void, ClosedSurface<?>, FiniteProportionalHolomorphicShape<?>, Boolean>((Class<ClosedSurface<?>>) (Class<?>) ClosedSurface.class, (Class<FiniteProportionalHolomorphicShape<?>>) (Class<?>) FiniteProportionalHolomorphicShape.class) {
+		new ShapePairDispatchTable.PredicateCase<ConvexPolygon, ConvexPolygon>(ConvexPolygon.class, ConvexPolygon.class) {
+
+			@Override
+			public boolean process(ConvexPolygon convexPolygon1, ConvexPolygon convexPolygon2) {
+				return convexPolygon1.hasIntersectionBySeparatingAxis(convexPolygon2);
+			}
+			
+		},
+		new ShapePairDispatchTable.PredicateCase<ClosedSurface<?>, FiniteProportionalHolomorphicShape<?>>((Class<ClosedSurface<?>>) (Class<?>) ClosedSurface.class, (Class<FiniteProportionalHolomorphicShape<?>>) (Class<?>) FiniteProportionalHolomorphicShape.class) {
 
 			@Override
-			public Boolean process(Void parameters, ClosedSurface<?> closedSurface, FiniteProportionalHolomorphicShape<?> proportionalHolomorphicShape) {
+			public boolean process(ClosedSurface<?> closedSurface, FiniteProportionalHolomorphicShape<?> proportionalHolomorphicShape) {
 				/**
 				 * Si hay intersección con el perímetro, entonces hay intersección con la superficie cerrada.
 				 * Si no hay intersección con el perímetro entonces quedan dos posibilidades,
@@ -446,11 +430,10 @@ public abstract class FiniteProportionalHolomorphicShape<S extends FiniteProport
 			}
 			
 		},
-		new Bimethod.Case<Void, FiniteProportionalHolomorphicShapeGroup<FiniteProportionalHolomorphicShape<?>>, FiniteProportionalHolomorphicShape<?>, Boolean>((Class<FiniteProportionalHolomorphicShapeGroup<FiniteProportionalHolomorphicShape<?>>>) (Class<?>) FiniteProportionalHolomorphicShapeGroup.class, (Class<FiniteProportionalHolomorphicShape<?>>) (Class<?>) FiniteProportionalHolomorphicShape.class) {
+		new ShapePairDispatchTable.PredicateCase<FiniteProportionalHolomorphicShapeGroup<FiniteProportionalHolomorphicShape<?>>, FiniteProportionalHolomorphicShape<?>>((Class<FiniteProportionalHolomorphicShapeGroup<FiniteProportionalHolomorphicShape<?>>>) (Class<?>) FiniteProportionalHolomorphicShapeGroup.class, (Class<FiniteProportionalHolomorphicShape<?>>) (Class<?>) FiniteProportionalHolomorphicShape.class) {
 
 			@Override
-			public Boolean process(Void parameters,
-					FiniteProportionalHolomorphicShapeGroup<FiniteProportionalHolomorphicShape<?>> proportionalHolomorphicShapeGroup,
+			public boolean process(FiniteProportionalHolomorphicShapeGroup<FiniteProportionalHolomorphicShape<?>> proportionalHolomorphicShapeGroup,
 					FiniteProportionalHolomorphicShape<?> otherShape) {
 				Iterator<FiniteProportionalHolomorphicShape<?>> shapeIterator = proportionalHolomorphicShapeGroup.getShapes().iterator();
 				boolean hasIntersection = false;
@@ -513,11 +496,11 @@ public abstract class FiniteProportionalHolomorphicShape<S extends FiniteProport
 	}
 	
 	@SuppressWarnings("unchecked")
-	private static final SymmetricBimethod<Void, FiniteProportionalHolomorphicShape<?>, NearestPointBetweenShapes> nearestPointBetweenShapePerimetersBimethod = SymmetricBimethod.make( (Class<FiniteProportionalHolomorphicShape<?>>) (Class<?>) FiniteProportionalHolomorphicShape.class,
-		new Bimethod.Case<Void, Point, FiniteProportionalHolomorphicShape<?>, NearestPointBetweenShapes>(Point.class, (Class< FiniteProportionalHolomorphicShape<?> >) (Class<?>) FiniteProportionalHolomorphicShape.class) {
+	private static final ShapePairDispatchTable.Function<NearestPointBetweenShapes>[] nearestPointBetweenShapePerimetersTable = ShapePairDispatchTable.makeFunctionTable(
+		new ShapePairDispatchTable.FunctionCase<Point, FiniteProportionalHolomorphicShape<?>, NearestPointBetweenShapes>(Point.class, (Class< FiniteProportionalHolomorphicShape<?> >) (Class<?>) FiniteProportionalHolomorphicShape.class) {
 
 			@Override
-			public NearestPointBetweenShapes process(Void parameters, Point point, FiniteProportionalHolomorphicShape<?> otherShape) {
+			public NearestPointBetweenShapes process(Point point, FiniteProportionalHolomorphicShape<?> otherShape) {
 				final Vector2f relativePoint = otherShape.translate(point.getPosition().opposite()).accept(new Visitor<Vector2f, RuntimeException>() {
 
 					@Override
@@ -649,22 +632,25 @@ public abstract class FiniteProportionalHolomorphicShape<S extends FiniteProport
 			}
 			
 		},
-		new Bimethod.Case<Void, LineSegment, LineSegment, NearestPointBetweenShapes>(LineSegment.class, LineSegment.class) {
+		new ShapePairDispatchTable.FunctionCase<LineSegment, LineSegment, NearestPointBetweenShapes>(LineSegment.class, LineSegment.class) {
 			@Override
-			public NearestPointBetweenShapes process(Void parameters, LineSegment lineSegment1, LineSegment lineSegment2) {
-				return getNearestPointBetweenShapesFromArray(
-					lineSegment1.nearestPointBetweenShapePerimeters(new Point(lineSegment2.getPoint1())),
-					lineSegment1.nearestPointBetweenShapePerimeters(new Point(lineSegment2.getPoint2())),
-					lineSegment2.nearestPointBetweenShapePerimeters(new Point(lineSegment1.getPoint1())),
-					lineSegment2.nearestPointBetweenShapePerimeters(new Point(lineSegment1.getPoint2()))
+			public NearestPointBetweenShapes process(LineSegment lineSegment1, LineSegment lineSegment2) {
+				final float[] nearestPoints = new float[4];
+				
+				final float distance = LineSegment.nearestPoints(
+					lineSegment1.getPoint1().getX(), lineSegment1.getPoint1().getY(), lineSegment1.getPoint2().getX(), lineSegment1.getPoint2().getY(),
+					lineSegment2.getPoint1().getX(), lineSegment2.getPoint1().getY(), lineSegment2.getPoint2().getX(), lineSegment2.getPoint2().getY(),
+					nearestPoints, 0
 				);
+				
+				return new NearestPointBetweenShapes(new Vector2f( ( nearestPoints[0] + nearestPoints[2] ) * 0.5f, ( nearestPoints[1] + nearestPoints[3] ) * 0.5f ), distance);
 			}
 			
 		},
-		new Bimethod.Case<Void, LineSegment, Circumference, NearestPointBetweenShapes>(LineSegment.class, Circumference.class) {
+		new ShapePairDispatchTable.FunctionCase<LineSegment, Circumference, NearestPointBetweenShapes>(LineSegment.class, Circumference.class) {
 
 			@Override
-			public NearestPointBetweenShapes process(Void parameters, LineSegment lineSegment, Circumference circumference) {
+			public NearestPointBetweenShapes process(LineSegment lineSegment, Circumference circumference) {
 				final Line perpendicularLine = new Line(circumference.getCenter(), lineSegment.getVector12().rotate90AnticlockWise());
 				final Float intersection = lineSegment.getRectIntersectionPoint(perpendicularLine);
 				final NearestPointBetweenShapes result;
@@ -684,10 +670,10 @@ public abstract class FiniteProportionalHolomorphicShape<S extends FiniteProport
 			}
 			
 		},
-		new Bimethod.Case<Void, LineSegment, CircumferenceSegment, NearestPointBetweenShapes>(LineSegment.class, CircumferenceSegment.class) {
+		new ShapePairDispatchTable.FunctionCase<LineSegment, CircumferenceSegment, NearestPointBetweenShapes>(LineSegment.class, CircumferenceSegment.class) {
 
 			@Override
-			public NearestPointBetweenShapes process(Void parameters, LineSegment lineSegment,
+			public NearestPointBetweenShapes process(LineSegment lineSegment,
 					CircumferenceSegment circumferenceSegment) {
 				final Line perpendicularLine = new Line(circumferenceSegment.getCircumference().getCenter(), lineSegment.getVector12().rotate90AnticlockWise());
 				final Float intersection = lineSegment.getRectIntersectionPoint(perpendicularLine);
@@ -697,7 +683,7 @@ public abstract class FiniteProportionalHolomorphicShape<S extends FiniteProport
 					final Vector2f perpendicularIntersection = perpendicularLine.getPointByProportionalScalar(intersection);
 					final Vector2f centerPerpendicularIntersection = perpendicularIntersection.sub(circumferenceSegment.getCircumference().getCenter());
 					
-					if ( Geometry.containsAngle(circumferenceSegment.getAngleInterval(), centerPerpendicularIntersection.getAngle() ) ) {
+					if ( circumferenceSegment.containsDirection(centerPerpendicularIntersection.getX(), centerPerpendicularIntersection.getY()) ) {
 						final float centerPerpendicularIntersection_length = centerPerpendicularIntersection.length();
 						
 						result = new NearestPointBetweenShapes( perpendicularIntersection.add( centerPerpendicularIntersection.scale(circumferenceSegment.getCircumference().getRadius() / centerPerpendicularIntersection_length).add(circumferenceSegment.getCircumference().getCenter()) ).scale(0.5f), Math.abs( circumferenceSegment.getCircumference().getRadius() - centerPerpendicularIntersection_length ) );
@@ -715,10 +701,10 @@ public abstract class FiniteProportionalHolomorphicShape<S extends FiniteProport
 			}
 			
 		},
-		new Bimethod.Case<Void, Circumference, Circumference, NearestPointBetweenShapes>(Circumference.class, Circumference.class) {
+		new ShapePairDispatchTable.FunctionCase<Circumference, Circumference, NearestPointBetweenShapes>(Circumference.class, Circumference.class) {
 
 			@Override
-			public NearestPointBetweenShapes process(Void parameters, Circumference circumference1, Circumference circumference2) {
+			public NearestPointBetweenShapes process(Circumference circumference1, Circumference circumference2) {
 				if ( circumference2.getRadius() < circumference1.getRadius() ) {
 					final Circumference temp = circumference2;
 					circumference2 = circumference1;
@@ -743,26 +729,35 @@ public abstract class FiniteProportionalHolomorphicShape<S extends FiniteProport
 			}
 			
 		},
-		new Bimethod.Case<Void, CircumferenceSegment, Circumference, NearestPointBetweenShapes>(CircumferenceSegment.class, Circumference.class) {
+		new ShapePairDispatchTable.FunctionCase<CircumferenceSegment, Circumference, NearestPointBetweenShapes>(CircumferenceSegment.class, Circumference.class) {
 
 			@Override
-			public NearestPointBetweenShapes process(Void parameters, CircumferenceSegment circumferenceSegment, Circumference circumference) {
-				final float tangentNearestAngle;
+			public NearestPointBetweenShapes process(CircumferenceSegment circumferenceSegment, Circumference circumference) {
 				final Vector2f centerCircumferenceCircumferenceSegment = circumferenceSegment.getCircumference().getCenter().sub(circumference.getCenter());
 				final float centerCircumferenceCircumferenceSegmentLength = centerCircumferenceCircumferenceSegment.length();
-				final float centerCircumferenceCircumferenceSegmentAngle = centerCircumferenceCircumferenceSegment.getAngle();
 				
-				if ( centerCircumferenceCircumferenceSegmentLength < circumference.getRadius() ) {
-					tangentNearestAngle = centerCircumferenceCircumferenceSegmentAngle;
+				// Dirección unitaria tangente más cercana
+				float tangentNearestDirectionX, tangentNearestDirectionY;
+				
+				if ( centerCircumferenceCircumferenceSegmentLength != 0.0f ) {
+					tangentNearestDirectionX = centerCircumferenceCircumferenceSegment.getX() / centerCircumferenceCircumferenceSegmentLength;
+					tangentNearestDirectionY = centerCircumferenceCircumferenceSegment.getY() / centerCircumferenceCircumferenceSegmentLength;
 				}
 				else {
-					tangentNearestAngle = centerCircumferenceCircumferenceSegmentAngle + (float) Math.PI;
+					tangentNearestDirectionX = 1.0f;
+					tangentNearestDirectionY = 0.0f;
+				}
+				
+				if ( centerCircumferenceCircumferenceSegmentLength >= circumference.getRadius() ) {
+					tangentNearestDirectionX = -tangentNearestDirectionX;
+					tangentNearestDirectionY = -tangentNearestDirectionY;
 				}
 				
 				final Vector2f circumferenceSegmentNearestPoint;
 				
-				if ( Geometry.containsAngle(circumferenceSegment.getAngleInterval(), tangentNearestAngle) ) {
-					circumferenceSegmentNearestPoint = circumferenceSegment.getCircumference().getPointWithAngle(tangentNearestAngle);
+				if ( circumferenceSegment.containsDirection(tangentNearestDirectionX, tangentNearestDirectionY) ) {
+					final float radius = circumferenceSegment.getCircumference().getRadius();
+					circumferenceSegmentNearestPoint = circumferenceSegment.getCircumference().getCenter().add(new Vector2f(tangentNearestDirectionX * radius, tangentNearestDirectionY * radius));
 				}
 				else {
 					final float distance1 = Math.abs(circumferenceSegment.getLimitPoint1().sub(circumference.getCenter()).length() - circumference.getRadius());
@@ -783,10 +778,10 @@ public abstract class FiniteProportionalHolomorphicShape<S extends FiniteProport
 			}
 			
 		},
-		new Bimethod.Case<Void, CircumferenceSegment, CircumferenceSegment, NearestPointBetweenShapes>(CircumferenceSegment.class, CircumferenceSegment.class) {
+		new ShapePairDispatchTable.FunctionCase<CircumferenceSegment, CircumferenceSegment, NearestPointBetweenShapes>(CircumferenceSegment.class, CircumferenceSegment.class) {
 
 			@Override
-			public NearestPointBetweenShapes process(Void parameters, CircumferenceSegment circumferenceSegment1,
+			public NearestPointBetweenShapes process(CircumferenceSegment circumferenceSegment1,
 					CircumferenceSegment circumferenceSegment2) {
 				if ( circumferenceSegment2.getCircumference().getRadius() < circumferenceSegment1.getCircumference().getRadius() ) {
 					final CircumferenceSegment temp = circumferenceSegment2;
@@ -796,10 +791,11 @@ public abstract class FiniteProportionalHolomorphicShape<S extends FiniteProport
 				
 				final Vector2f center21 = circumferenceSegment2.getCircumference().getCenter().sub(circumferenceSegment1.getCircumference().getCenter());
 				final float center21distance = center21.length();
-				final float center21angle = center21.getAngle();
+				final float center21X = center21.getX();
+				final float center21Y = center21.getY();
 				NearestPointBetweenShapes result;
 				
-				if ( ( center21distance > circumferenceSegment1.getCircumference().getRadius() + circumferenceSegment2.getCircumference().getRadius() ) && Geometry.containsAngle( circumferenceSegment1.getAngleInterval(), center21angle ) && Geometry.containsAngle( circumferenceSegment2.getAngleInterval(), center21angle + (float) Math.PI ) ) {
+				if ( ( center21distance > circumferenceSegment1.getCircumference().getRadius() + circumferenceSegment2.getCircumference().getRadius() ) && circumferenceSegment1.containsDirection( center21X, center21Y ) && circumferenceSegment2.containsDirection( -center21X, -center21Y ) ) {
 					final float distanceBetweenShapes = center21distance - circumferenceSegment1.getCircumference().getRadius() - circumferenceSegment2.getCircumference().getRadius();
 					
 					result = new NearestPointBetweenShapes(
@@ -810,7 +806,7 @@ public abstract class FiniteProportionalHolomorphicShape<S extends FiniteProport
 				else {
 					NearestPointBetweenShapes[] nearestPointsBetweenShapes = new NearestPointBetweenShapes[4];
 					
-					if ( ( circumferenceSegment2.getCircumference().getRadius() >= circumferenceSegment1.getCircumference().getRadius() - center21distance ) && Geometry.containsAngle( circumferenceSegment1.getAngleInterval(), center21angle ) && Geometry.containsAngle( circumferenceSegment2.getAngleInterval(), center21angle ) ) {
+					if ( ( circumferenceSegment2.getCircumference().getRadius() >= circumferenceSegment1.getCircumference().getRadius() - center21distance ) && circumferenceSegment1.containsDirection( center21X, center21Y ) && circumferenceSegment2.containsDirection( center21X, center21Y ) ) {
 						final float distanceBetweenShapes = circumferenceSegment2.getCircumference().getRadius() - circumferenceSegment1.getCircumference().getRadius() + center21distance;
 						
 						nearestPointsBetweenShapes[0] = new NearestPointBetweenShapes(
@@ -822,7 +818,7 @@ public abstract class FiniteProportionalHolomorphicShape<S extends FiniteProport
 						nearestPointsBetweenShapes[0] = null;
 					}
 					
-					if ( ( circumferenceSegment2.getCircumference().getRadius() >= circumferenceSegment1.getCircumference().getRadius() + center21distance ) && Geometry.containsAngle( circumferenceSegment1.getAngleInterval(), center21angle + (float) Math.PI ) && Geometry.containsAngle( circumferenceSegment2.getAngleInterval(), center21angle + (float) Math.PI ) ) {
+					if ( ( circumferenceSegment2.getCircumference().getRadius() >= circumferenceSegment1.getCircumference().getRadius() + center21distance ) && circumferenceSegment1.containsDirection( -center21X, -center21Y ) && circumferenceSegment2.containsDirection( -center21X, -center21Y ) ) {
 						final float distanceBetweenShapes = circumferenceSegment2.getCircumference().getRadius() - circumferenceSegment1.getCircumference().getRadius() - center21distance;
 						
 						nearestPointsBetweenShapes[1] = new NearestPointBetweenShapes(
@@ -844,26 +840,42 @@ public abstract class FiniteProportionalHolomorphicShape<S extends FiniteProport
 			}
 			
 		},
-		new Bimethod.Case<Void, ClosedSurface<?>, FiniteProportionalHolomorphicShape<?>, NearestPointBetweenShapes>((Class<ClosedSurface<?>>) (Class<?>) ClosedSurface.class, (Class<FiniteProportionalHolomorphicShape<?>>) (Class<?>) FiniteProportionalHolomorphicShape.class) {
+		new ShapePairDispatchTable.FunctionCase<ConvexPolygon, ConvexPolygon, NearestPointBetweenShapes>(ConvexPolygon.class, ConvexPolygon.class) {
+
+			@Override
+			public NearestPointBetweenShapes process(ConvexPolygon convexPolygon1, ConvexPolygon convexPolygon2) {
+				if ( !convexPolygon1.hasIntersectionBySeparatingAxis(convexPolygon2) ) {
+					final float[] nearestPoints = new float[4];
+					final float distance = ConvexPolygon.nearestPoints(convexPolygon1, convexPolygon2, nearestPoints, 0);
+					
+					return new NearestPointBetweenShapes(new Vector2f( ( nearestPoints[0] + nearestPoints[2] ) * 0.5f, ( nearestPoints[1] + nearestPoints[3] ) * 0.5f ), distance);
+				}
+				else {
+					return convexPolygon1.getPerimeter().nearestPointBetweenShapePerimeters(convexPolygon2.getPerimeter());
+				}
+			}
+		},
+		new ShapePairDispatchTable.FunctionCase<ClosedSurface<?>, FiniteProportionalHolomorphicShape<?>, NearestPointBetweenShapes>((Class<ClosedSurface<?>>) (Class<?>) ClosedSurface.class, (Class<FiniteProportionalHolomorphicShape<?>>) (Class<?>) FiniteProportionalHolomorphicShape.class) {
 
 			@Override
-			public NearestPointBetweenShapes process(Void parameters, ClosedSurface<?> closedSurface, FiniteProportionalHolomorphicShape<?> proportionalHolomorphicShape) {
+			public NearestPointBetweenShapes process(ClosedSurface<?> closedSurface, FiniteProportionalHolomorphicShape<?> proportionalHolomorphicShape) {
 				return closedSurface.getPerimeter().nearestPointBetweenShapePerimeters(proportionalHolomorphicShape);
 			}
 		},
-		new Bimethod.Case<Void, FiniteProportionalHolomorphicShapeGroup<FiniteProportionalHolomorphicShape<?>>, FiniteProportionalHolomorphicShape<?>, NearestPointBetweenShapes>((Class<FiniteProportionalHolomorphicShapeGroup<FiniteProportionalHolomorphicShape<?>>>) (Class<?>) FiniteProportionalHolomorphicShapeGroup.class, (Class<FiniteProportionalHolomorphicShape<?>>) (Class<?>) FiniteProportionalHolomorphicShape.class) {
+		new ShapePairDispatchTable.FunctionCase<FiniteProportionalHolomorphicShapeGroup<FiniteProportionalHolomorphicShape<?>>, FiniteProportionalHolomorphicShape<?>, NearestPointBetweenShapes>((Class<FiniteProportionalHolomorphicShapeGroup<FiniteProportionalHolomorphicShape<?>>>) (Class<?>) FiniteProportionalHolomorphicShapeGroup.class, (Class<FiniteProportionalHolomorphicShape<?>>) (Class<?>) FiniteProportionalHolomorphicShape.class) {
 
 			@Override
-			public NearestPointBetweenShapes process(Void parameters,
-					FiniteProportionalHolomorphicShapeGroup<FiniteProportionalHolomorphicShape<?>> proportionalHolomorphicShapeGroup,
+			public NearestPointBetweenShapes process(FiniteProportionalHolomorphicShapeGroup<FiniteProportionalHolomorphicShape<?>> proportionalHolomorphicShapeGroup,
 					FiniteProportionalHolomorphicShape<?> otherShape) {
 				NearestPointBetweenShapes result = null;
 				
 				for ( FiniteProportionalHolomorphicShape<?> eachShape : proportionalHolomorphicShapeGroup.getShapes() ) {
-					final NearestPointBetweenShapes eachResult = eachShape.nearestPointBetweenShapePerimeters(otherShape);
-					
-					if ( ( result == null ) || ( eachResult.distanceBetweenShapes < result.distanceBetweenShapes ) ) {
-						result = eachResult;
+					if ( ( result == null ) || !boundingVolumePrefilterEnabled || ( boundingCirclesDistance(eachShape, otherShape) < result.distanceBetweenShapes ) ) {
+						final NearestPointBetweenShapes eachResult = eachShape.nearestPointBetweenShapePerimeters(otherShape);
+						
+						if ( ( result == null ) || ( eachResult.distanceBetweenShapes < result.distanceBetweenShapes ) ) {
+							result = eachResult;
+						}
 					}
 				}
 				
@@ -873,10 +885,173 @@ public abstract class FiniteProportionalHolomorphicShape<S extends FiniteProport
 	);
 	
 	/**
-	 * @post Crea la figura
+	 * Volumen envolvente: Bounding box y círculo envolvente centrado en el
+	 * centro del bounding box
 	 */
-	FiniteProportionalHolomorphicShape() {
+	private static final class BoundingVolume {
+		private final BoundingBox boundingBox;
+		private final float centerX, centerY;
+		private final float radius;
 		
+		/**
+		 * @post Crea el volumen envolvente con el bounding box, el centro y el radio especificados
+		 */
+		public BoundingVolume(BoundingBox boundingBox, Vector2f center, float radius) {
+			this.boundingBox = boundingBox;
+			this.centerX = center.getX();
+			this.centerY = center.getY();
+			this.radius = radius;
+		}
+	}
+	
+	/**
+	 * Holgura relativa del radio del círculo envolvente, respecto del radio y
+	 * de la magnitud del centro, para que el redondeo no descarte pares que el
+	 * test exacto considera en contacto
+	 */
+	private static final float BOUNDINGCIRCLE_RELATIVE_SLACK = 1e-5f;
+	
+	/**
+	 * Volumen envolvente vacío, para figuras sin bounding box
+	 */
+	private static final BoundingVolume EMPTY_BOUNDINGVOLUME = new BoundingVolume(null, Vector2f.ZERO, 0.0f);
+	
+	/**
+	 * Indica si se descartan los pares de figuras cuyos volúmenes envolventes no se intersecan
+	 * antes de efectuar el test exacto
+	 */
+	private static volatile boolean boundingVolumePrefilterEnabled = true;
+	
+	/**
+	 * Indica si la dilatación perimetral de dos segmentos devuelve el paralelogramo sólido
+	 * como un único polígono convexo, en lugar del grupo de cuatro segmentos de su perímetro
+	 */
+	private static volatile boolean solidSegmentDilationEnabled = false;
+	
+	/**
+	 * Etiqueta de tipo, es el índice de la tabla de despacho
+	 */
+	final int typeTag;
+	
+	/**
+	 * Volumen envolvente, se calcula en forma diferida
+	 */
+	private transient volatile BoundingVolume boundingVolume;
+	
+	/**
+	 * @post Crea la figura con la etiqueta de tipo especificada
+	 */
+	FiniteProportionalHolomorphicShape(int typeTag) {
+		this.typeTag = typeTag;
+	}
+	
+	/**
+	 * @post Especifica si se descartan los pares de figuras cuyos volúmenes envolventes
+	 * 		 no se intersecan antes de efectuar el test exacto
+	 */
+	public static void setBoundingVolumePrefilterEnabled(boolean enabled) {
+		boundingVolumePrefilterEnabled = enabled;
+	}
+	
+	/**
+	 * @post Devuelve si se descartan los pares de figuras cuyos volúmenes envolventes
+	 * 		 no se intersecan antes de efectuar el test exacto
+	 */
+	public static boolean isBoundingVolumePrefilterEnabled() {
+		return boundingVolumePrefilterEnabled;
+	}
+	
+	/**
+	 * @post Especifica si la dilatación perimetral de dos segmentos devuelve el paralelogramo
+	 * 		 sólido, como un único polígono convexo, en lugar del grupo de cuatro segmentos
+	 * 		 de su perímetro. Por omisión está deshabilitado.
+	 * 		 El resultado deja de ser sólo un perímetro: contiene los puntos interiores del
+	 * 		 paralelogramo, hasIntersection es verdadero para las figuras que están adentro, y la
+	 * 		 distancia de un punto interior es cero en lugar de la distancia al perímetro.
+	 * 		 Las dilataciones de figuras compuestas de segmentos (polígonos y grupos) pasan a ser
+	 * 		 la unión de paralelogramos sólidos.
+	 * 		 Los rayos desde un punto exterior tienen el mismo primer contacto, y la distancia
+	 * 		 desde un punto exterior no cambia, así que el instante de impacto y la distancia
+	 * 		 perimetral entre figuras sin solapamiento no cambian.
+	 * 		 Las dilataciones guardadas en PerimetralDilationCache antes del cambio no se recalculan
+	 */
+	public static void setSolidSegmentDilationEnabled(boolean enabled) {
+		solidSegmentDilationEnabled = enabled;
+	}
+	
+	/**
+	 * @post Devuelve si la dilatación perimetral de dos segmentos devuelve el paralelogramo
+	 * 		 sólido, como un único polígono convexo
+	 */
+	public static boolean isSolidSegmentDilationEnabled() {
+		return solidSegmentDilationEnabled;
+	}
+	
+	/**
+	 * @post Devuelve el volumen envolvente
+	 */
+	private BoundingVolume getBoundingVolume() {
+		BoundingVolume result = this.boundingVolume;
+		
+		if ( result == null ) {
+			final BoundingBox boundingBox = this.computeBoundingBox();
+			
+			if ( boundingBox != null ) {
+				final Vector2f center = boundingBox.getCenter();
+				final float radius = this.maxDistanceToPoint(center.getX(), center.getY());
+				
+				result = new BoundingVolume(boundingBox, center, radius + ( radius + Math.abs(center.getX()) + Math.abs(center.getY()) ) * BOUNDINGCIRCLE_RELATIVE_SLACK);
+			}
+			else {
+				result = EMPTY_BOUNDINGVOLUME;
+			}
+			
+			this.boundingVolume = result;
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * @pre Ninguna de las dos figuras puede ser nula
+	 * @post Devuelve si los volúmenes envolventes de las figuras especificadas se intersecan.
+	 * 		 Si alguna no tiene volumen envolvente devuelve true
+	 */
+	static boolean boundingVolumesIntersect(FiniteProportionalHolomorphicShape<?> shape1, FiniteProportionalHolomorphicShape<?> shape2) {
+		final BoundingVolume boundingVolume1 = shape1.getBoundingVolume();
+		final BoundingVolume boundingVolume2 = shape2.getBoundingVolume();
+		
+		if ( ( boundingVolume1.boundingBox != null ) && ( boundingVolume2.boundingBox != null ) ) {
+			final float deltaX = boundingVolume2.centerX - boundingVolume1.centerX;
+			final float deltaY = boundingVolume2.centerY - boundingVolume1.centerY;
+			final float radiusSum = boundingVolume1.radius + boundingVolume2.radius;
+			
+			return ( deltaX * deltaX + deltaY * deltaY <= radiusSum * radiusSum ) && boundingVolume1.boundingBox.intersects(boundingVolume2.boundingBox);
+		}
+		else {
+			return true;
+		}
+	}
+	
+	/**
+	 * @pre Ninguna de las dos figuras puede ser nula
+	 * @post Devuelve una cota inferior de la distancia entre las figuras especificadas,
+	 * 		 a partir de sus círculos envolventes.
+	 * 		 Si alguna no tiene volumen envolvente devuelve cero
+	 */
+	static float boundingCirclesDistance(FiniteProportionalHolomorphicShape<?> shape1, FiniteProportionalHolomorphicShape<?> shape2) {
+		final BoundingVolume boundingVolume1 = shape1.getBoundingVolume();
+		final BoundingVolume boundingVolume2 = shape2.getBoundingVolume();
+		
+		if ( ( boundingVolume1.boundingBox != null ) && ( boundingVolume2.boundingBox != null ) ) {
+			final float deltaX = boundingVolume2.centerX - boundingVolume1.centerX;
+			final float deltaY = boundingVolume2.centerY - boundingVolume1.centerY;
+			
+			return Math.max(0.0f, (float) Math.sqrt(deltaX * deltaX + deltaY * deltaY) - boundingVolume1.radius - boundingVolume2.radius);
+		}
+		else {
+			return 0.0f;
+		}
 	}
 	
 	/**
@@ -896,7 +1071,7 @@ public abstract class FiniteProportionalHolomorphicShape<S extends FiniteProport
 	 */
 	public final FiniteProportionalHolomorphicShape<?> perimetralDilate(FiniteProportionalHolomorphicShape<?> other) {
 		if ( other != null ) {
-			return perimetralDilationBimethod.process(null, this, other);
+			return perimetralDilationTable[ShapePairDispatchTable.index(this, other)].process(this, other);
 		}
 		else {
 			throw new NullPointerException();
@@ -914,7 +1089,11 @@ public abstract class FiniteProportionalHolomorphicShape<S extends FiniteProport
 	 */
 	public final boolean hasIntersection(FiniteProportionalHolomorphicShape<?> other) {
 		if ( other != null ) {
-			return intersectionTestBimethod.process(null, this, other);
+			if ( boundingVolumePrefilterEnabled && !boundingVolumesIntersect(this, other) ) {
+				return false;
+			}
+			
+			return intersectionTestTable[ShapePairDispatchTable.index(this, other)].process(this, other);
 		}
 		else {
 			throw new NullPointerException();
@@ -934,15 +1113,38 @@ public abstract class FiniteProportionalHolomorphicShape<S extends FiniteProport
 	protected abstract Vector2f getInnerPoint();
 	
 	/**
-	 * @post Calcula el bounding box
+	 * @post Devuelve el bounding box, si la figura es vacía devuelve null.
+	 * 		 Se calcula una única vez
 	 */
-	public abstract BoundingBox boundingBox();
+	public final BoundingBox boundingBox() {
+		return this.getBoundingVolume().boundingBox;
+	}
+	
+	/**
+	 * @post Calcula el bounding box, si la figura es vacía devuelve null
+	 */
+	protected abstract BoundingBox computeBoundingBox();
 	
 	/**
 	 * @post Devuelve la distancia máxima al origen de coordenadas
 	 */
 	public abstract float maxDistanceToOrigin();
 	
+	/**
+	 * @post Devuelve la distancia máxima al punto especificado
+	 */
+	abstract float maxDistanceToPoint(float x, float y);
+	
+	/**
+	 * @post Devuelve la distancia entre los puntos especificados
+	 */
+	static float distance(float x1, float y1, float x2, float y2) {
+		final float deltaX = x2 - x1;
+		final float deltaY = y2 - y1;
+		
+		return (float) Math.sqrt(deltaX * deltaX + deltaY * deltaY);
+	}
+	
 	/**
 	 * @post Devuelve la distancia mínima al origen de coordenadas
 	 */
@@ -951,11 +1153,60 @@ public abstract class FiniteProportionalHolomorphicShape<S extends FiniteProport
 	/**
 	 * @pre La otra figura no puede ser nula, y no tiene que haber
 	 * 		solapamiento
-	 * @post Calcula la distancia perimetral con la figura especificada
+	 * @post Calcula la distancia perimetral con la figura especificada.
+	 * 		 Si ambas figuras son convexas usa GJK, sin construir la dilatación
 	 */
 	public final float perimetralDistance(FiniteProportionalHolomorphicShape<?> other) {
 		if ( other != null ) {
-			return this.perimetralDilate(other.opposite()).minDistanceToOrigin();
+			if ( ( this instanceof ConvexPolygon ) && ( other instanceof ConvexPolygon ) && !((ConvexPolygon) this).hasIntersectionBySeparatingAxis((ConvexPolygon) other) ) {
+				return ConvexPolygon.nearestPoints((ConvexPolygon) this, (ConvexPolygon) other, new float[4], 0);
+			}
+			
+			final SupportMapping supportMapping1 = GJKSolver.getSupportMapping(this);
+			final SupportMapping supportMapping2 = GJKSolver.getSupportMapping(other);
+			
+			if ( ( supportMapping1 != null ) && ( supportMapping2 != null ) ) {
+				final GJKSolver solver = GJKSolver.getThreadSolver();
+				solver.compute(supportMapping1, supportMapping2);
+				return solver.getDistance();
+			}
+			else {
+				return this.perimetralDilate(other.opposite()).minDistanceToOrigin();
+			}
+		}
+		else {
+			throw new NullPointerException();
+		}
+	}
+	
+	/**
+	 * @pre Ninguno de los parámetros puede ser nulo
+	 * @post Devuelve el primer instante de contacto de ésta figura, trasladándose con el
+	 * 		 desplazamiento especificado, contra la figura especificada, que está inmóvil.
+	 * 		 Si no hay contacto devuelve null
+	 */
+	public final TimeOfImpact timeOfImpact(FiniteProportionalHolomorphicShape<?> other, Vector2f displacement) {
+		if ( ( other != null ) && ( displacement != null ) ) {
+			return TimeOfImpact.compute(this, other, displacement);
+		}
+		else {
+			throw new NullPointerException();
+		}
+	}
+	
+	/**
+	 * @pre Ninguno de los parámetros puede ser nulo, y ambas figuras tienen que ser convexas
+	 * @post Devuelve el primer instante de contacto de ésta figura, moviéndose entre las poses
+	 * 		 especificadas, contra la figura especificada, moviéndose entre sus poses.
+	 * 		 Las figuras están en coordenadas locales y las poses las llevan al espacio común,
+	 * 		 en el que se expresan el punto de contacto y la normal.
+	 * 		 Entre las poses se interpolan linealmente la traslación, el ángulo (Por el camino
+	 * 		 más corto) y la escala.
+	 * 		 Si no hay contacto devuelve null
+	 */
+	public final TimeOfImpact timeOfImpact(ProportionalMatrix3f startPose, ProportionalMatrix3f endPose, FiniteProportionalHolomorphicShape<?> other, ProportionalMatrix3f otherStartPose, ProportionalMatrix3f otherEndPose) {
+		if ( ( startPose != null ) && ( endPose != null ) && ( other != null ) && ( otherStartPose != null ) && ( otherEndPose != null ) ) {
+			return TimeOfImpact.compute(this, startPose, endPose, other, otherStartPose, otherEndPose);
 		}
 		else {
 			throw new NullPointerException();
@@ -964,7 +1215,7 @@ public abstract class FiniteProportionalHolomorphicShape<S extends FiniteProport
 	
 	public NearestPointBetweenShapes nearestPointBetweenShapePerimeters(FiniteProportionalHolomorphicShape<?> other) {
 		if ( other != null ) {
-			return nearestPointBetweenShapePerimetersBimethod.process(null, this, other);
+			return nearestPointBetweenShapePerimetersTable[ShapePairDispatchTable.index(this, other)].process(this, other);
 		}
 		else {
 			throw new NullPointerException();
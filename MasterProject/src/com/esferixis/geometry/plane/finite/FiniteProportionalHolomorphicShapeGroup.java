@@ -36,14 +36,24 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
+import com.esferixis.geometry.plane.DynamicBoundingBoxTree;
 import com.esferixis.geometry.plane.Line;
 import com.esferixis.geometry.plane.Shape.NearestNormal;
+import com.esferixis.math.ExtraMath;
 import com.esferixis.math.Matrix3f;
 import com.esferixis.math.ProportionalMatrix3f;
 import com.esferixis.math.Vector2f;
+import com.esferixis.math.intervalarithmetic.FloatClosedInterval;
 import com.esferixis.misc.StringExtra;
 
 /**
@@ -53,6 +63,12 @@ import com.esferixis.misc.StringExtra;
 public final class FiniteProportionalHolomorphicShapeGroup<S extends FiniteProportionalHolomorphicShape<?>> extends FiniteProportionalHolomorphicShape<FiniteProportionalHolomorphicShapeGroup<S>> {
 	private static final long serialVersionUID = 256877205253574878L;
 	
+	/**
+	 * Tolerancia relativa para considerar colineales o contiguos
+	 * a dos segmentos, o contiguos a dos arcos
+	 */
+	private static final float SIMPLIFICATION_RELATIVE_TOLERANCE = 1e-6f;
+	
 	private final List<S> shapes;
 	
 	/**
@@ -61,6 +77,8 @@ public final class FiniteProportionalHolomorphicShapeGroup<S extends FinitePropo
 	 * @post Crea el grupo con las figuras especificadas
 	 */
 	public FiniteProportionalHolomorphicShapeGroup(Collection< ? extends S > shapes) {
+		super(GROUP_TYPETAG);
+		
 		if ( shapes != null ) {
 			this.shapes = Collections.unmodifiableList(new ArrayList<S>(shapes));
 			
@@ -81,6 +99,8 @@ public final class FiniteProportionalHolomorphicShapeGroup<S extends FinitePropo
 	 * @post Crea el grupo con las figuras especificadas
 	 */
 	public FiniteProportionalHolomorphicShapeGroup(S... shapes) {
+		super(GROUP_TYPETAG);
+		
 		if ( shapes != null ) {
 			this.shapes = Collections.unmodifiableList( Arrays.asList(shapes.clone()) );
 			
@@ -147,6 +167,523 @@ public final class FiniteProportionalHolomorphicShapeGroup<S extends FinitePropo
 		return this.shapes;
 	}
 	
+	/**
+	 * @post Devuelve los pares de figuras del grupo que tienen intersección, como índices
+	 * 		 en la lista de figuras, calculados en paralelo con el pool común.
+	 * 		 En cada par el primer índice es menor que el segundo
+	 */
+	public IntersectingPairs allIntersectingPairs() {
+		return this.allIntersectingPairs(ForkJoinPool.commonPool());
+	}
+	
+	/**
+	 * @pre El pool no puede ser nulo
+	 * @post Devuelve los pares de figuras del grupo que tienen intersección, como índices
+	 * 		 en la lista de figuras, calculados en paralelo con el pool especificado.
+	 * 		 En cada par el primer índice es menor que el segundo
+	 */
+	public IntersectingPairs allIntersectingPairs(ForkJoinPool pool) {
+		if ( pool != null ) {
+			return ParallelIntersectionJoin.selfJoin(pool, this.shapes);
+		}
+		else {
+			throw new NullPointerException();
+		}
+	}
+	
+	/**
+	 * @pre Ninguno de los dos grupos puede ser nulo
+	 * @post Devuelve los pares de figuras, la primera del primer grupo especificado y la
+	 * 		 segunda del segundo, que tienen intersección, como índices en las listas de
+	 * 		 figuras, calculados en paralelo con el pool común
+	 */
+	public static IntersectingPairs allIntersectingPairs(FiniteProportionalHolomorphicShapeGroup<?> group1, FiniteProportionalHolomorphicShapeGroup<?> group2) {
+		return allIntersectingPairs(group1, group2, ForkJoinPool.commonPool());
+	}
+	
+	/**
+	 * @pre Ninguno de los parámetros puede ser nulo
+	 * @post Devuelve los pares de figuras, la primera del primer grupo especificado y la
+	 * 		 segunda del segundo, que tienen intersección, como índices en las listas de
+	 * 		 figuras, calculados en paralelo con el pool especificado
+	 */
+	public static IntersectingPairs allIntersectingPairs(FiniteProportionalHolomorphicShapeGroup<?> group1, FiniteProportionalHolomorphicShapeGroup<?> group2, ForkJoinPool pool) {
+		if ( ( group1 != null ) && ( group2 != null ) && ( pool != null ) ) {
+			return ParallelIntersectionJoin.join(pool, group1.getShapes(), group2.getShapes());
+		}
+		else {
+			throw new NullPointerException();
+		}
+	}
+	
+	/**
+	 * @post Devuelve una figura equivalente simplificada.
+	 * 		 Aplana los grupos anidados, reemplaza las figuras degeneradas por puntos,
+	 * 		 une los segmentos colineales y los arcos de la misma circunferencia
+	 * 		 que se superponen o se tocan, y elimina los duplicados y las figuras
+	 * 		 cubiertas por otras.
+	 * 		 Si queda una sola figura devuelve esa figura
+	 */
+	public FiniteProportionalHolomorphicShape<?> simplify() {
+		List<FiniteProportionalHolomorphicShape<?>> pieces = new ArrayList<FiniteProportionalHolomorphicShape<?>>();
+		
+		collectSimplifiedPieces(this, pieces);
+		mergePieces(pieces);
+		pieces = removeCoveredPieces(new ArrayList<FiniteProportionalHolomorphicShape<?>>(new LinkedHashSet<FiniteProportionalHolomorphicShape<?>>(pieces)));
+		
+		if ( pieces.size() == 1 ) {
+			return pieces.get(0);
+		}
+		else {
+			return new FiniteProportionalHolomorphicShapeGroup<FiniteProportionalHolomorphicShape<?>>(pieces);
+		}
+	}
+	
+	/**
+	 * @post Agrega las figuras del grupo especificado, aplanando los grupos anidados
+	 * 		 y reemplazando las figuras degeneradas
+	 */
+	private static void collectSimplifiedPieces(FiniteProportionalHolomorphicShapeGroup<?> group, List<FiniteProportionalHolomorphicShape<?>> pieces) {
+		for ( FiniteProportionalHolomorphicShape<?> eachShape : group.getShapes() ) {
+			if ( eachShape instanceof FiniteProportionalHolomorphicShapeGroup ) {
+				collectSimplifiedPieces((FiniteProportionalHolomorphicShapeGroup<?>) eachShape, pieces);
+			}
+			else {
+				pieces.add(simplifyPiece(eachShape));
+			}
+		}
+	}
+	
+	/**
+	 * @post Devuelve la figura especificada, o un punto si es degenerada
+	 */
+	static FiniteProportionalHolomorphicShape<?> simplifyPiece(FiniteProportionalHolomorphicShape<?> shape) {
+		if ( shape instanceof LineSegment ) {
+			final LineSegment lineSegment = (LineSegment) shape;
+			
+			if ( lineSegment.getPoint1().equals(lineSegment.getPoint2()) ) {
+				return new Point(lineSegment.getPoint1());
+			}
+		}
+		else if ( shape instanceof CircumferenceSegment ) {
+			final CircumferenceSegment circumferenceSegment = (CircumferenceSegment) shape;
+			
+			if ( circumferenceSegment.getCircumference().getRadius() == 0.0f ) {
+				return new Point(circumferenceSegment.getCircumference().getCenter());
+			}
+			else if ( circumferenceSegment.getAngleInterval().length() == 0.0f ) {
+				return new Point(circumferenceSegment.getLimitPoint1());
+			}
+			else if ( circumferenceSegment.getAngleInterval().length() >= ExtraMath.doublePI ) {
+				return circumferenceSegment.getCircumference();
+			}
+		}
+		else if ( shape instanceof Circumference ) {
+			final Circumference circumference = (Circumference) shape;
+			
+			if ( circumference.getRadius() == 0.0f ) {
+				return new Point(circumference.getCenter());
+			}
+		}
+		else if ( shape instanceof Circle ) {
+			final Circumference circumference = ((Circle) shape).getPerimeter();
+			
+			if ( circumference.getRadius() == 0.0f ) {
+				return new Point(circumference.getCenter());
+			}
+		}
+		else if ( shape instanceof SolidCapsule ) {
+			final SolidCapsule solidCapsule = (SolidCapsule) shape;
+			
+			if ( solidCapsule.getRadius() == 0.0f ) {
+				return simplifyPiece(solidCapsule.getCenterLine());
+			}
+		}
+		
+		return shape;
+	}
+	
+	/**
+	 * Segmento a unir, con su recta soporte y su intervalo sobre ella
+	 */
+	private static final class SegmentPiece {
+		private final LineSegment segment;
+		
+		// Ángulo de la dirección, en [0, PI)
+		private final float angle;
+		
+		// Distancia con signo al origen de la recta soporte de referencia
+		private float offset;
+		
+		// Intervalo de parámetros sobre la recta soporte de referencia, y sus extremos
+		private float tMin, tMax;
+		private Vector2f minPoint, maxPoint;
+		
+		// Máximo valor absoluto de las coordenadas, escala de las tolerancias
+		private float scale;
+		
+		/**
+		 * @post Crea la pieza con el segmento especificado
+		 */
+		public SegmentPiece(LineSegment segment) {
+			final Vector2f vector12 = segment.getVector12();
+			float angle = (float) Math.atan2(vector12.getY(), vector12.getX());
+			
+			if ( angle < 0.0f ) {
+				angle += (float) Math.PI;
+			}
+			
+			if ( angle >= (float) Math.PI - SIMPLIFICATION_RELATIVE_TOLERANCE ) {
+				angle -= (float) Math.PI;
+			}
+			
+			this.segment = segment;
+			this.angle = angle;
+		}
+	}
+	
+	/**
+	 * Intervalo de ángulos a unir de una circunferencia
+	 */
+	private static final class ArcInterval {
+		private float min, max;
+		
+		// Arco original, es nulo si el intervalo es una unión
+		private CircumferenceSegment arc;
+		
+		/**
+		 * @post Crea el intervalo con el arco especificado, con el ángulo mínimo en [0, 2PI)
+		 */
+		public ArcInterval(CircumferenceSegment arc) {
+			final float shift = (float) Math.floor( arc.getAngleInterval().getMin() / ExtraMath.doublePI ) * ExtraMath.doublePI;
+			
+			this.min = arc.getAngleInterval().getMin() - shift;
+			this.max = arc.getAngleInterval().getMax() - shift;
+			this.arc = arc;
+		}
+	}
+	
+	/**
+	 * @post Une los segmentos colineales y los arcos de la misma circunferencia
+	 * 		 que se superponen o se tocan.
+	 * 		 Agrupa los segmentos por recta soporte y los arcos por circunferencia,
+	 * 		 ordena los intervalos de cada grupo y los une en una pasada
+	 */
+	private static void mergePieces(List<FiniteProportionalHolomorphicShape<?>> pieces) {
+		final List<SegmentPiece> segments = new ArrayList<SegmentPiece>();
+		final Map<Circumference, List<ArcInterval>> arcsByCircumference = new LinkedHashMap<Circumference, List<ArcInterval>>();
+		final List<FiniteProportionalHolomorphicShape<?>> result = new ArrayList<FiniteProportionalHolomorphicShape<?>>(pieces.size());
+		
+		for ( FiniteProportionalHolomorphicShape<?> eachPiece : pieces ) {
+			if ( eachPiece instanceof LineSegment ) {
+				segments.add(new SegmentPiece((LineSegment) eachPiece));
+			}
+			else if ( eachPiece instanceof CircumferenceSegment ) {
+				final CircumferenceSegment arc = (CircumferenceSegment) eachPiece;
+				List<ArcInterval> arcs = arcsByCircumference.get(arc.getCircumference());
+				
+				if ( arcs == null ) {
+					arcs = new ArrayList<ArcInterval>();
+					arcsByCircumference.put(arc.getCircumference(), arcs);
+				}
+				
+				arcs.add(new ArcInterval(arc));
+			}
+			else {
+				result.add(eachPiece);
+			}
+		}
+		
+		mergeSegments(segments, result);
+		
+		for ( Map.Entry<Circumference, List<ArcInterval>> eachEntry : arcsByCircumference.entrySet() ) {
+			mergeCocircularArcs(eachEntry.getKey(), eachEntry.getValue(), result);
+		}
+		
+		pieces.clear();
+		pieces.addAll(result);
+	}
+	
+	/**
+	 * @post Agrupa los segmentos especificados por dirección y por recta soporte,
+	 * 		 y agrega al resultado las uniones de cada recta
+	 */
+	private static void mergeSegments(List<SegmentPiece> segments, List<FiniteProportionalHolomorphicShape<?>> result) {
+		Collections.sort(segments, new Comparator<SegmentPiece>() {
+
+			@Override
+			public int compare(SegmentPiece piece1, SegmentPiece piece2) {
+				return Float.compare(piece1.angle, piece2.angle);
+			}
+			
+		});
+		
+		int start = 0;
+		
+		while ( start < segments.size() ) {
+			final float startAngle = segments.get(start).angle;
+			
+			int end = start + 1;
+			while ( ( end < segments.size() ) && ( segments.get(end).angle - startAngle <= SIMPLIFICATION_RELATIVE_TOLERANCE ) ) {
+				end++;
+			}
+			
+			mergeParallelSegments(segments.subList(start, end), result);
+			
+			start = end;
+		}
+	}
+	
+	/**
+	 * @pre Los segmentos tienen que ser paralelos
+	 * @post Agrupa los segmentos especificados por recta soporte, y agrega
+	 * 		 al resultado las uniones de cada recta
+	 */
+	private static void mergeParallelSegments(List<SegmentPiece> segments, List<FiniteProportionalHolomorphicShape<?>> result) {
+		final float angle = segments.get(0).angle;
+		final float directionX = (float) Math.cos(angle);
+		final float directionY = (float) Math.sin(angle);
+		
+		for ( SegmentPiece eachPiece : segments ) {
+			final Vector2f point1 = eachPiece.segment.getPoint1();
+			final Vector2f point2 = eachPiece.segment.getPoint2();
+			
+			final float t1 = directionX * point1.getX() + directionY * point1.getY();
+			final float t2 = directionX * point2.getX() + directionY * point2.getY();
+			
+			eachPiece.offset = directionX * point1.getY() - directionY * point1.getX();
+			
+			if ( t1 <= t2 ) {
+				eachPiece.tMin = t1;
+				eachPiece.tMax = t2;
+				eachPiece.minPoint = point1;
+				eachPiece.maxPoint = point2;
+			}
+			else {
+				eachPiece.tMin = t2;
+				eachPiece.tMax = t1;
+				eachPiece.minPoint = point2;
+				eachPiece.maxPoint = point1;
+			}
+			
+			eachPiece.scale = Math.max( Math.max(Math.abs(point1.getX()), Math.abs(point1.getY())), Math.max(Math.abs(point2.getX()), Math.abs(point2.getY())) );
+		}
+		
+		Collections.sort(segments, new Comparator<SegmentPiece>() {
+
+			@Override
+			public int compare(SegmentPiece piece1, SegmentPiece piece2) {
+				return Float.compare(piece1.offset, piece2.offset);
+			}
+			
+		});
+		
+		// La distancia entre rectas consecutivas, relativa a la escala de los segmentos, tiene
+		// que ser despreciable. Las rectas de un grupo pueden no ser la misma, la unión lo verifica
+		int start = 0;
+		
+		while ( start < segments.size() ) {
+			int end = start + 1;
+			while ( ( end < segments.size() ) && ( segments.get(end).offset - segments.get(end - 1).offset <= SIMPLIFICATION_RELATIVE_TOLERANCE * Math.max(segments.get(end).scale, segments.get(end - 1).scale) ) ) {
+				end++;
+			}
+			
+			mergeCollinearSegments(segments.subList(start, end), result);
+			
+			start = end;
+		}
+	}
+	
+	/**
+	 * @post Devuelve si el punto especificado está en la recta que pasa por los puntos
+	 * 		 especificados, con la tolerancia especificada
+	 */
+	private static boolean isOnLine(Vector2f point, Vector2f linePoint1, Vector2f linePoint2, float tolerance) {
+		final float lineX = linePoint2.getX() - linePoint1.getX();
+		final float lineY = linePoint2.getY() - linePoint1.getY();
+		final float deltaX = point.getX() - linePoint1.getX();
+		final float deltaY = point.getY() - linePoint1.getY();
+		
+		final float cross = lineX * deltaY - lineY * deltaX;
+		
+		return cross * cross <= tolerance * tolerance * ( lineX * lineX + lineY * lineY );
+	}
+	
+	/**
+	 * @pre Los segmentos tienen que ser casi colineales
+	 * @post Agrega al resultado la unión de los segmentos especificados que se
+	 * 		 superponen o se tocan.
+	 * 		 Sólo une un segmento si sus extremos están en la recta de la unión en curso
+	 * 		 y si la separación con ella es despreciable, con tolerancias relativas a la
+	 * 		 escala de los segmentos comparados
+	 */
+	private static void mergeCollinearSegments(List<SegmentPiece> segments, List<FiniteProportionalHolomorphicShape<?>> result) {
+		Collections.sort(segments, new Comparator<SegmentPiece>() {
+
+			@Override
+			public int compare(SegmentPiece piece1, SegmentPiece piece2) {
+				return Float.compare(piece1.tMin, piece2.tMin);
+			}
+			
+		});
+		
+		SegmentPiece first = segments.get(0);
+		float tMax = first.tMax, scale = first.scale;
+		Vector2f minPoint = first.minPoint, maxPoint = first.maxPoint;
+		
+		for ( int i = 1 ; i <= segments.size() ; i++ ) {
+			final SegmentPiece next = ( i < segments.size() ) ? segments.get(i) : null;
+			
+			if ( ( next != null ) && ( next.tMin <= tMax + SIMPLIFICATION_RELATIVE_TOLERANCE * Math.max(scale, next.scale) ) &&
+					isOnLine(next.minPoint, minPoint, maxPoint, SIMPLIFICATION_RELATIVE_TOLERANCE * Math.max(scale, next.scale)) &&
+					isOnLine(next.maxPoint, minPoint, maxPoint, SIMPLIFICATION_RELATIVE_TOLERANCE * Math.max(scale, next.scale)) ) {
+				scale = Math.max(scale, next.scale);
+				
+				if ( next.tMax > tMax ) {
+					tMax = next.tMax;
+					maxPoint = next.maxPoint;
+				}
+				
+				first = null;
+			}
+			else {
+				if ( first != null ) {
+					result.add(first.segment);
+				}
+				else {
+					result.add(new LineSegment(minPoint, maxPoint));
+				}
+				
+				if ( next != null ) {
+					first = next;
+					tMax = next.tMax;
+					scale = next.scale;
+					minPoint = next.minPoint;
+					maxPoint = next.maxPoint;
+				}
+			}
+		}
+	}
+	
+	/**
+	 * @post Agrega al resultado la unión de los arcos especificados de la circunferencia
+	 * 		 especificada que se superponen o se tocan.
+	 * 		 Si la unión cubre toda la circunferencia agrega la circunferencia
+	 */
+	private static void mergeCocircularArcs(Circumference circumference, List<ArcInterval> arcs, List<FiniteProportionalHolomorphicShape<?>> result) {
+		Collections.sort(arcs, new Comparator<ArcInterval>() {
+
+			@Override
+			public int compare(ArcInterval arc1, ArcInterval arc2) {
+				return Float.compare(arc1.min, arc2.min);
+			}
+			
+		});
+		
+		final List<ArcInterval> merged = new ArrayList<ArcInterval>(arcs.size());
+		ArcInterval current = arcs.get(0);
+		
+		for ( int i = 1 ; i < arcs.size() ; i++ ) {
+			final ArcInterval next = arcs.get(i);
+			
+			if ( next.min <= current.max + SIMPLIFICATION_RELATIVE_TOLERANCE ) {
+				if ( next.max > current.max ) {
+					current.max = next.max;
+				}
+				
+				current.arc = null;
+			}
+			else {
+				merged.add(current);
+				current = next;
+			}
+		}
+		merged.add(current);
+		
+		// El último intervalo puede pasar de 2PI y cubrir los primeros
+		final ArcInterval last = merged.get(merged.size()-1);
+		int firstIndex = 0;
+		
+		while ( ( firstIndex < merged.size() - 1 ) && ( merged.get(firstIndex).min + ExtraMath.doublePI <= last.max + SIMPLIFICATION_RELATIVE_TOLERANCE ) ) {
+			last.max = Math.max(last.max, merged.get(firstIndex).max + ExtraMath.doublePI);
+			last.arc = null;
+			firstIndex++;
+		}
+		
+		for ( int i = firstIndex ; i < merged.size() ; i++ ) {
+			final ArcInterval eachArc = merged.get(i);
+			
+			if ( eachArc.max - eachArc.min >= ExtraMath.doublePI - SIMPLIFICATION_RELATIVE_TOLERANCE ) {
+				result.add(circumference);
+				return;
+			}
+		}
+		
+		for ( int i = firstIndex ; i < merged.size() ; i++ ) {
+			final ArcInterval eachArc = merged.get(i);
+			
+			if ( eachArc.arc != null ) {
+				result.add(eachArc.arc);
+			}
+			else {
+				result.add(new CircumferenceSegment(circumference, new FloatClosedInterval(eachArc.min, eachArc.max)));
+			}
+		}
+	}
+	
+	/**
+	 * @post Devuelve las piezas especificadas, sin los puntos contenidos por otras figuras
+	 * 		 y sin los arcos cuya circunferencia completa está en la lista.
+	 * 		 Las circunferencias se buscan en un conjunto, y los puntos sólo se prueban con las
+	 * 		 figuras cuyos bounding boxes los contienen, con un árbol de bounding boxes
+	 */
+	private static List<FiniteProportionalHolomorphicShape<?>> removeCoveredPieces(List<FiniteProportionalHolomorphicShape<?>> pieces) {
+		final Set<Circumference> circumferences = new HashSet<Circumference>();
+		DynamicBoundingBoxTree<FiniteProportionalHolomorphicShape<?>> nonPointPieces = null;
+		boolean hasPoints = false;
+		
+		for ( FiniteProportionalHolomorphicShape<?> eachPiece : pieces ) {
+			if ( eachPiece instanceof Circumference ) {
+				circumferences.add((Circumference) eachPiece);
+			}
+			else if ( eachPiece instanceof Point ) {
+				hasPoints = true;
+			}
+		}
+		
+		if ( hasPoints ) {
+			nonPointPieces = new DynamicBoundingBoxTree<FiniteProportionalHolomorphicShape<?>>(0.0f);
+			
+			for ( FiniteProportionalHolomorphicShape<?> eachPiece : pieces ) {
+				if ( !( eachPiece instanceof Point ) && ( eachPiece.boundingBox() != null ) ) {
+					nonPointPieces.insert(eachPiece);
+				}
+			}
+		}
+		
+		final List<FiniteProportionalHolomorphicShape<?>> result = new ArrayList<FiniteProportionalHolomorphicShape<?>>(pieces.size());
+		
+		for ( FiniteProportionalHolomorphicShape<?> eachPiece : pieces ) {
+			final boolean covered;
+			
+			if ( eachPiece instanceof Point ) {
+				covered = nonPointPieces.contains( ((Point) eachPiece).getPosition() );
+			}
+			else if ( eachPiece instanceof CircumferenceSegment ) {
+				covered = circumferences.contains( ((CircumferenceSegment) eachPiece).getCircumference() );
+			}
+			else {
+				covered = false;
+			}
+			
+			if ( !covered ) {
+				result.add(eachPiece);
+			}
+		}
+		
+		return result;
+	}
+	
 	/* (non-Javadoc)
 	 * @see com.arielcarrizo.geometry.plane.ProportionalHolomorphicShape#transform(com.arielcarrizo.math.ProportionalMatrix3f)
 	 */
@@ -204,12 +741,20 @@ public final class FiniteProportionalHolomorphicShapeGroup<S extends FinitePropo
 	 */
 	@Override
 	public Float getRayIntersection(Line rect) {		
-		Float t = null;
+		return toRayIntersection(this.getRayIntersectionParameter(rect));
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.esferixis.geometry.plane.Shape#getRayIntersectionParameter(com.esferixis.geometry.plane.Line)
+	 */
+	@Override
+	public float getRayIntersectionParameter(Line rect) {
+		float t = Float.NaN;
 		
-		for ( FiniteProportionalHolomorphicShape<?> eachShape : this.getShapes() ) {
-			final Float eachT = eachShape.getRayIntersection(rect);
+		for ( int i = 0 ; i < this.shapes.size() ; i++ ) {
+			final float eachT = this.shapes.get(i).getRayIntersectionParameter(rect);
 			
-			if ( ( t == null ) || ( ( eachT != null ) && ( eachT < t ) ) ) {
+			if ( Float.isNaN(t) || ( eachT < t ) ) {
 				t = eachT;
 			}
 		}
@@ -217,6 +762,25 @@ public final class FiniteProportionalHolomorphicShapeGroup<S extends FinitePropo
 		return t;
 	}
 	
+	/* (non-Javadoc)
+	 * @see com.esferixis.geometry.plane.Shape#getRectIntersection(com.esferixis.geometry.plane.Line, float[], int)
+	 */
+	@Override
+	public int getRectIntersection(Line rect, float[] result, int offset) {
+		if ( ( rect != null ) && ( result != null ) ) {
+			int count = 0;
+			
+			for ( int i = 0 ; i < this.shapes.size() ; i++ ) {
+				count += this.shapes.get(i).getRectIntersection(rect, result, offset + count);
+			}
+			
+			return count;
+		}
+		else {
+			throw new NullPointerException();
+		}
+	}
+	
 	/**
 	 * @post Devuelve el hash
 	 */
@@ -231,7 +795,7 @@ public final class FiniteProportionalHolomorphicShapeGroup<S extends FinitePropo
 	@Override
 	public boolean equals(Object other) {
 		if ( ( other != null ) && ( other instanceof FiniteProportionalHolomorphicShapeGroup ) ) {
-			final FiniteProportionalHolomorphicShapeGroup<S> otherProportionalHolomorphicShapeGroup = (FiniteProportionalHolomorphicShapeGroup<S>) this;
+			final FiniteProportionalHolomorphicShapeGroup<S> otherProportionalHolomorphicShapeGroup = (FiniteProportionalHolomorphicShapeGroup<S>) other;
 				
 			return ( other == this) || ( otherProportionalHolomorphicShapeGroup.getShapes().equals(this.getShapes()) );
 		}
@@ -304,10 +868,10 @@ public final class FiniteProportionalHolomorphicShapeGroup<S extends FinitePropo
 	}
 
 	/* (non-Javadoc)
-	 * @see com.arielcarrizo.geometry.plane.finite.FiniteProportionalHolomorphicShape#getBoundingBox()
+	 * @see com.arielcarrizo.geometry.plane.finite.FiniteProportionalHolomorphicShape#computeBoundingBox()
 	 */
 	@Override
-	public BoundingBox boundingBox() {
+	protected BoundingBox computeBoundingBox() {
 		BoundingBox boundingBox = null;
 		
 		for ( S eachShape : this.shapes ) {
@@ -338,6 +902,20 @@ public final class FiniteProportionalHolomorphicShapeGroup<S extends FinitePropo
 		return result;
 	}
 	
+	/* (non-Javadoc)
+	 * @see com.arielcarrizo.geometry.plane.finite.FiniteProportionalHolomorphicShape#maxDistanceToPoint(float, float)
+	 */
+	@Override
+	float maxDistanceToPoint(float x, float y) {
+		float result = 0.0f;
+		
+		for ( S eachShape : this.shapes ) {
+			result = Math.max(result, eachShape.maxDistanceToPoint(x, y));
+		}
+		
+		return result;
+	}
+	
 	/* (non-Javadoc)
 	 * @see com.arielcarrizo.geometry.plane.finite.FiniteProportionalHolomorphicShape#minDistanceToOrigin()
 	 */
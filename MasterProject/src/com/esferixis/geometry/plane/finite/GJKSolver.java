@@ -0,0 +1,529 @@
+/**
+ * Copyright (c) 2017 Ariel Favio Carrizo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'esferixis' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.esferixis.geometry.plane.finite;
+
+import com.esferixis.math.Vector2f;
+
+/**
+ * @author ariel
+ *
+ * Algoritmo GJK para calcular la distancia y los puntos testigo entre dos
+ * figuras convexas, a partir de sus funciones de soporte, sin construir
+ * la diferencia de Minkowski.
+ * 
+ * Trabaja sobre los núcleos y luego descuenta los radios.
+ * Los resultados quedan en el solver, y los puntos se guardan en arrays,
+ * así el cálculo no crea objetos.
+ * No es thread-safe, cada thread tiene que usar su propio solver.
+ */
+public final class GJKSolver {
+	/**
+	 * Cantidad máxima de iteraciones
+	 */
+	private static final int MAX_ITERATIONS = 32;
+	
+	/**
+	 * Tolerancia relativa de convergencia
+	 */
+	private static final float RELATIVE_TOLERANCE = 1e-5f;
+	
+	/**
+	 * Distancia al cuadrado por debajo de la cual se considera que el origen
+	 * está en el simplex
+	 */
+	private static final float EPSILON_SQUARED = 1e-12f;
+	
+	/**
+	 * Caché de simplex.
+	 * Guarda las direcciones con las que se obtuvieron los vértices del último
+	 * simplex, para reconstruirlo en el siguiente cálculo con las mismas figuras
+	 * en otra posición.
+	 * Es útil cuando las figuras se mueven poco entre cálculos sucesivos.
+	 */
+	public static final class SimplexCache {
+		final float[] directions = new float[6];
+		int count;
+		
+		/**
+		 * @post Crea el caché vacío
+		 */
+		public SimplexCache() {
+			this.count = 0;
+		}
+		
+		/**
+		 * @post Vacía el caché
+		 */
+		public void reset() {
+			this.count = 0;
+		}
+		
+		/**
+		 * @post Devuelve la cantidad de vértices guardados
+		 */
+		public int getCount() {
+			return this.count;
+		}
+	}
+	
+	private static final ThreadLocal<GJKSolver> threadSolver = new ThreadLocal<GJKSolver>() {
+		@Override
+		protected GJKSolver initialValue() {
+			return new GJKSolver();
+		}
+	};
+	
+	// Simplex: Puntos de soporte de cada figura, su diferencia y coordenadas baricéntricas
+	final float[] simplexPoint1 = new float[6];
+	final float[] simplexPoint2 = new float[6];
+	final float[] simplexW = new float[6];
+	final float[] simplexA = new float[3];
+	private final float[] simplexDirections = new float[6];
+	int simplexCount;
+	
+	private final float[] supportBuffer = new float[4];
+	private float supportDirectionX, supportDirectionY;
+	
+	// Puntos testigo de los núcleos y distancia entre núcleos
+	final float[] coreWitnessPoints = new float[4];
+	float coreDistance;
+	
+	private boolean intersection;
+	private float distance;
+	private final float[] witnessPoints = new float[4];
+	private int iterations;
+	
+	/**
+	 * @post Crea el solver
+	 */
+	public GJKSolver() {
+		this.simplexCount = 0;
+	}
+	
+	/**
+	 * @post Devuelve el solver del thread actual
+	 */
+	static GJKSolver getThreadSolver() {
+		return threadSolver.get();
+	}
+	
+	/**
+	 * @post Devuelve la función de soporte de la figura especificada,
+	 * 		 si no es convexa devuelve null
+	 */
+	static SupportMapping getSupportMapping(FiniteProportionalHolomorphicShape<?> shape) {
+		if ( shape instanceof FiniteAffineHolomorphicShape ) {
+			final FiniteProportionalHolomorphicShape<?> backingShape = ( (FiniteAffineHolomorphicShape<?>) shape ).getBackingShape();
+			
+			if ( backingShape instanceof SupportMapping ) {
+				return (SupportMapping) backingShape;
+			}
+			else {
+				return null;
+			}
+		}
+		else if ( shape instanceof SupportMapping ) {
+			return (SupportMapping) shape;
+		}
+		else {
+			return null;
+		}
+	}
+	
+	/**
+	 * @post Calcula los puntos de soporte de las figuras para el vértice de la diferencia de Minkowski
+	 * 		 en la dirección especificada
+	 */
+	private void computeSupport(SupportMapping shape1, SupportMapping shape2, float directionX, float directionY) {
+		this.supportDirectionX = directionX;
+		this.supportDirectionY = directionY;
+		shape1.support(directionX, directionY, this.supportBuffer, 0);
+		shape2.support(-directionX, -directionY, this.supportBuffer, 2);
+	}
+	
+	/**
+	 * @post Agrega al simplex el vértice calculado con los últimos puntos de soporte
+	 */
+	private void pushSupport() {
+		final int i = this.simplexCount * 2;
+		
+		this.simplexPoint1[i] = this.supportBuffer[0];
+		this.simplexPoint1[i+1] = this.supportBuffer[1];
+		this.simplexPoint2[i] = this.supportBuffer[2];
+		this.simplexPoint2[i+1] = this.supportBuffer[3];
+		this.simplexW[i] = this.supportBuffer[0] - this.supportBuffer[2];
+		this.simplexW[i+1] = this.supportBuffer[1] - this.supportBuffer[3];
+		this.simplexDirections[i] = this.supportDirectionX;
+		this.simplexDirections[i+1] = this.supportDirectionY;
+		this.simplexA[this.simplexCount] = 1.0f;
+		
+		this.simplexCount++;
+	}
+	
+	/**
+	 * @post Copia el vértice de origen especificado del simplex en el vértice de destino especificado
+	 */
+	private void copyVertex(int source, int destination) {
+		this.simplexPoint1[destination*2] = this.simplexPoint1[source*2];
+		this.simplexPoint1[destination*2+1] = this.simplexPoint1[source*2+1];
+		this.simplexPoint2[destination*2] = this.simplexPoint2[source*2];
+		this.simplexPoint2[destination*2+1] = this.simplexPoint2[source*2+1];
+		this.simplexW[destination*2] = this.simplexW[source*2];
+		this.simplexW[destination*2+1] = this.simplexW[source*2+1];
+		this.simplexDirections[destination*2] = this.simplexDirections[source*2];
+		this.simplexDirections[destination*2+1] = this.simplexDirections[source*2+1];
+		this.simplexA[destination] = this.simplexA[source];
+	}
+	
+	/**
+	 * @post Reduce el simplex de dos vértices a la característica más cercana al origen
+	 */
+	private void solve2() {
+		final float w1x = this.simplexW[0], w1y = this.simplexW[1];
+		final float w2x = this.simplexW[2], w2y = this.simplexW[3];
+		final float e12x = w2x - w1x, e12y = w2y - w1y;
+		
+		final float d12_2 = -( w1x * e12x + w1y * e12y );
+		if ( d12_2 <= 0.0f ) {
+			this.simplexA[0] = 1.0f;
+			this.simplexCount = 1;
+			return;
+		}
+		
+		final float d12_1 = w2x * e12x + w2y * e12y;
+		if ( d12_1 <= 0.0f ) {
+			this.copyVertex(1, 0);
+			this.simplexA[0] = 1.0f;
+			this.simplexCount = 1;
+			return;
+		}
+		
+		final float inverse = 1.0f / ( d12_1 + d12_2 );
+		this.simplexA[0] = d12_1 * inverse;
+		this.simplexA[1] = d12_2 * inverse;
+		this.simplexCount = 2;
+	}
+	
+	/**
+	 * @post Reduce el simplex de tres vértices a la característica más cercana al origen
+	 */
+	private void solve3() {
+		final float w1x = this.simplexW[0], w1y = this.simplexW[1];
+		final float w2x = this.simplexW[2], w2y = this.simplexW[3];
+		final float w3x = this.simplexW[4], w3y = this.simplexW[5];
+		
+		final float e12x = w2x - w1x, e12y = w2y - w1y;
+		final float d12_1 = w2x * e12x + w2y * e12y;
+		final float d12_2 = -( w1x * e12x + w1y * e12y );
+		
+		final float e13x = w3x - w1x, e13y = w3y - w1y;
+		final float d13_1 = w3x * e13x + w3y * e13y;
+		final float d13_2 = -( w1x * e13x + w1y * e13y );
+		
+		final float e23x = w3x - w2x, e23y = w3y - w2y;
+		final float d23_1 = w3x * e23x + w3y * e23y;
+		final float d23_2 = -( w2x * e23x + w2y * e23y );
+		
+		final float n123 = e12x * e13y - e12y * e13x;
+		
+		final float d123_1 = n123 * ( w2x * w3y - w2y * w3x );
+		final float d123_2 = n123 * ( w3x * w1y - w3y * w1x );
+		final float d123_3 = n123 * ( w1x * w2y - w1y * w2x );
+		
+		if ( ( d12_2 <= 0.0f ) && ( d13_2 <= 0.0f ) ) {
+			this.simplexA[0] = 1.0f;
+			this.simplexCount = 1;
+		}
+		else if ( ( d12_1 > 0.0f ) && ( d12_2 > 0.0f ) && ( d123_3 <= 0.0f ) ) {
+			final float inverse = 1.0f / ( d12_1 + d12_2 );
+			this.simplexA[0] = d12_1 * inverse;
+			this.simplexA[1] = d12_2 * inverse;
+			this.simplexCount = 2;
+		}
+		else if ( ( d13_1 > 0.0f ) && ( d13_2 > 0.0f ) && ( d123_2 <= 0.0f ) ) {
+			final float inverse = 1.0f / ( d13_1 + d13_2 );
+			this.simplexA[0] = d13_1 * inverse;
+			this.simplexA[2] = d13_2 * inverse;
+			this.copyVertex(2, 1);
+			this.simplexCount = 2;
+		}
+		else if ( ( d12_1 <= 0.0f ) && ( d23_2 <= 0.0f ) ) {
+			this.copyVertex(1, 0);
+			this.simplexA[0] = 1.0f;
+			this.simplexCount = 1;
+		}
+		else if ( ( d13_1 <= 0.0f ) && ( d23_1 <= 0.0f ) ) {
+			this.copyVertex(2, 0);
+			this.simplexA[0] = 1.0f;
+			this.simplexCount = 1;
+		}
+		else if ( ( d23_1 > 0.0f ) && ( d23_2 > 0.0f ) && ( d123_1 <= 0.0f ) ) {
+			final float inverse = 1.0f / ( d23_1 + d23_2 );
+			this.simplexA[1] = d23_1 * inverse;
+			this.simplexA[2] = d23_2 * inverse;
+			this.copyVertex(2, 0);
+			this.simplexCount = 2;
+		}
+		else {
+			final float inverse = 1.0f / ( d123_1 + d123_2 + d123_3 );
+			this.simplexA[0] = d123_1 * inverse;
+			this.simplexA[1] = d123_2 * inverse;
+			this.simplexA[2] = d123_3 * inverse;
+			this.simplexCount = 3;
+		}
+	}
+	
+	/**
+	 * @post Devuelve si el vértice especificado de la diferencia de Minkowski ya está en el simplex
+	 */
+	private boolean isDuplicated(float wx, float wy) {
+		for ( int i = 0 ; i < this.simplexCount ; i++ ) {
+			final float deltaX = this.simplexW[i*2] - wx;
+			final float deltaY = this.simplexW[i*2+1] - wy;
+			
+			if ( deltaX * deltaX + deltaY * deltaY <= EPSILON_SQUARED ) {
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * @pre Ninguna de las figuras puede ser nula
+	 * @post Calcula la distancia y los puntos testigo entre las figuras especificadas.
+	 * 		 Devuelve si hay intersección
+	 */
+	public boolean compute(SupportMapping shape1, SupportMapping shape2) {
+		if ( ( shape1 != null ) && ( shape2 != null ) ) {
+			this.simplexCount = 0;
+			this.computeSupport(shape1, shape2, 1.0f, 0.0f);
+			this.pushSupport();
+			
+			return this.run(shape1, shape2);
+		}
+		else {
+			throw new NullPointerException();
+		}
+	}
+	
+	/**
+	 * @pre Ninguno de los parámetros puede ser nulo
+	 * @post Calcula la distancia y los puntos testigo entre las figuras especificadas,
+	 * 		 partiendo del simplex guardado en el caché especificado, si hay alguno.
+	 * 		 Al terminar guarda el simplex resultante en el caché.
+	 * 		 Devuelve si hay intersección
+	 */
+	public boolean compute(SupportMapping shape1, SupportMapping shape2, SimplexCache cache) {
+		if ( ( shape1 != null ) && ( shape2 != null ) && ( cache != null ) ) {
+			this.simplexCount = 0;
+			
+			for ( int i = 0 ; i < cache.count ; i++ ) {
+				this.computeSupport(shape1, shape2, cache.directions[i*2], cache.directions[i*2+1]);
+				
+				if ( !this.isDuplicated(this.supportBuffer[0] - this.supportBuffer[2], this.supportBuffer[1] - this.supportBuffer[3]) ) {
+					this.pushSupport();
+				}
+			}
+			
+			if ( this.simplexCount == 0 ) {
+				this.computeSupport(shape1, shape2, 1.0f, 0.0f);
+				this.pushSupport();
+			}
+			
+			final boolean result = this.run(shape1, shape2);
+			
+			System.arraycopy(this.simplexDirections, 0, cache.directions, 0, this.simplexCount * 2);
+			cache.count = this.simplexCount;
+			
+			return result;
+		}
+		else {
+			throw new NullPointerException();
+		}
+	}
+	
+	/**
+	 * @post Ejecuta el algoritmo desde el simplex actual, y devuelve si hay intersección
+	 */
+	boolean run(SupportMapping shape1, SupportMapping shape2) {
+		float vx = 0.0f, vy = 0.0f;
+		boolean coreIntersection = false;
+		
+		this.iterations = 0;
+		
+		while ( this.iterations < MAX_ITERATIONS ) {
+			this.iterations++;
+			
+			if ( this.simplexCount == 2 ) {
+				this.solve2();
+			}
+			else if ( this.simplexCount == 3 ) {
+				this.solve3();
+			}
+			
+			if ( this.simplexCount == 3 ) {
+				coreIntersection = true;
+				break;
+			}
+			
+			vx = 0.0f;
+			vy = 0.0f;
+			for ( int i = 0 ; i < this.simplexCount ; i++ ) {
+				vx += this.simplexA[i] * this.simplexW[i*2];
+				vy += this.simplexA[i] * this.simplexW[i*2+1];
+			}
+			
+			final float vv = vx * vx + vy * vy;
+			
+			if ( vv <= EPSILON_SQUARED ) {
+				coreIntersection = true;
+				break;
+			}
+			
+			this.computeSupport(shape1, shape2, -vx, -vy);
+			
+			final float wx = this.supportBuffer[0] - this.supportBuffer[2];
+			final float wy = this.supportBuffer[1] - this.supportBuffer[3];
+			
+			if ( ( vv - ( vx * wx + vy * wy ) <= RELATIVE_TOLERANCE * vv ) || this.isDuplicated(wx, wy) ) {
+				break;
+			}
+			
+			// En la última iteración no agrega el vértice, porque quedaría sin resolver
+			// y el punto más cercano y los coeficientes no corresponderían al simplex
+			if ( this.iterations == MAX_ITERATIONS ) {
+				break;
+			}
+			
+			this.pushSupport();
+		}
+		
+		// Puntos testigo de los núcleos
+		float point1X = 0.0f, point1Y = 0.0f, point2X = 0.0f, point2Y = 0.0f;
+		for ( int i = 0 ; i < this.simplexCount ; i++ ) {
+			point1X += this.simplexA[i] * this.simplexPoint1[i*2];
+			point1Y += this.simplexA[i] * this.simplexPoint1[i*2+1];
+			point2X += this.simplexA[i] * this.simplexPoint2[i*2];
+			point2Y += this.simplexA[i] * this.simplexPoint2[i*2+1];
+		}
+		
+		final float radius1 = shape1.getSupportRadius();
+		final float radius2 = shape2.getSupportRadius();
+		
+		final float coreDistance;
+		if ( coreIntersection ) {
+			coreDistance = 0.0f;
+		}
+		else {
+			coreDistance = (float) Math.sqrt(vx * vx + vy * vy);
+		}
+		
+		this.coreWitnessPoints[0] = point1X;
+		this.coreWitnessPoints[1] = point1Y;
+		this.coreWitnessPoints[2] = point2X;
+		this.coreWitnessPoints[3] = point2Y;
+		this.coreDistance = coreDistance;
+		
+		if ( coreDistance > radius1 + radius2 ) {
+			// Corre los puntos testigo hacia afuera con los radios
+			final float normalX = -vx / coreDistance;
+			final float normalY = -vy / coreDistance;
+			
+			this.witnessPoints[0] = point1X + normalX * radius1;
+			this.witnessPoints[1] = point1Y + normalY * radius1;
+			this.witnessPoints[2] = point2X - normalX * radius2;
+			this.witnessPoints[3] = point2Y - normalY * radius2;
+			
+			this.distance = coreDistance - radius1 - radius2;
+			this.intersection = false;
+		}
+		else {
+			final float midPointX = ( point1X + point2X ) * 0.5f;
+			final float midPointY = ( point1Y + point2Y ) * 0.5f;
+			
+			this.witnessPoints[0] = midPointX;
+			this.witnessPoints[1] = midPointY;
+			this.witnessPoints[2] = midPointX;
+			this.witnessPoints[3] = midPointY;
+			
+			this.distance = 0.0f;
+			this.intersection = true;
+		}
+		
+		return this.intersection;
+	}
+	
+	/**
+	 * @post Devuelve si hubo intersección en el último cálculo
+	 */
+	public boolean hasIntersection() {
+		return this.intersection;
+	}
+	
+	/**
+	 * @post Devuelve la distancia del último cálculo, si hay intersección es cero
+	 */
+	public float getDistance() {
+		return this.distance;
+	}
+	
+	/**
+	 * @post Devuelve el punto testigo de la primera figura del último cálculo
+	 */
+	public Vector2f getWitnessPoint1() {
+		return new Vector2f(this.witnessPoints[0], this.witnessPoints[1]);
+	}
+	
+	/**
+	 * @post Devuelve el punto testigo de la segunda figura del último cálculo
+	 */
+	public Vector2f getWitnessPoint2() {
+		return new Vector2f(this.witnessPoints[2], this.witnessPoints[3]);
+	}
+	
+	/**
+	 * @pre El array tiene que tener al menos cuatro posiciones desde el offset especificado
+	 * @post Escribe en el array especificado, desde el offset especificado, las coordenadas
+	 * 		 de los puntos testigo de la primera y de la segunda figura del último cálculo
+	 */
+	public void getWitnessPoints(float[] result, int offset) {
+		System.arraycopy(this.witnessPoints, 0, result, offset, 4);
+	}
+	
+	/**
+	 * @post Devuelve la cantidad de iteraciones del último cálculo
+	 */
+	public int getIterations() {
+		return this.iterations;
+	}
+}
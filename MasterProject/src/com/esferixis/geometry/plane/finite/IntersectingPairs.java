@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 2017 Ariel Favio Carrizo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'esferixis' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.esferixis.geometry.plane.finite;
+
+import java.util.Arrays;
+
+/**
+ * @author ariel
+ *
+ * Pares de figuras que tienen intersección, como índices en las colecciones
+ * de las que provienen.
+ * Los pares se guardan en arrays de enteros, sin orden especificado
+ */
+public final class IntersectingPairs {
+	private final int[] indices1, indices2;
+	private final int size;
+	
+	/**
+	 * @pre Los arrays no pueden ser nulos, y tienen que tener por lo menos
+	 * 		la cantidad de pares especificada
+	 * @post Crea los pares con los arrays especificados, sin copiarlos
+	 */
+	IntersectingPairs(int[] indices1, int[] indices2, int size) {
+		this.indices1 = indices1;
+		this.indices2 = indices2;
+		this.size = size;
+	}
+	
+	/**
+	 * @post Devuelve la cantidad de pares
+	 */
+	public int size() {
+		return this.size;
+	}
+	
+	/**
+	 * @post Devuelve si no hay pares
+	 */
+	public boolean isEmpty() {
+		return this.size == 0;
+	}
+	
+	/**
+	 * @pre El número de par tiene que ser válido
+	 * @post Devuelve el índice de la primera figura del par especificado
+	 */
+	public int getIndex1(int pair) {
+		if ( ( pair >= 0 ) && ( pair < this.size ) ) {
+			return this.indices1[pair];
+		}
+		else {
+			throw new IndexOutOfBoundsException();
+		}
+	}
+	
+	/**
+	 * @pre El número de par tiene que ser válido
+	 * @post Devuelve el índice de la segunda figura del par especificado
+	 */
+	public int getIndex2(int pair) {
+		if ( ( pair >= 0 ) && ( pair < this.size ) ) {
+			return this.indices2[pair];
+		}
+		else {
+			throw new IndexOutOfBoundsException();
+		}
+	}
+	
+	/**
+	 * @post Devuelve una copia de los índices de las primeras figuras de los pares
+	 */
+	public int[] getIndices1() {
+		return Arrays.copyOf(this.indices1, this.size);
+	}
+	
+	/**
+	 * @post Devuelve una copia de los índices de las segundas figuras de los pares
+	 */
+	public int[] getIndices2() {
+		return Arrays.copyOf(this.indices2, this.size);
+	}
+}
@@ -45,7 +45,7 @@ import com.esferixis.math.intervalarithmetic.FloatClosedInterval;
  * @author ariel
  *
  */
-public final class LineSegment extends Curve<LineSegment> implements FiniteAffineHolomorphicShape.Casteable<LineSegment> {
+public final class LineSegment extends Curve<LineSegment> implements FiniteAffineHolomorphicShape.Casteable<LineSegment>, SupportMapping {
 	private static final long serialVersionUID = 4224162922085459177L;
 	
 	private final Vector2f point1, point2;
@@ -55,6 +55,8 @@ public final class LineSegment extends Curve<LineSegment> implements FiniteAffin
 	 * @post Crea la línea con los puntos especificados
 	 */
 	public LineSegment(Vector2f point1, Vector2f point2) {
+		super(LINESEGMENT_TYPETAG);
+		
 		if ( ( point1 != null ) && ( point2 != null ) ) {
 			this.point1 = point1;
 			this.point2 = point2;
@@ -92,6 +94,33 @@ public final class LineSegment extends Curve<LineSegment> implements FiniteAffin
 		return new LineSegment(this.getPoint2(), this.getPoint1());
 	}
 	
+	/**
+	 * @pre El segmento no puede ser nulo
+	 * @post Devuelve la dilatación con el segmento especificado, que es el
+	 * 		 paralelogramo que forman, como un único polígono convexo en sentido antihorario
+	 */
+	public ConvexPolygon dilate(LineSegment other) {
+		if ( other != null ) {
+			final Vector2f p11 = this.getPoint1().add(other.getPoint1());
+			final Vector2f p12 = this.getPoint1().add(other.getPoint2());
+			final Vector2f p21 = this.getPoint2().add(other.getPoint1());
+			final Vector2f p22 = this.getPoint2().add(other.getPoint2());
+			
+			final Vector2f vector1 = this.getVector12();
+			final Vector2f vector2 = other.getVector12();
+			
+			if ( vector1.getX() * vector2.getY() - vector1.getY() * vector2.getX() >= 0.0f ) {
+				return new ConvexPolygon(p11, p21, p22, p12);
+			}
+			else {
+				return new ConvexPolygon(p12, p22, p21, p11);
+			}
+		}
+		else {
+			throw new NullPointerException();
+		}
+	}
+	
 	/**
 	 * @post Devuelve la recta que la contiene,
 	 * 		 la normal es el vector AB rotado 90°
@@ -154,6 +183,192 @@ public final class LineSegment extends Curve<LineSegment> implements FiniteAffin
 		return Collections.unmodifiableList(result);
 	}
 	
+	/* (non-Javadoc)
+	 * @see com.esferixis.geometry.plane.Shape#getRectIntersection(com.esferixis.geometry.plane.Line, float[], int)
+	 */
+	@Override
+	public int getRectIntersection(Line line, float[] result, int offset) {
+		if ( ( line != null ) && ( result != null ) ) {
+			final float t = getRectIntersectionParameter(this.point1.getX(), this.point1.getY(), this.point2.getX(), this.point2.getY(), line);
+			
+			if ( !Float.isNaN(t) ) {
+				putRectIntersection(result, offset, 0, t);
+				return 1;
+			}
+			else {
+				return 0;
+			}
+		}
+		else {
+			throw new NullPointerException();
+		}
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.esferixis.geometry.plane.Shape#getRayIntersectionParameter(com.esferixis.geometry.plane.Line)
+	 */
+	@Override
+	public float getRayIntersectionParameter(Line line) {
+		if ( line != null ) {
+			final float t = getRectIntersectionParameter(this.point1.getX(), this.point1.getY(), this.point2.getX(), this.point2.getY(), line);
+			
+			return ( t >= 0.0f ) ? t : Float.NaN;
+		}
+		else {
+			throw new NullPointerException();
+		}
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.esferixis.geometry.plane.Shape#getRayIntersection(com.esferixis.geometry.plane.Line)
+	 */
+	@Override
+	public Float getRayIntersection(Line line) {
+		return toRayIntersection(this.getRayIntersectionParameter(line));
+	}
+	
+	/**
+	 * @pre La recta no puede ser nula
+	 * @post Devuelve el escalar proporcional, sobre la recta especificada, de la intersección
+	 * 		 con el segmento con los extremos especificados.
+	 * 		 Si no hay intersección devuelve NaN
+	 */
+	static float getRectIntersectionParameter(float point1X, float point1Y, float point2X, float point2Y, Line line) {
+		final float referenceX = line.getReferencePoint().getX();
+		final float referenceY = line.getReferencePoint().getY();
+		final float directionX = line.getDirection().getX();
+		final float directionY = line.getDirection().getY();
+		
+		final float segmentX = point2X - point1X;
+		final float segmentY = point2Y - point1Y;
+		
+		// Escalar proporcional sobre el segmento
+		final float segmentDivisor = -directionY * segmentX + directionX * segmentY;
+		
+		if ( segmentDivisor != 0.0f ) {
+			final float s = ( -directionY * ( referenceX - point1X ) + directionX * ( referenceY - point1Y ) ) / segmentDivisor;
+			
+			if ( ( s >= 0.0f ) && ( s <= 1.0f ) ) {
+				final float lineDivisor = -segmentY * directionX + segmentX * directionY;
+				
+				if ( lineDivisor != 0.0f ) {
+					return ( -segmentY * ( point1X - referenceX ) + segmentX * ( point1Y - referenceY ) ) / lineDivisor;
+				}
+			}
+		}
+		
+		return Float.NaN;
+	}
+	
+	/**
+	 * @pre El array tiene que tener lugar para cuatro elementos a partir del offset
+	 * @post Calcula los puntos más cercanos entre los segmentos con los extremos especificados,
+	 * 		 en forma cerrada y sin crear objetos.
+	 * 		 Escribe en el array, a partir del offset, las coordenadas (x, y) del punto
+	 * 		 del primer segmento y luego las del segundo, y devuelve la distancia.
+	 * 		 Si los segmentos se cruzan la distancia es cero, y ambos puntos son
+	 * 		 el punto de intersección
+	 */
+	public static float nearestPoints(float segment1Point1X, float segment1Point1Y, float segment1Point2X, float segment1Point2Y, float segment2Point1X, float segment2Point1Y, float segment2Point2X, float segment2Point2Y, float[] result, int offset) {
+		if ( result != null ) {
+			final float vector1X = segment1Point2X - segment1Point1X;
+			final float vector1Y = segment1Point2Y - segment1Point1Y;
+			final float vector2X = segment2Point2X - segment2Point1X;
+			final float vector2Y = segment2Point2Y - segment2Point1Y;
+			
+			final float cross12 = vector1X * vector2Y - vector1Y * vector2X;
+			
+			// Si las rectas se cortan dentro de ambos segmentos, se cruzan
+			if ( cross12 != 0.0f ) {
+				final float deltaX = segment2Point1X - segment1Point1X;
+				final float deltaY = segment2Point1Y - segment1Point1Y;
+				
+				final float s = ( deltaX * vector2Y - deltaY * vector2X ) / cross12;
+				final float t = ( deltaX * vector1Y - deltaY * vector1X ) / cross12;
+				
+				if ( ( s >= 0.0f ) && ( s <= 1.0f ) && ( t >= 0.0f ) && ( t <= 1.0f ) ) {
+					final float intersectionX = segment1Point1X + vector1X * s;
+					final float intersectionY = segment1Point1Y + vector1Y * s;
+					
+					result[offset] = intersectionX;
+					result[offset+1] = intersectionY;
+					result[offset+2] = intersectionX;
+					result[offset+3] = intersectionY;
+					
+					return 0.0f;
+				}
+			}
+			
+			/*
+			 * Si no se cruzan, el par más cercano tiene un extremo de alguno de los segmentos.
+			 * Se usan las cuatro proyecciones de extremo a segmento, que a diferencia de
+			 * resolver el sistema de ambos parámetros no pierden precisión con segmentos
+			 * casi paralelos
+			 */
+			float minDistanceSquared = Float.POSITIVE_INFINITY;
+			
+			for ( int i = 0 ; i < 4 ; i++ ) {
+				final boolean fromSegment1 = ( i < 2 );
+				
+				final float pointX, pointY;
+				
+				if ( fromSegment1 ) {
+					pointX = ( i == 0 ) ? segment1Point1X : segment1Point2X;
+					pointY = ( i == 0 ) ? segment1Point1Y : segment1Point2Y;
+				}
+				else {
+					pointX = ( i == 2 ) ? segment2Point1X : segment2Point2X;
+					pointY = ( i == 2 ) ? segment2Point1Y : segment2Point2Y;
+				}
+				
+				final float originX = fromSegment1 ? segment2Point1X : segment1Point1X;
+				final float originY = fromSegment1 ? segment2Point1Y : segment1Point1Y;
+				final float vectorX = fromSegment1 ? vector2X : vector1X;
+				final float vectorY = fromSegment1 ? vector2Y : vector1Y;
+				
+				final float lengthSquared = vectorX * vectorX + vectorY * vectorY;
+				
+				final float parameter;
+				
+				if ( lengthSquared != 0.0f ) {
+					parameter = Math.min(Math.max( ( ( pointX - originX ) * vectorX + ( pointY - originY ) * vectorY ) / lengthSquared, 0.0f), 1.0f);
+				}
+				else {
+					parameter = 0.0f;
+				}
+				
+				final float projectionX = originX + vectorX * parameter;
+				final float projectionY = originY + vectorY * parameter;
+				
+				final float distanceX = projectionX - pointX;
+				final float distanceY = projectionY - pointY;
+				final float distanceSquared = distanceX * distanceX + distanceY * distanceY;
+				
+				if ( distanceSquared < minDistanceSquared ) {
+					minDistanceSquared = distanceSquared;
+					
+					if ( fromSegment1 ) {
+						result[offset] = pointX;
+						result[offset+1] = pointY;
+						result[offset+2] = projectionX;
+						result[offset+3] = projectionY;
+					}
+					else {
+						result[offset] = projectionX;
+						result[offset+1] = projectionY;
+						result[offset+2] = pointX;
+						result[offset+3] = pointY;
+					}
+				}
+			}
+			
+			return (float) Math.sqrt(minDistanceSquared);
+		}
+		else {
+			throw new NullPointerException();
+		}
+	}
+	
 	/**
 	 * @post Devuelve la intersección con la recta especificada
 	 */
@@ -213,7 +428,9 @@ public final class LineSegment extends Curve<LineSegment> implements FiniteAffin
 	 */
 	@Override
 	public boolean contains(Vector2f point) {
-		return this.getRect().contains(point) && ( new FloatClosedInterval(0.0f, 1.0f).contains(this.getVector12().scalarProjection(point.sub(this.getPoint1()))) );
+		final Vector2f vector12 = this.getVector12();
+		
+		return this.getRect().contains(point) && ( new FloatClosedInterval(0.0f, 1.0f).contains(vector12.dot(point.sub(this.getPoint1())) / vector12.lengthSquared()) );
 	}
 
 	/* (non-Javadoc)
@@ -298,10 +515,10 @@ public final class LineSegment extends Curve<LineSegment> implements FiniteAffin
 	}
 
 	/* (non-Javadoc)
-	 * @see com.arielcarrizo.geometry.plane.finite.FiniteProportionalHolomorphicShape#getBoundingBox()
+	 * @see com.arielcarrizo.geometry.plane.finite.FiniteProportionalHolomorphicShape#computeBoundingBox()
 	 */
 	@Override
-	public BoundingBox boundingBox() {
+	protected BoundingBox computeBoundingBox() {
 		return new BoundingBox(
 			new Vector2f(Math.min(this.point1.getX(), this.point2.getX()), Math.min(this.point1.getY(), this.point2.getY())),
 			new Vector2f(Math.max(this.point1.getX(), this.point2.getX()), Math.max(this.point1.getY(), this.point2.getY()))
@@ -316,6 +533,14 @@ public final class LineSegment extends Curve<LineSegment> implements FiniteAffin
 		return Math.max(this.getPoint1().length(), this.getPoint2().length());
 	}
 	
+	/* (non-Javadoc)
+	 * @see com.arielcarrizo.geometry.plane.finite.FiniteProportionalHolomorphicShape#maxDistanceToPoint(float, float)
+	 */
+	@Override
+	float maxDistanceToPoint(float x, float y) {
+		return Math.max(distance(this.point1.getX(), this.point1.getY(), x, y), distance(this.point2.getX(), this.point2.getY(), x, y));
+	}
+	
 	/* (non-Javadoc)
 	 * @see com.arielcarrizo.geometry.plane.finite.FiniteProportionalHolomorphicShape#minDistanceToOrigin()
 	 */
@@ -371,4 +596,30 @@ public final class LineSegment extends Curve<LineSegment> implements FiniteAffin
 		
 		return new NearestNormal(normal, minDistance);
 	}
+	
+	/* (non-Javadoc)
+	 * @see com.esferixis.geometry.plane.finite.SupportMapping#support(float, float, float[], int)
+	 */
+	@Override
+	public void support(float directionX, float directionY, float[] result, int offset) {
+		final Vector2f supportPoint;
+		
+		if ( this.point1.getX() * directionX + this.point1.getY() * directionY >= this.point2.getX() * directionX + this.point2.getY() * directionY ) {
+			supportPoint = this.point1;
+		}
+		else {
+			supportPoint = this.point2;
+		}
+		
+		result[offset] = supportPoint.getX();
+		result[offset+1] = supportPoint.getY();
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.esferixis.geometry.plane.finite.SupportMapping#getSupportRadius()
+	 */
+	@Override
+	public float getSupportRadius() {
+		return 0.0f;
+	}
 }
@@ -0,0 +1,439 @@
+/**
+ * Copyright (c) 2017 Ariel Favio Carrizo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'esferixis' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.esferixis.geometry.plane.finite;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * @author ariel
+ *
+ * Búsqueda en paralelo de los pares de figuras que tienen intersección.
+ * 
+ * La fase amplia ordena los bounding boxes por su mínimo en X y barre, para cada figura,
+ * las figuras cuyo mínimo en X está dentro de su intervalo en X, descartando las
+ * que no se solapan en Y.
+ * La fase exacta usa hasIntersection.
+ * El trabajo se divide en bloques de figuras consecutivas en el orden del barrido,
+ * que se procesan en tareas del ForkJoinPool especificado.
+ * Cada bloque junta sus pares en arrays de enteros propios, que se copian al final
+ * al resultado, así no hay sincronización entre tareas
+ */
+final class ParallelIntersectionJoin {
+	/**
+	 * Cantidad mínima de figuras por bloque
+	 */
+	private static final int MIN_CHUNK_SIZE = 1024;
+	
+	/**
+	 * Cantidad de bloques por hilo del pool, para repartir mejor la carga
+	 * cuando las figuras no están distribuidas uniformemente
+	 */
+	private static final int CHUNKS_PER_THREAD = 8;
+	
+	private static final int INITIAL_PAIRS_CAPACITY = 64;
+	
+	/**
+	 * Pares encontrados por un bloque
+	 */
+	private static final class PairBuffer {
+		private int[] indices1, indices2;
+		private int size;
+		
+		/**
+		 * @post Crea el buffer vacío
+		 */
+		public PairBuffer() {
+			this.indices1 = new int[INITIAL_PAIRS_CAPACITY];
+			this.indices2 = new int[INITIAL_PAIRS_CAPACITY];
+			this.size = 0;
+		}
+		
+		/**
+		 * @post Agrega el par especificado
+		 */
+		public void add(int index1, int index2) {
+			if ( this.size == this.indices1.length ) {
+				this.indices1 = Arrays.copyOf(this.indices1, this.size * 2);
+				this.indices2 = Arrays.copyOf(this.indices2, this.size * 2);
+			}
+			
+			this.indices1[this.size] = index1;
+			this.indices2[this.size] = index2;
+			this.size++;
+		}
+	}
+	
+	/**
+	 * Figuras no vacías ordenadas por el mínimo en X de su bounding box,
+	 * con sus bounding boxes en arrays
+	 */
+	private static final class SortedBoxes {
+		private final FiniteProportionalHolomorphicShape<?>[] shapes;
+		private final int[] indices;
+		private final float[] minX, minY, maxX, maxY;
+		private final int size;
+		
+		/**
+		 * @post Crea los arrays con el tamaño especificado
+		 */
+		public SortedBoxes(int size) {
+			this.shapes = new FiniteProportionalHolomorphicShape<?>[size];
+			this.indices = new int[size];
+			this.minX = new float[size];
+			this.minY = new float[size];
+			this.maxX = new float[size];
+			this.maxY = new float[size];
+			this.size = size;
+		}
+	}
+	
+	interface ChunkProcessor {
+		/**
+		 * @post Procesa el bloque especificado, con las posiciones en [start, end)
+		 */
+		public void process(int chunk, int start, int end);
+	}
+	
+	private ParallelIntersectionJoin() {}
+	
+	/**
+	 * @post Devuelve el tamaño de bloque para la cantidad de elementos y
+	 * 		 el tamaño mínimo de bloque especificados
+	 */
+	static int chunkSize(ForkJoinPool pool, int size, int minChunkSize) {
+		final int chunks = pool.getParallelism() * CHUNKS_PER_THREAD;
+		
+		return Math.max(minChunkSize, ( size + chunks - 1 ) / chunks);
+	}
+	
+	/**
+	 * @post Devuelve la cantidad de bloques para la cantidad de elementos y el tamaño
+	 * 		 de bloque especificados
+	 */
+	static int chunkCount(int size, int chunkSize) {
+		return ( size + chunkSize - 1 ) / chunkSize;
+	}
+	
+	/**
+	 * @post Procesa en paralelo, con el pool especificado, los bloques de la cantidad
+	 * 		 de elementos y el tamaño de bloque especificados
+	 */
+	static void processChunks(ForkJoinPool pool, final int size, final int chunkSize, final ChunkProcessor processor) {
+		final int chunks = chunkCount(size, chunkSize);
+		
+		pool.invoke(new RecursiveAction() {
+			private static final long serialVersionUID = -2867470347196414846L;
+
+			@Override
+			protected void compute() {
+				final List<RecursiveAction> tasks = new ArrayList<RecursiveAction>(chunks);
+				
+				for ( int i = 0 ; i < chunks ; i++ ) {
+					final int chunk = i;
+					
+					tasks.add(new RecursiveAction() {
+						private static final long serialVersionUID = 5384529563407640181L;
+
+						@Override
+						protected void compute() {
+							processor.process(chunk, chunk * chunkSize, Math.min(size, ( chunk + 1 ) * chunkSize));
+						}
+						
+					});
+				}
+				
+				invokeAll(tasks);
+			}
+			
+		});
+	}
+	
+	/**
+	 * @post Devuelve los bits del número especificado, como entero con signo
+	 * 		 con el mismo orden que los números
+	 */
+	private static int sortableBits(float value) {
+		final int bits = Float.floatToIntBits(value);
+		
+		return bits ^ ( ( bits >> 31 ) & 0x7FFFFFFF );
+	}
+	
+	/**
+	 * @post Ordena las figuras especificadas por el mínimo en X de su bounding box,
+	 * 		 descartando las vacías
+	 */
+	private static SortedBoxes sortBoxes(ForkJoinPool pool, final List<? extends FiniteProportionalHolomorphicShape<?>> shapes) {
+		final int count = shapes.size();
+		final int chunkSize = chunkSize(pool, count, MIN_CHUNK_SIZE);
+		
+		// Claves con el mínimo en X en la parte alta y el índice en la parte baja,
+		// las figuras vacías van al final
+		final long[] keys = new long[count];
+		final int[] emptyShapes = new int[chunkCount(count, chunkSize)];
+		
+		processChunks(pool, count, chunkSize, new ChunkProcessor() {
+
+			@Override
+			public void process(int chunk, int start, int end) {
+				int chunkEmptyShapes = 0;
+				
+				for ( int i = start ; i < end ; i++ ) {
+					final BoundingBox boundingBox = shapes.get(i).boundingBox();
+					final int sortKey;
+					
+					if ( boundingBox != null ) {
+						sortKey = Math.min(sortableBits(boundingBox.getVertex11().getX()), Integer.MAX_VALUE - 1);
+					}
+					else {
+						sortKey = Integer.MAX_VALUE;
+						chunkEmptyShapes++;
+					}
+					
+					keys[i] = ( ( (long) sortKey ) << 32 ) | i;
+				}
+				
+				emptyShapes[chunk] = chunkEmptyShapes;
+			}
+			
+		});
+		
+		Arrays.parallelSort(keys);
+		
+		int size = count;
+		for ( int eachEmptyShapes : emptyShapes ) {
+			size -= eachEmptyShapes;
+		}
+		
+		final SortedBoxes boxes = new SortedBoxes(size);
+		
+		processChunks(pool, size, chunkSize, new ChunkProcessor() {
+
+			@Override
+			public void process(int chunk, int start, int end) {
+				for ( int i = start ; i < end ; i++ ) {
+					final int index = (int) keys[i];
+					final FiniteProportionalHolomorphicShape<?> shape = shapes.get(index);
+					final BoundingBox boundingBox = shape.boundingBox();
+					
+					boxes.shapes[i] = shape;
+					boxes.indices[i] = index;
+					boxes.minX[i] = boundingBox.getVertex11().getX();
+					boxes.minY[i] = boundingBox.getVertex11().getY();
+					boxes.maxX[i] = boundingBox.getVertex22().getX();
+					boxes.maxY[i] = boundingBox.getVertex22().getY();
+				}
+			}
+			
+		});
+		
+		return boxes;
+	}
+	
+	/**
+	 * @post Devuelve la primera posición cuyo mínimo en X es mayor o igual que el valor especificado,
+	 * 		 o estrictamente mayor si se especifica
+	 */
+	private static int firstMinX(SortedBoxes boxes, float value, boolean strict) {
+		int low = 0;
+		int high = boxes.size;
+		
+		while ( low < high ) {
+			final int middle = ( low + high ) >>> 1;
+			
+			if ( ( boxes.minX[middle] < value ) || ( strict && ( boxes.minX[middle] == value ) ) ) {
+				low = middle + 1;
+			}
+			else {
+				high = middle;
+			}
+		}
+		
+		return low;
+	}
+	
+	/**
+	 * @post Junta en un único resultado los pares de los buffers especificados
+	 */
+	private static IntersectingPairs merge(ForkJoinPool pool, final PairBuffer[] buffers) {
+		final int[] offsets = new int[buffers.length];
+		long size = 0;
+		
+		for ( int i = 0 ; i < buffers.length ; i++ ) {
+			offsets[i] = (int) size;
+			size += buffers[i].size;
+		}
+		
+		if ( size > Integer.MAX_VALUE ) {
+			throw new IllegalStateException("Too many intersecting pairs");
+		}
+		
+		final int[] indices1 = new int[(int) size];
+		final int[] indices2 = new int[(int) size];
+		
+		processChunks(pool, buffers.length, 1, new ChunkProcessor() {
+
+			@Override
+			public void process(int chunk, int start, int end) {
+				final PairBuffer buffer = buffers[chunk];
+				
+				System.arraycopy(buffer.indices1, 0, indices1, offsets[chunk], buffer.size);
+				System.arraycopy(buffer.indices2, 0, indices2, offsets[chunk], buffer.size);
+			}
+			
+		});
+		
+		return new IntersectingPairs(indices1, indices2, (int) size);
+	}
+	
+	/**
+	 * @pre Ninguno de los parámetros puede ser nulo
+	 * @post Devuelve los pares de figuras de la lista especificada que tienen intersección,
+	 * 		 calculados con el pool especificado.
+	 * 		 En cada par el primer índice es menor que el segundo
+	 */
+	public static IntersectingPairs selfJoin(ForkJoinPool pool, List<? extends FiniteProportionalHolomorphicShape<?>> shapes) {
+		final SortedBoxes boxes = sortBoxes(pool, shapes);
+		final int chunkSize = chunkSize(pool, boxes.size, MIN_CHUNK_SIZE);
+		final PairBuffer[] buffers = new PairBuffer[chunkCount(boxes.size, chunkSize)];
+		
+		processChunks(pool, boxes.size, chunkSize, new ChunkProcessor() {
+
+			@Override
+			public void process(int chunk, int start, int end) {
+				final PairBuffer buffer = new PairBuffer();
+				
+				for ( int i = start ; i < end ; i++ ) {
+					final FiniteProportionalHolomorphicShape<?> shape = boxes.shapes[i];
+					final int index = boxes.indices[i];
+					final float maxX = boxes.maxX[i];
+					final float minY = boxes.minY[i];
+					final float maxY = boxes.maxY[i];
+					
+					// Las siguientes figuras tienen el mínimo en X mayor o igual
+					for ( int j = i + 1 ; ( j < boxes.size ) && ( boxes.minX[j] <= maxX ) ; j++ ) {
+						if ( ( boxes.minY[j] <= maxY ) && ( minY <= boxes.maxY[j] ) && shape.hasIntersection(boxes.shapes[j]) ) {
+							final int otherIndex = boxes.indices[j];
+							
+							if ( index < otherIndex ) {
+								buffer.add(index, otherIndex);
+							}
+							else {
+								buffer.add(otherIndex, index);
+							}
+						}
+					}
+				}
+				
+				buffers[chunk] = buffer;
+			}
+			
+		});
+		
+		return merge(pool, buffers);
+	}
+	
+	/**
+	 * @post Agrega al buffer especificado los pares de las figuras del rango especificado con
+	 * 		 las figuras del otro grupo cuyo mínimo en X está en su intervalo en X.
+	 * 		 Si se especifica que es el segundo grupo excluye los mínimos iguales, que se
+	 * 		 encuentran desde el primero, y el par se agrega con el orden de los grupos
+	 */
+	private static void sweep(SortedBoxes boxes, int start, int end, SortedBoxes otherBoxes, boolean isSecondGroup, PairBuffer buffer) {
+		if ( start < end ) {
+			int first = firstMinX(otherBoxes, boxes.minX[start], isSecondGroup);
+			
+			for ( int i = start ; i < end ; i++ ) {
+				final FiniteProportionalHolomorphicShape<?> shape = boxes.shapes[i];
+				final float minX = boxes.minX[i];
+				final float maxX = boxes.maxX[i];
+				final float minY = boxes.minY[i];
+				final float maxY = boxes.maxY[i];
+				
+				// Los mínimos están ordenados, el primer candidato sólo avanza
+				while ( ( first < otherBoxes.size ) && ( ( otherBoxes.minX[first] < minX ) || ( isSecondGroup && ( otherBoxes.minX[first] == minX ) ) ) ) {
+					first++;
+				}
+				
+				for ( int j = first ; ( j < otherBoxes.size ) && ( otherBoxes.minX[j] <= maxX ) ; j++ ) {
+					if ( ( otherBoxes.minY[j] <= maxY ) && ( minY <= otherBoxes.maxY[j] ) ) {
+						if ( isSecondGroup ) {
+							if ( otherBoxes.shapes[j].hasIntersection(shape) ) {
+								buffer.add(otherBoxes.indices[j], boxes.indices[i]);
+							}
+						}
+						else {
+							if ( shape.hasIntersection(otherBoxes.shapes[j]) ) {
+								buffer.add(boxes.indices[i], otherBoxes.indices[j]);
+							}
+						}
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * @pre Ninguno de los parámetros puede ser nulo
+	 * @post Devuelve los pares de figuras, la primera de la primera lista especificada y la segunda de
+	 * 		 la segunda, que tienen intersección, calculados con el pool especificado
+	 */
+	public static IntersectingPairs join(ForkJoinPool pool, List<? extends FiniteProportionalHolomorphicShape<?>> shapes1, List<? extends FiniteProportionalHolomorphicShape<?>> shapes2) {
+		final SortedBoxes boxes1 = sortBoxes(pool, shapes1);
+		final SortedBoxes boxes2 = sortBoxes(pool, shapes2);
+		
+		// Cada par lo encuentra la figura con el menor mínimo en X, o la del primer grupo si son iguales.
+		// Los bloques recorren las figuras del primer grupo y luego las del segundo
+		final int size = boxes1.size + boxes2.size;
+		final int chunkSize = chunkSize(pool, size, MIN_CHUNK_SIZE);
+		final PairBuffer[] buffers = new PairBuffer[chunkCount(size, chunkSize)];
+		
+		processChunks(pool, size, chunkSize, new ChunkProcessor() {
+
+			@Override
+			public void process(int chunk, int start, int end) {
+				final PairBuffer buffer = new PairBuffer();
+				
+				sweep(boxes1, start, Math.min(end, boxes1.size), boxes2, false, buffer);
+				sweep(boxes2, Math.max(start, boxes1.size) - boxes1.size, end - boxes1.size, boxes1, true, buffer);
+				
+				buffers[chunk] = buffer;
+			}
+			
+		});
+		
+		return merge(pool, buffers);
+	}
+}
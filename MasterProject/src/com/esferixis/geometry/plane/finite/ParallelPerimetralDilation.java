@@ -0,0 +1,360 @@
+/**
+ * Copyright (c) 2017 Ariel Favio Carrizo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'esferixis' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.esferixis.geometry.plane.finite;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import com.esferixis.geometry.plane.DynamicBoundingBoxTree;
+
+/**
+ * @author ariel
+ *
+ * Dilatación perimetral en paralelo de muchas figuras con una misma figura,
+ * por ejemplo para inflar los obstáculos de un mapa con la figura de un robot.
+ * 
+ * Las figuras se dividen en bloques, que se dilatan en tareas del ForkJoinPool
+ * especificado. Cada bloque aplana los resultados en su propia lista, sin crear
+ * grupos intermedios, y al final las listas se concatenan.
+ * 
+ * Opcionalmente se unen los resultados que se solapan: se buscan en paralelo los pares
+ * con intersección, se descartan las piezas cubiertas por el sólido de otra pieza,
+ * se agrupan las componentes conexas, y a cada una se le aplica la simplificación
+ * de grupos.
+ * No hay unión general de regiones: los sólidos que se solapan sin cubrirse, y las
+ * piezas de perímetro que quedan adentro de la región de otro resultado, siguen
+ * como piezas separadas.
+ */
+public final class ParallelPerimetralDilation {
+	/**
+	 * Cantidad mínima de figuras por bloque, cada dilatación es costosa
+	 */
+	private static final int MIN_CHUNK_SIZE = 16;
+	
+	private ParallelPerimetralDilation() {}
+	
+	/**
+	 * @post Agrega la figura especificada a la lista especificada, aplanando los grupos
+	 */
+	private static void addPieces(FiniteProportionalHolomorphicShape<?> shape, List<FiniteProportionalHolomorphicShape<?>> pieces) {
+		if ( shape instanceof FiniteProportionalHolomorphicShapeGroup ) {
+			for ( FiniteProportionalHolomorphicShape<?> eachShape : ((FiniteProportionalHolomorphicShapeGroup<?>) shape).getShapes() ) {
+				addPieces(eachShape, pieces);
+			}
+		}
+		else {
+			pieces.add(shape);
+		}
+	}
+	
+	/**
+	 * @post Devuelve la concatenación de las listas especificadas
+	 */
+	private static List<FiniteProportionalHolomorphicShape<?>> concatenate(List<FiniteProportionalHolomorphicShape<?>>[] lists) {
+		int size = 0;
+		for ( List<FiniteProportionalHolomorphicShape<?>> eachList : lists ) {
+			size += eachList.size();
+		}
+		
+		final List<FiniteProportionalHolomorphicShape<?>> result = new ArrayList<FiniteProportionalHolomorphicShape<?>>(size);
+		for ( List<FiniteProportionalHolomorphicShape<?>> eachList : lists ) {
+			result.addAll(eachList);
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * @post Devuelve las piezas de la dilatación perimetral de cada una de las figuras
+	 * 		 especificadas con la otra figura especificada, calculadas con el pool especificado
+	 */
+	@SuppressWarnings("unchecked")
+	private static List<FiniteProportionalHolomorphicShape<?>> dilatePieces(ForkJoinPool pool, final List<? extends FiniteProportionalHolomorphicShape<?>> shapes, final FiniteProportionalHolomorphicShape<?> other) {
+		final int count = shapes.size();
+		final int chunkSize = ParallelIntersectionJoin.chunkSize(pool, count, MIN_CHUNK_SIZE);
+		final List<FiniteProportionalHolomorphicShape<?>>[] chunkPieces = new List[ParallelIntersectionJoin.chunkCount(count, chunkSize)];
+		
+		ParallelIntersectionJoin.processChunks(pool, count, chunkSize, new ParallelIntersectionJoin.ChunkProcessor() {
+
+			@Override
+			public void process(int chunk, int start, int end) {
+				final List<FiniteProportionalHolomorphicShape<?>> pieces = new ArrayList<FiniteProportionalHolomorphicShape<?>>(end - start);
+				
+				for ( int i = start ; i < end ; i++ ) {
+					addPieces(shapes.get(i).perimetralDilate(other), pieces);
+				}
+				
+				chunkPieces[chunk] = pieces;
+			}
+			
+		});
+		
+		return concatenate(chunkPieces);
+	}
+	
+	/**
+	 * @post Devuelve el representante del conjunto del elemento especificado,
+	 * 		 acortando el camino
+	 */
+	private static int find(int[] parent, int element) {
+		while ( parent[element] != element ) {
+			parent[element] = parent[parent[element]];
+			element = parent[element];
+		}
+		
+		return element;
+	}
+	
+	/**
+	 * @post Devuelve si la pieza especificada está cubierta por el sólido especificado.
+	 * 		 Las piezas son conexas, así que si el borde de la pieza no toca el perímetro
+	 * 		 del sólido está toda adentro o toda afuera.
+	 * 		 Si la pieza y el sólido son iguales no la cubre
+	 */
+	private static boolean isCoveredBy(FiniteProportionalHolomorphicShape<?> piece, FiniteProportionalHolomorphicShape<?> solid) {
+		if ( solid instanceof ClosedSurface ) {
+			final FiniteProportionalHolomorphicShape<?> perimeter = ((ClosedSurface<?>) solid).getPerimeter();
+			final FiniteProportionalHolomorphicShape<?> pieceBorder;
+			
+			if ( piece instanceof ClosedSurface ) {
+				pieceBorder = ((ClosedSurface<?>) piece).getPerimeter();
+			}
+			else {
+				pieceBorder = piece;
+			}
+			
+			return solid.contains(pieceBorder.getInnerPoint()) && !pieceBorder.hasIntersection(perimeter);
+		}
+		else {
+			return false;
+		}
+	}
+	
+	/**
+	 * @post Devuelve qué piezas están cubiertas por el sólido de otra pieza, buscándolas
+	 * 		 en los pares con intersección especificados, con el pool especificado.
+	 * 		 El cubrimiento es estricto, así que siempre queda la pieza que cubre
+	 */
+	private static boolean[] coveredPieces(ForkJoinPool pool, final List<FiniteProportionalHolomorphicShape<?>> pieces, final IntersectingPairs pairs) {
+		final boolean[] covered = new boolean[pieces.size()];
+		
+		ParallelIntersectionJoin.processChunks(pool, pairs.size(), ParallelIntersectionJoin.chunkSize(pool, pairs.size(), MIN_CHUNK_SIZE), new ParallelIntersectionJoin.ChunkProcessor() {
+			
+			@Override
+			public void process(int chunk, int start, int end) {
+				for ( int i = start ; i < end ; i++ ) {
+					final int index1 = pairs.getIndex1(i);
+					final int index2 = pairs.getIndex2(i);
+					
+					if ( isCoveredBy(pieces.get(index1), pieces.get(index2)) ) {
+						covered[index1] = true;
+					}
+					else if ( isCoveredBy(pieces.get(index2), pieces.get(index1)) ) {
+						covered[index2] = true;
+					}
+				}
+			}
+			
+		});
+		
+		return covered;
+	}
+	
+	/**
+	 * @post Devuelve las piezas especificadas, descartando las cubiertas por el sólido
+	 * 		 de otra pieza y uniendo las que se solapan con la simplificación de grupos,
+	 * 		 calculadas con el pool especificado
+	 */
+	@SuppressWarnings("unchecked")
+	private static List<FiniteProportionalHolomorphicShape<?>> mergeOverlapping(ForkJoinPool pool, final List<FiniteProportionalHolomorphicShape<?>> pieces) {
+		final int count = pieces.size();
+		final IntersectingPairs pairs = ParallelIntersectionJoin.selfJoin(pool, pieces);
+		final boolean[] covered = coveredPieces(pool, pieces, pairs);
+		
+		// Componentes conexas de los pares con intersección. Lo que toca a una pieza
+		// cubierta toca a la que la cubre, así que descartarla no separa componentes
+		final int[] parent = new int[count];
+		for ( int i = 0 ; i < count ; i++ ) {
+			parent[i] = i;
+		}
+		
+		for ( int i = 0 ; i < pairs.size() ; i++ ) {
+			if ( !covered[pairs.getIndex1(i)] && !covered[pairs.getIndex2(i)] ) {
+				final int root1 = find(parent, pairs.getIndex1(i));
+				final int root2 = find(parent, pairs.getIndex2(i));
+				
+				if ( root1 != root2 ) {
+					parent[Math.max(root1, root2)] = Math.min(root1, root2);
+				}
+			}
+		}
+		
+		// Ordena las piezas no cubiertas por componente, numeradas por orden de aparición
+		final int[] component = new int[count];
+		final int[] componentStart = new int[count + 1];
+		int components = 0;
+		
+		for ( int i = 0 ; i < count ; i++ ) {
+			if ( !covered[i] ) {
+				final int root = find(parent, i);
+				
+				if ( root == i ) {
+					component[i] = components++;
+				}
+				else {
+					component[i] = component[root];
+				}
+				
+				componentStart[component[i] + 1]++;
+			}
+		}
+		
+		for ( int i = 0 ; i < components ; i++ ) {
+			componentStart[i + 1] += componentStart[i];
+		}
+		
+		final int[] members = new int[count];
+		final int[] nextMember = Arrays.copyOf(componentStart, components);
+		
+		for ( int i = 0 ; i < count ; i++ ) {
+			if ( !covered[i] ) {
+				members[nextMember[component[i]]++] = i;
+			}
+		}
+		
+		final int chunkSize = ParallelIntersectionJoin.chunkSize(pool, components, MIN_CHUNK_SIZE);
+		final List<FiniteProportionalHolomorphicShape<?>>[] chunkPieces = new List[ParallelIntersectionJoin.chunkCount(components, chunkSize)];
+		
+		ParallelIntersectionJoin.processChunks(pool, components, chunkSize, new ParallelIntersectionJoin.ChunkProcessor() {
+
+			@Override
+			public void process(int chunk, int start, int end) {
+				final List<FiniteProportionalHolomorphicShape<?>> mergedPieces = new ArrayList<FiniteProportionalHolomorphicShape<?>>(end - start);
+				final List<FiniteProportionalHolomorphicShape<?>> componentPieces = new ArrayList<FiniteProportionalHolomorphicShape<?>>();
+				
+				for ( int i = start ; i < end ; i++ ) {
+					if ( componentStart[i + 1] - componentStart[i] == 1 ) {
+						mergedPieces.add( FiniteProportionalHolomorphicShapeGroup.simplifyPiece(pieces.get(members[componentStart[i]])) );
+					}
+					else {
+						componentPieces.clear();
+						for ( int j = componentStart[i] ; j < componentStart[i + 1] ; j++ ) {
+							componentPieces.add(pieces.get(members[j]));
+						}
+						
+						addPieces(new FiniteProportionalHolomorphicShapeGroup<FiniteProportionalHolomorphicShape<?>>(componentPieces).simplify(), mergedPieces);
+					}
+				}
+				
+				chunkPieces[chunk] = mergedPieces;
+			}
+			
+		});
+		
+		return concatenate(chunkPieces);
+	}
+	
+	/**
+	 * @post Devuelve las piezas de las dilataciones, unidas si se especifica
+	 */
+	private static List<FiniteProportionalHolomorphicShape<?>> dilate(ForkJoinPool pool, List<? extends FiniteProportionalHolomorphicShape<?>> shapes, FiniteProportionalHolomorphicShape<?> other, boolean mergeOverlapping) {
+		if ( ( pool != null ) && ( shapes != null ) && ( other != null ) ) {
+			final List<FiniteProportionalHolomorphicShape<?>> pieces = dilatePieces(pool, shapes, other);
+			
+			if ( mergeOverlapping ) {
+				return mergeOverlapping(pool, pieces);
+			}
+			else {
+				return pieces;
+			}
+		}
+		else {
+			throw new NullPointerException();
+		}
+	}
+	
+	/**
+	 * @pre Ninguno de los parámetros puede ser nulo, y ninguna de las figuras puede ser nula
+	 * @post Devuelve un grupo plano con los resultados perimetrales de la dilatación de cada
+	 * 		 una de las figuras especificadas con la otra figura especificada, calculados en
+	 * 		 paralelo con el pool común.
+	 * 		 Si se especifica, descarta los resultados cubiertos por otro y une los que se solapan
+	 */
+	public static FiniteProportionalHolomorphicShapeGroup<FiniteProportionalHolomorphicShape<?>> perimetralDilate(List<? extends FiniteProportionalHolomorphicShape<?>> shapes, FiniteProportionalHolomorphicShape<?> other, boolean mergeOverlapping) {
+		return perimetralDilate(shapes, other, mergeOverlapping, ForkJoinPool.commonPool());
+	}
+	
+	/**
+	 * @pre Ninguno de los parámetros puede ser nulo, y ninguna de las figuras puede ser nula
+	 * @post Devuelve un grupo plano con los resultados perimetrales de la dilatación de cada
+	 * 		 una de las figuras especificadas con la otra figura especificada, calculados en
+	 * 		 paralelo con el pool especificado.
+	 * 		 Si se especifica, descarta los resultados cubiertos por otro y une los que se solapan
+	 */
+	public static FiniteProportionalHolomorphicShapeGroup<FiniteProportionalHolomorphicShape<?>> perimetralDilate(List<? extends FiniteProportionalHolomorphicShape<?>> shapes, FiniteProportionalHolomorphicShape<?> other, boolean mergeOverlapping, ForkJoinPool pool) {
+		return new FiniteProportionalHolomorphicShapeGroup<FiniteProportionalHolomorphicShape<?>>(dilate(pool, shapes, other, mergeOverlapping));
+	}
+	
+	/**
+	 * @pre Ninguno de los parámetros puede ser nulo, y ninguna de las figuras puede ser nula
+	 * @post Devuelve un árbol de bounding boxes, sin margen, con los resultados perimetrales
+	 * 		 de la dilatación de cada una de las figuras especificadas con la otra figura
+	 * 		 especificada, calculados en paralelo con el pool común.
+	 * 		 Si se especifica, descarta los resultados cubiertos por otro y une los que se solapan.
+	 * 		 Los resultados vacíos no se insertan
+	 */
+	public static DynamicBoundingBoxTree<FiniteProportionalHolomorphicShape<?>> perimetralDilateToTree(List<? extends FiniteProportionalHolomorphicShape<?>> shapes, FiniteProportionalHolomorphicShape<?> other, boolean mergeOverlapping) {
+		return perimetralDilateToTree(shapes, other, mergeOverlapping, ForkJoinPool.commonPool());
+	}
+	
+	/**
+	 * @pre Ninguno de los parámetros puede ser nulo, y ninguna de las figuras puede ser nula
+	 * @post Devuelve un árbol de bounding boxes, sin margen, con los resultados perimetrales
+	 * 		 de la dilatación de cada una de las figuras especificadas con la otra figura
+	 * 		 especificada, calculados en paralelo con el pool especificado.
+	 * 		 Si se especifica, descarta los resultados cubiertos por otro y une los que se solapan.
+	 * 		 Los resultados vacíos no se insertan
+	 */
+	public static DynamicBoundingBoxTree<FiniteProportionalHolomorphicShape<?>> perimetralDilateToTree(List<? extends FiniteProportionalHolomorphicShape<?>> shapes, FiniteProportionalHolomorphicShape<?> other, boolean mergeOverlapping, ForkJoinPool pool) {
+		final DynamicBoundingBoxTree<FiniteProportionalHolomorphicShape<?>> tree = new DynamicBoundingBoxTree<FiniteProportionalHolomorphicShape<?>>(0.0f);
+		
+		for ( FiniteProportionalHolomorphicShape<?> eachPiece : dilate(pool, shapes, other, mergeOverlapping) ) {
+			if ( eachPiece.boundingBox() != null ) {
+				tree.insert(eachPiece);
+			}
+		}
+		
+		return tree;
+	}
+}
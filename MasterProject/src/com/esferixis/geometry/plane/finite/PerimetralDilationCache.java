@@ -0,0 +1,230 @@
+/**
+ * Copyright (c) 2017 Ariel Favio Carrizo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'esferixis' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.esferixis.geometry.plane.finite;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.esferixis.math.Vector2f;
+
+/**
+ * @author ariel
+ *
+ * Caché LRU acotado de dilataciones perimetrales.
+ * 
+ * La suma de Minkowski de dos figuras trasladadas es la suma de Minkowski
+ * de las figuras originales trasladada por la suma de los desplazamientos.
+ * Por eso las figuras se pueden especificar como una plantilla y un desplazamiento,
+ * se guarda la dilatación del par de plantillas, y en cada acierto se devuelve
+ * trasladada por la suma de los desplazamientos.
+ * 
+ * Las claves se comparan por igualdad exacta de las plantillas, que no se trasladan,
+ * así las instancias de la misma plantilla en distintas posiciones siempre aciertan.
+ * Las figuras sin bounding box (Vacías) no pasan por el caché.
+ * Es thread-safe.
+ */
+public final class PerimetralDilationCache {
+	private static final class Key {
+		private final FiniteProportionalHolomorphicShape<?> shape1;
+		private final FiniteProportionalHolomorphicShape<?> shape2;
+		private final int hashCode;
+		
+		/**
+		 * @pre Ninguna de las dos figuras puede ser nula
+		 * @post Crea la clave con las plantillas especificadas
+		 */
+		Key(FiniteProportionalHolomorphicShape<?> shape1, FiniteProportionalHolomorphicShape<?> shape2) {
+			this.shape1 = shape1;
+			this.shape2 = shape2;
+			this.hashCode = shape1.hashCode() * 31 + shape2.hashCode();
+		}
+		
+		/* (non-Javadoc)
+		 * @see java.lang.Object#hashCode()
+		 */
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+		
+		/* (non-Javadoc)
+		 * @see java.lang.Object#equals(java.lang.Object)
+		 */
+		@Override
+		public boolean equals(Object other) {
+			if ( ( other != null ) && ( other instanceof Key ) ) {
+				final Key otherKey = (Key) other;
+				
+				return ( otherKey.hashCode == this.hashCode ) && otherKey.shape1.equals(this.shape1) && otherKey.shape2.equals(this.shape2);
+			}
+			else {
+				return false;
+			}
+		}
+	}
+	
+	private final int maxEntries;
+	private final LinkedHashMap<Key, FiniteProportionalHolomorphicShape<?>> entries;
+	
+	private long hits;
+	private long misses;
+	
+	/**
+	 * @pre La cantidad máxima de entradas tiene que ser positiva
+	 * @post Crea el caché con la cantidad máxima de entradas especificada
+	 */
+	public PerimetralDilationCache(int maxEntries) {
+		if ( maxEntries > 0 ) {
+			this.maxEntries = maxEntries;
+			this.entries = new LinkedHashMap<Key, FiniteProportionalHolomorphicShape<?>>(16, 0.75f, true) {
+				private static final long serialVersionUID = -4206281923498417542L;
+
+				/* (non-Javadoc)
+				 * @see java.util.LinkedHashMap#removeEldestEntry(java.util.Map.Entry)
+				 */
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<Key, FiniteProportionalHolomorphicShape<?>> eldest) {
+					return this.size() > PerimetralDilationCache.this.maxEntries;
+				}
+				
+			};
+		}
+		else {
+			throw new IllegalArgumentException("Expected positive max entries");
+		}
+	}
+	
+	/**
+	 * @pre Ninguna de las dos plantillas puede ser nula
+	 * @post Devuelve el resultado perimetral de la dilatación de las plantillas especificadas,
+	 * 		 usando el caché si el par ya fue calculado.
+	 * 		 Si alguna es vacía la calcula sin usar el caché
+	 */
+	private FiniteProportionalHolomorphicShape<?> templateDilation(FiniteProportionalHolomorphicShape<?> template1, FiniteProportionalHolomorphicShape<?> template2) {
+		if ( ( template1.boundingBox() == null ) || ( template2.boundingBox() == null ) ) {
+			return template1.perimetralDilate(template2);
+		}
+		
+		final Key key = new Key(template1, template2);
+		
+		FiniteProportionalHolomorphicShape<?> dilation;
+		
+		synchronized ( this ) {
+			dilation = this.entries.get(key);
+			
+			if ( dilation != null ) {
+				this.hits++;
+			}
+			else {
+				this.misses++;
+			}
+		}
+		
+		if ( dilation == null ) {
+			dilation = template1.perimetralDilate(template2);
+			
+			synchronized ( this ) {
+				this.entries.put(key, dilation);
+			}
+		}
+		
+		return dilation;
+	}
+	
+	/**
+	 * @pre Ninguna de las dos figuras puede ser nula
+	 * @post Devuelve el resultado perimetral de la dilatación de las figuras especificadas,
+	 * 		 usando el caché si el par ya fue calculado.
+	 * 		 Sólo acierta con figuras iguales a las de un par anterior, para las figuras
+	 * 		 trasladadas hay que especificar la plantilla y el desplazamiento
+	 */
+	public FiniteProportionalHolomorphicShape<?> perimetralDilate(FiniteProportionalHolomorphicShape<?> shape1, FiniteProportionalHolomorphicShape<?> shape2) {
+		if ( ( shape1 != null ) && ( shape2 != null ) ) {
+			return this.templateDilation(shape1, shape2);
+		}
+		else {
+			throw new NullPointerException();
+		}
+	}
+	
+	/**
+	 * @pre Ningún parámetro puede ser nulo
+	 * @post Devuelve el resultado perimetral de la dilatación de la primera plantilla trasladada
+	 * 		 por el primer desplazamiento con la segunda plantilla trasladada por el segundo
+	 * 		 desplazamiento, usando el caché si el par de plantillas ya fue calculado
+	 */
+	public FiniteProportionalHolomorphicShape<?> perimetralDilate(FiniteProportionalHolomorphicShape<?> template1, Vector2f offset1, FiniteProportionalHolomorphicShape<?> template2, Vector2f offset2) {
+		if ( ( template1 != null ) && ( offset1 != null ) && ( template2 != null ) && ( offset2 != null ) ) {
+			return this.templateDilation(template1, template2).translate(offset1.add(offset2));
+		}
+		else {
+			throw new NullPointerException();
+		}
+	}
+	
+	/**
+	 * @post Devuelve la cantidad máxima de entradas
+	 */
+	public int getMaxEntries() {
+		return this.maxEntries;
+	}
+	
+	/**
+	 * @post Devuelve la cantidad de entradas
+	 */
+	public synchronized int getSize() {
+		return this.entries.size();
+	}
+	
+	/**
+	 * @post Devuelve la cantidad de aciertos
+	 */
+	public synchronized long getHits() {
+		return this.hits;
+	}
+	
+	/**
+	 * @post Devuelve la cantidad de fallos
+	 */
+	public synchronized long getMisses() {
+		return this.misses;
+	}
+	
+	/**
+	 * @post Vacía el caché y reinicia los contadores
+	 */
+	public synchronized void clear() {
+		this.entries.clear();
+		this.hits = 0;
+		this.misses = 0;
+	}
+}
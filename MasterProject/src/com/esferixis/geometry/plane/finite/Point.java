@@ -44,7 +44,7 @@ import com.esferixis.math.Vector2f;
  * @author ariel
  *
  */
-public final class Point extends FiniteProportionalHolomorphicShape<Point> implements FiniteAffineHolomorphicShape.Casteable<Point> {
+public final class Point extends FiniteProportionalHolomorphicShape<Point> implements FiniteAffineHolomorphicShape.Casteable<Point>, SupportMapping {
 	private static final long serialVersionUID = -3191471110764193187L;
 	
 	private final Vector2f position;
@@ -54,6 +54,8 @@ public final class Point extends FiniteProportionalHolomorphicShape<Point> imple
 	 * @post Crea el punto con la posición especificada
 	 */
 	public Point(Vector2f position) {
+		super(POINT_TYPETAG);
+		
 		if ( position != null ) {
 			this.position = position;
 		}
@@ -90,19 +92,18 @@ public final class Point extends FiniteProportionalHolomorphicShape<Point> imple
 	 */
 	@Override
 	public Float getRayIntersection(Line rect) {
+		return toRayIntersection(this.getRayIntersectionParameter(rect));
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.esferixis.geometry.plane.Shape#getRayIntersectionParameter(com.esferixis.geometry.plane.Line)
+	 */
+	@Override
+	public float getRayIntersectionParameter(Line rect) {
 		if ( rect != null ) {
-			final Vector2f referenceToPoint = this.getPosition().sub( rect.getReferencePoint() );
-			Float t = null;
+			final float t = this.getRectIntersectionParameter(rect);
 			
-			if ( referenceToPoint.isParallel(rect.getDirection()) ) {
-				float scalarProjection = rect.getDirection().normalise().scalarProjection(referenceToPoint);
-				
-				if ( scalarProjection >= 0.0f ) {
-					t = scalarProjection;
-				}
-			}
-			
-			return t;
+			return ( t >= 0.0f ) ? t : Float.NaN;
 		}
 		else {
 			throw new NullPointerException();
@@ -117,10 +118,10 @@ public final class Point extends FiniteProportionalHolomorphicShape<Point> imple
 		if ( rect != null ) {
 			final List<Float> result = new ArrayList<Float>(1);
 			
-			final Vector2f referenceToPoint = this.getPosition().sub( rect.getReferencePoint() );
+			final float t = this.getRectIntersectionParameter(rect);
 			
-			if ( referenceToPoint.isParallel(rect.getDirection()) ) {
-				result.add( rect.getDirection().normalise().scalarProjection(referenceToPoint) );
+			if ( !Float.isNaN(t) ) {
+				result.add(t);
 			}
 			
 			return Collections.unmodifiableList(result);
@@ -130,6 +131,45 @@ public final class Point extends FiniteProportionalHolomorphicShape<Point> imple
 		}
 	}
 	
+	/* (non-Javadoc)
+	 * @see com.esferixis.geometry.plane.Shape#getRectIntersection(com.esferixis.geometry.plane.Line, float[], int)
+	 */
+	@Override
+	public int getRectIntersection(Line rect, float[] result, int offset) {
+		if ( ( rect != null ) && ( result != null ) ) {
+			final float t = this.getRectIntersectionParameter(rect);
+			
+			if ( !Float.isNaN(t) ) {
+				putRectIntersection(result, offset, 0, t);
+				return 1;
+			}
+			else {
+				return 0;
+			}
+		}
+		else {
+			throw new NullPointerException();
+		}
+	}
+	
+	/**
+	 * @post Devuelve el escalar proporcional del punto sobre la recta especificada,
+	 * 		 si no está sobre la recta devuelve NaN
+	 */
+	private float getRectIntersectionParameter(Line rect) {
+		final float referenceToPointX = this.position.getX() - rect.getReferencePoint().getX();
+		final float referenceToPointY = this.position.getY() - rect.getReferencePoint().getY();
+		final float directionX = rect.getDirection().getX();
+		final float directionY = rect.getDirection().getY();
+		
+		if ( referenceToPointX * directionY - referenceToPointY * directionX == 0.0f ) {
+			return ( referenceToPointX * directionX + referenceToPointY * directionY ) / ( directionX * directionX + directionY * directionY );
+		}
+		else {
+			return Float.NaN;
+		}
+	}
+	
 	/**
 	 * @post Devuelve el hash
 	 */
@@ -235,10 +275,10 @@ public final class Point extends FiniteProportionalHolomorphicShape<Point> imple
 	}
 
 	/* (non-Javadoc)
-	 * @see com.arielcarrizo.geometry.plane.finite.FiniteProportionalHolomorphicShape#getBoundingBox()
+	 * @see com.arielcarrizo.geometry.plane.finite.FiniteProportionalHolomorphicShape#computeBoundingBox()
 	 */
 	@Override
-	public BoundingBox boundingBox() {
+	protected BoundingBox computeBoundingBox() {
 		return new BoundingBox(this.position, this.position);
 	}
 
@@ -249,6 +289,14 @@ public final class Point extends FiniteProportionalHolomorphicShape<Point> imple
 	public float maxDistanceToOrigin() {
 		return this.position.length();
 	}
+	
+	/* (non-Javadoc)
+	 * @see com.arielcarrizo.geometry.plane.finite.FiniteProportionalHolomorphicShape#maxDistanceToPoint(float, float)
+	 */
+	@Override
+	float maxDistanceToPoint(float x, float y) {
+		return distance(this.position.getX(), this.position.getY(), x, y);
+	}
 
 	/* (non-Javadoc)
 	 * @see com.arielcarrizo.geometry.plane.Shape#opposite()
@@ -273,4 +321,21 @@ public final class Point extends FiniteProportionalHolomorphicShape<Point> imple
 	public float minDistanceToOrigin() {
 		return this.position.length();
 	}
+	
+	/* (non-Javadoc)
+	 * @see com.esferixis.geometry.plane.finite.SupportMapping#support(float, float, float[], int)
+	 */
+	@Override
+	public void support(float directionX, float directionY, float[] result, int offset) {
+		result[offset] = this.position.getX();
+		result[offset+1] = this.position.getY();
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.esferixis.geometry.plane.finite.SupportMapping#getSupportRadius()
+	 */
+	@Override
+	public float getSupportRadius() {
+		return 0.0f;
+	}
 }
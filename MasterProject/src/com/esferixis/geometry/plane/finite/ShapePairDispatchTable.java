@@ -0,0 +1,277 @@
+/**
+ * Copyright (c) 2017 Ariel Favio Carrizo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'esferixis' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.esferixis.geometry.plane.finite;
+
+/**
+ * @author ariel
+ *
+ * Tabla de despacho simétrica para operaciones entre pares de figuras.
+ * 
+ * Se resuelve por única vez, para cada par de etiquetas de tipo, el primer caso
+ * que acepta el par (en cualquier orden), así el despacho es un único acceso
+ * al array con el índice de par, sin visitors ni objetos intermedios.
+ * Los casos tienen que estar ordenados del más específico al más general.
+ */
+final class ShapePairDispatchTable {
+	private ShapePairDispatchTable() {}
+	
+	/**
+	 * Clases concretas correspondientes a cada etiqueta de tipo
+	 */
+	private static final Class<?>[] TYPETAG_CLASSES = new Class<?>[]{
+		Point.class, LineSegment.class, Circumference.class, Circle.class, SolidCapsule.class,
+		CircumferenceSegment.class, ConvexPolygon.class, FiniteProportionalHolomorphicShapeGroup.class,
+		FiniteAffineHolomorphicShape.class
+	};
+	
+	/**
+	 * Entrada de tabla de predicado
+	 */
+	interface Predicate {
+		/**
+		 * @post Evalúa el predicado con las figuras especificadas
+		 */
+		public boolean process(FiniteProportionalHolomorphicShape<?> shape1, FiniteProportionalHolomorphicShape<?> shape2);
+	}
+	
+	/**
+	 * Entrada de tabla de función
+	 */
+	interface Function<R> {
+		/**
+		 * @post Evalúa la función con las figuras especificadas
+		 */
+		public R process(FiniteProportionalHolomorphicShape<?> shape1, FiniteProportionalHolomorphicShape<?> shape2);
+	}
+	
+	private static abstract class Case<A extends FiniteProportionalHolomorphicShape<?>, B extends FiniteProportionalHolomorphicShape<?>> {
+		private final Class<A> class1;
+		private final Class<B> class2;
+		
+		/**
+		 * @pre Ninguna de las clases puede ser nula
+		 * @post Crea el caso con las clases especificadas
+		 */
+		Case(Class<A> class1, Class<B> class2) {
+			if ( ( class1 != null ) && ( class2 != null ) ) {
+				this.class1 = class1;
+				this.class2 = class2;
+			}
+			else {
+				throw new NullPointerException();
+			}
+		}
+		
+		/**
+		 * @post Devuelve si acepta las clases especificadas, en ese orden
+		 */
+		final boolean accepts(Class<?> shapeClass1, Class<?> shapeClass2) {
+			return this.class1.isAssignableFrom(shapeClass1) && this.class2.isAssignableFrom(shapeClass2);
+		}
+	}
+	
+	/**
+	 * Caso de predicado
+	 */
+	static abstract class PredicateCase<A extends FiniteProportionalHolomorphicShape<?>, B extends FiniteProportionalHolomorphicShape<?>> extends Case<A, B> {
+		/**
+		 * @pre Ninguna de las clases puede ser nula
+		 * @post Crea el caso con las clases especificadas
+		 */
+		PredicateCase(Class<A> class1, Class<B> class2) {
+			super(class1, class2);
+		}
+		
+		/**
+		 * @post Evalúa el predicado con las figuras especificadas
+		 */
+		public abstract boolean process(A shape1, B shape2);
+	}
+	
+	/**
+	 * Caso de función
+	 */
+	static abstract class FunctionCase<A extends FiniteProportionalHolomorphicShape<?>, B extends FiniteProportionalHolomorphicShape<?>, R> extends Case<A, B> {
+		/**
+		 * @pre Ninguna de las clases puede ser nula
+		 * @post Crea el caso con las clases especificadas
+		 */
+		FunctionCase(Class<A> class1, Class<B> class2) {
+			super(class1, class2);
+		}
+		
+		/**
+		 * @post Evalúa la función con las figuras especificadas
+		 */
+		public abstract R process(A shape1, B shape2);
+	}
+	
+	/**
+	 * @post Devuelve el índice de tabla correspondiente al par de figuras especificado
+	 */
+	static int index(FiniteProportionalHolomorphicShape<?> shape1, FiniteProportionalHolomorphicShape<?> shape2) {
+		return shape1.typeTag * FiniteProportionalHolomorphicShape.TYPETAGS + shape2.typeTag;
+	}
+	
+	/**
+	 * @post Resuelve el primer caso que acepta el par de clases especificado en cualquier orden.
+	 * 		 Devuelve el doble del índice del caso si lo acepta en el orden especificado,
+	 * 		 el doble más uno si lo acepta con los argumentos intercambiados, y -1
+	 * 		 si no hay ninguno
+	 */
+	private static int resolveCase(Case<?, ?>[] cases, Class<?> shapeClass1, Class<?> shapeClass2) {
+		int result = -1;
+		
+		for ( int i = 0 ; ( i<cases.length ) && ( result == -1 ) ; i++ ) {
+			if ( cases[i].accepts(shapeClass1, shapeClass2) ) {
+				result = i * 2;
+			}
+			else if ( cases[i].accepts(shapeClass2, shapeClass1) ) {
+				result = i * 2 + 1;
+			}
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * @pre Los casos no pueden ser nulos
+	 * @post Crea la tabla de predicados con los casos especificados
+	 */
+	static Predicate[] makePredicateTable(PredicateCase<?, ?>... cases) {
+		final Predicate[] table = new Predicate[FiniteProportionalHolomorphicShape.TYPETAGS * FiniteProportionalHolomorphicShape.TYPETAGS];
+		
+		for ( int tag1 = 0 ; tag1 < FiniteProportionalHolomorphicShape.TYPETAGS ; tag1++ ) {
+			for ( int tag2 = 0 ; tag2 < FiniteProportionalHolomorphicShape.TYPETAGS ; tag2++ ) {
+				final int resolution = resolveCase(cases, TYPETAG_CLASSES[tag1], TYPETAG_CLASSES[tag2]);
+				final Predicate entry;
+				
+				if ( resolution != -1 ) {
+					@SuppressWarnings("unchecked")
+					final PredicateCase<FiniteProportionalHolomorphicShape<?>, FiniteProportionalHolomorphicShape<?>> resolvedCase = (PredicateCase<FiniteProportionalHolomorphicShape<?>, FiniteProportionalHolomorphicShape<?>>) cases[resolution / 2];
+					
+					if ( resolution % 2 == 0 ) {
+						entry = new Predicate() {
+	
+							@Override
+							public boolean process(FiniteProportionalHolomorphicShape<?> shape1, FiniteProportionalHolomorphicShape<?> shape2) {
+								return resolvedCase.process(shape1, shape2);
+							}
+							
+						};
+					}
+					else {
+						entry = new Predicate() {
+	
+							@Override
+							public boolean process(FiniteProportionalHolomorphicShape<?> shape1, FiniteProportionalHolomorphicShape<?> shape2) {
+								return resolvedCase.process(shape2, shape1);
+							}
+							
+						};
+					}
+				}
+				else {
+					entry = new Predicate() {
+
+						@Override
+						public boolean process(FiniteProportionalHolomorphicShape<?> shape1, FiniteProportionalHolomorphicShape<?> shape2) {
+							throw new IllegalArgumentException("Unsupported shape pair");
+						}
+						
+					};
+				}
+				
+				table[tag1 * FiniteProportionalHolomorphicShape.TYPETAGS + tag2] = entry;
+			}
+		}
+		
+		return table;
+	}
+	
+	/**
+	 * @pre Los casos no pueden ser nulos
+	 * @post Crea la tabla de funciones con los casos especificados
+	 */
+	@SafeVarargs
+	static <R> Function<R>[] makeFunctionTable(FunctionCase<?, ?, ? extends R>... cases) {
+		@SuppressWarnings("unchecked")
+		final Function<R>[] table = new Function[FiniteProportionalHolomorphicShape.TYPETAGS * FiniteProportionalHolomorphicShape.TYPETAGS];
+		
+		for ( int tag1 = 0 ; tag1 < FiniteProportionalHolomorphicShape.TYPETAGS ; tag1++ ) {
+			for ( int tag2 = 0 ; tag2 < FiniteProportionalHolomorphicShape.TYPETAGS ; tag2++ ) {
+				final int resolution = resolveCase(cases, TYPETAG_CLASSES[tag1], TYPETAG_CLASSES[tag2]);
+				final Function<R> entry;
+				
+				if ( resolution != -1 ) {
+					@SuppressWarnings("unchecked")
+					final FunctionCase<FiniteProportionalHolomorphicShape<?>, FiniteProportionalHolomorphicShape<?>, ? extends R> resolvedCase = (FunctionCase<FiniteProportionalHolomorphicShape<?>, FiniteProportionalHolomorphicShape<?>, ? extends R>) cases[resolution / 2];
+					
+					if ( resolution % 2 == 0 ) {
+						entry = new Function<R>() {
+	
+							@Override
+							public R process(FiniteProportionalHolomorphicShape<?> shape1, FiniteProportionalHolomorphicShape<?> shape2) {
+								return resolvedCase.process(shape1, shape2);
+							}
+							
+						};
+					}
+					else {
+						entry = new Function<R>() {
+	
+							@Override
+							public R process(FiniteProportionalHolomorphicShape<?> shape1, FiniteProportionalHolomorphicShape<?> shape2) {
+								return resolvedCase.process(shape2, shape1);
+							}
+							
+						};
+					}
+				}
+				else {
+					entry = new Function<R>() {
+
+						@Override
+						public R process(FiniteProportionalHolomorphicShape<?> shape1, FiniteProportionalHolomorphicShape<?> shape2) {
+							throw new IllegalArgumentException("Unsupported shape pair");
+						}
+						
+					};
+				}
+				
+				table[tag1 * FiniteProportionalHolomorphicShape.TYPETAGS + tag2] = entry;
+			}
+		}
+		
+		return table;
+	}
+}
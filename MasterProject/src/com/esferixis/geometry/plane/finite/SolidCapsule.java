@@ -43,10 +43,12 @@ import com.esferixis.misc.collection.list.BinaryList;
  * @author ariel
  *
  */
-public final class SolidCapsule extends ClosedSurface<SolidCapsule> {
+public final class SolidCapsule extends ClosedSurface<SolidCapsule> implements SupportMapping {
 	private static final long serialVersionUID = 7853250867019612656L;
 	
 	private final LineSegment centerLine;
+	
+	private transient volatile FiniteProportionalHolomorphicShapeGroup<FiniteProportionalHolomorphicShape<?>> perimeter;
 	private final float radius;
 	
 	/**
@@ -54,6 +56,8 @@ public final class SolidCapsule extends ClosedSurface<SolidCapsule> {
 	 * @post Crea la cápsula con la línea central y el radio especificados
 	 */
 	public SolidCapsule(LineSegment centerLine, float radius) {
+		super(SOLIDCAPSULE_TYPETAG);
+		
 		if ( centerLine != null ) {
 			if ( radius > 0 ) {
 				this.centerLine = centerLine;
@@ -109,6 +113,20 @@ public final class SolidCapsule extends ClosedSurface<SolidCapsule> {
 	 * @post Descompone la cápsula con dos líneas y dos arcos
 	 */
 	public FiniteProportionalHolomorphicShapeGroup<FiniteProportionalHolomorphicShape<?>> getPerimeter() {
+		FiniteProportionalHolomorphicShapeGroup<FiniteProportionalHolomorphicShape<?>> result = this.perimeter;
+		
+		if ( result == null ) {
+			result = this.computePerimeter();
+			this.perimeter = result;
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * @post Calcula el perímetro
+	 */
+	private FiniteProportionalHolomorphicShapeGroup<FiniteProportionalHolomorphicShape<?>> computePerimeter() {
 		final Vector2f lineVector = this.centerLine.getPoint2().sub(this.centerLine.getPoint1());
 		final Vector2f displacement = lineVector.rotate90AnticlockWise().normalise().scale(this.radius);
 		final float lineAngle = lineVector.getAngle();
@@ -134,10 +152,18 @@ public final class SolidCapsule extends ClosedSurface<SolidCapsule> {
 	 */
 	@Override
 	public Float getRayIntersection(Line rect) {
-		final Float t;
+		return toRayIntersection(this.getRayIntersectionParameter(rect));
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.esferixis.geometry.plane.Shape#getRayIntersectionParameter(com.esferixis.geometry.plane.Line)
+	 */
+	@Override
+	public float getRayIntersectionParameter(Line rect) {
+		final float t;
 		
-		if ( !this.hasIntersection(new Point(rect.getReferencePoint())) ) {
-			t = this.getPerimeter().getRayIntersection(rect);
+		if ( !this.contains(rect.getReferencePoint()) ) {
+			t = this.getPerimeter().getRayIntersectionParameter(rect);
 		}
 		else {
 			t = 0.0f;
@@ -154,6 +180,14 @@ public final class SolidCapsule extends ClosedSurface<SolidCapsule> {
 		return this.getPerimeter().getRectIntersection(rect);
 	}
 	
+	/* (non-Javadoc)
+	 * @see com.esferixis.geometry.plane.Shape#getRectIntersection(com.esferixis.geometry.plane.Line, float[], int)
+	 */
+	@Override
+	public int getRectIntersection(Line rect, float[] result, int offset) {
+		return this.getPerimeter().getRectIntersection(rect, result, offset);
+	}
+	
 	/**
 	 * @post Devuelve el hash
 	 */
@@ -260,10 +294,10 @@ public final class SolidCapsule extends ClosedSurface<SolidCapsule> {
 	}
 
 	/* (non-Javadoc)
-	 * @see com.arielcarrizo.geometry.plane.finite.FiniteProportionalHolomorphicShape#getBoundingBox()
+	 * @see com.arielcarrizo.geometry.plane.finite.FiniteProportionalHolomorphicShape#computeBoundingBox()
 	 */
 	@Override
-	public BoundingBox boundingBox() {
+	protected BoundingBox computeBoundingBox() {
 		BoundingBox lineSegmentBoundingBox = this.centerLine.boundingBox();
 		Vector2f delta = new Vector2f(this.radius, this.radius);
 		return new BoundingBox(lineSegmentBoundingBox.getVertex11().sub(delta), lineSegmentBoundingBox.getVertex22().add(delta));
@@ -276,4 +310,20 @@ public final class SolidCapsule extends ClosedSurface<SolidCapsule> {
 	public SolidCapsule opposite() {
 		return new SolidCapsule(this.centerLine.opposite(), this.radius);
 	}
+	
+	/* (non-Javadoc)
+	 * @see com.esferixis.geometry.plane.finite.SupportMapping#support(float, float, float[], int)
+	 */
+	@Override
+	public void support(float directionX, float directionY, float[] result, int offset) {
+		this.centerLine.support(directionX, directionY, result, offset);
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.esferixis.geometry.plane.finite.SupportMapping#getSupportRadius()
+	 */
+	@Override
+	public float getSupportRadius() {
+		return this.radius;
+	}
 }
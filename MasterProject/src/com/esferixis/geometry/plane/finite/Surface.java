@@ -37,4 +37,11 @@ package com.esferixis.geometry.plane.finite;
  */
 public abstract class Surface<S extends Surface<S>> extends FiniteProportionalHolomorphicShape<S> {
 	private static final long serialVersionUID = -5073050161808096050L;
+	
+	/**
+	 * @post Crea la superficie con la etiqueta de tipo especificada
+	 */
+	Surface(int typeTag) {
+		super(typeTag);
+	}
 }
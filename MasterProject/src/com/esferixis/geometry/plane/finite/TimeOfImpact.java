@@ -0,0 +1,505 @@
+/**
+ * Copyright (c) 2017 Ariel Favio Carrizo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'esferixis' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.esferixis.geometry.plane.finite;
+
+import com.esferixis.geometry.plane.Line;
+import com.esferixis.geometry.plane.Shape.NearestNormal;
+import com.esferixis.math.ExtraMath;
+import com.esferixis.math.ProportionalMatrix3f;
+import com.esferixis.math.Vector2f;
+
+/**
+ * @author ariel
+ *
+ * Instante de impacto entre dos figuras en movimiento.
+ * 
+ * El instante es el parámetro del movimiento, entre cero y uno, en el que
+ * las figuras se tocan por primera vez.
+ * La normal es unitaria y va de la primera figura, o la que se mueve, hacia la otra.
+ */
+public final class TimeOfImpact {
+	/**
+	 * Cantidad máxima de iteraciones del avance conservativo
+	 */
+	private static final int MAX_ITERATIONS = 32;
+	
+	/**
+	 * Cantidad máxima de iteraciones del avance conservativo con rotación,
+	 * la cota de velocidad es menos ajustada y avanza en pasos más cortos
+	 */
+	private static final int MAX_ROTATING_ITERATIONS = 128;
+	
+	/**
+	 * Distancia de contacto, relativa a la longitud del desplazamiento
+	 */
+	private static final float RELATIVE_TOLERANCE = 1e-5f;
+	
+	/**
+	 * Función de soporte trasladada, para evaluar la figura que se mueve
+	 * en cada paso sin crear figuras nuevas
+	 */
+	private static final class TranslatedSupportMapping implements SupportMapping {
+		private final SupportMapping backingSupportMapping;
+		private float displacementX, displacementY;
+		
+		/**
+		 * @post Crea la función de soporte con la función especificada
+		 */
+		TranslatedSupportMapping(SupportMapping backingSupportMapping) {
+			this.backingSupportMapping = backingSupportMapping;
+		}
+		
+		/**
+		 * @post Especifica el desplazamiento
+		 */
+		void setDisplacement(float displacementX, float displacementY) {
+			this.displacementX = displacementX;
+			this.displacementY = displacementY;
+		}
+		
+		/* (non-Javadoc)
+		 * @see com.esferixis.geometry.plane.finite.SupportMapping#support(float, float, float[], int)
+		 */
+		@Override
+		public void support(float directionX, float directionY, float[] result, int offset) {
+			this.backingSupportMapping.support(directionX, directionY, result, offset);
+			result[offset] += this.displacementX;
+			result[offset+1] += this.displacementY;
+		}
+		
+		/* (non-Javadoc)
+		 * @see com.esferixis.geometry.plane.finite.SupportMapping#getSupportRadius()
+		 */
+		@Override
+		public float getSupportRadius() {
+			return this.backingSupportMapping.getSupportRadius();
+		}
+	}
+	
+	/**
+	 * Función de soporte de una figura que se mueve entre dos poses.
+	 * La pose en cada instante interpola linealmente la traslación, el ángulo y la escala
+	 */
+	private static final class MovingSupportMapping implements SupportMapping {
+		private final SupportMapping backingSupportMapping;
+		
+		private final float startX, startY, translationX, translationY;
+		private final float startAngle, angleDelta;
+		private final float startScale, scaleDelta;
+		
+		// Máxima distancia de la figura al origen de sus coordenadas locales
+		private final float maxDistance;
+		
+		// Pose actual
+		private float cos, sin, scale, x, y;
+		
+		/**
+		 * @post Crea la función de soporte con la figura, su función de soporte y las poses especificadas.
+		 * 		 La rotación entre las poses es la más corta
+		 */
+		MovingSupportMapping(FiniteProportionalHolomorphicShape<?> shape, SupportMapping backingSupportMapping, ProportionalMatrix3f startPose, ProportionalMatrix3f endPose) {
+			this.backingSupportMapping = backingSupportMapping;
+			this.maxDistance = shape.maxDistanceToOrigin();
+			
+			final Vector2f startOrigin = startPose.transformPoint(Vector2f.ZERO);
+			final Vector2f endOrigin = endPose.transformPoint(Vector2f.ZERO);
+			final Vector2f startAxis = startPose.transformDirection(new Vector2f(1.0f, 0.0f));
+			final Vector2f endAxis = endPose.transformDirection(new Vector2f(1.0f, 0.0f));
+			
+			this.startX = startOrigin.getX();
+			this.startY = startOrigin.getY();
+			this.translationX = endOrigin.getX() - this.startX;
+			this.translationY = endOrigin.getY() - this.startY;
+			
+			this.startAngle = startAxis.getAngle();
+			
+			float angleDelta = endAxis.getAngle() - this.startAngle;
+			
+			if ( angleDelta > (float) Math.PI ) {
+				angleDelta -= ExtraMath.doublePI;
+			}
+			else if ( angleDelta < -(float) Math.PI ) {
+				angleDelta += ExtraMath.doublePI;
+			}
+			
+			this.angleDelta = angleDelta;
+			
+			this.startScale = startAxis.length();
+			this.scaleDelta = endAxis.length() - this.startScale;
+		}
+		
+		/**
+		 * @post Ubica la figura en la pose del instante especificado
+		 */
+		void setTime(float time) {
+			final float angle = this.startAngle + this.angleDelta * time;
+			
+			this.cos = (float) Math.cos(angle);
+			this.sin = (float) Math.sin(angle);
+			this.scale = this.startScale + this.scaleDelta * time;
+			this.x = this.startX + this.translationX * time;
+			this.y = this.startY + this.translationY * time;
+		}
+		
+		/**
+		 * @post Devuelve una cota de la velocidad, respecto del parámetro de tiempo, de cualquier
+		 * 		 punto de la figura respecto de su origen, por la rotación y el cambio de escala
+		 */
+		float getRelativeSpeedBound() {
+			return ( Math.abs(this.angleDelta) * Math.max(this.startScale, this.startScale + this.scaleDelta) + Math.abs(this.scaleDelta) ) * this.maxDistance;
+		}
+		
+		/* (non-Javadoc)
+		 * @see com.esferixis.geometry.plane.finite.SupportMapping#support(float, float, float[], int)
+		 */
+		@Override
+		public void support(float directionX, float directionY, float[] result, int offset) {
+			// La dirección se lleva a coordenadas locales, la escala no la cambia
+			this.backingSupportMapping.support(this.cos * directionX + this.sin * directionY, - this.sin * directionX + this.cos * directionY, result, offset);
+			
+			final float localX = result[offset];
+			final float localY = result[offset+1];
+			
+			result[offset] = this.scale * ( this.cos * localX - this.sin * localY ) + this.x;
+			result[offset+1] = this.scale * ( this.sin * localX + this.cos * localY ) + this.y;
+		}
+		
+		/* (non-Javadoc)
+		 * @see com.esferixis.geometry.plane.finite.SupportMapping#getSupportRadius()
+		 */
+		@Override
+		public float getSupportRadius() {
+			return this.backingSupportMapping.getSupportRadius() * this.scale;
+		}
+	}
+	
+	private final float time;
+	private final Vector2f contactPoint;
+	private final Vector2f normal;
+	
+	/**
+	 * @pre El punto de contacto y la normal no pueden ser nulos
+	 * @post Crea el instante de impacto con el instante, el punto de contacto y la normal especificados
+	 */
+	public TimeOfImpact(float time, Vector2f contactPoint, Vector2f normal) {
+		if ( ( contactPoint != null ) && ( normal != null ) ) {
+			this.time = time;
+			this.contactPoint = contactPoint;
+			this.normal = normal;
+		}
+		else {
+			throw new NullPointerException();
+		}
+	}
+	
+	/**
+	 * @post Devuelve el instante, como parámetro del desplazamiento entre cero y uno
+	 */
+	public float getTime() {
+		return this.time;
+	}
+	
+	/**
+	 * @post Devuelve el punto de contacto
+	 */
+	public Vector2f getContactPoint() {
+		return this.contactPoint;
+	}
+	
+	/**
+	 * @post Devuelve la normal de contacto, unitaria, desde la primera figura hacia la otra
+	 */
+	public Vector2f getNormal() {
+		return this.normal;
+	}
+	
+	/**
+	 * @pre Ningún parámetro puede ser nulo
+	 * @post Calcula el instante de impacto de la primera figura, trasladándose con el desplazamiento
+	 * 		 especificado, contra la segunda.
+	 * 		 Si son convexas usa avance conservativo con GJK, si no hace un rayo contra
+	 * 		 la dilatación perimetral.
+	 * 		 Si no hay impacto devuelve null
+	 */
+	static TimeOfImpact compute(FiniteProportionalHolomorphicShape<?> movingShape, FiniteProportionalHolomorphicShape<?> otherShape, Vector2f displacement) {
+		final SupportMapping supportMapping1 = GJKSolver.getSupportMapping(movingShape);
+		final SupportMapping supportMapping2 = GJKSolver.getSupportMapping(otherShape);
+		
+		if ( ( supportMapping1 != null ) && ( supportMapping2 != null ) ) {
+			return computeByConservativeAdvancement(supportMapping1, supportMapping2, displacement);
+		}
+		else {
+			return computeByRayCast(movingShape, otherShape, displacement);
+		}
+	}
+	
+	/**
+	 * @pre Ningún parámetro puede ser nulo, y ambas figuras tienen que ser convexas
+	 * @post Calcula el instante de impacto entre las figuras especificadas, en coordenadas locales,
+	 * 		 moviéndose entre las poses especificadas, con avance conservativo.
+	 * 		 En cada paso GJK da la distancia y la normal de separación, y se avanza lo que
+	 * 		 tarda en cerrarse esa distancia con la cota de velocidad de acercamiento: la traslación
+	 * 		 relativa sobre la normal más la velocidad de rotación y de escala por la máxima distancia
+	 * 		 de cada figura a su origen.
+	 * 		 Si no hay impacto devuelve null
+	 */
+	static TimeOfImpact compute(FiniteProportionalHolomorphicShape<?> shape1, ProportionalMatrix3f startPose1, ProportionalMatrix3f endPose1, FiniteProportionalHolomorphicShape<?> shape2, ProportionalMatrix3f startPose2, ProportionalMatrix3f endPose2) {
+		final SupportMapping supportMapping1 = GJKSolver.getSupportMapping(shape1);
+		final SupportMapping supportMapping2 = GJKSolver.getSupportMapping(shape2);
+		
+		if ( ( supportMapping1 == null ) || ( supportMapping2 == null ) ) {
+			throw new IllegalArgumentException("Non convex shape");
+		}
+		
+		final MovingSupportMapping movingSupportMapping1 = new MovingSupportMapping(shape1, supportMapping1, startPose1, endPose1);
+		final MovingSupportMapping movingSupportMapping2 = new MovingSupportMapping(shape2, supportMapping2, startPose2, endPose2);
+		
+		final GJKSolver solver = GJKSolver.getThreadSolver();
+		final float[] witnessPoints = new float[4];
+		
+		// Traslación relativa
+		final float translationX = movingSupportMapping1.translationX - movingSupportMapping2.translationX;
+		final float translationY = movingSupportMapping1.translationY - movingSupportMapping2.translationY;
+		
+		final float relativeSpeedBound = movingSupportMapping1.getRelativeSpeedBound() + movingSupportMapping2.getRelativeSpeedBound();
+		final float tolerance = RELATIVE_TOLERANCE * ( (float) Math.sqrt(translationX * translationX + translationY * translationY) + relativeSpeedBound );
+		
+		final Vector2f translationNormal = displacementNormal(translationX, translationY);
+		float normalX = translationNormal.getX();
+		float normalY = translationNormal.getY();
+		
+		float time = 0.0f;
+		
+		for ( int i = 0 ; i < MAX_ROTATING_ITERATIONS ; i++ ) {
+			movingSupportMapping1.setTime(time);
+			movingSupportMapping2.setTime(time);
+			solver.compute(movingSupportMapping1, movingSupportMapping2);
+			
+			if ( solver.hasIntersection() ) {
+				if ( time == 0.0f ) {
+					final EPASolver epaSolver = new EPASolver();
+					
+					if ( epaSolver.compute(movingSupportMapping1, movingSupportMapping2) ) {
+						epaSolver.getContactPoints(witnessPoints, 0);
+						
+						return new TimeOfImpact(0.0f, midPoint(witnessPoints), epaSolver.getNormal());
+					}
+				}
+				
+				solver.getWitnessPoints(witnessPoints, 0);
+				
+				return new TimeOfImpact(time, midPoint(witnessPoints), new Vector2f(normalX, normalY));
+			}
+			
+			final float distance = solver.getDistance();
+			solver.getWitnessPoints(witnessPoints, 0);
+			
+			final float witnessVectorX = witnessPoints[2] - witnessPoints[0];
+			final float witnessVectorY = witnessPoints[3] - witnessPoints[1];
+			final float witnessVectorLength = (float) Math.sqrt(witnessVectorX * witnessVectorX + witnessVectorY * witnessVectorY);
+			
+			if ( witnessVectorLength != 0.0f ) {
+				normalX = witnessVectorX / witnessVectorLength;
+				normalY = witnessVectorY / witnessVectorLength;
+			}
+			
+			if ( distance <= tolerance ) {
+				return new TimeOfImpact(time, midPoint(witnessPoints), new Vector2f(normalX, normalY));
+			}
+			
+			final float closingSpeedBound = translationX * normalX + translationY * normalY + relativeSpeedBound;
+			
+			if ( closingSpeedBound <= 0.0f ) {
+				return null;
+			}
+			
+			time += distance / closingSpeedBound;
+			
+			if ( time > 1.0f ) {
+				return null;
+			}
+		}
+		
+		// No convergió, se toma el último instante, que está antes del contacto
+		movingSupportMapping1.setTime(time);
+		movingSupportMapping2.setTime(time);
+		solver.compute(movingSupportMapping1, movingSupportMapping2);
+		solver.getWitnessPoints(witnessPoints, 0);
+		
+		return new TimeOfImpact(time, midPoint(witnessPoints), new Vector2f(normalX, normalY));
+	}
+	
+	/**
+	 * @post Calcula el instante de impacto entre figuras convexas con avance conservativo.
+	 * 		 En cada paso GJK da la distancia y la normal de separación, y la figura avanza
+	 * 		 lo que tarda en cerrar esa distancia a lo largo de la normal, así nunca
+	 * 		 atraviesa a la otra
+	 */
+	private static TimeOfImpact computeByConservativeAdvancement(SupportMapping supportMapping1, SupportMapping supportMapping2, Vector2f displacement) {
+		final GJKSolver solver = GJKSolver.getThreadSolver();
+		final TranslatedSupportMapping movingSupportMapping = new TranslatedSupportMapping(supportMapping1);
+		final float[] witnessPoints = new float[4];
+		
+		final float displacementX = displacement.getX();
+		final float displacementY = displacement.getY();
+		final float tolerance = RELATIVE_TOLERANCE * (float) Math.sqrt(displacementX * displacementX + displacementY * displacementY);
+		
+		float time = 0.0f;
+		
+		// Normal del último paso, se usa cuando el contacto la vuelve imprecisa
+		final Vector2f displacementNormal = displacementNormal(displacementX, displacementY);
+		float normalX = displacementNormal.getX();
+		float normalY = displacementNormal.getY();
+		
+		for ( int i = 0 ; i < MAX_ITERATIONS ; i++ ) {
+			movingSupportMapping.setDisplacement(displacementX * time, displacementY * time);
+			solver.compute(movingSupportMapping, supportMapping2);
+			
+			if ( solver.hasIntersection() ) {
+				if ( time == 0.0f ) {
+					// Ya se intersecan, la normal sale de la penetración
+					final EPASolver epaSolver = new EPASolver();
+					
+					if ( epaSolver.compute(movingSupportMapping, supportMapping2) ) {
+						epaSolver.getContactPoints(witnessPoints, 0);
+						
+						return new TimeOfImpact(0.0f, midPoint(witnessPoints), epaSolver.getNormal());
+					}
+				}
+				
+				solver.getWitnessPoints(witnessPoints, 0);
+				
+				return new TimeOfImpact(time, midPoint(witnessPoints), new Vector2f(normalX, normalY));
+			}
+			
+			final float distance = solver.getDistance();
+			solver.getWitnessPoints(witnessPoints, 0);
+			
+			final float witnessVectorX = witnessPoints[2] - witnessPoints[0];
+			final float witnessVectorY = witnessPoints[3] - witnessPoints[1];
+			final float witnessVectorLength = (float) Math.sqrt(witnessVectorX * witnessVectorX + witnessVectorY * witnessVectorY);
+			
+			if ( ( witnessVectorLength != 0.0f ) && ( ( distance > tolerance ) || ( displacementX * witnessVectorX + displacementY * witnessVectorY > 0.0f ) ) ) {
+				normalX = witnessVectorX / witnessVectorLength;
+				normalY = witnessVectorY / witnessVectorLength;
+			}
+			
+			if ( distance <= tolerance ) {
+				return new TimeOfImpact(time, midPoint(witnessPoints), new Vector2f(normalX, normalY));
+			}
+			
+			// Velocidad de acercamiento a lo largo de la normal
+			final float closingSpeed = displacementX * normalX + displacementY * normalY;
+			
+			if ( closingSpeed <= 0.0f ) {
+				return null;
+			}
+			
+			time += distance / closingSpeed;
+			
+			if ( time > 1.0f ) {
+				return null;
+			}
+		}
+		
+		// No convergió, se toma el último instante, que está antes del contacto
+		movingSupportMapping.setDisplacement(displacementX * time, displacementY * time);
+		solver.compute(movingSupportMapping, supportMapping2);
+		solver.getWitnessPoints(witnessPoints, 0);
+		
+		return new TimeOfImpact(time, midPoint(witnessPoints), new Vector2f(normalX, normalY));
+	}
+	
+	/**
+	 * @post Calcula el instante de impacto con un rayo desde el origen, en la dirección
+	 * 		 del desplazamiento, contra la dilatación perimetral de la figura inmóvil
+	 * 		 con la opuesta de la que se mueve
+	 */
+	private static TimeOfImpact computeByRayCast(FiniteProportionalHolomorphicShape<?> movingShape, FiniteProportionalHolomorphicShape<?> otherShape, Vector2f displacement) {
+		if ( movingShape.hasIntersection(otherShape) ) {
+			return new TimeOfImpact(0.0f, movingShape.nearestPointBetweenShapePerimeters(otherShape).getPoint(), displacementNormal(displacement.getX(), displacement.getY()));
+		}
+		else if ( !displacement.equals(Vector2f.ZERO) ) {
+			final FiniteProportionalHolomorphicShape<?> dilation = otherShape.perimetralDilate(movingShape.opposite());
+			final float time = dilation.getRayIntersectionParameter(new Line(Vector2f.ZERO, displacement));
+			
+			if ( ( time >= 0.0f ) && ( time <= 1.0f ) ) {
+				final Vector2f impactDisplacement = displacement.scale(time);
+				final Vector2f contactPoint = movingShape.translate(impactDisplacement).nearestPointBetweenShapePerimeters(otherShape).getPoint();
+				
+				// Normal de la dilatación en el punto de impacto
+				final NearestNormal nearestNormal = dilation.translate(impactDisplacement.opposite()).nearestNormalToOrigin();
+				Vector2f normal;
+				
+				if ( nearestNormal != null ) {
+					normal = nearestNormal.getValue().normalise();
+					
+					if ( normal.dot(displacement) < 0.0f ) {
+						normal = normal.opposite();
+					}
+				}
+				else {
+					normal = displacementNormal(displacement.getX(), displacement.getY());
+				}
+				
+				return new TimeOfImpact(time, contactPoint, normal);
+			}
+			else {
+				return null;
+			}
+		}
+		else {
+			return null;
+		}
+	}
+	
+	/**
+	 * @post Devuelve el punto medio entre los puntos testigo especificados
+	 */
+	private static Vector2f midPoint(float[] witnessPoints) {
+		return new Vector2f( ( witnessPoints[0] + witnessPoints[2] ) * 0.5f, ( witnessPoints[1] + witnessPoints[3] ) * 0.5f );
+	}
+	
+	/**
+	 * @post Devuelve la dirección del desplazamiento como normal, si es nulo devuelve (1, 0)
+	 */
+	private static Vector2f displacementNormal(float displacementX, float displacementY) {
+		final float length = (float) Math.sqrt(displacementX * displacementX + displacementY * displacementY);
+		
+		if ( length != 0.0f ) {
+			return new Vector2f(displacementX / length, displacementY / length);
+		}
+		else {
+			return new Vector2f(1.0f, 0.0f);
+		}
+	}
+}
@@ -0,0 +1,349 @@
+/**
+ * Copyright (c) 2017 Ariel Favio Carrizo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'esferixis' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.esferixis.geometry.plane;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.esferixis.geometry.plane.exception.ProportionalHolomorphicShapeParseException;
+
+/**
+ * @author ariel
+ *
+ * Compara ShapeStreamParser con Shape.parse y Float.parseFloat.
+ * Verifica que los números den exactamente los mismos bits que Float.parseFloat, incluyendo
+ * puntos medios entre floats, subnormales, mantisas de más de 17 dígitos y exponentes
+ * en los límites de la conversión directa, que las figuras de una secuencia larga sean
+ * iguales a las de Shape.parse con cada origen, y que las entradas mal formadas
+ * den el error en la posición esperada
+ */
+public class ShapeStreamParserTest {
+	private static final int RANDOM_NUMBERS = 200000;
+	private static final int RANDOM_SHAPES = 20000;
+	
+	private static final String[] NUMBER_EDGE_CASES = {
+		"0", "-0", "+0.0", "-0.0", "0e100", ".5", "5.", "+3", "1E+2", "1e0",
+		"1e22", "1e23", "1e-22", "1e-23", "-1e22", "4.5e15", "1e38", "1e39", "1e-50", "1e1000", "1e-1000",
+		"9007199254740992", "9007199254740993", "9007199254740993e-10", "18014398509481985",
+		"0.10000000000000000555", "12345678901234567890e-10", "123456789012345678901234567890",
+		"3.4028235e38", "3.4028236e38", "3.40282357e38", "3.4028235677973366e38",
+		"1.4e-45", "1.401298464324817e-45", "1e-46", "7.006492321624085e-46", "7.006492321624086e-46",
+		"7.00649232162408535461864791644958065640130970938257885878534141944895541342930300743319094181060791015625e-46",
+		"1.1754942e-38", "1.17549435E-38", "1.1754943e-38", "2.350988561514728583455765982071533026645717985517980855365926236850006129930346077117064851336181163787841796875e-38",
+		"16777217", "16777219", "33554435", "0.30000001192092896", "1.00000005960464477539062", "1.0000000596046447753906250001",
+		"NaN", "Infinity", "-Infinity", "0x1.8p1", "1f", "2d"
+	};
+	
+	private static final String[][] MALFORMED_CASES = {
+		{ "Point( (1, 2) ", "Expected ')' at offset 14" },
+		{ "Point( (1, x) )", "Invalid number at offset 11" },
+		{ "Polygon( (1, 2) )", "Unknown shape 'Polygon' at offset 0" },
+		{ "Point( (1 2) )", "Expected ',' at offset 10" },
+		{ "Point( (1, 2) ) Circle( Circumference( (0, 0), 1 ) )", "Expected Point at offset 16" },
+		{ "Circle( Point( (0, 0) ) )", "Expected Circumference at offset 8" },
+		{ "Point( (1, 2) ),", "Expected shape at offset 15" },
+		{ "Circumference( (0, 0), )", "Expected number at offset 23" },
+		{ "Point( (1e, 2) )", "Invalid number at offset 8" },
+		{ "LineSegment( (0, 0) (1, 1) )", "Expected ',' at offset 20" }
+	};
+	
+	/**
+	 * @post Devuelve un número aleatorio como cadena, con hasta veinte dígitos
+	 * 		 y exponente opcional
+	 */
+	private static String randomNumber(Random random) {
+		final StringBuilder builder = new StringBuilder();
+		
+		if ( random.nextBoolean() ) {
+			builder.append('-');
+		}
+		
+		final int digits = 1 + random.nextInt(20);
+		final int pointPosition = random.nextInt(digits + 1);
+		
+		for ( int i = 0 ; i < digits ; i++ ) {
+			if ( i == pointPosition ) {
+				builder.append('.');
+			}
+			builder.append((char) ( '0' + random.nextInt(10) ));
+		}
+		
+		if ( random.nextBoolean() ) {
+			builder.append('e').append(random.nextInt(90) - 50);
+		}
+		
+		return builder.toString();
+	}
+	
+	/**
+	 * @post Agrega a la lista especificada los puntos medios entre el float especificado y el siguiente:
+	 * 		 el double más corto, que puede no ser exactamente el punto medio, el punto medio
+	 * 		 exacto, y el punto medio desplazado hacia cada lado en el vigésimo dígito
+	 */
+	private static void addMidpoints(float value, List<String> numbers) {
+		final BigDecimal midpoint = new BigDecimal(value).add(new BigDecimal(Math.nextUp(value))).divide(new BigDecimal(2));
+		final BigDecimal shift = midpoint.movePointLeft(20);
+		
+		numbers.add(Double.toString(midpoint.doubleValue()));
+		numbers.add(midpoint.toString());
+		numbers.add(midpoint.add(shift).toString());
+		numbers.add(midpoint.subtract(shift).toString());
+	}
+	
+	/**
+	 * @post Devuelve el texto de una figura aleatoria, con los números finitos especificados.
+	 * 		 Las rectas no son finitas, así que sólo se generan fuera de los grupos
+	 */
+	private static String randomShapeText(Random random, String[] numbers, int depth) {
+		final String x = numbers[random.nextInt(numbers.length)];
+		final String y = numbers[random.nextInt(numbers.length)];
+		final String radius = Float.toString(0.1f + random.nextFloat());
+		
+		switch ( random.nextInt( ( depth == 0 ) ? 9 : ( ( depth < 2 ) ? 8 : 7 ) ) ) {
+		case 0:
+			return "Point( (" + x + ", " + y + ") )";
+		case 1:
+			return "LineSegment( (" + x + ", " + y + "), (" + y + ", " + x + ") )";
+		case 2:
+			return "Circumference( (" + x + ", " + y + "), " + radius + " )";
+		case 3:
+			return "Circle( Circumference( (" + x + ", " + y + "), " + radius + " ) )";
+		case 4:
+			return "CircumferenceSegment( Circumference( (" + x + ", " + y + "), " + radius + " ), [-" + radius + ", " + radius + "] )";
+		case 5:
+			return "SolidCapsule( LineSegment( (" + x + ", " + y + "), (" + y + ", " + x + ") ), " + radius + " )";
+		case 6:
+			return "ConvexPolygon( (0, 0), (" + radius + ", 0), (0, " + radius + ") )";
+		case 7:
+			return "ProportionalHolomorphicShapeGroup( " + randomShapeText(random, numbers, depth + 1) + ",\n\t" + randomShapeText(random, numbers, depth + 1) + " )";
+		default:
+			return "Line( (" + x + ", " + y + "), (1, " + radius + ") )";
+		}
+	}
+	
+	/**
+	 * @post Devuelve el texto de las figuras leídas de la cadena especificada,
+	 * 		 con el origen especificado
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private static List<String> parseWithStream(String text, int source) throws IOException {
+		final List<String> shapes = new ArrayList<String>();
+		final ShapeStreamParser.Handler handler = new ShapeStreamParser.Handler() {
+
+			@Override
+			public boolean process(Shape shape) {
+				shapes.add(shape.toString());
+				return true;
+			}
+			
+		};
+		
+		final ShapeStreamParser parser = new ShapeStreamParser();
+		
+		switch ( source ) {
+		case 0:
+			parser.parse(new StringReader(text), Shape.class, handler);
+			break;
+		case 1:
+			// Buffer con array, desplazado dentro del array
+			final char[] chars = ( "##" + text ).toCharArray();
+			parser.parse(CharBuffer.wrap(chars, 2, text.length()).slice(), Shape.class, handler);
+			break;
+		case 2:
+			// Buffer sin array
+			parser.parse(CharBuffer.wrap(text), Shape.class, handler);
+			break;
+		default:
+			final File file = File.createTempFile("shapes", ".txt");
+			
+			try {
+				final OutputStream outputStream = new FileOutputStream(file);
+				try {
+					outputStream.write(text.getBytes("US-ASCII"));
+				}
+				finally {
+					outputStream.close();
+				}
+				
+				parser.parse(file, Shape.class, handler);
+			}
+			finally {
+				file.delete();
+			}
+		}
+		
+		return shapes;
+	}
+	
+	/**
+	 * @post Devuelve el mensaje del error de leer la cadena especificada con el origen
+	 * 		 especificado, o null si no hay error
+	 */
+	private static String parseError(String text, int source) throws IOException {
+		try {
+			if ( text.startsWith("Point( (1, 2) ) Circle") ) {
+				new ShapeStreamParser().parse(CharBuffer.wrap(text), com.esferixis.geometry.plane.finite.Point.class, new ShapeStreamParser.Handler<Shape<?>>() {
+
+					@Override
+					public boolean process(Shape<?> shape) {
+						return true;
+					}
+					
+				});
+			}
+			else {
+				parseWithStream(text, source);
+			}
+			
+			return null;
+		}
+		catch (ProportionalHolomorphicShapeParseException e) {
+			return e.getMessage();
+		}
+	}
+	
+	public static void main(String[] args) throws IOException {
+		final Random random = new Random(25);
+		int failures = 0;
+		
+		// Números
+		final List<String> numbers = new ArrayList<String>();
+		for ( String eachNumber : NUMBER_EDGE_CASES ) {
+			numbers.add(eachNumber);
+		}
+		
+		for ( int i = 0 ; i < RANDOM_NUMBERS ; i++ ) {
+			numbers.add(randomNumber(random));
+			numbers.add(Float.toString(Float.intBitsToFloat(random.nextInt(0x7F800000))));
+			
+			if ( i % 4 == 0 ) {
+				addMidpoints(Float.intBitsToFloat(random.nextInt(0x7F7FFFFF)), numbers);
+			}
+		}
+		
+		for ( int i = 0 ; i < 1000 ; i++ ) {
+			numbers.add(Float.toString(Float.intBitsToFloat(random.nextInt(0x00800000))));
+		}
+		
+		final StringBuilder numbersText = new StringBuilder();
+		for ( String eachNumber : numbers ) {
+			numbersText.append("Point( (").append(eachNumber).append(", 1) )\n");
+		}
+		
+		final List<String> parsedPoints = parseWithStream(numbersText.toString(), 1);
+		
+		if ( parsedPoints.size() != numbers.size() ) {
+			System.out.println("Parsed " + parsedPoints.size() + " points of " + numbers.size());
+			failures++;
+		}
+		else {
+			for ( int i = 0 ; i < numbers.size() ; i++ ) {
+				final String expected = new com.esferixis.geometry.plane.finite.Point(new com.esferixis.math.Vector2f(Float.parseFloat(numbers.get(i)), 1.0f)).toString();
+				
+				if ( !parsedPoints.get(i).equals(expected) ) {
+					if ( failures++ < 10 ) {
+						System.out.println("Number " + numbers.get(i) + ": " + parsedPoints.get(i) + " != " + expected);
+					}
+				}
+			}
+		}
+		
+		// Figuras, con todos los orígenes
+		final List<String> finiteNumbers = new ArrayList<String>();
+		for ( int i = 0 ; finiteNumbers.size() < 2000 ; i++ ) {
+			final float value = Float.parseFloat(numbers.get(i));
+			
+			if ( !Float.isNaN(value) && !Float.isInfinite(value) ) {
+				finiteNumbers.add(numbers.get(i));
+			}
+		}
+		
+		final String[] shapeNumbers = finiteNumbers.toArray(new String[0]);
+		final StringBuilder shapesText = new StringBuilder();
+		final List<String> expectedShapes = new ArrayList<String>();
+		
+		for ( int i = 0 ; i < RANDOM_SHAPES ; i++ ) {
+			final String shapeText = randomShapeText(random, shapeNumbers, 0);
+			
+			expectedShapes.add(Shape.parse(shapeText, Shape.class).toString());
+			shapesText.append(shapeText).append( ( i % 3 == 0 ) ? "\r\n" : " " );
+		}
+		
+		for ( int source = 0 ; source < 4 ; source++ ) {
+			final List<String> parsedShapes = parseWithStream(shapesText.toString(), source);
+			
+			if ( !parsedShapes.equals(expectedShapes) ) {
+				System.out.println("Shapes differ from Shape.parse with source " + source);
+				failures++;
+			}
+		}
+		
+		// Errores, también después del primer bloque
+		final StringBuilder prefix = new StringBuilder();
+		while ( prefix.length() < 100000 ) {
+			prefix.append("Point( (1, 2) )\n");
+		}
+		
+		for ( String[] eachCase : MALFORMED_CASES ) {
+			for ( int source = 0 ; source < 4 ; source++ ) {
+				final String message = parseError(eachCase[0], source);
+				
+				if ( !eachCase[1].equals(message) ) {
+					System.out.println("Malformed " + eachCase[0] + " with source " + source + ": " + message + ", expected " + eachCase[1]);
+					failures++;
+				}
+			}
+		}
+		
+		final int malformedOffset = prefix.length() + 14;
+		for ( int source = 0 ; source < 4 ; source++ ) {
+			final String message = parseError(prefix + "Point( (1, 2) ", source);
+			
+			if ( !( "Expected ')' at offset " + malformedOffset ).equals(message) ) {
+				System.out.println("Malformed after the first block with source " + source + ": " + message);
+				failures++;
+			}
+		}
+		
+		System.out.println(numbers.size() + " numbers, " + RANDOM_SHAPES + " shapes");
+		System.out.println( ( failures == 0 ) ? "OK" : "FAILED: " + failures + " mismatches");
+	}
+}
@@ -0,0 +1,141 @@
+/**
+ * Copyright (c) 2017 Ariel Favio Carrizo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'esferixis' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.esferixis.geometry.plane.finite;
+
+import java.util.Random;
+
+import com.esferixis.math.Vector2f;
+import com.esferixis.math.intervalarithmetic.FloatClosedInterval;
+
+/**
+ * @author ariel
+ *
+ */
+public class BoundingVolumeTest {
+	private static int failures = 0;
+	
+	private static void check(String name, boolean condition) {
+		System.out.println( ( condition ? "OK     " : "FAILED " ) + name);
+		
+		if ( !condition ) {
+			failures++;
+		}
+	}
+	
+	private static boolean equals(BoundingBox boundingBox, float minX, float minY, float maxX, float maxY) {
+		final float epsilon = 1e-5f;
+		
+		return ( Math.abs(boundingBox.getVertex11().getX() - minX) <= epsilon ) && ( Math.abs(boundingBox.getVertex11().getY() - minY) <= epsilon ) &&
+				( Math.abs(boundingBox.getVertex22().getX() - maxX) <= epsilon ) && ( Math.abs(boundingBox.getVertex22().getY() - maxY) <= epsilon );
+	}
+	
+	private static FiniteProportionalHolomorphicShape<?> randomShape(Random random, float scale) {
+		final Vector2f center = new Vector2f( ( random.nextFloat() - 0.5f ) * scale, ( random.nextFloat() - 0.5f ) * scale);
+		final float size = random.nextFloat() * 2.0f + 0.001f;
+		
+		switch ( random.nextInt(6) ) {
+		case 0:
+			return new Point(center);
+		case 1:
+			return new LineSegment(center, center.add(new Vector2f( ( random.nextFloat() - 0.5f ) * size, ( random.nextFloat() - 0.5f ) * size)));
+		case 2:
+			return new Circumference(center, size);
+		case 3:
+			return new Circle(new Circumference(center, size));
+		case 4:
+			final float startAngle = ( random.nextFloat() - 0.5f ) * 2.0f * (float) Math.PI;
+			
+			return new CircumferenceSegment(new Circumference(center, size), new FloatClosedInterval(startAngle, startAngle + random.nextFloat() * 2.0f * (float) Math.PI));
+		default:
+			return new ConvexPolygon(
+					center,
+					center.add(new Vector2f(size, 0.0f)),
+					center.add(new Vector2f(size, size)),
+					center.add(new Vector2f(0.0f, size))
+			);
+		}
+	}
+	
+	public static void main(String[] args) {
+		final BoundingBox box1 = new BoundingBox(new Vector2f(-1.0f, 2.0f), new Vector2f(3.0f, 4.0f));
+		final BoundingBox box2 = new BoundingBox(new Vector2f(0.0f, -5.0f), new Vector2f(7.0f, 1.0f));
+		
+		check("BoundingBox.unionBoundingBox", equals(box1.unionBoundingBox(box2), -1.0f, -5.0f, 7.0f, 4.0f) && equals(box2.unionBoundingBox(box1), -1.0f, -5.0f, 7.0f, 4.0f));
+		
+		final ConvexPolygon polygon = new ConvexPolygon(new Vector2f(1.0f, -2.0f), new Vector2f(4.0f, 1.0f), new Vector2f(2.0f, 5.0f), new Vector2f(-3.0f, 0.0f));
+		
+		check("ConvexPolygon.boundingBox", equals(polygon.boundingBox(), -3.0f, -2.0f, 4.0f, 5.0f));
+		
+		final ConvexPolygon translatedPolygon = polygon.translate(new Vector2f(10.0f, -20.0f));
+		
+		check("ConvexPolygon.translate", translatedPolygon.getVertices().get(0).equals(new Vector2f(11.0f, -22.0f)) && equals(translatedPolygon.boundingBox(), 7.0f, -22.0f, 14.0f, -15.0f));
+		
+		final Circumference circumference = new Circumference(new Vector2f(1.0f, 1.0f), 2.0f);
+		
+		check("CircumferenceSegment.boundingBox, first quadrant", equals(new CircumferenceSegment(circumference, new FloatClosedInterval(0.1f, 1.4f)).boundingBox(),
+				1.0f + 2.0f * (float) Math.cos(1.4f), 1.0f + 2.0f * (float) Math.sin(0.1f), 1.0f + 2.0f * (float) Math.cos(0.1f), 1.0f + 2.0f * (float) Math.sin(1.4f)));
+		check("CircumferenceSegment.boundingBox, crossing pi / 2", equals(new CircumferenceSegment(circumference, new FloatClosedInterval(1.0f, 2.0f)).boundingBox(),
+				1.0f + 2.0f * (float) Math.cos(2.0f), 1.0f + 2.0f * (float) Math.sin(1.0f), 1.0f + 2.0f * (float) Math.cos(1.0f), 3.0f));
+		
+		final Random random = new Random(1);
+		int mismatches = 0;
+		
+		for ( int i = 0 ; i < 200000 ; i++ ) {
+			final float scale = ( i % 2 == 0 ) ? 4.0f : 4000.0f;
+			final FiniteProportionalHolomorphicShape<?> shape1 = randomShape(random, scale);
+			final FiniteProportionalHolomorphicShape<?> shape2;
+			
+			if ( i % 2 == 0 ) {
+				shape2 = randomShape(random, scale);
+			}
+			else {
+				final Vector2f offset = new Vector2f( ( random.nextFloat() - 0.5f ) * 4.0f, ( random.nextFloat() - 0.5f ) * 4.0f);
+				shape2 = randomShape(random, 4.0f).translate(shape1.boundingBox().getCenter().add(offset));
+			}
+			
+			FiniteProportionalHolomorphicShape.setBoundingVolumePrefilterEnabled(false);
+			final boolean exact = shape1.hasIntersection(shape2);
+			FiniteProportionalHolomorphicShape.setBoundingVolumePrefilterEnabled(true);
+			
+			if ( exact && ( !FiniteProportionalHolomorphicShape.boundingVolumesIntersect(shape1, shape2) || !shape1.hasIntersection(shape2) ) ) {
+				if ( mismatches++ < 10 ) {
+					System.out.println("Prefilter rejects intersecting pair: " + shape1 + ", " + shape2);
+				}
+			}
+		}
+		
+		check("Bounding volume prefilter never rejects intersecting pairs", mismatches == 0);
+		
+		System.out.println(failures == 0 ? "All checks passed" : failures + " checks failed");
+	}
+}
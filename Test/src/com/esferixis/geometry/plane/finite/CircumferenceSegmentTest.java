@@ -0,0 +1,166 @@
+/**
+ * Copyright (c) 2017 Ariel Favio Carrizo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'esferixis' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.esferixis.geometry.plane.finite;
+
+import java.util.Random;
+
+import com.esferixis.geometry.Geometry;
+import com.esferixis.math.Vector2f;
+import com.esferixis.math.intervalarithmetic.FloatClosedInterval;
+
+/**
+ * @author ariel
+ *
+ * Compara la pertenencia de direcciones a los arcos, con los extremos precalculados,
+ * con Geometry.containsAngle, incluyendo arcos de longitud nula y arcos tan cortos
+ * que los extremos dan la misma dirección
+ */
+public class CircumferenceSegmentTest {
+	private static final int ARCS = 20000;
+	private static final int DIRECTIONS_PER_ARC = 20;
+	
+	/**
+	 * Distancia angular mínima a los extremos de las direcciones aleatorias,
+	 * para no depender del redondeo en el borde
+	 */
+	private static final float BOUNDARY_MARGIN = 1e-3f;
+	
+	private static int failures = 0;
+	
+	private static void check(String name, boolean condition) {
+		System.out.println( ( condition ? "OK     " : "FAILED " ) + name);
+		
+		if ( !condition ) {
+			failures++;
+		}
+	}
+	
+	/**
+	 * @post Devuelve la distancia angular entre los ángulos especificados
+	 */
+	private static float angularDistance(float angle1, float angle2) {
+		return (float) Math.abs(Math.IEEEremainder(angle1 - angle2, 2.0 * Math.PI));
+	}
+	
+	public static void main(String[] args) {
+		final Circumference unitCircumference = new Circumference(Vector2f.ZERO, 1.0f);
+		
+		// Arcos de longitud nula en las direcciones de los ejes
+		final float[] axisAngles = { 0.0f, (float) Math.PI * 0.5f, (float) Math.PI, (float) -Math.PI * 0.5f, 0.3f };
+		for ( float eachAngle : axisAngles ) {
+			final CircumferenceSegment arc = new CircumferenceSegment(unitCircumference, new FloatClosedInterval(eachAngle, eachAngle));
+			final Vector2f limitPoint = arc.getLimitPoint1();
+			
+			check("Zero-length arc at " + eachAngle + " contains its direction", arc.containsDirection(limitPoint.getX(), limitPoint.getY()));
+			check("Zero-length arc at " + eachAngle + " rejects the opposite direction", !arc.containsDirection(-limitPoint.getX(), -limitPoint.getY()));
+			check("Zero-length arc at " + eachAngle + " does not contain the opposite point", !arc.contains(limitPoint.opposite()));
+			
+			final BoundingBox boundingBox = arc.boundingBox();
+			check("Zero-length arc at " + eachAngle + " has a point bounding box",
+					( boundingBox.getVertex22().getX() - boundingBox.getVertex11().getX() <= 1e-6f ) &&
+					( boundingBox.getVertex22().getY() - boundingBox.getVertex11().getY() <= 1e-6f )
+			);
+			check("Zero-length arc at " + eachAngle + " does not intersect the opposite point", !arc.hasIntersection(new Point(limitPoint.opposite())));
+		}
+		
+		// Arco tan corto que los extremos tienen la misma dirección
+		final CircumferenceSegment tinyArc = new CircumferenceSegment(unitCircumference, new FloatClosedInterval(0.0f, Math.ulp(0.0f)));
+		check("Tiny arc rejects the opposite direction", !tinyArc.containsDirection(-1.0f, 0.0f));
+		check("Tiny arc has a point bounding box", tinyArc.boundingBox().getVertex11().getX() > 0.5f);
+		
+		// Arcos aleatorios
+		final Random random = new Random(14);
+		int mismatches = 0;
+		
+		for ( int i = 0 ; i < ARCS ; i++ ) {
+			final float startAngle = ( random.nextFloat() - 0.5f ) * 4.0f * (float) Math.PI;
+			final float length;
+			
+			switch ( random.nextInt(4) ) {
+			case 0:
+				length = 0.0f;
+				break;
+			case 1:
+				length = random.nextFloat() * 1e-6f;
+				break;
+			case 2:
+				length = random.nextFloat() * (float) Math.PI;
+				break;
+			default:
+				length = random.nextFloat() * 2.0f * (float) Math.PI;
+			}
+			
+			final FloatClosedInterval angleInterval = new FloatClosedInterval(startAngle, startAngle + length);
+			final CircumferenceSegment arc = new CircumferenceSegment(unitCircumference, angleInterval);
+			
+			for ( int j = 0 ; j < DIRECTIONS_PER_ARC ; j++ ) {
+				final float angle = ( random.nextFloat() - 0.5f ) * 2.0f * (float) Math.PI;
+				
+				if ( ( angularDistance(angle, angleInterval.getMin()) > BOUNDARY_MARGIN ) && ( angularDistance(angle, angleInterval.getMax()) > BOUNDARY_MARGIN ) ) {
+					final float scale = 0.01f + random.nextFloat() * 100.0f;
+					
+					if ( arc.containsDirection((float) Math.cos(angle) * scale, (float) Math.sin(angle) * scale) != Geometry.containsAngle(angleInterval, angle) ) {
+						if ( mismatches++ < 10 ) {
+							System.out.println("Direction " + angle + " in " + angleInterval);
+						}
+					}
+				}
+			}
+			
+			// La dirección opuesta al inicio sólo puede estar en arcos de al menos media circunferencia
+			if ( length < (float) Math.PI - BOUNDARY_MARGIN ) {
+				if ( arc.containsDirection(-(float) Math.cos(startAngle), -(float) Math.sin(startAngle)) ) {
+					if ( mismatches++ < 10 ) {
+						System.out.println("Opposite of the start in " + angleInterval);
+					}
+				}
+			}
+		}
+		
+		check("Random directions agree with Geometry.containsAngle", mismatches == 0);
+		
+		// Cero con signo, equals los considera iguales y el hash tiene que coincidir
+		final CircumferenceSegment positiveZeroArc = new CircumferenceSegment(unitCircumference, new FloatClosedInterval(0.0f, 1.0f));
+		final CircumferenceSegment negativeZeroArc = new CircumferenceSegment(unitCircumference, new FloatClosedInterval(-0.0f, 1.0f));
+		
+		check("Arcs starting at 0.0 and -0.0 are equal", positiveZeroArc.equals(negativeZeroArc) && negativeZeroArc.equals(positiveZeroArc));
+		check("Arcs starting at 0.0 and -0.0 have the same hash", positiveZeroArc.hashCode() == negativeZeroArc.hashCode());
+		
+		final CircumferenceSegment positiveZeroEndArc = new CircumferenceSegment(unitCircumference, new FloatClosedInterval(-1.0f, 0.0f));
+		final CircumferenceSegment negativeZeroEndArc = new CircumferenceSegment(unitCircumference, new FloatClosedInterval(-1.0f, -0.0f));
+		
+		check("Arcs ending at 0.0 and -0.0 are equal and have the same hash", positiveZeroEndArc.equals(negativeZeroEndArc) && ( positiveZeroEndArc.hashCode() == negativeZeroEndArc.hashCode() ));
+		
+		System.out.println( ( failures == 0 ) ? "All checks passed" : failures + " checks failed");
+	}
+}
@@ -0,0 +1,155 @@
+/**
+ * Copyright (c) 2017 Ariel Favio Carrizo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'esferixis' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.esferixis.geometry.plane.finite;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import com.esferixis.math.Vector2f;
+
+/**
+ * @author ariel
+ *
+ * Compara ConvexPolygon.nearestPoints con una referencia por fuerza bruta en
+ * doble precisión, que prueba cada vértice contra cada arista del otro polígono,
+ * sobre pares de polígonos convexos aleatorios disjuntos
+ */
+public class ConvexPolygonNearestPointsTest {
+	private static final int PAIRS = 30000;
+	
+	/**
+	 * @post Devuelve la distancia en doble precisión del punto especificado al segmento especificado
+	 */
+	private static double pointSegmentDistance(double px, double py, double ax, double ay, double bx, double by) {
+		final double abx = bx - ax, aby = by - ay;
+		final double lengthSquared = abx * abx + aby * aby;
+		double t = ( lengthSquared != 0.0 ) ? ( ( px - ax ) * abx + ( py - ay ) * aby ) / lengthSquared : 0.0;
+		t = Math.max(0.0, Math.min(1.0, t));
+		
+		return Math.hypot(ax + abx * t - px, ay + aby * t - py);
+	}
+	
+	/**
+	 * @post Devuelve la distancia en doble precisión del punto especificado al perímetro del polígono especificado
+	 */
+	private static double pointPerimeterDistance(double px, double py, ConvexPolygon polygon) {
+		double result = Double.POSITIVE_INFINITY;
+		
+		for ( LineSegment eachEdge : polygon.getPerimetralLines() ) {
+			result = Math.min(result, pointSegmentDistance(px, py, eachEdge.getPoint1().getX(), eachEdge.getPoint1().getY(), eachEdge.getPoint2().getX(), eachEdge.getPoint2().getY()));
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * @post Devuelve la distancia en doble precisión entre los polígonos disjuntos especificados
+	 */
+	private static double referenceDistance(ConvexPolygon polygon1, ConvexPolygon polygon2) {
+		double result = Double.POSITIVE_INFINITY;
+		
+		for ( Vector2f eachVertex : polygon1.getVertices() ) {
+			result = Math.min(result, pointPerimeterDistance(eachVertex.getX(), eachVertex.getY(), polygon2));
+		}
+		
+		for ( Vector2f eachVertex : polygon2.getVertices() ) {
+			result = Math.min(result, pointPerimeterDistance(eachVertex.getX(), eachVertex.getY(), polygon1));
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * @post Devuelve un polígono convexo aleatorio, con los vértices sobre una circunferencia
+	 * 		 en sentido antihorario
+	 */
+	private static ConvexPolygon randomPolygon(Random random, float centerX, float centerY) {
+		final int vertexCount = 3 + random.nextInt( ( random.nextInt(4) == 0 ) ? 60 : 8 );
+		final float radius = 0.5f + random.nextFloat() * 3.0f;
+		final float[] angles = new float[vertexCount];
+		
+		for ( int i = 0 ; i < vertexCount ; i++ ) {
+			angles[i] = random.nextFloat() * 2.0f * (float) Math.PI;
+		}
+		Arrays.sort(angles);
+		
+		final Vector2f[] vertices = new Vector2f[vertexCount];
+		for ( int i = 0 ; i < vertexCount ; i++ ) {
+			vertices[i] = new Vector2f(centerX + radius * (float) Math.cos(angles[i]), centerY + radius * (float) Math.sin(angles[i]));
+		}
+		
+		return new ConvexPolygon(vertices);
+	}
+	
+	public static void main(String[] args) {
+		final Random random = new Random(20);
+		final float[] result = new float[4];
+		
+		double maxError = 0.0;
+		double maxWitnessError = 0.0;
+		int pairs = 0;
+		int failures = 0;
+		
+		for ( int i = 0 ; i < PAIRS ; i++ ) {
+			final ConvexPolygon polygon1 = randomPolygon(random, 0.0f, 0.0f);
+			final ConvexPolygon polygon2 = randomPolygon(random, ( random.nextFloat() - 0.5f ) * 16.0f, ( random.nextFloat() - 0.5f ) * 16.0f);
+			
+			if ( !polygon1.hasIntersectionBySeparatingAxis(polygon2) ) {
+				final float distance = ConvexPolygon.nearestPoints(polygon1, polygon2, result, 0);
+				final double reference = referenceDistance(polygon1, polygon2);
+				
+				final double tolerance = 1e-5;
+				final double error = Math.abs(distance - reference);
+				
+				// Los puntos testigo tienen que estar en sus perímetros y a la distancia devuelta
+				final double witnessError = Math.max(
+						Math.max(pointPerimeterDistance(result[0], result[1], polygon1), pointPerimeterDistance(result[2], result[3], polygon2)),
+						Math.abs(Math.hypot(result[2] - result[0], result[3] - result[1]) - distance)
+				);
+				
+				maxError = Math.max(maxError, error);
+				maxWitnessError = Math.max(maxWitnessError, witnessError);
+				pairs++;
+				
+				if ( ( error > tolerance ) || ( witnessError > tolerance ) ) {
+					if ( failures++ < 10 ) {
+						System.out.println("Mismatch: " + polygon1 + ", " + polygon2 + ": distance " + distance + ", reference " + reference);
+					}
+				}
+			}
+		}
+		
+		System.out.println(pairs + " disjoint pairs, max distance error " + maxError + ", max witness error " + maxWitnessError);
+		System.out.println( ( failures == 0 ) ? "OK" : "FAILED: " + failures + " mismatches");
+	}
+}
@@ -0,0 +1,318 @@
+/**
+ * Copyright (c) 2017 Ariel Favio Carrizo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'esferixis' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.esferixis.geometry.plane.finite;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import com.esferixis.math.Vector2f;
+
+/**
+ * @author ariel
+ *
+ * Compara la profundidad de penetración de EPASolver con una referencia por fuerza bruta:
+ * la profundidad es el mínimo, entre las direcciones n, del solapamiento h1(n) + h2(-n)
+ * de las funciones de soporte, y se evalúa en muchas direcciones y en las normales de las
+ * aristas de los polígonos y los segmentos.
+ * También verifica que la normal dé ese solapamiento, que trasladar la primera figura por la
+ * normal opuesta multiplicada por la profundidad las separe, y los casos de discos, cuya
+ * función de soporte es suave y hace que EPA agote las iteraciones.
+ * Sin converger la profundidad es una cota inferior, la distancia a la arista más cercana
+ * del polígono expandido
+ */
+public class EPASolverTest {
+	private static final int PAIRS = 20000;
+	
+	/**
+	 * Cantidad de direcciones de la referencia
+	 */
+	private static final int DIRECTIONS = 2048;
+	
+	/**
+	 * Cantidad máxima de iteraciones de EPASolver
+	 */
+	private static final int MAX_ITERATIONS = 64;
+	
+	private static final float TOLERANCE = 1e-3f;
+	
+	/**
+	 * Cota inferior de la profundidad relativa a la real cuando EPA agota las iteraciones
+	 * con discos, por el polígono inscripto de MAX_ITERATIONS + 3 vértices
+	 */
+	private static final float LIMIT_MIN_DEPTH_RATIO = 0.995f;
+	
+	private static int failures = 0;
+	
+	private static void check(String name, boolean condition) {
+		System.out.println( ( condition ? "OK     " : "FAILED " ) + name);
+		
+		if ( !condition ) {
+			failures++;
+		}
+	}
+	
+	/**
+	 * @post Devuelve un disco como núcleo de la función de soporte, sin radio
+	 */
+	private static SupportMapping disk(final float centerX, final float centerY, final float radius) {
+		return new SupportMapping() {
+
+			@Override
+			public void support(float directionX, float directionY, float[] result, int offset) {
+				final float length = (float) Math.sqrt(directionX * directionX + directionY * directionY);
+				
+				result[offset] = centerX + radius * directionX / length;
+				result[offset+1] = centerY + radius * directionY / length;
+			}
+
+			@Override
+			public float getSupportRadius() {
+				return 0.0f;
+			}
+			
+		};
+	}
+	
+	private static Vector2f randomVector(Random random, float range) {
+		return new Vector2f(( random.nextFloat() * 2.0f - 1.0f ) * range, ( random.nextFloat() * 2.0f - 1.0f ) * range);
+	}
+	
+	/**
+	 * @post Devuelve un polígono convexo aleatorio, con los vértices en una circunferencia
+	 */
+	private static ConvexPolygon randomPolygon(Random random, Vector2f center) {
+		final float[] angles = new float[3 + random.nextInt(8)];
+		final float radius = 0.2f + random.nextFloat() * 2.0f;
+		
+		for ( int i = 0 ; i < angles.length ; i++ ) {
+			angles[i] = random.nextFloat() * 2.0f * (float) Math.PI;
+		}
+		
+		Arrays.sort(angles);
+		
+		final Vector2f[] vertices = new Vector2f[angles.length];
+		
+		for ( int i = 0 ; i < angles.length ; i++ ) {
+			vertices[i] = center.add(new Vector2f((float) Math.cos(angles[i]) * radius, (float) Math.sin(angles[i]) * radius));
+		}
+		
+		return new ConvexPolygon(vertices);
+	}
+	
+	/**
+	 * @post Devuelve una figura convexa aleatoria cerca del origen
+	 */
+	private static FiniteProportionalHolomorphicShape<?> randomShape(Random random) {
+		final Vector2f center = randomVector(random, 1.0f);
+		
+		switch ( random.nextInt(5) ) {
+		case 0:
+			return new Point(center);
+		case 1:
+			return new LineSegment(center, center.add(randomVector(random, 2.0f)));
+		case 2:
+			return new Circle(new Circumference(center, 0.1f + random.nextFloat() * 2.0f));
+		case 3:
+			return new SolidCapsule(new LineSegment(center, center.add(randomVector(random, 2.0f))), 0.1f + random.nextFloat());
+		default:
+			return randomPolygon(random, center);
+		}
+	}
+	
+	/**
+	 * @post Devuelve el solapamiento de las figuras especificadas en la dirección especificada,
+	 * 		 h1(n) + h2(-n)
+	 */
+	private static float overlap(SupportMapping shape1, SupportMapping shape2, float directionX, float directionY, float[] buffer) {
+		shape1.support(directionX, directionY, buffer, 0);
+		shape2.support(-directionX, -directionY, buffer, 2);
+		
+		return directionX * ( buffer[0] - buffer[2] ) + directionY * ( buffer[1] - buffer[3] ) + shape1.getSupportRadius() + shape2.getSupportRadius();
+	}
+	
+	/**
+	 * @post Devuelve el mínimo solapamiento entre las normales de las aristas de la figura especificada,
+	 * 		 y el mínimo especificado
+	 */
+	private static float minEdgeNormalOverlap(FiniteProportionalHolomorphicShape<?> shape, SupportMapping shape1, SupportMapping shape2, float min, float[] buffer) {
+		final Vector2f[] vertices;
+		
+		if ( shape instanceof ConvexPolygon ) {
+			vertices = ((ConvexPolygon) shape).getVertices().toArray(new Vector2f[0]);
+		}
+		else if ( shape instanceof LineSegment ) {
+			vertices = new Vector2f[] { ((LineSegment) shape).getPoint1(), ((LineSegment) shape).getPoint2() };
+		}
+		else if ( shape instanceof SolidCapsule ) {
+			vertices = new Vector2f[] { ((SolidCapsule) shape).getCenterLine().getPoint1(), ((SolidCapsule) shape).getCenterLine().getPoint2() };
+		}
+		else {
+			vertices = new Vector2f[0];
+		}
+		
+		for ( int i = 0 ; i < vertices.length ; i++ ) {
+			final Vector2f edge = vertices[( i + 1 ) % vertices.length].sub(vertices[i]);
+			final float length = edge.length();
+			
+			if ( length > 0.0f ) {
+				min = Math.min(min, overlap(shape1, shape2, edge.getY() / length, -edge.getX() / length, buffer));
+				min = Math.min(min, overlap(shape1, shape2, -edge.getY() / length, edge.getX() / length, buffer));
+			}
+		}
+		
+		return min;
+	}
+	
+	/**
+	 * @post Devuelve la profundidad de penetración de referencia de las figuras especificadas
+	 */
+	private static float referenceDepth(FiniteProportionalHolomorphicShape<?> shape1, FiniteProportionalHolomorphicShape<?> shape2, float[] buffer) {
+		final SupportMapping supportMapping1 = GJKSolver.getSupportMapping(shape1);
+		final SupportMapping supportMapping2 = GJKSolver.getSupportMapping(shape2);
+		
+		float min = Float.POSITIVE_INFINITY;
+		
+		for ( int i = 0 ; i < DIRECTIONS ; i++ ) {
+			final double angle = 2.0 * Math.PI * i / DIRECTIONS;
+			
+			min = Math.min(min, overlap(supportMapping1, supportMapping2, (float) Math.cos(angle), (float) Math.sin(angle), buffer));
+		}
+		
+		min = minEdgeNormalOverlap(shape1, supportMapping1, supportMapping2, min, buffer);
+		min = minEdgeNormalOverlap(shape2, supportMapping1, supportMapping2, min, buffer);
+		
+		return min;
+	}
+	
+	public static void main(String[] args) {
+		final Random random = new Random(8);
+		final EPASolver solver = new EPASolver();
+		final float[] buffer = new float[4];
+		
+		// Figuras al azar
+		int penetrations = 0, penetrationMismatches = 0, depthMismatches = 0, normalMismatches = 0, separationMismatches = 0, cacheMismatches = 0;
+		final GJKSolver.SimplexCache cache = new GJKSolver.SimplexCache();
+		
+		for ( int i = 0 ; i < PAIRS ; i++ ) {
+			final FiniteProportionalHolomorphicShape<?> shape1 = randomShape(random);
+			final FiniteProportionalHolomorphicShape<?> shape2 = randomShape(random);
+			final SupportMapping supportMapping1 = GJKSolver.getSupportMapping(shape1);
+			final SupportMapping supportMapping2 = GJKSolver.getSupportMapping(shape2);
+			
+			final boolean penetration = solver.compute(supportMapping1, supportMapping2);
+			final float depth = solver.getPenetrationDepth();
+			final float reference = referenceDepth(shape1, shape2, buffer);
+			
+			// Los pares casi en contacto pueden diferir por el redondeo
+			if ( penetration != ( reference > 0.0f ) ) {
+				if ( Math.abs(reference) > TOLERANCE ) {
+					penetrationMismatches++;
+				}
+			}
+			else if ( penetration ) {
+				penetrations++;
+				
+				if ( Math.abs(depth - reference) > TOLERANCE ) {
+					if ( depthMismatches++ < 10 ) {
+						System.out.println(shape1 + " " + shape2 + ": " + depth + " instead of " + reference);
+					}
+				}
+				
+				if ( Math.abs(overlap(supportMapping1, supportMapping2, solver.getNormalX(), solver.getNormalY(), buffer) - depth) > TOLERANCE ) {
+					normalMismatches++;
+				}
+				
+				// Trasladando la primera figura por la normal opuesta, un poco más que la profundidad, dejan de solaparse
+				if ( shape1.translate(solver.getNormal().scale(-( depth + TOLERANCE ))).hasIntersection(shape2) ) {
+					separationMismatches++;
+				}
+				
+				solver.compute(supportMapping1, supportMapping2, cache);
+				
+				if ( Math.abs(solver.getPenetrationDepth() - depth) > TOLERANCE ) {
+					cacheMismatches++;
+				}
+			}
+		}
+		
+		System.out.println(PAIRS + " pairs, " + penetrations + " penetrations");
+		check("Penetration matches the support overlap", penetrationMismatches == 0);
+		check("Depth matches the brute force minimum overlap", depthMismatches == 0);
+		check("The overlap along the normal is the depth", normalMismatches == 0);
+		check("Translating by the depth along the normal separates the shapes", separationMismatches == 0);
+		check("The simplex cache gives the same depth", cacheMismatches == 0);
+		
+		// Discos solapados, algunos agotan las iteraciones
+		int limitCases = 0, diskMismatches = 0;
+		
+		for ( int i = 0 ; i < PAIRS ; i++ ) {
+			final float radius1 = 0.1f + random.nextFloat() * 5.0f;
+			final float radius2 = 0.1f + random.nextFloat() * 5.0f;
+			final float angle = random.nextFloat() * 2.0f * (float) Math.PI;
+			final float centerDistance = random.nextFloat() * ( radius1 + radius2 );
+			final float centerX = (float) Math.cos(angle) * centerDistance;
+			final float centerY = (float) Math.sin(angle) * centerDistance;
+			
+			solver.compute(disk(0.0f, 0.0f, radius1), disk(centerX, centerY, radius2));
+			
+			final float reference = radius1 + radius2 - centerDistance;
+			final float depth = solver.getPenetrationDepth();
+			final boolean matches;
+			
+			if ( solver.getIterations() == MAX_ITERATIONS ) {
+				limitCases++;
+				
+				// Sin converger la profundidad es la distancia a la arista más cercana del polígono,
+				// una cota inferior con el error del polígono inscripto, y la normal tiene que ser
+				// consistente con ella
+				matches = ( depth <= reference + TOLERANCE * ( radius1 + radius2 ) ) && ( depth >= reference * LIMIT_MIN_DEPTH_RATIO - TOLERANCE * ( radius1 + radius2 ) ) &&
+						( overlap(disk(0.0f, 0.0f, radius1), disk(centerX, centerY, radius2), solver.getNormalX(), solver.getNormalY(), buffer) >= depth - TOLERANCE * ( radius1 + radius2 ) );
+			}
+			else {
+				matches = Math.abs(depth - reference) <= TOLERANCE * ( radius1 + radius2 );
+			}
+			
+			if ( !matches ) {
+				if ( diskMismatches++ < 10 ) {
+					System.out.println("Disks " + radius1 + " " + radius2 + " at " + centerDistance + ": " + solver.getPenetrationDepth() + " after " + solver.getIterations() + " iterations");
+				}
+			}
+		}
+		
+		System.out.println(limitCases + " pairs of disks reach the iteration limit");
+		check("Some pairs of disks reach the iteration limit", limitCases > 0);
+		check("Disk depth matches the analytic depth, or bounds it at the iteration limit", diskMismatches == 0);
+		
+		System.out.println( ( failures == 0 ) ? "All checks passed" : failures + " checks failed");
+	}
+}
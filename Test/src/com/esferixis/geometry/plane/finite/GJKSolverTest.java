@@ -0,0 +1,261 @@
+/**
+ * Copyright (c) 2017 Ariel Favio Carrizo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'esferixis' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.esferixis.geometry.plane.finite;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import com.esferixis.math.Vector2f;
+
+/**
+ * @author ariel
+ *
+ * Compara GJKSolver con el camino anterior: la distancia al origen de la dilatación
+ * perimetral con la figura opuesta, y ConvexPolygon.nearestPoints para los polígonos.
+ * También verifica que los puntos testigo estén sobre las figuras, el caché de simplex,
+ * y los casos que agotan las iteraciones, con círculos cuya función de soporte es
+ * suave y hace converger lentamente a GJK
+ */
+public class GJKSolverTest {
+	private static final int PAIRS = 20000;
+	
+	/**
+	 * Cantidad máxima de iteraciones de GJKSolver
+	 */
+	private static final int MAX_ITERATIONS = 32;
+	
+	private static int failures = 0;
+	
+	private static void check(String name, boolean condition) {
+		System.out.println( ( condition ? "OK     " : "FAILED " ) + name);
+		
+		if ( !condition ) {
+			failures++;
+		}
+	}
+	
+	/**
+	 * @post Devuelve un disco como núcleo de la función de soporte, sin radio
+	 */
+	private static SupportMapping disk(final float centerX, final float centerY, final float radius) {
+		return new SupportMapping() {
+
+			@Override
+			public void support(float directionX, float directionY, float[] result, int offset) {
+				final float length = (float) Math.sqrt(directionX * directionX + directionY * directionY);
+				
+				result[offset] = centerX + radius * directionX / length;
+				result[offset+1] = centerY + radius * directionY / length;
+			}
+
+			@Override
+			public float getSupportRadius() {
+				return 0.0f;
+			}
+			
+		};
+	}
+	
+	private static Vector2f randomVector(Random random, float range) {
+		return new Vector2f(( random.nextFloat() * 2.0f - 1.0f ) * range, ( random.nextFloat() * 2.0f - 1.0f ) * range);
+	}
+	
+	/**
+	 * @post Devuelve un polígono convexo aleatorio, con los vértices en una circunferencia
+	 */
+	private static ConvexPolygon randomPolygon(Random random, Vector2f center) {
+		final float[] angles = new float[3 + random.nextInt(8)];
+		final float radius = 0.2f + random.nextFloat() * 2.0f;
+		
+		for ( int i = 0 ; i < angles.length ; i++ ) {
+			angles[i] = random.nextFloat() * 2.0f * (float) Math.PI;
+		}
+		
+		Arrays.sort(angles);
+		
+		final Vector2f[] vertices = new Vector2f[angles.length];
+		
+		for ( int i = 0 ; i < angles.length ; i++ ) {
+			vertices[i] = center.add(new Vector2f((float) Math.cos(angles[i]) * radius, (float) Math.sin(angles[i]) * radius));
+		}
+		
+		return new ConvexPolygon(vertices);
+	}
+	
+	/**
+	 * @post Devuelve una figura convexa aleatoria
+	 */
+	private static FiniteProportionalHolomorphicShape<?> randomShape(Random random) {
+		final Vector2f center = randomVector(random, 5.0f);
+		
+		switch ( random.nextInt(5) ) {
+		case 0:
+			return new Point(center);
+		case 1:
+			return new LineSegment(center, center.add(randomVector(random, 2.0f)));
+		case 2:
+			return new Circle(new Circumference(center, 0.1f + random.nextFloat() * 2.0f));
+		case 3:
+			return new SolidCapsule(new LineSegment(center, center.add(randomVector(random, 2.0f))), 0.1f + random.nextFloat());
+		default:
+			return randomPolygon(random, center);
+		}
+	}
+	
+	/**
+	 * @post Devuelve si el punto especificado está sobre la figura especificada,
+	 * 		 con la tolerancia especificada.
+	 * 		 Usa la distancia al origen de la figura trasladada, porque el test de intersección
+	 * 		 con un círculo muy chico pierde precisión
+	 */
+	private static boolean isOnShape(float x, float y, FiniteProportionalHolomorphicShape<?> shape, float tolerance) {
+		return shape.translate(new Vector2f(-x, -y)).minDistanceToOrigin() <= tolerance;
+	}
+	
+	public static void main(String[] args) {
+		final Random random = new Random(7);
+		final GJKSolver solver = new GJKSolver();
+		final float[] witnessPoints = new float[4];
+		
+		// Figuras al azar contra el camino de la dilatación
+		int intersectionMismatches = 0, distanceMismatches = 0, witnessMismatches = 0, cacheMismatches = 0, comparedDistances = 0;
+		final GJKSolver.SimplexCache cache = new GJKSolver.SimplexCache();
+		
+		for ( int i = 0 ; i < PAIRS ; i++ ) {
+			final FiniteProportionalHolomorphicShape<?> shape1 = randomShape(random);
+			final FiniteProportionalHolomorphicShape<?> shape2 = randomShape(random);
+			
+			final boolean intersection = solver.compute(GJKSolver.getSupportMapping(shape1), GJKSolver.getSupportMapping(shape2));
+			final float distance = solver.getDistance();
+			solver.getWitnessPoints(witnessPoints, 0);
+			
+			final float referenceDistance = shape1.hasIntersection(shape2) ? 0.0f : shape1.perimetralDilate(shape2.opposite()).minDistanceToOrigin();
+			final float tolerance = 1e-3f;
+			
+			// Los pares casi en contacto pueden diferir por el redondeo
+			if ( ( intersection != ( referenceDistance == 0.0f ) ) && ( Math.max(distance, referenceDistance) > tolerance ) ) {
+				intersectionMismatches++;
+			}
+			else if ( !intersection && ( referenceDistance > 0.0f ) ) {
+				comparedDistances++;
+				
+				if ( Math.abs(distance - referenceDistance) > tolerance ) {
+					if ( distanceMismatches++ < 10 ) {
+						System.out.println(shape1 + " " + shape2 + ": " + distance + " instead of " + referenceDistance);
+					}
+				}
+				
+				if ( !isOnShape(witnessPoints[0], witnessPoints[1], shape1, tolerance) || !isOnShape(witnessPoints[2], witnessPoints[3], shape2, tolerance) ||
+						( Math.abs((float) Math.hypot(witnessPoints[2] - witnessPoints[0], witnessPoints[3] - witnessPoints[1]) - distance) > tolerance ) ) {
+					witnessMismatches++;
+				}
+			}
+			
+			// Caché de simplex, con la segunda figura un poco desplazada
+			final FiniteProportionalHolomorphicShape<?> movedShape2 = shape2.translate(randomVector(random, 0.05f));
+			
+			cache.reset();
+			solver.compute(GJKSolver.getSupportMapping(shape1), GJKSolver.getSupportMapping(shape2), cache);
+			final boolean cachedIntersection = solver.compute(GJKSolver.getSupportMapping(shape1), GJKSolver.getSupportMapping(movedShape2), cache);
+			final float cachedDistance = solver.getDistance();
+			final boolean uncachedIntersection = solver.compute(GJKSolver.getSupportMapping(shape1), GJKSolver.getSupportMapping(movedShape2));
+			
+			if ( ( ( cachedIntersection != uncachedIntersection ) && ( Math.max(cachedDistance, solver.getDistance()) > tolerance ) ) || ( Math.abs(cachedDistance - solver.getDistance()) > tolerance ) ) {
+				cacheMismatches++;
+			}
+		}
+		
+		System.out.println(PAIRS + " pairs, " + comparedDistances + " distances compared");
+		check("Intersection matches the dilation path", intersectionMismatches == 0);
+		check("Distance matches the dilation path", distanceMismatches == 0);
+		check("Witness points are on the shapes at the distance", witnessMismatches == 0);
+		check("The simplex cache gives the same result", cacheMismatches == 0);
+		
+		// Polígonos contra ConvexPolygon.nearestPoints
+		int polygonMismatches = 0;
+		final float[] referencePoints = new float[4];
+		
+		for ( int i = 0 ; i < PAIRS ; i++ ) {
+			final ConvexPolygon polygon1 = randomPolygon(random, randomVector(random, 5.0f));
+			final ConvexPolygon polygon2 = randomPolygon(random, randomVector(random, 5.0f));
+			
+			if ( !polygon1.hasIntersection(polygon2) ) {
+				final float referenceDistance = ConvexPolygon.nearestPoints(polygon1, polygon2, referencePoints, 0);
+				solver.compute(polygon1, polygon2);
+				
+				if ( solver.hasIntersection() ? ( referenceDistance > 1e-3f ) : ( Math.abs(solver.getDistance() - referenceDistance) > 1e-3f ) ) {
+					polygonMismatches++;
+				}
+			}
+		}
+		
+		check("Polygon distance matches ConvexPolygon.nearestPoints", polygonMismatches == 0);
+		
+		// Discos casi en contacto, algunos agotan las iteraciones
+		int limitCases = 0, diskMismatches = 0;
+		
+		for ( int i = 0 ; i < PAIRS * 5 ; i++ ) {
+			final float radius1 = 0.1f + random.nextFloat() * 5.0f;
+			final float radius2 = 0.1f + random.nextFloat() * 5.0f;
+			final float angle = random.nextFloat() * 2.0f * (float) Math.PI;
+			final float centerDistance = radius1 + radius2 + (float) Math.pow(10.0, -random.nextInt(6)) * random.nextFloat() * 3.0f;
+			final float centerX = (float) Math.cos(angle) * centerDistance;
+			final float centerY = (float) Math.sin(angle) * centerDistance;
+			final float tolerance = 1e-4f * centerDistance;
+			
+			solver.compute(disk(0.0f, 0.0f, radius1), disk(centerX, centerY, radius2));
+			solver.getWitnessPoints(witnessPoints, 0);
+			
+			if ( solver.getIterations() == MAX_ITERATIONS ) {
+				limitCases++;
+			}
+			
+			final float referenceDistance = (float) Math.hypot(centerX, centerY) - radius1 - radius2;
+			
+			// El punto testigo tiene que estar sobre cada disco, con los coeficientes del simplex final
+			if ( ( Math.abs((float) Math.hypot(witnessPoints[0], witnessPoints[1]) - radius1) > tolerance ) ||
+					( Math.abs((float) Math.hypot(witnessPoints[2] - centerX, witnessPoints[3] - centerY) - radius2) > tolerance ) ||
+					( Math.abs(solver.getDistance() - referenceDistance) > tolerance ) ) {
+				if ( diskMismatches++ < 10 ) {
+					System.out.println("Disks " + radius1 + " " + radius2 + " at " + centerDistance + ": " + solver.getDistance() + " instead of " + referenceDistance + " after " + solver.getIterations() + " iterations");
+				}
+			}
+		}
+		
+		System.out.println(limitCases + " pairs of disks reach the iteration limit");
+		check("Some pairs of disks reach the iteration limit", limitCases > 0);
+		check("Disk witness points and distance are consistent, also at the iteration limit", diskMismatches == 0);
+		
+		System.out.println( ( failures == 0 ) ? "All checks passed" : failures + " checks failed");
+	}
+}
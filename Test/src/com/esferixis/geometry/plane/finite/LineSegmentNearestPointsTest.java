@@ -0,0 +1,144 @@
+/**
+ * Copyright (c) 2017 Ariel Favio Carrizo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'esferixis' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.esferixis.geometry.plane.finite;
+
+import java.util.Random;
+
+/**
+ * @author ariel
+ *
+ * Compara LineSegment.nearestPoints con una referencia en doble precisión,
+ * sobre pares de segmentos aleatorios, casi paralelos y que se cruzan
+ */
+public class LineSegmentNearestPointsTest {
+	private static final int PAIRS = 200000;
+	
+	/**
+	 * @post Devuelve la distancia en doble precisión del punto especificado al segmento especificado
+	 */
+	private static double pointSegmentDistance(double px, double py, double ax, double ay, double bx, double by) {
+		final double abx = bx - ax, aby = by - ay;
+		final double lengthSquared = abx * abx + aby * aby;
+		double t = ( lengthSquared != 0.0 ) ? ( ( px - ax ) * abx + ( py - ay ) * aby ) / lengthSquared : 0.0;
+		t = Math.max(0.0, Math.min(1.0, t));
+		
+		return Math.hypot(ax + abx * t - px, ay + aby * t - py);
+	}
+	
+	/**
+	 * @post Devuelve la distancia en doble precisión entre los segmentos especificados
+	 */
+	private static double referenceDistance(float[] c) {
+		final double d1x = c[2] - c[0], d1y = c[3] - c[1];
+		final double d2x = c[6] - c[4], d2y = c[7] - c[5];
+		final double denominator = d1x * d2y - d1y * d2x;
+		
+		if ( denominator != 0.0 ) {
+			final double ex = c[4] - c[0], ey = c[5] - c[1];
+			final double s = ( ex * d2y - ey * d2x ) / denominator;
+			final double t = ( ex * d1y - ey * d1x ) / denominator;
+			
+			if ( ( s >= 0.0 ) && ( s <= 1.0 ) && ( t >= 0.0 ) && ( t <= 1.0 ) ) {
+				return 0.0;
+			}
+		}
+		
+		return Math.min(
+				Math.min(pointSegmentDistance(c[0], c[1], c[4], c[5], c[6], c[7]), pointSegmentDistance(c[2], c[3], c[4], c[5], c[6], c[7])),
+				Math.min(pointSegmentDistance(c[4], c[5], c[0], c[1], c[2], c[3]), pointSegmentDistance(c[6], c[7], c[0], c[1], c[2], c[3]))
+		);
+	}
+	
+	private static void randomPair(Random random, int kind, float[] c) {
+		for ( int i = 0 ; i < 8 ; i++ ) {
+			c[i] = ( random.nextFloat() - 0.5f ) * 20.0f;
+		}
+		
+		if ( kind == 1 ) {
+			// Casi paralelos
+			final float angle = random.nextFloat() * 1e-4f;
+			final float dx = c[2] - c[0], dy = c[3] - c[1];
+			final float scale = random.nextFloat() * 2.0f;
+			
+			c[6] = c[4] + ( dx * (float) Math.cos(angle) - dy * (float) Math.sin(angle) ) * scale;
+			c[7] = c[5] + ( dx * (float) Math.sin(angle) + dy * (float) Math.cos(angle) ) * scale;
+		}
+		else if ( kind == 2 ) {
+			// Se cruzan en un punto interior de ambos
+			final float s = random.nextFloat(), t = random.nextFloat();
+			final float px = c[0] + ( c[2] - c[0] ) * s, py = c[1] + ( c[3] - c[1] ) * s;
+			
+			c[6] = px + ( px - c[4] ) * ( 1.0f - t ) / Math.max(t, 1e-3f);
+			c[7] = py + ( py - c[5] ) * ( 1.0f - t ) / Math.max(t, 1e-3f);
+		}
+	}
+	
+	public static void main(String[] args) {
+		final Random random = new Random(19);
+		final float[] c = new float[8];
+		final float[] result = new float[4];
+		
+		double maxError = 0.0;
+		double maxWitnessError = 0.0;
+		int failures = 0;
+		
+		for ( int i = 0 ; i < PAIRS ; i++ ) {
+			randomPair(random, i % 3, c);
+			
+			final float distance = LineSegment.nearestPoints(c[0], c[1], c[2], c[3], c[4], c[5], c[6], c[7], result, 0);
+			final double reference = referenceDistance(c);
+			
+			// Tolerancia: Algunos ulps de la magnitud de las coordenadas
+			final double tolerance = 1e-5;
+			final double error = Math.abs(distance - reference);
+			
+			// Los puntos testigo tienen que estar en sus segmentos y a la distancia devuelta
+			final double witnessError = Math.max(
+					Math.max(pointSegmentDistance(result[0], result[1], c[0], c[1], c[2], c[3]), pointSegmentDistance(result[2], result[3], c[4], c[5], c[6], c[7])),
+					Math.abs(Math.hypot(result[2] - result[0], result[3] - result[1]) - distance)
+			);
+			
+			maxError = Math.max(maxError, error);
+			maxWitnessError = Math.max(maxWitnessError, witnessError);
+			
+			if ( ( error > tolerance ) || ( witnessError > tolerance ) ) {
+				if ( failures++ < 10 ) {
+					System.out.println("Mismatch: distance " + distance + ", reference " + reference + ", witness error " + witnessError);
+				}
+			}
+		}
+		
+		System.out.println(PAIRS + " pairs, max distance error " + maxError + ", max witness error " + maxWitnessError);
+		System.out.println( ( failures == 0 ) ? "OK" : "FAILED: " + failures + " mismatches");
+	}
+}
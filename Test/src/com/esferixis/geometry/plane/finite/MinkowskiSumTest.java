@@ -0,0 +1,291 @@
+/**
+ * Copyright (c) 2017 Ariel Favio Carrizo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'esferixis' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.esferixis.geometry.plane.finite;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import com.esferixis.math.Vector2f;
+
+/**
+ * @author ariel
+ *
+ * Compara ConvexPolygon.minkowskiSum con la envolvente convexa de todas las sumas de vértices.
+ * Los polígonos tienen coordenadas enteras, así las sumas son exactas, y se generan con
+ * aristas colineales, en los dos sentidos, con distintos vértices iniciales (el cierre del
+ * recorrido cae en distintos lugares), con vértices repetidos, y degenerados (segmentos y puntos)
+ */
+public class MinkowskiSumTest {
+	private static final int PAIRS = 20000;
+	
+	private static int failures = 0;
+	
+	private static void check(String name, boolean condition) {
+		System.out.println( ( condition ? "OK     " : "FAILED " ) + name);
+		
+		if ( !condition ) {
+			failures++;
+		}
+	}
+	
+	private static float cross(Vector2f origin, Vector2f point1, Vector2f point2) {
+		return ( point1.getX() - origin.getX() ) * ( point2.getY() - origin.getY() ) - ( point1.getY() - origin.getY() ) * ( point2.getX() - origin.getX() );
+	}
+	
+	/**
+	 * @post Devuelve la envolvente convexa de los puntos especificados, en sentido antihorario,
+	 * 		 sin vértices colineales, empezando por el vértice inferior (Y mínima, y luego X mínima)
+	 */
+	private static List<Vector2f> convexHull(List<Vector2f> points) {
+		final List<Vector2f> sortedPoints = new ArrayList<Vector2f>(points);
+		
+		Collections.sort(sortedPoints, new Comparator<Vector2f>() {
+
+			@Override
+			public int compare(Vector2f point1, Vector2f point2) {
+				final int result = Float.compare(point1.getY(), point2.getY());
+				
+				return ( result != 0 ) ? result : Float.compare(point1.getX(), point2.getX());
+			}
+			
+		});
+		
+		final List<Vector2f> hull = new ArrayList<Vector2f>();
+		
+		// Cadena derecha, de abajo hacia arriba, y luego la izquierda de arriba hacia abajo
+		for ( int pass = 0 ; pass < 2 ; pass++ ) {
+			final int chainStart = hull.size();
+			
+			for ( int i = 0 ; i < sortedPoints.size() ; i++ ) {
+				final Vector2f point = sortedPoints.get( ( pass == 0 ) ? i : sortedPoints.size() - 1 - i );
+				
+				while ( ( hull.size() >= chainStart + 2 ) && ( cross(hull.get(hull.size() - 2), hull.get(hull.size() - 1), point) <= 0.0f ) ) {
+					hull.remove(hull.size() - 1);
+				}
+				
+				hull.add(point);
+			}
+			
+			hull.remove(hull.size() - 1);
+		}
+		
+		return hull;
+	}
+	
+	/**
+	 * @post Devuelve un polígono convexo aleatorio con coordenadas enteras
+	 */
+	private static ConvexPolygon randomPolygon(Random random) {
+		List<Vector2f> vertices;
+		
+		switch ( random.nextInt(8) ) {
+		case 0:
+			// Punto
+			final Vector2f point = new Vector2f(random.nextInt(11) - 5, random.nextInt(11) - 5);
+			vertices = new ArrayList<Vector2f>(Arrays.asList(point, point, point));
+			break;
+		case 1:
+			// Segmento, con direcciones que coinciden seguido con las de los otros polígonos
+			final Vector2f origin = new Vector2f(random.nextInt(11) - 5, random.nextInt(11) - 5);
+			final Vector2f direction = new Vector2f(random.nextInt(3) - 1, random.nextInt(3) - 1);
+			final int length = 1 + random.nextInt(3);
+			vertices = new ArrayList<Vector2f>();
+			
+			for ( int i = 0 ; i <= length ; i++ ) {
+				vertices.add(origin.add(direction.scale(i)));
+			}
+			
+			if ( vertices.size() < 3 ) {
+				vertices.add(vertices.get(1));
+			}
+			break;
+		case 2:
+			// Rectángulo con lados paralelos a los ejes
+			final int minX = random.nextInt(11) - 5, minY = random.nextInt(11) - 5;
+			final int maxX = minX + 1 + random.nextInt(4), maxY = minY + 1 + random.nextInt(4);
+			vertices = new ArrayList<Vector2f>(Arrays.asList(new Vector2f(minX, minY), new Vector2f(maxX, minY), new Vector2f(maxX, maxY), new Vector2f(minX, maxY)));
+			break;
+		default:
+			final List<Vector2f> points = new ArrayList<Vector2f>();
+			final int pointCount = 3 + random.nextInt(8);
+			
+			for ( int i = 0 ; i < pointCount ; i++ ) {
+				points.add(new Vector2f(random.nextInt(11) - 5, random.nextInt(11) - 5));
+			}
+			
+			vertices = convexHull(points);
+			
+			if ( vertices.size() < 3 ) {
+				return randomPolygon(random);
+			}
+			break;
+		}
+		
+		// Vértices colineales en el medio de las aristas de longitud par
+		if ( random.nextBoolean() ) {
+			final List<Vector2f> withMidPoints = new ArrayList<Vector2f>();
+			
+			for ( int i = 0 ; i < vertices.size() ; i++ ) {
+				final Vector2f vertex = vertices.get(i);
+				final Vector2f next = vertices.get( ( i + 1 ) % vertices.size() );
+				
+				withMidPoints.add(vertex);
+				
+				if ( ( ( (int) ( next.getX() - vertex.getX() ) ) % 2 == 0 ) && ( ( (int) ( next.getY() - vertex.getY() ) ) % 2 == 0 ) && !next.equals(vertex) ) {
+					withMidPoints.add(vertex.add(next).scale(0.5f));
+				}
+			}
+			
+			vertices = withMidPoints;
+		}
+		
+		// Vértice repetido
+		if ( random.nextInt(6) == 0 ) {
+			final int index = random.nextInt(vertices.size());
+			vertices.add(index, vertices.get(index));
+		}
+		
+		// Distinto vértice inicial
+		Collections.rotate(vertices, random.nextInt(vertices.size()));
+		
+		// Sentido horario
+		if ( random.nextBoolean() ) {
+			Collections.reverse(vertices);
+		}
+		
+		return new ConvexPolygon(vertices);
+	}
+	
+	/**
+	 * @post Devuelve si la suma especificada coincide con la envolvente convexa de las sumas
+	 * 		 de los vértices
+	 */
+	private static boolean matchesReference(ConvexPolygon polygon1, ConvexPolygon polygon2, ConvexPolygon sum) {
+		final List<Vector2f> sums = new ArrayList<Vector2f>();
+		
+		for ( Vector2f eachVertex1 : polygon1.getVertices() ) {
+			for ( Vector2f eachVertex2 : polygon2.getVertices() ) {
+				sums.add(eachVertex1.add(eachVertex2));
+			}
+		}
+		
+		final List<Vector2f> hull = convexHull(sums);
+		final List<Vector2f> vertices = sum.getVertices();
+		
+		if ( hull.size() >= 3 ) {
+			// Mismos vértices en el mismo orden cíclico
+			if ( vertices.size() == hull.size() ) {
+				final int offset = vertices.indexOf(hull.get(0));
+				
+				if ( offset != -1 ) {
+					for ( int i = 0 ; i < hull.size() ; i++ ) {
+						if ( !vertices.get( ( offset + i ) % vertices.size() ).equals(hull.get(i)) ) {
+							return false;
+						}
+					}
+					
+					return true;
+				}
+			}
+			
+			return false;
+		}
+		else {
+			// Segmento o punto, el polígono degenerado tiene que tener sólo sus extremos
+			for ( Vector2f eachVertex : vertices ) {
+				if ( !hull.contains(eachVertex) ) {
+					return false;
+				}
+			}
+			
+			for ( Vector2f eachVertex : hull ) {
+				if ( !vertices.contains(eachVertex) ) {
+					return false;
+				}
+			}
+			
+			return true;
+		}
+	}
+	
+	public static void main(String[] args) {
+		final Random random = new Random(17);
+		
+		final ConvexPolygon square = new ConvexPolygon(new Vector2f(0.0f, 0.0f), new Vector2f(1.0f, 0.0f), new Vector2f(1.0f, 1.0f), new Vector2f(0.0f, 1.0f));
+		final ConvexPolygon triangle = new ConvexPolygon(new Vector2f(0.0f, 0.0f), new Vector2f(1.0f, 0.0f), new Vector2f(0.0f, 1.0f));
+		final ConvexPolygon horizontalSegment = new ConvexPolygon(new Vector2f(0.0f, 0.0f), new Vector2f(1.0f, 0.0f), new Vector2f(2.0f, 0.0f));
+		final ConvexPolygon verticalSegment = new ConvexPolygon(new Vector2f(0.0f, 0.0f), new Vector2f(0.0f, 1.0f), new Vector2f(0.0f, 2.0f));
+		final ConvexPolygon point = new ConvexPolygon(new Vector2f(1.0f, 1.0f), new Vector2f(1.0f, 1.0f), new Vector2f(1.0f, 1.0f));
+		
+		check("Square plus square", matchesReference(square, square, ConvexPolygon.minkowskiSum(square, square)));
+		check("Square plus clockwise triangle", matchesReference(square, triangle, ConvexPolygon.minkowskiSum(square, new ConvexPolygon(new Vector2f(0.0f, 1.0f), new Vector2f(1.0f, 0.0f), new Vector2f(0.0f, 0.0f)))));
+		check("Triangle plus segment", matchesReference(triangle, horizontalSegment, ConvexPolygon.minkowskiSum(triangle, horizontalSegment)));
+		check("Segment plus crossing segment", matchesReference(horizontalSegment, verticalSegment, ConvexPolygon.minkowskiSum(horizontalSegment, verticalSegment)));
+		check("Segment plus parallel segment", matchesReference(horizontalSegment, horizontalSegment, ConvexPolygon.minkowskiSum(horizontalSegment, horizontalSegment)));
+		check("Point plus triangle", matchesReference(point, triangle, ConvexPolygon.minkowskiSum(point, triangle)));
+		check("Point plus point", matchesReference(point, point, ConvexPolygon.minkowskiSum(point, point)));
+		
+		final ConvexPolygon repeatedVertex = new ConvexPolygon(new Vector2f(0.0f, 0.0f), new Vector2f(1.0f, 0.0f), new Vector2f(1.0f, 0.0f), new Vector2f(1.0f, 1.0f));
+		check("Repeated vertex", matchesReference(repeatedVertex, triangle, ConvexPolygon.minkowskiSum(repeatedVertex, triangle)));
+		
+		int mismatches = 0;
+		
+		for ( int i = 0 ; i < PAIRS ; i++ ) {
+			final ConvexPolygon polygon1 = randomPolygon(random);
+			final ConvexPolygon polygon2 = randomPolygon(random);
+			
+			boolean matches;
+			ConvexPolygon sum = null;
+			
+			try {
+				sum = ConvexPolygon.minkowskiSum(polygon1, polygon2);
+				matches = matchesReference(polygon1, polygon2, sum);
+			}
+			catch ( RuntimeException e ) {
+				matches = false;
+			}
+			
+			if ( !matches && ( mismatches++ < 10 ) ) {
+				System.out.println(polygon1.getVertices() + " + " + polygon2.getVertices() + " = " + ( ( sum != null ) ? sum.getVertices() : "exception" ));
+			}
+		}
+		
+		check(PAIRS + " random pairs match the convex hull of the vertex sums", mismatches == 0);
+		
+		System.out.println( ( failures == 0 ) ? "All checks passed" : failures + " checks failed");
+	}
+}
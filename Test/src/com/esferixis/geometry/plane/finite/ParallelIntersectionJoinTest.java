@@ -0,0 +1,227 @@
+/**
+ * Copyright (c) 2017 Ariel Favio Carrizo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'esferixis' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.esferixis.geometry.plane.finite;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import com.esferixis.math.Vector2f;
+
+/**
+ * @author ariel
+ *
+ * Compara los pares de ParallelIntersectionJoin con los de un recorrido exhaustivo
+ * de todos los pares con hasIntersection.
+ * Las coordenadas son múltiplos de 0.5 en una región chica, así hay muchos mínimos en X
+ * iguales y bounding boxes que se tocan, y se agregan figuras vacías (grupos vacíos, sin
+ * bounding box).
+ * Las listas grandes tienen varios bloques, y en join hay bloques con figuras de los dos grupos
+ */
+public class ParallelIntersectionJoinTest {
+	private static int failures = 0;
+	
+	private static void check(String name, boolean condition) {
+		System.out.println( ( condition ? "OK     " : "FAILED " ) + name);
+		
+		if ( !condition ) {
+			failures++;
+		}
+	}
+	
+	private static float randomCoordinate(Random random, int range) {
+		return random.nextInt(range * 2 + 1) * 0.5f;
+	}
+	
+	private static Vector2f randomVector(Random random, int range) {
+		return new Vector2f(randomCoordinate(random, range), randomCoordinate(random, range));
+	}
+	
+	/**
+	 * @post Devuelve una figura aleatoria, con la probabilidad de figura vacía especificada
+	 */
+	private static FiniteProportionalHolomorphicShape<?> randomShape(Random random, int range, float emptyProbability) {
+		if ( random.nextFloat() < emptyProbability ) {
+			return new FiniteProportionalHolomorphicShapeGroup<FiniteProportionalHolomorphicShape<?>>(Collections.<FiniteProportionalHolomorphicShape<?>>emptyList());
+		}
+		else {
+			final Vector2f position = randomVector(random, range);
+			
+			switch ( random.nextInt(5) ) {
+			case 0:
+				return new Point(position);
+			case 1:
+				return new LineSegment(position, position.add(new Vector2f(randomCoordinate(random, 2) - 1.0f, randomCoordinate(random, 2) - 1.0f)));
+			case 2:
+				return new Circle(new Circumference(position, 0.5f + randomCoordinate(random, 1)));
+			case 3:
+				return new ConvexPolygon(position, position.add(new Vector2f(1.0f, 0.0f)), position.add(new Vector2f(1.0f, 1.0f)), position.add(new Vector2f(0.0f, 1.0f)));
+			default:
+				return new FiniteProportionalHolomorphicShapeGroup<FiniteProportionalHolomorphicShape<?>>(new Point(position), new LineSegment(position, position.add(new Vector2f(0.0f, 1.0f))));
+			}
+		}
+	}
+	
+	private static List<FiniteProportionalHolomorphicShape<?>> randomShapes(Random random, int count, int range, float emptyProbability) {
+		final List<FiniteProportionalHolomorphicShape<?>> shapes = new ArrayList<FiniteProportionalHolomorphicShape<?>>(count);
+		
+		for ( int i = 0 ; i < count ; i++ ) {
+			shapes.add(randomShape(random, range, emptyProbability));
+		}
+		
+		return shapes;
+	}
+	
+	private static long pairKey(int index1, int index2) {
+		return ( ( (long) index1 ) << 32 ) | index2;
+	}
+	
+	/**
+	 * @post Devuelve los pares como conjunto, o null si hay pares repetidos
+	 */
+	private static Set<Long> toSet(IntersectingPairs pairs) {
+		final Set<Long> result = new HashSet<Long>();
+		
+		for ( int i = 0 ; i < pairs.size() ; i++ ) {
+			if ( !result.add(pairKey(pairs.getIndex1(i), pairs.getIndex2(i))) ) {
+				return null;
+			}
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * @post Devuelve si las figuras especificadas tienen intersección.
+	 * 		 Las figuras vacías no tienen puntos, no se prueban con hasIntersection
+	 * 		 porque algunos casos requieren un punto interior
+	 */
+	private static boolean hasIntersection(FiniteProportionalHolomorphicShape<?> shape1, FiniteProportionalHolomorphicShape<?> shape2) {
+		return ( shape1.boundingBox() != null ) && ( shape2.boundingBox() != null ) && shape1.hasIntersection(shape2);
+	}
+	
+	private static Set<Long> bruteForceSelfJoin(List<FiniteProportionalHolomorphicShape<?>> shapes) {
+		final Set<Long> result = new HashSet<Long>();
+		
+		for ( int i = 0 ; i < shapes.size() ; i++ ) {
+			for ( int j = i + 1 ; j < shapes.size() ; j++ ) {
+				if ( hasIntersection(shapes.get(i), shapes.get(j)) ) {
+					result.add(pairKey(i, j));
+				}
+			}
+		}
+		
+		return result;
+	}
+	
+	private static Set<Long> bruteForceJoin(List<FiniteProportionalHolomorphicShape<?>> shapes1, List<FiniteProportionalHolomorphicShape<?>> shapes2) {
+		final Set<Long> result = new HashSet<Long>();
+		
+		for ( int i = 0 ; i < shapes1.size() ; i++ ) {
+			for ( int j = 0 ; j < shapes2.size() ; j++ ) {
+				if ( hasIntersection(shapes1.get(i), shapes2.get(j)) ) {
+					result.add(pairKey(i, j));
+				}
+			}
+		}
+		
+		return result;
+	}
+	
+	private static void checkSelfJoin(String name, ForkJoinPool pool, List<FiniteProportionalHolomorphicShape<?>> shapes) {
+		final Set<Long> expected = bruteForceSelfJoin(shapes);
+		final Set<Long> actual = toSet(ParallelIntersectionJoin.selfJoin(pool, shapes));
+		
+		check("selfJoin " + name + ", " + shapes.size() + " shapes, " + expected.size() + " pairs, parallelism " + pool.getParallelism(), expected.equals(actual));
+	}
+	
+	private static void checkJoin(String name, ForkJoinPool pool, List<FiniteProportionalHolomorphicShape<?>> shapes1, List<FiniteProportionalHolomorphicShape<?>> shapes2) {
+		final Set<Long> expected = bruteForceJoin(shapes1, shapes2);
+		final Set<Long> actual = toSet(ParallelIntersectionJoin.join(pool, shapes1, shapes2));
+		
+		check("join " + name + ", " + shapes1.size() + " x " + shapes2.size() + " shapes, " + expected.size() + " pairs, parallelism " + pool.getParallelism(), expected.equals(actual));
+	}
+	
+	public static void main(String[] args) {
+		final Random random = new Random(23);
+		final ForkJoinPool[] pools = new ForkJoinPool[] { new ForkJoinPool(1), new ForkJoinPool(4) };
+		
+		final List<FiniteProportionalHolomorphicShape<?>> noShapes = Collections.emptyList();
+		final List<FiniteProportionalHolomorphicShape<?>> emptyShapes = randomShapes(random, 10, 5, 1.0f);
+		
+		for ( ForkJoinPool eachPool : pools ) {
+			checkSelfJoin("no shapes", eachPool, noShapes);
+			checkSelfJoin("only empty shapes", eachPool, emptyShapes);
+			checkJoin("no shapes", eachPool, noShapes, randomShapes(random, 20, 5, 0.1f));
+			checkJoin("only empty shapes", eachPool, randomShapes(random, 20, 5, 0.1f), emptyShapes);
+			
+			// Pocas figuras, un único bloque
+			for ( int i = 0 ; i < 20 ; i++ ) {
+				checkSelfJoin("small", eachPool, randomShapes(random, 1 + random.nextInt(60), 10, 0.1f));
+				checkJoin("small", eachPool, randomShapes(random, 1 + random.nextInt(60), 10, 0.1f), randomShapes(random, 1 + random.nextInt(60), 10, 0.1f));
+			}
+			
+			// Todos los mínimos en X iguales
+			final List<FiniteProportionalHolomorphicShape<?>> column = new ArrayList<FiniteProportionalHolomorphicShape<?>>();
+			for ( int i = 0 ; i < 1500 ; i++ ) {
+				final Vector2f position = new Vector2f(0.0f, randomCoordinate(random, 200));
+				column.add( ( i % 2 == 0 ) ? new Point(position) : new LineSegment(position, position.add(new Vector2f(1.0f, randomCoordinate(random, 2)))));
+			}
+			
+			checkSelfJoin("tied minimum X", eachPool, column);
+			checkJoin("tied minimum X", eachPool, column.subList(0, 700), column.subList(700, 1500));
+			
+			// Varios bloques, en join hay bloques que cruzan del primer grupo al segundo
+			checkSelfJoin("several chunks", eachPool, randomShapes(random, 2500, 40, 0.05f));
+			checkJoin("several chunks", eachPool, randomShapes(random, 1500, 40, 0.05f), randomShapes(random, 1300, 40, 0.05f));
+			checkJoin("several chunks, small first group", eachPool, randomShapes(random, 100, 40, 0.05f), randomShapes(random, 2200, 40, 0.05f));
+		}
+		
+		// Interfaz pública de los grupos
+		final FiniteProportionalHolomorphicShapeGroup<FiniteProportionalHolomorphicShape<?>> group1 = new FiniteProportionalHolomorphicShapeGroup<FiniteProportionalHolomorphicShape<?>>(randomShapes(random, 1200, 30, 0.05f));
+		final FiniteProportionalHolomorphicShapeGroup<FiniteProportionalHolomorphicShape<?>> group2 = new FiniteProportionalHolomorphicShapeGroup<FiniteProportionalHolomorphicShape<?>>(randomShapes(random, 1200, 30, 0.05f));
+		
+		check("Group.allIntersectingPairs", bruteForceSelfJoin(group1.getShapes()).equals(toSet(group1.allIntersectingPairs())));
+		check("Group.allIntersectingPairs between groups", bruteForceJoin(group1.getShapes(), group2.getShapes()).equals(toSet(FiniteProportionalHolomorphicShapeGroup.allIntersectingPairs(group1, group2))));
+		
+		for ( ForkJoinPool eachPool : pools ) {
+			eachPool.shutdown();
+		}
+		
+		System.out.println( ( failures == 0 ) ? "All checks passed" : failures + " checks failed");
+	}
+}
@@ -0,0 +1,196 @@
+/**
+ * Copyright (c) 2017 Ariel Favio Carrizo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'esferixis' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.esferixis.geometry.plane.finite;
+
+import java.util.Random;
+
+import com.esferixis.math.ProportionalMatrix3f;
+import com.esferixis.math.Vector2f;
+
+/**
+ * @author ariel
+ *
+ * Compara el instante de impacto de figuras convexas que rotan, se trasladan y cambian
+ * de escala con una referencia por muestreo y bisección de hasIntersection, aplicando
+ * la pose interpolada a las figuras en coordenadas locales.
+ * Verifica que el resultado nunca pase el primer contacto de la referencia, y que
+ * en el instante devuelto la distancia de GJK sea despreciable
+ */
+public class RotatingTimeOfImpactTest {
+	private static final int PAIRS = 6000;
+	private static final int SAMPLES = 1000;
+	private static final int BISECTION_STEPS = 40;
+	
+	/**
+	 * Separación máxima en el instante devuelto, y tolerancia del instante respecto de la referencia
+	 */
+	private static final float CONTACT_DISTANCE_TOLERANCE = 1e-3f;
+	private static final float TIME_TOLERANCE = 1e-4f;
+	
+	/**
+	 * Pose interpolada linealmente en traslación, ángulo y escala
+	 */
+	private static final class Motion {
+		private final float startScale, endScale;
+		private final float startAngle, angleDelta;
+		private final Vector2f startPosition, endPosition;
+		
+		/**
+		 * @post Crea un movimiento aleatorio que empieza en la posición especificada y se traslada
+		 * 		 con el desplazamiento especificado.
+		 * 		 La rotación es menor que media vuelta, así el camino más corto es el interpolado
+		 */
+		public Motion(Random random, Vector2f startPosition, Vector2f displacement) {
+			this.startScale = 0.8f + random.nextFloat() * 0.4f;
+			this.endScale = 0.8f + random.nextFloat() * 0.4f;
+			this.startAngle = ( random.nextFloat() * 2.0f - 1.0f ) * 3.0f;
+			this.angleDelta = ( random.nextFloat() * 2.0f - 1.0f ) * 3.0f;
+			this.startPosition = startPosition;
+			this.endPosition = startPosition.add(displacement);
+		}
+		
+		/**
+		 * @post Devuelve la pose en el instante especificado
+		 */
+		public ProportionalMatrix3f getPose(float time) {
+			final Vector2f position = this.startPosition.add(this.endPosition.sub(this.startPosition).scale(time));
+			
+			return new ProportionalMatrix3f(this.startScale + ( this.endScale - this.startScale ) * time, this.startAngle + this.angleDelta * time, position.getX(), position.getY());
+		}
+	}
+	
+	/**
+	 * @post Devuelve si las figuras, en las poses del instante especificado, tienen intersección
+	 */
+	private static boolean hasIntersectionAt(FiniteProportionalHolomorphicShape<?> shape1, Motion motion1, FiniteProportionalHolomorphicShape<?> shape2, Motion motion2, float time) {
+		return shape1.transform(motion1.getPose(time)).hasIntersection(shape2.transform(motion2.getPose(time)));
+	}
+	
+	/**
+	 * @post Devuelve el primer instante de contacto por muestreo y bisección,
+	 * 		 o null si no hay contacto en las muestras
+	 */
+	private static Float referenceTimeOfImpact(FiniteProportionalHolomorphicShape<?> shape1, Motion motion1, FiniteProportionalHolomorphicShape<?> shape2, Motion motion2) {
+		if ( hasIntersectionAt(shape1, motion1, shape2, motion2, 0.0f) ) {
+			return 0.0f;
+		}
+		
+		for ( int i = 1 ; i <= SAMPLES ; i++ ) {
+			final float time = (float) i / SAMPLES;
+			
+			if ( hasIntersectionAt(shape1, motion1, shape2, motion2, time) ) {
+				float min = (float) ( i - 1 ) / SAMPLES;
+				float max = time;
+				
+				for ( int j = 0 ; j < BISECTION_STEPS ; j++ ) {
+					final float middle = ( min + max ) * 0.5f;
+					
+					if ( hasIntersectionAt(shape1, motion1, shape2, motion2, middle) ) {
+						max = middle;
+					}
+					else {
+						min = middle;
+					}
+				}
+				
+				return max;
+			}
+		}
+		
+		return null;
+	}
+	
+	/**
+	 * @post Devuelve la distancia entre las figuras en las poses del instante especificado
+	 */
+	private static float separationAt(FiniteProportionalHolomorphicShape<?> shape1, Motion motion1, FiniteProportionalHolomorphicShape<?> shape2, Motion motion2, float time) {
+		final GJKSolver solver = new GJKSolver();
+		solver.compute((SupportMapping) shape1.transform(motion1.getPose(time)), (SupportMapping) shape2.transform(motion2.getPose(time)));
+		
+		return solver.getDistance();
+	}
+	
+	public static void main(String[] args) {
+		final Random random = new Random(22);
+		
+		int contactPairs = 0;
+		int failures = 0;
+		float maxEarlyStop = 0.0f;
+		float maxSeparation = 0.0f;
+		
+		for ( int i = 0 ; i < PAIRS ; i++ ) {
+			final FiniteProportionalHolomorphicShape<?> shape1 = TimeOfImpactTest.randomShape(random, new Vector2f(0.0f, 0.0f), true, false);
+			final FiniteProportionalHolomorphicShape<?> shape2 = TimeOfImpactTest.randomShape(random, new Vector2f(0.0f, 0.0f), true, false);
+			
+			final Motion motion1 = new Motion(random, new Vector2f(0.0f, 0.0f), new Vector2f(4.0f + random.nextFloat() * 4.0f, ( random.nextFloat() - 0.5f ) * 4.0f));
+			final Motion motion2 = new Motion(random, new Vector2f(4.0f + random.nextFloat() * 2.0f, ( random.nextFloat() - 0.5f ) * 4.0f), new Vector2f(( random.nextFloat() - 0.5f ) * 2.0f, ( random.nextFloat() - 0.5f ) * 2.0f));
+			
+			final TimeOfImpact timeOfImpact = shape1.timeOfImpact(motion1.getPose(0.0f), motion1.getPose(1.0f), shape2, motion2.getPose(0.0f), motion2.getPose(1.0f));
+			final Float referenceTime = referenceTimeOfImpact(shape1, motion1, shape2, motion2);
+			
+			String error = null;
+			
+			if ( referenceTime != null ) {
+				contactPairs++;
+				
+				if ( timeOfImpact == null ) {
+					error = "Missed contact at " + referenceTime;
+				}
+				else if ( timeOfImpact.getTime() > referenceTime + TIME_TOLERANCE ) {
+					error = "Past first contact: " + timeOfImpact.getTime() + " > " + referenceTime;
+				}
+				else {
+					maxEarlyStop = Math.max(maxEarlyStop, referenceTime - timeOfImpact.getTime());
+				}
+			}
+			
+			if ( ( error == null ) && ( timeOfImpact != null ) ) {
+				final float separation = separationAt(shape1, motion1, shape2, motion2, timeOfImpact.getTime());
+				maxSeparation = Math.max(maxSeparation, separation);
+				
+				if ( separation > CONTACT_DISTANCE_TOLERANCE ) {
+					error = "Stopped with separation " + separation + " at " + timeOfImpact.getTime();
+				}
+			}
+			
+			if ( error != null ) {
+				if ( failures++ < 10 ) {
+					System.out.println(error + ": " + shape1 + " against " + shape2);
+				}
+			}
+		}
+		
+		System.out.println(contactPairs + " pairs with contact, max early stop in time " + maxEarlyStop + ", max separation " + maxSeparation);
+		System.out.println( ( failures == 0 ) ? "OK" : "FAILED: " + failures + " mismatches");
+	}
+}
@@ -0,0 +1,282 @@
+/**
+ * Copyright (c) 2017 Ariel Favio Carrizo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'esferixis' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.esferixis.geometry.plane.finite;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.esferixis.math.Vector2f;
+import com.esferixis.math.intervalarithmetic.FloatClosedInterval;
+
+/**
+ * @author ariel
+ *
+ * Verifica que la simplificación de grupos no cambie el conjunto de puntos.
+ * Genera grupos aleatorios con segmentos sobre pocas rectas, arcos sobre pocas
+ * circunferencias, puntos y figuras degeneradas, y verifica con muestras que
+ * cada punto del grupo original esté en el simplificado y viceversa.
+ * También verifica que los segmentos cortos cerca de uno muy largo no se unan
+ */
+public class SimplifyTest {
+	private static final int GROUPS = 3000;
+	private static final int SAMPLES_PER_PIECE = 16;
+	
+	/**
+	 * Radio de las muestras
+	 */
+	private static final float SAMPLE_RADIUS = 1e-2f;
+	
+	private static int failures = 0;
+	
+	private static void check(String name, boolean condition) {
+		System.out.println( ( condition ? "OK     " : "FAILED " ) + name);
+		
+		if ( !condition ) {
+			failures++;
+		}
+	}
+	
+	/**
+	 * @post Agrega a la lista especificada las piezas de la figura especificada, aplanando los grupos
+	 */
+	private static void addPieces(FiniteProportionalHolomorphicShape<?> shape, List<FiniteProportionalHolomorphicShape<?>> pieces) {
+		if ( shape instanceof FiniteProportionalHolomorphicShapeGroup ) {
+			for ( FiniteProportionalHolomorphicShape<?> eachShape : ((FiniteProportionalHolomorphicShapeGroup<?>) shape).getShapes() ) {
+				addPieces(eachShape, pieces);
+			}
+		}
+		else {
+			pieces.add(shape);
+		}
+	}
+	
+	/**
+	 * @post Agrega a la lista especificada muestras de la pieza especificada,
+	 * 		 incluyendo sus extremos
+	 */
+	private static void addSamples(FiniteProportionalHolomorphicShape<?> piece, Random random, List<Vector2f> samples) {
+		if ( piece instanceof Point ) {
+			samples.add(((Point) piece).getPosition());
+		}
+		else if ( piece instanceof LineSegment ) {
+			final LineSegment segment = (LineSegment) piece;
+			
+			for ( int i = 0 ; i <= SAMPLES_PER_PIECE ; i++ ) {
+				final float t = ( i == 0 ) ? 0.0f : ( ( i == SAMPLES_PER_PIECE ) ? 1.0f : random.nextFloat() );
+				samples.add(segment.getPoint1().add(segment.getVector12().scale(t)));
+			}
+		}
+		else if ( piece instanceof CircumferenceSegment ) {
+			final CircumferenceSegment arc = (CircumferenceSegment) piece;
+			final FloatClosedInterval angleInterval = arc.getAngleInterval();
+			
+			for ( int i = 0 ; i <= SAMPLES_PER_PIECE ; i++ ) {
+				final float t = ( i == 0 ) ? 0.0f : ( ( i == SAMPLES_PER_PIECE ) ? 1.0f : random.nextFloat() );
+				samples.add(arc.getCircumference().getPointWithAngle(angleInterval.getMin() + ( angleInterval.getMax() - angleInterval.getMin() ) * t));
+			}
+		}
+		else if ( piece instanceof Circumference ) {
+			for ( int i = 0 ; i < SAMPLES_PER_PIECE ; i++ ) {
+				samples.add(((Circumference) piece).getPointWithAngle(random.nextFloat() * 2.0f * (float) Math.PI));
+			}
+		}
+		else if ( piece instanceof ClosedSurface ) {
+			samples.add(piece.getInnerPoint());
+			addSamples(((ClosedSurface<?>) piece).getPerimeter(), random, samples);
+		}
+		else {
+			final List<FiniteProportionalHolomorphicShape<?>> pieces = new ArrayList<FiniteProportionalHolomorphicShape<?>>();
+			addPieces(piece, pieces);
+			
+			for ( FiniteProportionalHolomorphicShape<?> eachPiece : pieces ) {
+				addSamples(eachPiece, random, samples);
+			}
+		}
+	}
+	
+	/**
+	 * @post Devuelve si todas las muestras de la primera figura están cerca de alguna pieza de la segunda.
+	 * 		 Se prueba pieza por pieza porque el test de intersección entre una superficie cerrada
+	 * 		 y un grupo supone que el grupo es conexo
+	 */
+	private static boolean isCoveredBy(FiniteProportionalHolomorphicShape<?> shape, FiniteProportionalHolomorphicShape<?> otherShape, Random random) {
+		final List<Vector2f> samples = new ArrayList<Vector2f>();
+		addSamples(shape, random, samples);
+		
+		final List<FiniteProportionalHolomorphicShape<?>> otherPieces = new ArrayList<FiniteProportionalHolomorphicShape<?>>();
+		addPieces(otherShape, otherPieces);
+		
+		for ( Vector2f eachSample : samples ) {
+			final Circle sampleCircle = new Circle(new Circumference(eachSample, SAMPLE_RADIUS));
+			boolean covered = false;
+			
+			for ( int i = 0 ; ( i < otherPieces.size() ) && ( !covered ) ; i++ ) {
+				covered = sampleCircle.hasIntersection(otherPieces.get(i));
+			}
+			
+			if ( !covered ) {
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * @post Devuelve un grupo aleatorio
+	 */
+	private static FiniteProportionalHolomorphicShapeGroup<FiniteProportionalHolomorphicShape<?>> randomGroup(Random random) {
+		final List<FiniteProportionalHolomorphicShape<?>> shapes = new ArrayList<FiniteProportionalHolomorphicShape<?>>();
+		
+		final int lines = 1 + random.nextInt(3);
+		for ( int i = 0 ; i < lines ; i++ ) {
+			final Vector2f origin = new Vector2f( ( random.nextFloat() - 0.5f ) * 10.0f, ( random.nextFloat() - 0.5f ) * 10.0f);
+			final float angle = random.nextFloat() * 2.0f * (float) Math.PI;
+			final Vector2f direction = new Vector2f((float) Math.cos(angle), (float) Math.sin(angle));
+			
+			final int segments = 1 + random.nextInt(6);
+			for ( int j = 0 ; j < segments ; j++ ) {
+				final float t1 = random.nextInt(8) * 0.5f;
+				final float t2 = ( random.nextInt(5) == 0 ) ? t1 : t1 + 0.5f + random.nextInt(4) * 0.5f;
+				
+				// Extremos en cualquier orden
+				if ( random.nextBoolean() ) {
+					shapes.add(new LineSegment(origin.add(direction.scale(t1)), origin.add(direction.scale(t2))));
+				}
+				else {
+					shapes.add(new LineSegment(origin.add(direction.scale(t2)), origin.add(direction.scale(t1))));
+				}
+			}
+		}
+		
+		final Circumference circumference = new Circumference(new Vector2f( ( random.nextFloat() - 0.5f ) * 10.0f, ( random.nextFloat() - 0.5f ) * 10.0f), 0.5f + random.nextFloat() * 2.0f);
+		
+		final int arcs = random.nextInt(6);
+		for ( int i = 0 ; i < arcs ; i++ ) {
+			final float min = ( random.nextInt(16) - 8 ) * 0.5f;
+			final float max = ( random.nextInt(5) == 0 ) ? min : min + random.nextInt(8) * 0.5f;
+			
+			shapes.add(new CircumferenceSegment(circumference, new FloatClosedInterval(min, max)));
+		}
+		
+		if ( random.nextInt(4) == 0 ) {
+			shapes.add(circumference);
+		}
+		
+		if ( random.nextInt(3) == 0 ) {
+			shapes.add(new Circle(new Circumference(circumference.getCenter(), random.nextFloat() * 1.5f)));
+		}
+		
+		if ( random.nextInt(4) == 0 ) {
+			final Vector2f center = new Vector2f( ( random.nextFloat() - 0.5f ) * 10.0f, ( random.nextFloat() - 0.5f ) * 10.0f);
+			shapes.add(new SolidCapsule(new LineSegment(center, center.add(new Vector2f(1.0f, 0.5f))), ( random.nextInt(3) == 0 ) ? 0.05f : 0.3f));
+		}
+		
+		// Puntos sueltos, sobre otras piezas y duplicados
+		final int points = random.nextInt(5);
+		for ( int i = 0 ; i < points ; i++ ) {
+			if ( random.nextBoolean() && !shapes.isEmpty() ) {
+				shapes.add(new Point(shapes.get(random.nextInt(shapes.size())).getInnerPoint()));
+			}
+			else {
+				shapes.add(new Point(new Vector2f( ( random.nextFloat() - 0.5f ) * 10.0f, ( random.nextFloat() - 0.5f ) * 10.0f)));
+			}
+		}
+		
+		if ( random.nextInt(4) == 0 ) {
+			shapes.add(shapes.get(random.nextInt(shapes.size())));
+		}
+		
+		if ( random.nextInt(4) == 0 ) {
+			final int split = random.nextInt(shapes.size() + 1);
+			final List<FiniteProportionalHolomorphicShape<?>> nestedShapes = new ArrayList<FiniteProportionalHolomorphicShape<?>>(shapes.subList(split, shapes.size()));
+			
+			if ( !nestedShapes.isEmpty() ) {
+				shapes.subList(split, shapes.size()).clear();
+				shapes.add(new FiniteProportionalHolomorphicShapeGroup<FiniteProportionalHolomorphicShape<?>>(nestedShapes));
+			}
+		}
+		
+		return new FiniteProportionalHolomorphicShapeGroup<FiniteProportionalHolomorphicShape<?>>(shapes);
+	}
+	
+	public static void main(String[] args) {
+		final Random random = new Random(16);
+		
+		// Segmentos cortos paralelos, y colineales con un hueco, cerca de un segmento muy largo
+		final FiniteProportionalHolomorphicShapeGroup<FiniteProportionalHolomorphicShape<?>> wallGroup = new FiniteProportionalHolomorphicShapeGroup<FiniteProportionalHolomorphicShape<?>>(
+				new LineSegment(new Vector2f(-1e6f, 0.0f), new Vector2f(1e6f, 0.0f)),
+				new LineSegment(new Vector2f(0.0f, 10.0f), new Vector2f(1.0f, 10.0f)),
+				new LineSegment(new Vector2f(0.5f, 10.5f), new Vector2f(2.0f, 10.5f)),
+				new LineSegment(new Vector2f(3.0f, 20.0f), new Vector2f(4.0f, 20.0f)),
+				new LineSegment(new Vector2f(4.5f, 20.0f), new Vector2f(5.0f, 20.0f))
+		);
+		
+		final FiniteProportionalHolomorphicShape<?> simplifiedWallGroup = wallGroup.simplify();
+		final List<FiniteProportionalHolomorphicShape<?>> wallPieces = new ArrayList<FiniteProportionalHolomorphicShape<?>>();
+		addPieces(simplifiedWallGroup, wallPieces);
+		
+		check("Short parallel segments near a long wall stay apart", wallPieces.size() == 5);
+		check("Parallel segments near a long wall are not joined", !simplifiedWallGroup.hasIntersection(new Point(new Vector2f(0.5f, 10.25f))));
+		check("The gap between collinear segments near a long wall is kept", !simplifiedWallGroup.hasIntersection(new Point(new Vector2f(4.25f, 20.0f))));
+		
+		// Grupos aleatorios
+		int mismatches = 0;
+		int originalPieces = 0, simplifiedPieces = 0;
+		
+		for ( int i = 0 ; i < GROUPS ; i++ ) {
+			final FiniteProportionalHolomorphicShapeGroup<FiniteProportionalHolomorphicShape<?>> group = randomGroup(random);
+			final FiniteProportionalHolomorphicShape<?> simplified = group.simplify();
+			
+			final List<FiniteProportionalHolomorphicShape<?>> pieces = new ArrayList<FiniteProportionalHolomorphicShape<?>>();
+			addPieces(group, pieces);
+			originalPieces += pieces.size();
+			
+			pieces.clear();
+			addPieces(simplified, pieces);
+			simplifiedPieces += pieces.size();
+			
+			if ( !isCoveredBy(group, simplified, random) || !isCoveredBy(simplified, group, random) ) {
+				if ( mismatches++ < 10 ) {
+					System.out.println(group + " simplified to " + simplified);
+				}
+			}
+		}
+		
+		System.out.println(GROUPS + " groups, " + originalPieces + " pieces simplified to " + simplifiedPieces);
+		check("Simplified groups cover the same points", mismatches == 0);
+		
+		System.out.println( ( failures == 0 ) ? "All checks passed" : failures + " checks failed");
+	}
+}
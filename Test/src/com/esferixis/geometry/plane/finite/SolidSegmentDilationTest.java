@@ -0,0 +1,132 @@
+/**
+ * Copyright (c) 2017 Ariel Favio Carrizo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'esferixis' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.esferixis.geometry.plane.finite;
+
+import java.util.Random;
+
+import com.esferixis.geometry.plane.Line;
+import com.esferixis.math.Vector2f;
+
+/**
+ * @author ariel
+ *
+ * Verifica que con la dilatación sólida de segmentos habilitada la dilatación perimetral de
+ * dos segmentos sea un único polígono convexo, que contiene el interior del paralelogramo, y
+ * que desde los puntos exteriores los rayos y las distancias coincidan con los del perímetro
+ */
+public class SolidSegmentDilationTest {
+	private static final int PAIRS = 20000;
+	
+	private static int failures = 0;
+	
+	private static void check(String name, boolean condition) {
+		System.out.println( ( condition ? "OK     " : "FAILED " ) + name);
+		
+		if ( !condition ) {
+			failures++;
+		}
+	}
+	
+	private static Vector2f randomVector(Random random) {
+		return new Vector2f(random.nextFloat() * 10.0f - 5.0f, random.nextFloat() * 10.0f - 5.0f);
+	}
+	
+	private static boolean nearlyEquals(float value1, float value2) {
+		return ( Float.isNaN(value1) && Float.isNaN(value2) ) || ( Math.abs(value1 - value2) <= 1e-3f * ( 1.0f + Math.abs(value1) ) );
+	}
+	
+	public static void main(String[] args) {
+		final LineSegment segment1 = new LineSegment(new Vector2f(0.0f, 0.0f), new Vector2f(2.0f, 0.0f));
+		final LineSegment segment2 = new LineSegment(new Vector2f(0.0f, 0.0f), new Vector2f(0.0f, 2.0f));
+		
+		check("The perimeter mode is the default", !FiniteProportionalHolomorphicShape.isSolidSegmentDilationEnabled());
+		
+		final FiniteProportionalHolomorphicShape<?> perimeter = segment1.perimetralDilate(segment2);
+		
+		check("The perimeter mode returns a group", perimeter instanceof FiniteProportionalHolomorphicShapeGroup);
+		check("The perimeter mode excludes the interior", !perimeter.contains(new Vector2f(1.0f, 1.0f)));
+		
+		FiniteProportionalHolomorphicShape.setSolidSegmentDilationEnabled(true);
+		
+		final FiniteProportionalHolomorphicShape<?> solid = segment1.perimetralDilate(segment2);
+		
+		check("The solid mode returns a convex polygon", solid instanceof ConvexPolygon);
+		check("The solid mode includes the interior", solid.contains(new Vector2f(1.0f, 1.0f)));
+		check("The solid mode includes the perimeter", solid.contains(new Vector2f(2.0f, 1.0f)));
+		
+		// Pares aleatorios, con segmentos degenerados y paralelos
+		final Random random = new Random(18);
+		int mismatches = 0, exteriorPoints = 0;
+		
+		for ( int i = 0 ; i < PAIRS ; i++ ) {
+			final Vector2f point11 = randomVector(random);
+			final Vector2f point12 = ( i % 3 == 0 ) ? point11 : randomVector(random);
+			final Vector2f point21 = randomVector(random);
+			final Vector2f point22 = ( i % 4 == 0 ) ? point21.add(point12.sub(point11).scale(random.nextFloat() * 2.0f - 1.0f)) : randomVector(random);
+			
+			final LineSegment eachSegment1 = new LineSegment(point11, point12);
+			final LineSegment eachSegment2 = new LineSegment(point21, point22);
+			
+			FiniteProportionalHolomorphicShape.setSolidSegmentDilationEnabled(false);
+			final FiniteProportionalHolomorphicShape<?> eachPerimeter = eachSegment1.perimetralDilate(eachSegment2);
+			
+			FiniteProportionalHolomorphicShape.setSolidSegmentDilationEnabled(true);
+			final FiniteProportionalHolomorphicShape<?> eachSolid = eachSegment1.perimetralDilate(eachSegment2);
+			
+			final Vector2f origin = randomVector(random);
+			
+			if ( !( eachSolid instanceof ConvexPolygon ) ) {
+				mismatches++;
+			}
+			else if ( !eachSolid.contains(origin) ) {
+				final Line ray = new Line(origin, randomVector(random));
+				
+				exteriorPoints++;
+				
+				if ( !nearlyEquals(eachPerimeter.getRayIntersectionParameter(ray), eachSolid.getRayIntersectionParameter(ray)) ||
+						!nearlyEquals(eachPerimeter.translate(origin.opposite()).minDistanceToOrigin(), eachSolid.translate(origin.opposite()).minDistanceToOrigin()) ) {
+					if ( mismatches++ < 10 ) {
+						System.out.println(eachSegment1 + " " + eachSegment2 + " from " + origin);
+					}
+				}
+			}
+		}
+		
+		FiniteProportionalHolomorphicShape.setSolidSegmentDilationEnabled(false);
+		
+		System.out.println(PAIRS + " pairs, " + exteriorPoints + " exterior points");
+		check("Rays and distances from exterior points match the perimeter", mismatches == 0);
+		
+		System.out.println( ( failures == 0 ) ? "All checks passed" : failures + " checks failed");
+	}
+}
@@ -0,0 +1,252 @@
+/**
+ * Copyright (c) 2017 Ariel Favio Carrizo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * * Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright
+ *   notice, this list of conditions and the following disclaimer in the
+ *   documentation and/or other materials provided with the distribution.
+ *
+ * * Neither the name of 'esferixis' nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.esferixis.geometry.plane.finite;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import com.esferixis.math.Vector2f;
+import com.esferixis.math.intervalarithmetic.FloatClosedInterval;
+
+/**
+ * @author ariel
+ *
+ * Compara el instante de impacto de figuras que se trasladan con una referencia
+ * por muestreo y bisección de hasIntersection.
+ * Verifica que el resultado nunca pase el primer contacto de la referencia, y que
+ * en el instante devuelto la separación sea despreciable.
+ * Para las figuras convexas la separación es la distancia de GJK, para las demás
+ * se verifica que haya contacto avanzando una distancia despreciable
+ */
+public class TimeOfImpactTest {
+	private static final int PAIRS = 12000;
+	private static final int SAMPLES = 2000;
+	private static final int BISECTION_STEPS = 40;
+	
+	/**
+	 * Separación máxima en el instante devuelto, cantidad de muestras para el avance
+	 * hasta el contacto, y tolerancia del instante respecto de la referencia
+	 */
+	private static final float CONTACT_DISTANCE_TOLERANCE = 1e-3f;
+	private static final int CONTACT_SAMPLES = 16;
+	private static final float TIME_TOLERANCE = 1e-4f;
+	
+	/**
+	 * @post Devuelve un polígono convexo aleatorio, con los vértices sobre una circunferencia
+	 * 		 en sentido antihorario
+	 */
+	private static ConvexPolygon randomPolygon(Random random, Vector2f center, float radius) {
+		final int vertexCount = 3 + random.nextInt(8);
+		final float[] angles = new float[vertexCount];
+		
+		for ( int i = 0 ; i < vertexCount ; i++ ) {
+			angles[i] = random.nextFloat() * 2.0f * (float) Math.PI;
+		}
+		Arrays.sort(angles);
+		
+		final Vector2f[] vertices = new Vector2f[vertexCount];
+		for ( int i = 0 ; i < vertexCount ; i++ ) {
+			vertices[i] = center.add(new Vector2f(radius * (float) Math.cos(angles[i]), radius * (float) Math.sin(angles[i])));
+		}
+		
+		return new ConvexPolygon(vertices);
+	}
+	
+	/**
+	 * @post Devuelve una figura aleatoria con el centro especificado.
+	 * 		 Si es convexa tiene función de soporte, si no se calcula con la dilatación.
+	 * 		 Los puntos sólo tocan a las curvas en instantes aislados, que el muestreo
+	 * 		 no puede encontrar, por eso sólo se generan si se especifica
+	 */
+	static FiniteProportionalHolomorphicShape<?> randomShape(Random random, Vector2f center, boolean convex, boolean allowPoint) {
+		final float size = 0.3f + random.nextFloat() * 1.5f;
+		
+		if ( convex ) {
+			switch ( allowPoint ? random.nextInt(5) : 1 + random.nextInt(4) ) {
+			case 0:
+				return new Point(center);
+			case 1:
+				return new LineSegment(center.sub(new Vector2f(size, random.nextFloat() - 0.5f)), center.add(new Vector2f(size, random.nextFloat() - 0.5f)));
+			case 2:
+				return new Circle(new Circumference(center, size));
+			case 3:
+				return new SolidCapsule(new LineSegment(center.sub(new Vector2f(random.nextFloat() - 0.5f, size)), center.add(new Vector2f(random.nextFloat() - 0.5f, size))), size * 0.3f);
+			default:
+				return randomPolygon(random, center, size);
+			}
+		}
+		else {
+			switch ( random.nextInt(3) ) {
+			case 0:
+				return new Circumference(center, size);
+			case 1:
+				final float startAngle = random.nextFloat() * 2.0f * (float) Math.PI;
+				
+				return new CircumferenceSegment(new Circumference(center, size), new FloatClosedInterval(startAngle, startAngle + 0.5f + random.nextFloat() * 4.0f));
+			default:
+				return new FiniteProportionalHolomorphicShapeGroup<FiniteProportionalHolomorphicShape<?>>(
+						randomShape(random, center.add(new Vector2f(-size, 0.0f)), true, false),
+						randomShape(random, center.add(new Vector2f(size, 0.0f)), true, false)
+				);
+			}
+		}
+	}
+	
+	/**
+	 * @post Devuelve si la figura que se mueve, trasladada en el instante especificado,
+	 * 		 tiene intersección con la otra figura
+	 */
+	private static boolean hasIntersectionAt(FiniteProportionalHolomorphicShape<?> movingShape, FiniteProportionalHolomorphicShape<?> otherShape, Vector2f displacement, float time) {
+		return movingShape.translate(displacement.scale(time)).hasIntersection(otherShape);
+	}
+	
+	/**
+	 * @post Devuelve el primer instante de contacto por muestreo y bisección,
+	 * 		 o null si no hay contacto en las muestras
+	 */
+	private static Float referenceTimeOfImpact(FiniteProportionalHolomorphicShape<?> movingShape, FiniteProportionalHolomorphicShape<?> otherShape, Vector2f displacement) {
+		if ( hasIntersectionAt(movingShape, otherShape, displacement, 0.0f) ) {
+			return 0.0f;
+		}
+		
+		for ( int i = 1 ; i <= SAMPLES ; i++ ) {
+			final float time = (float) i / SAMPLES;
+			
+			if ( hasIntersectionAt(movingShape, otherShape, displacement, time) ) {
+				float min = (float) ( i - 1 ) / SAMPLES;
+				float max = time;
+				
+				for ( int j = 0 ; j < BISECTION_STEPS ; j++ ) {
+					final float middle = ( min + max ) * 0.5f;
+					
+					if ( hasIntersectionAt(movingShape, otherShape, displacement, middle) ) {
+						max = middle;
+					}
+					else {
+						min = middle;
+					}
+				}
+				
+				return max;
+			}
+		}
+		
+		return null;
+	}
+	
+	/**
+	 * @post Devuelve si hay contacto avanzando desde el instante especificado hasta la distancia especificada
+	 */
+	static boolean hasContactWithin(FiniteProportionalHolomorphicShape<?> movingShape, FiniteProportionalHolomorphicShape<?> otherShape, Vector2f displacement, float time, float distance) {
+		final float timeDelta = distance / displacement.length();
+		
+		for ( int i = 0 ; i <= CONTACT_SAMPLES ; i++ ) {
+			if ( hasIntersectionAt(movingShape, otherShape, displacement, time + timeDelta * i / CONTACT_SAMPLES) ) {
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * @pre Las figuras tienen función de soporte
+	 * @post Devuelve la distancia entre la figura que se mueve, trasladada en el instante
+	 * 		 especificado, y la otra figura
+	 */
+	private static float separationAt(FiniteProportionalHolomorphicShape<?> movingShape, FiniteProportionalHolomorphicShape<?> otherShape, Vector2f displacement, float time) {
+		final GJKSolver solver = new GJKSolver();
+		solver.compute((SupportMapping) movingShape.translate(displacement.scale(time)), (SupportMapping) otherShape);
+		
+		return solver.getDistance();
+	}
+	
+	public static void main(String[] args) {
+		final Random random = new Random(21);
+		
+		int contactPairs = 0;
+		int failures = 0;
+		float maxEarlyStop = 0.0f;
+		float maxSeparation = 0.0f;
+		
+		for ( int i = 0 ; i < PAIRS ; i++ ) {
+			final boolean convex = ( i % 2 == 0 );
+			final FiniteProportionalHolomorphicShape<?> otherShape = randomShape(random, new Vector2f(4.0f + random.nextFloat() * 4.0f, ( random.nextFloat() - 0.5f ) * 6.0f), convex || random.nextBoolean(), false);
+			final FiniteProportionalHolomorphicShape<?> movingShape = randomShape(random, new Vector2f(0.0f, 0.0f), convex, otherShape instanceof Surface);
+			final Vector2f displacement = new Vector2f(6.0f + random.nextFloat() * 6.0f, ( random.nextFloat() - 0.5f ) * 6.0f);
+			final float displacementLength = displacement.length();
+			
+			final TimeOfImpact timeOfImpact = movingShape.timeOfImpact(otherShape, displacement);
+			final Float referenceTime = referenceTimeOfImpact(movingShape, otherShape, displacement);
+			
+			String error = null;
+			
+			if ( referenceTime != null ) {
+				contactPairs++;
+				
+				if ( timeOfImpact == null ) {
+					error = "Missed contact at " + referenceTime;
+				}
+				else if ( timeOfImpact.getTime() > referenceTime + TIME_TOLERANCE ) {
+					error = "Past first contact: " + timeOfImpact.getTime() + " > " + referenceTime;
+				}
+				else {
+					maxEarlyStop = Math.max(maxEarlyStop, ( referenceTime - timeOfImpact.getTime() ) * displacementLength);
+				}
+			}
+			
+			if ( ( error == null ) && ( timeOfImpact != null ) ) {
+				if ( ( movingShape instanceof SupportMapping ) && ( otherShape instanceof SupportMapping ) ) {
+					final float separation = separationAt(movingShape, otherShape, displacement, timeOfImpact.getTime());
+					maxSeparation = Math.max(maxSeparation, separation);
+					
+					if ( separation > CONTACT_DISTANCE_TOLERANCE ) {
+						error = "Stopped with separation " + separation + " at " + timeOfImpact.getTime();
+					}
+				}
+				else if ( !hasContactWithin(movingShape, otherShape, displacement, timeOfImpact.getTime(), CONTACT_DISTANCE_TOLERANCE) ) {
+					error = "Stopped more than " + CONTACT_DISTANCE_TOLERANCE + " before contact at " + timeOfImpact.getTime();
+				}
+			}
+			
+			if ( error != null ) {
+				if ( failures++ < 10 ) {
+					System.out.println(error + ": " + movingShape + " moving by " + displacement + " against " + otherShape);
+				}
+			}
+		}
+		
+		System.out.println(contactPairs + " pairs with contact, max early stop along the displacement " + maxEarlyStop + ", max convex separation " + maxSeparation);
+		System.out.println( ( failures == 0 ) ? "OK" : "FAILED: " + failures + " mismatches");
+	}
+}